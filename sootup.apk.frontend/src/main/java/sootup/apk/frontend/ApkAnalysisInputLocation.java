@@ -6,11 +6,13 @@ import java.util.*;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.jf.dexlib2.iface.ClassDef;
 import org.jf.dexlib2.iface.DexFile;
 import sootup.apk.frontend.Util.*;
 import sootup.apk.frontend.dexpler.DexClassProvider;
 import sootup.apk.frontend.dexpler.DexFileProvider;
 import sootup.apk.frontend.main.AndroidVersionInfo;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.ClassModifier;
@@ -42,28 +44,30 @@ public class ApkAnalysisInputLocation implements AnalysisInputLocation {
     this.classNamesList = extractDexFilesFromPath();
   }
 
-  private Map<String, EnumSet<ClassModifier>> extractDexFilesFromPath() {
-    List<DexFileProvider.DexContainer<? extends DexFile>> dexFromSource;
+  private List<DexFileProvider.DexContainer<? extends DexFile>> getDexContainers() {
     DexUtil.setAndroidVersionInfo(androidSDKVersionInfo);
     try {
-      dexFromSource =
-          DexFileProvider.getInstance()
-              .getDexFromSource(apk_path.toFile(), androidSDKVersionInfo.getApi_version());
+      return DexFileProvider.getInstance()
+          .getDexFromSource(apk_path.toFile(), androidSDKVersionInfo.getApi_version());
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
+  }
+
+  private Map<String, EnumSet<ClassModifier>> extractDexFilesFromPath() {
     Map<String, EnumSet<ClassModifier>> classList = new HashMap<>();
-    dexFromSource.forEach(
-        dexContainer ->
-            dexContainer
-                .getBase()
-                .getDexFile()
-                .getClasses()
-                .forEach(
-                    dexClass ->
-                        classList.put(
-                            DexUtil.dottedClassName(dexClass.toString()),
-                            Modifiers.getClassModifiers(dexClass.getAccessFlags()))));
+    getDexContainers()
+        .forEach(
+            dexContainer ->
+                dexContainer
+                    .getBase()
+                    .getDexFile()
+                    .getClasses()
+                    .forEach(
+                        dexClass ->
+                            classList.put(
+                                DexUtil.dottedClassName(dexClass.toString()),
+                                Modifiers.getClassModifiers(dexClass.getAccessFlags()))));
     return classList;
   }
 
@@ -92,6 +96,31 @@ public class ApkAnalysisInputLocation implements AnalysisInputLocation {
         .collect(Collectors.toList());
   }
 
+  /** Reads the headers directly from the <code>ClassDef</code>s of the dex files. */
+  @Nonnull
+  @Override
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    Map<String, ClassHeader> classHeaders = new HashMap<>();
+    for (DexFileProvider.DexContainer<? extends DexFile> dexContainer : getDexContainers()) {
+      for (ClassDef classDef : dexContainer.getBase().getDexFile().getClasses()) {
+        String className = DexUtil.dottedClassName(classDef.getType());
+        String superclass = classDef.getSuperclass();
+        classHeaders.put(
+            className,
+            new ClassHeader(
+                view.getIdentifierFactory().getClassType(className),
+                Modifiers.getClassModifiers(classDef.getAccessFlags()),
+                superclass == null || superclass.isEmpty()
+                    ? null
+                    : DexUtil.stringToJimpleType(view, superclass),
+                classDef.getInterfaces().stream()
+                    .map(anInterface -> DexUtil.stringToJimpleType(view, anInterface))
+                    .collect(Collectors.toSet())));
+      }
+    }
+    return classHeaders.values();
+  }
+
   @Nullable
   @Override
   public SourceType getSourceType() {
@@ -0,0 +1,68 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.model.SootMethod;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures the conversion of bytecode into Jimple by {@code AsmMethodSource.resolveBody} without
+ * any {@code BodyInterceptor}. One operation converts every concrete method of the library.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AsmMethodSourceBenchmark {
+
+  @Param({BenchmarkResources.JAVAX_JSON, BenchmarkResources.SLF4J})
+  public String library;
+
+  private List<SootMethod> methods;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    JavaView view = BenchmarkResources.createView(library, Collections.emptyList());
+    methods =
+        view.getClasses()
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public void resolveBody(Blackhole blackhole) throws IOException {
+    for (SootMethod method : methods) {
+      blackhole.consume(method.getBodySource().resolveBody(method.getModifiers()));
+    }
+  }
+}
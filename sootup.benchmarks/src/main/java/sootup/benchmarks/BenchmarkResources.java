@@ -0,0 +1,116 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Locates the benchmarked programs in shared-test-resources and creates views for them. */
+final class BenchmarkResources {
+
+  /** overrides the location of the shared-test-resources directory */
+  static final String RESOURCES_PROPERTY = "sootup.benchmarks.resources";
+
+  /**
+   * the runtime library (e.g. a Java 8 rt.jar) used instead of the runtime of the executing JVM.
+   * Qilin models classes of the Java 8 runtime, so it requires a Java 8 runtime.
+   */
+  static final String JRE_PROPERTY = "sootup.benchmarks.jre";
+
+  /** the libraries whose bodies are resolved, intercepted and printed */
+  static final String JAVAX_JSON = "jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar";
+
+  static final String SLF4J = "jigsaw-examples/automatic-module-logging/jar/slf4j-api-1.7.12.jar";
+
+  /** an application with a main method for the whole program analyses */
+  static final String MINI_APP = "java-miniapps/MiniApp.jar";
+
+  static final String MINI_APP_MAIN_CLASS = "MiniApp";
+
+  private BenchmarkResources() {}
+
+  @Nonnull
+  static Path resolve(@Nonnull String resource) {
+    Path resourceDir =
+        Optional.ofNullable(System.getProperty(RESOURCES_PROPERTY))
+            .map(Paths::get)
+            .orElseGet(BenchmarkResources::findResourceDir);
+    Path path = resourceDir.resolve(resource);
+    if (!Files.exists(path)) {
+      throw new IllegalStateException(
+          path + " does not exist. Set -D" + RESOURCES_PROPERTY + " to shared-test-resources.");
+    }
+    return path;
+  }
+
+  /** the benchmarks are usually started from the repository or the module directory */
+  @Nonnull
+  private static Path findResourceDir() {
+    for (String candidate : Arrays.asList("shared-test-resources", "../shared-test-resources")) {
+      Path path = Paths.get(candidate);
+      if (Files.isDirectory(path)) {
+        return path;
+      }
+    }
+    return Paths.get("../shared-test-resources");
+  }
+
+  /** creates a view on the given library which applies the given interceptors to every body */
+  @Nonnull
+  static JavaView createView(
+      @Nonnull String resource, @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    return new JavaView(
+        new JavaClassPathAnalysisInputLocation(
+            resolve(resource).toString(), SourceType.Application, bodyInterceptors));
+  }
+
+  /**
+   * creates a view on the given application including the runtime given by {@link #JRE_PROPERTY}
+   * or else the runtime of the executing JVM
+   */
+  @Nonnull
+  static JavaView createViewWithRuntime(@Nonnull String resource) {
+    List<AnalysisInputLocation> inputLocations = new ArrayList<>();
+    inputLocations.add(new JavaClassPathAnalysisInputLocation(resolve(resource).toString()));
+    String jre = System.getProperty(JRE_PROPERTY);
+    if (jre == null) {
+      inputLocations.add(new DefaultRuntimeAnalysisInputLocation());
+    } else {
+      inputLocations.add(new JavaClassPathAnalysisInputLocation(jre, SourceType.Library));
+    }
+    return new JavaView(Collections.unmodifiableList(inputLocations));
+  }
+}
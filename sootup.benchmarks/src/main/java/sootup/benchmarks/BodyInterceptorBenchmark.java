@@ -0,0 +1,113 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.transform.BodyInterceptor;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures each {@link BodyInterceptor} of {@link BytecodeBodyInterceptors#Default} separately.
+ * Every interceptor is applied to bodies that were already processed by the interceptors preceding
+ * it in the chain, i.e. it sees the same input as during the regular body resolution. One
+ * operation copies and intercepts every body of the library; {@link #copyBody} measures the copying
+ * alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BodyInterceptorBenchmark {
+
+  @Param({BenchmarkResources.JAVAX_JSON, BenchmarkResources.SLF4J})
+  public String library;
+
+  @Param({
+    "NopEliminator",
+    "EmptySwitchEliminator",
+    "CastAndReturnInliner",
+    "LocalSplitter",
+    "Aggregator",
+    "CopyPropagator",
+    "ConstantPropagatorAndFolder",
+    "TypeAssigner"
+  })
+  public String interceptor;
+
+  private BodyInterceptor bodyInterceptor;
+  private JavaView view;
+  private List<SootMethod> methods;
+  private List<Body> bodies;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    List<BodyInterceptor> precedingInterceptors = new ArrayList<>();
+    for (BodyInterceptor candidate : BytecodeBodyInterceptors.Default.getBodyInterceptors()) {
+      if (candidate.getClass().getSimpleName().equals(interceptor)) {
+        bodyInterceptor = candidate;
+        break;
+      }
+      precedingInterceptors.add(candidate);
+    }
+    if (bodyInterceptor == null) {
+      throw new IllegalArgumentException(interceptor + " is not a default interceptor.");
+    }
+
+    view = BenchmarkResources.createView(library, precedingInterceptors);
+    methods = new ArrayList<>();
+    bodies = new ArrayList<>();
+    view.getClasses()
+        .flatMap(sootClass -> sootClass.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .forEach(
+            method -> {
+              methods.add(method);
+              bodies.add(method.getBody());
+            });
+  }
+
+  @Benchmark
+  public void interceptBody(Blackhole blackhole) {
+    for (int i = 0; i < bodies.size(); i++) {
+      Body.BodyBuilder builder = Body.builder(bodies.get(i), methods.get(i).getModifiers());
+      bodyInterceptor.interceptBody(builder, view);
+      blackhole.consume(builder);
+    }
+  }
+
+  @Benchmark
+  public void copyBody(Blackhole blackhole) {
+    for (int i = 0; i < bodies.size(); i++) {
+      blackhole.consume(Body.builder(bodies.get(i), methods.get(i).getModifiers()));
+    }
+  }
+}
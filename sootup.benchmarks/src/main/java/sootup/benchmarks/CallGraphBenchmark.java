@@ -0,0 +1,85 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.CallGraphAlgorithm;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures {@code initialize()} of the call graph algorithms starting at the main method of an
+ * application including the runtime of the executing JVM. The classes and bodies are loaded during
+ * the setup, so only the algorithm itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CallGraphBenchmark {
+
+  @Param({"CHA", "RTA"})
+  public String algorithm;
+
+  private JavaView view;
+  private List<MethodSignature> entryPoints;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    view = BenchmarkResources.createViewWithRuntime(BenchmarkResources.MINI_APP);
+    ClassType mainClass =
+        view.getIdentifierFactory().getClassType(BenchmarkResources.MINI_APP_MAIN_CLASS);
+    entryPoints =
+        Collections.singletonList(
+            view.getIdentifierFactory()
+                .getMethodSignature(
+                    mainClass, "main", "void", Collections.singletonList("java.lang.String[]")));
+    // loads the reachable classes and bodies
+    createAlgorithm().initialize(entryPoints);
+  }
+
+  @Benchmark
+  public CallGraph initialize() {
+    return createAlgorithm().initialize(entryPoints);
+  }
+
+  private CallGraphAlgorithm createAlgorithm() {
+    switch (algorithm) {
+      case "CHA":
+        return new ClassHierarchyAnalysisAlgorithm(view);
+      case "RTA":
+        return new RapidTypeAnalysisAlgorithm(view);
+      default:
+        throw new IllegalArgumentException("Unknown call graph algorithm " + algorithm);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.util.printer.JimplePrinter;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures printing every class of the library as Jimple. The bodies are resolved during the
+ * setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class JimplePrinterBenchmark {
+
+  @Param({BenchmarkResources.JAVAX_JSON, BenchmarkResources.SLF4J})
+  public String library;
+
+  private List<SootClass> classes;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    JavaView view =
+        BenchmarkResources.createView(
+            library, BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    classes = view.getClasses().collect(Collectors.toList());
+    classes.stream()
+        .flatMap(sootClass -> sootClass.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .forEach(SootMethod::getBody);
+  }
+
+  @Benchmark
+  public String printTo() {
+    StringWriter output = new StringWriter();
+    PrintWriter writer = new PrintWriter(output);
+    JimplePrinter printer = new JimplePrinter();
+    for (SootClass sootClass : classes) {
+      printer.printTo(sootClass, writer);
+    }
+    writer.flush();
+    return output.toString();
+  }
+}
@@ -0,0 +1,69 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import qilin.core.PTA;
+import qilin.driver.PTAFactory;
+import qilin.driver.PTAPattern;
+import qilin.pta.PTAConfig;
+import qilin.util.PTAUtils;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures the context insensitive Spark points-to analysis of Qilin on an application including a
+ * Java 8 runtime. Run it on a Java 8 JVM or pass a Java 8 rt.jar via {@code
+ * -Dsootup.benchmarks.jre}. The classes are loaded during the setup, so only the analysis itself is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class QilinSparkBenchmark {
+
+  private PTAPattern ptaPattern;
+  private JavaView view;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ptaPattern = new PTAPattern("insens");
+    PTAConfig.v().getAppConfig().MAIN_CLASS = BenchmarkResources.MINI_APP_MAIN_CLASS;
+    PTAConfig.v().getPtaConfig().ptaPattern = ptaPattern;
+    PTAConfig.v().getPtaConfig().ptaName = ptaPattern.toString();
+    view = BenchmarkResources.createViewWithRuntime(BenchmarkResources.MINI_APP);
+    // loads the reachable classes and bodies
+    spark();
+  }
+
+  @Benchmark
+  public PTA spark() {
+    PTAUtils.clearMethodBodies();
+    PTA pta = PTAFactory.createPTA(ptaPattern, view, BenchmarkResources.MINI_APP_MAIN_CLASS);
+    pta.pureRun();
+    return pta;
+  }
+}
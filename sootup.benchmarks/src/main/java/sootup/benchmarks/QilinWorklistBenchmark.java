@@ -0,0 +1,91 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import qilin.CoreConfig;
+import qilin.core.PTA;
+import qilin.core.solver.Solver;
+import qilin.driver.PTAFactory;
+import qilin.driver.PTAPattern;
+import qilin.pta.PTAConfig;
+import qilin.util.PTAUtils;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Compares the worklist orders of the Qilin solver on the context insensitive Spark points-to
+ * analysis of {@link QilinSparkBenchmark}. Next to the time, every result reports the number of
+ * nodes taken from the worklist ({@code iterations}) and the number of objects propagated as
+ * differences ({@code propagatedObjects}) per analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class QilinWorklistBenchmark {
+
+  @Param({"NUMBER", "FIFO", "TOPOLOGICAL", "LRF"})
+  public CoreConfig.WorklistOrder worklist;
+
+  private PTAPattern ptaPattern;
+  private JavaView view;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class SolverCounters {
+    public long iterations;
+    public long propagatedObjects;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      iterations = 0;
+      propagatedObjects = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ptaPattern = new PTAPattern("insens");
+    PTAConfig.v().getAppConfig().MAIN_CLASS = BenchmarkResources.MINI_APP_MAIN_CLASS;
+    PTAConfig.v().getPtaConfig().ptaPattern = ptaPattern;
+    PTAConfig.v().getPtaConfig().ptaName = ptaPattern.toString();
+    PTAConfig.v().getPtaConfig().worklistOrder = worklist;
+    view = BenchmarkResources.createViewWithRuntime(BenchmarkResources.MINI_APP);
+    // loads the reachable classes and bodies
+    solve(new SolverCounters());
+  }
+
+  @Benchmark
+  public PTA solve(SolverCounters counters) {
+    PTAUtils.clearMethodBodies();
+    PTA pta = PTAFactory.createPTA(ptaPattern, view, BenchmarkResources.MINI_APP_MAIN_CLASS);
+    Solver solver = new Solver(pta);
+    solver.propagate();
+    counters.iterations += solver.getIterations();
+    counters.propagatedObjects += solver.getPropagatedObjects();
+    return pta;
+  }
+}
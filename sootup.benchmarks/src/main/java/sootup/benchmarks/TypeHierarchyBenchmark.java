@@ -0,0 +1,99 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures building a {@link ViewTypeHierarchy} and the queries on it. The queries are issued for
+ * every type (or pair of types) of the library.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TypeHierarchyBenchmark {
+
+  @Param({BenchmarkResources.JAVAX_JSON, BenchmarkResources.SLF4J})
+  public String library;
+
+  private JavaView view;
+  private ViewTypeHierarchy typeHierarchy;
+  private List<ClassType> types;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    view = BenchmarkResources.createView(library, Collections.emptyList());
+    typeHierarchy = new ViewTypeHierarchy(view);
+    types = view.getClassHeaders().map(ClassHeader::getType).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public ViewTypeHierarchy build() {
+    return new ViewTypeHierarchy(view);
+  }
+
+  @Benchmark
+  public void subtypesOf(Blackhole blackhole) {
+    for (ClassType type : types) {
+      blackhole.consume(typeHierarchy.subtypesOf(type).count());
+    }
+  }
+
+  @Benchmark
+  public void superClassesOf(Blackhole blackhole) {
+    for (ClassType type : types) {
+      blackhole.consume(typeHierarchy.superClassesOf(type).count());
+    }
+  }
+
+  @Benchmark
+  public void isSubtype(Blackhole blackhole) {
+    for (ClassType supertype : types) {
+      for (ClassType subtype : types) {
+        blackhole.consume(typeHierarchy.isSubtype(supertype, subtype));
+      }
+    }
+  }
+
+  /** the results are cached by the hierarchy, i.e. this mostly measures cache hits */
+  @Benchmark
+  public void lowestCommonAncestors(Blackhole blackhole) {
+    for (ClassType a : types) {
+      for (ClassType b : types) {
+        blackhole.consume(typeHierarchy.getLowestCommonAncestors(a, b));
+      }
+    }
+  }
+}
@@ -23,15 +23,21 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.callgraph.CallGraph.Call;
 import sootup.core.IdentifierFactory;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
+import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.jimple.common.expr.JStaticInvokeExpr;
 import sootup.core.jimple.common.ref.JStaticFieldRef;
 import sootup.core.jimple.common.stmt.InvokableStmt;
@@ -58,9 +64,57 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
   private static final Logger logger = LoggerFactory.getLogger(AbstractCallGraphAlgorithm.class);
 
   @Nonnull protected final View view;
+  @Nonnull protected final DispatchTable dispatchTable;
+  @Nullable private ForkJoinPool forkJoinPool;
 
   protected AbstractCallGraphAlgorithm(@Nonnull View view) {
+    this(view, new DispatchTable(view));
+  }
+
+  /**
+   * @param view the view containing the classes
+   * @param dispatchTable memoizes the dispatch of calls. It can be shared with other algorithms on
+   *     the same view.
+   */
+  protected AbstractCallGraphAlgorithm(@Nonnull View view, @Nonnull DispatchTable dispatchTable) {
+    if (dispatchTable.getView() != view) {
+      throw new IllegalArgumentException("The dispatch table belongs to a different view.");
+    }
     this.view = view;
+    this.dispatchTable = dispatchTable;
+  }
+
+  @Nonnull
+  public DispatchTable getDispatchTable() {
+    return dispatchTable;
+  }
+
+  /**
+   * Enables the parallel construction of the call graph. The methods of the work list are then
+   * processed as tasks of the given pool, i.e. idle threads steal the newly found methods of busy
+   * threads. The resulting call graph has a canonical order of methods and calls, so it does not
+   * depend on the number of threads or their scheduling. The view should use a {@link
+   * sootup.core.cache.provider.ConcurrentFullCacheProvider}, so that the threads do not block each
+   * other while they resolve classes.
+   *
+   * @param forkJoinPool the pool that processes the work list, or null to construct the call graph
+   *     sequentially on the calling thread
+   */
+  public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  @Nullable
+  public ForkJoinPool getForkJoinPool() {
+    return forkJoinPool;
+  }
+
+  /**
+   * @return true if the call graph is constructed in parallel. In this case, all data structures
+   *     used by the hooks of the algorithm have to be thread-safe.
+   */
+  protected boolean isParallel() {
+    return forkJoinPool != null;
   }
 
   /**
@@ -83,13 +137,24 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     workList.addAll(clinits);
     MutableCallGraph cg = initializeCallGraph(entryPoints, clinits);
 
-    processWorkList(view, workList, processed, cg);
+    ForkJoinPool pool = forkJoinPool;
+    if (pool == null) {
+      processWorkList(view, workList, processed, cg);
+      return cg;
+    }
+    // build the type hierarchy before the workers start to query it
+    view.getTypeHierarchy();
+    pool.invoke(new ProcessMethodTask(null, workList, ConcurrentHashMap.newKeySet(), cg));
+    if (cg instanceof ConcurrentCallGraph) {
+      return ((ConcurrentCallGraph) cg).toGraphBasedCallGraph();
+    }
     return cg;
   }
 
   /**
    * This method creates the mutable call graph which is used in the call graph algorithm. Overwrite
-   * it to change the used mutable call graph
+   * it to change the used mutable call graph. In the parallel construction, the call graph has to
+   * be thread-safe.
    *
    * @return the initialized call graph used in the call graph algorithm
    */
@@ -97,6 +162,9 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       List<MethodSignature> entryPoints, List<MethodSignature> clinits) {
     ArrayList<MethodSignature> rootSignatures = new ArrayList<>(entryPoints);
     rootSignatures.addAll(clinits);
+    if (isParallel()) {
+      return new ConcurrentCallGraph(rootSignatures);
+    }
     return new GraphBasedCallGraph(rootSignatures);
   }
 
@@ -145,37 +213,100 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       if (processed.contains(currentMethodSignature)) {
         continue;
       }
+      processMethod(view, currentMethodSignature, workList, processed, cg);
+    }
+  }
 
-      // skip if library class
-      SootClass currentClass =
-          view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
-      if (currentClass == null || currentClass.isLibraryClass()) {
-        continue;
-      }
+  /**
+   * Processes a single method of the work list. Calls from the method are added to <code>cg</code>
+   * and newly discovered methods are added to the <code>workList</code>.
+   *
+   * @param view it contains the classes.
+   * @param currentMethodSignature the method that is processed
+   * @param workList receives the newly discovered methods
+   * @param processed the set of processed methods. The method is added after it is processed.
+   * @param cg the call graph object that is filled with the found methods and call edges.
+   */
+  private void processMethod(
+      View view,
+      MethodSignature currentMethodSignature,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    // skip if library class
+    SootClass currentClass = view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
+    if (currentClass == null || currentClass.isLibraryClass()) {
+      return;
+    }
 
-      // perform pre-processing if needed
-      preProcessingMethod(view, currentMethodSignature, workList, cg);
+    // perform pre-processing if needed
+    preProcessingMethod(view, currentMethodSignature, workList, cg);
 
-      // process the method
-      if (!cg.containsMethod(currentMethodSignature)) {
-        cg.addMethod(currentMethodSignature);
-      }
+    // process the method
+    if (!cg.containsMethod(currentMethodSignature)) {
+      cg.addMethod(currentMethodSignature);
+    }
+
+    // transform the method signature to the actual SootMethod
+    SootMethod currentMethod =
+        currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
 
-      // transform the method signature to the actual SootMethod
-      SootMethod currentMethod =
-          currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+    // get all call targets of invocations in the method body
+    resolveAllCallsFromSourceMethod(currentMethod, cg, workList);
 
-      // get all call targets of invocations in the method body
-      resolveAllCallsFromSourceMethod(currentMethod, cg, workList);
+    // get all call targets of implicit edges in the method body
+    resolveAllImplicitCallsFromSourceMethod(currentMethod, cg, workList);
 
-      // get all call targets of implicit edges in the method body
-      resolveAllImplicitCallsFromSourceMethod(currentMethod, cg, workList);
+    // set method as processed
+    processed.add(currentMethodSignature);
+
+    // perform post-processing if needed
+    postProcessingMethod(view, currentMethodSignature, workList, cg);
+  }
+
+  /**
+   * Processes methods of the work list in parallel. Each method is claimed in the shared <code>
+   * claimed</code> set before it is processed, so every method is processed exactly once. The
+   * methods found while processing a method are collected in a task local work list. The task
+   * continues with one of them and forks new tasks for the others, which can be stolen by idle
+   * threads of the pool.
+   */
+  private final class ProcessMethodTask extends CountedCompleter<Void> {
+    @Nonnull private final Deque<MethodSignature> workList;
+    @Nonnull private final Set<MethodSignature> claimed;
+    @Nonnull private final MutableCallGraph cg;
 
-      // set method as processed
-      processed.add(currentMethodSignature);
+    private ProcessMethodTask(
+        @Nullable CountedCompleter<?> parent,
+        @Nonnull Deque<MethodSignature> workList,
+        @Nonnull Set<MethodSignature> claimed,
+        @Nonnull MutableCallGraph cg) {
+      super(parent);
+      this.workList = workList;
+      this.claimed = claimed;
+      this.cg = cg;
+    }
 
-      // perform post-processing if needed
-      postProcessingMethod(view, currentMethodSignature, workList, cg);
+    @Override
+    public void compute() {
+      while (!workList.isEmpty()) {
+        MethodSignature currentMethodSignature = workList.pop();
+        if (!claimed.add(currentMethodSignature)) {
+          continue;
+        }
+        processMethod(view, currentMethodSignature, workList, claimed, cg);
+        // keep the most recently found method and share the others with the pool
+        while (workList.size() > 1) {
+          MethodSignature method = workList.removeLast();
+          if (!claimed.contains(method)) {
+            addToPendingCount(1);
+            Deque<MethodSignature> forkedWorkList = new ArrayDeque<>();
+            forkedWorkList.push(method);
+            new ProcessMethodTask(this, forkedWorkList, claimed, cg).fork();
+          }
+        }
+      }
+      tryComplete();
     }
   }
 
@@ -380,6 +511,8 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
   @Override
   public CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull ClassType classType) {
     SootClass clazz = view.getClassOrThrow(classType);
+    // the new class changes the hierarchy, i.e. the dispatch of calls
+    dispatchTable.clear();
     Set<MethodSignature> newMethodSignatures =
         clazz.getMethods().stream()
             .map(Method::getSignature)
@@ -437,6 +570,385 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     return updated;
   }
 
+  /**
+   * Updates the call graph in place after classes of the view were added, changed or removed. Only
+   * the methods whose calls may be affected by the modifications are processed again, and methods
+   * which are not reachable from the entry methods anymore are removed.
+   *
+   * <p>The update works in rounds. First, it collects the types whose dispatch may have changed,
+   * i.e. the modified classes and their sub- and supertypes in the hierarchy of the view. The
+   * memoized dispatches of these types are invalidated, and the methods of the call graph which
+   * belong to a modified class or whose calls dispatch via one of these types are impacted. The
+   * calls of the impacted methods are removed and only the impacted methods are processed again.
+   * Methods which are not reachable from the entry methods after the removal are detached from the
+   * call graph. If they are reached again, their calls are restored without processing them again,
+   * otherwise they are removed. A round may reveal further types whose dispatch changed (e.g.
+   * classes which are instantiated for the first time in RTA), which start the next round.
+   *
+   * <p>The type hierarchy of the view has to contain the modifications already, e.g. by setting a
+   * new {@link sootup.core.typehierarchy.ViewTypeHierarchy} after the classes of a mutable view
+   * were replaced.
+   */
+  @Override
+  public void updateCallGraph(
+      @Nonnull MutableCallGraph cg,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> changedClasses,
+      @Nonnull Collection<ClassType> removedClasses) {
+    Set<ClassType> modifiedClasses = new HashSet<>(addedClasses);
+    modifiedClasses.addAll(changedClasses);
+    modifiedClasses.addAll(removedClasses);
+
+    // the methods of modified classes are processed again, unless they vanished
+    Set<MethodSignature> impacted = new HashSet<>();
+    List<MethodSignature> vanishedMethods = new ArrayList<>();
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      if (modifiedClasses.contains(method.getDeclClassType())) {
+        if (view.getMethod(method).isPresent()) {
+          impacted.add(method);
+        } else {
+          vanishedMethods.add(method);
+        }
+      }
+    }
+    List<Call> removedCalls = new ArrayList<>();
+    Map<MethodSignature, Set<Call>> detached = new HashMap<>();
+    impacted.addAll(
+        collectImpactedMethods(cg, detached, modifiedClasses, true, impacted, removedCalls));
+    for (MethodSignature method : vanishedMethods) {
+      removedCalls.addAll(cg.callsFrom(method));
+      cg.removeMethod(method);
+    }
+    impacted.removeAll(vanishedMethods);
+    Set<ClassType> handledTypes = new HashSet<>(modifiedClasses);
+
+    Set<MethodSignature> processedInUpdate = new HashSet<>();
+    boolean firstRound = true;
+    while (!impacted.isEmpty()) {
+      // remove the outdated calls, which may reveal further types whose dispatch changed
+      Set<MethodSignature> impactedInRound = new HashSet<>();
+      while (!impacted.isEmpty()) {
+        impactedInRound.addAll(impacted);
+        for (MethodSignature method : impacted) {
+          if (cg.containsMethod(method)) {
+            List<Call> calls = new ArrayList<>(cg.callsFrom(method));
+            calls.forEach(cg::removeCall);
+            removedCalls.addAll(calls);
+          }
+        }
+        detachUnreachableMethods(cg, impactedInRound, detached);
+        Set<ClassType> types = new HashSet<>(getDispatchChangesOfRemovedCalls(removedCalls));
+        removedCalls.clear();
+        types.removeAll(handledTypes);
+        handledTypes.addAll(types);
+        Set<MethodSignature> excluded = new HashSet<>(processedInUpdate);
+        excluded.addAll(impactedInRound);
+        impacted = collectImpactedMethods(cg, detached, types, false, excluded, removedCalls);
+      }
+
+      // process the impacted methods which are still reachable
+      Deque<MethodSignature> workList = new ArrayDeque<>();
+      for (MethodSignature method : impactedInRound) {
+        if (cg.containsMethod(method)) {
+          workList.push(method);
+        }
+      }
+      Set<MethodSignature> processed = new HashSet<>(cg.getMethodSignatures());
+      processed.removeAll(impactedInRound);
+      if (firstRound) {
+        beforeUpdate(cg, processed);
+        firstRound = false;
+      }
+      processed.addAll(detached.keySet());
+      Set<MethodSignature> processedBefore = new HashSet<>(processed);
+      processWorkListAndReattach(workList, processed, cg, detached);
+      processed.removeAll(processedBefore);
+      processedInUpdate.addAll(processed);
+
+      // the detached methods which were not reached again are removed
+      detached.values().forEach(removedCalls::addAll);
+      detached.clear();
+      Set<ClassType> types = new HashSet<>(getDispatchChangesOfRemovedCalls(removedCalls));
+      removedCalls.clear();
+      types.addAll(getDispatchChangesOfUpdate());
+      types.removeAll(handledTypes);
+      handledTypes.addAll(types);
+      impacted =
+          collectImpactedMethods(cg, detached, types, false, processedInUpdate, removedCalls);
+    }
+    afterUpdate();
+  }
+
+  /**
+   * Processes the work list like {@link #processWorkList}. If a detached method is reached, its
+   * calls are restored and it is preprocessed like a newly processed method, e.g. to collect the
+   * classes it instantiates.
+   */
+  private void processWorkListAndReattach(
+      @Nonnull Deque<MethodSignature> workList,
+      @Nonnull Set<MethodSignature> processed,
+      @Nonnull MutableCallGraph cg,
+      @Nonnull Map<MethodSignature, Set<Call>> detached) {
+    while (true) {
+      processWorkList(view, workList, processed, cg);
+      Deque<MethodSignature> reattachList = new ArrayDeque<>();
+      for (MethodSignature method : detached.keySet()) {
+        if (cg.containsMethod(method)) {
+          reattachList.push(method);
+        }
+      }
+      if (reattachList.isEmpty()) {
+        return;
+      }
+      while (!reattachList.isEmpty()) {
+        MethodSignature method = reattachList.pop();
+        Set<Call> calls = detached.remove(method);
+        if (calls == null) {
+          continue;
+        }
+        // like in the processing, library methods are not preprocessed
+        if (view.getClass(method.getDeclClassType())
+            .filter(clazz -> !clazz.isLibraryClass())
+            .isPresent()) {
+          preProcessingMethod(view, method, workList, cg);
+        }
+        for (Call call : calls) {
+          MethodSignature target = call.getTargetMethodSignature();
+          addCallToCG(method, target, call.getInvokableStmt(), cg, workList);
+          if (detached.containsKey(target)) {
+            reattachList.push(target);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Collects the methods of the call graph whose calls may dispatch differently because of the
+   * given types, i.e. methods with calls to methods of the types, calls to a subtype of the types
+   * and calls to a supertype of the types whose sub signature is declared in one of the types.
+   * Detached methods with such calls are removed, so that they are processed again if they are
+   * reached.
+   *
+   * @param cg the call graph containing the methods
+   * @param detached the detached methods and their calls
+   * @param types the types whose dispatch changed
+   * @param hierarchyChanged true if the types changed their place in the hierarchy or their
+   *     methods. The memoized dispatches of the types are invalidated and calls dispatched to any
+   *     subtype are impacted. Otherwise, only the instantiation of the types changed.
+   * @param excluded methods which are not collected
+   * @param removedCalls receives the calls of removed detached methods
+   * @return the impacted methods
+   */
+  @Nonnull
+  private Set<MethodSignature> collectImpactedMethods(
+      @Nonnull CallGraph cg,
+      @Nonnull Map<MethodSignature, Set<Call>> detached,
+      @Nonnull Set<ClassType> types,
+      boolean hierarchyChanged,
+      @Nonnull Set<MethodSignature> excluded,
+      @Nonnull List<Call> removedCalls) {
+    if (types.isEmpty()) {
+      return Collections.emptySet();
+    }
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    Set<ClassType> lowerTypes = new HashSet<>(types);
+    if (hierarchyChanged) {
+      for (ClassType type : types) {
+        if (typeHierarchy.contains(type)) {
+          typeHierarchy.subtypesOf(type).forEach(lowerTypes::add);
+        }
+      }
+    }
+    // supertypes of subtypes are considered as well, since an interface call dispatches to the
+    // superclass of an implementing class
+    Set<ClassType> upperTypes = new HashSet<>();
+    for (ClassType type : lowerTypes) {
+      if (typeHierarchy.contains(type)) {
+        typeHierarchy.superClassesOf(type).forEach(upperTypes::add);
+        typeHierarchy.implementedInterfacesOf(type).forEach(upperTypes::add);
+      }
+    }
+    upperTypes.removeAll(lowerTypes);
+
+    // the sub signatures declared in the new and the old version of the types
+    Set<MethodSubSignature> subSignatures = new HashSet<>();
+    for (ClassType type : types) {
+      view.getClass(type)
+          .ifPresent(
+              clazz -> {
+                for (SootMethod method : clazz.getMethods()) {
+                  subSignatures.add(method.getSignature().getSubSignature());
+                }
+              });
+    }
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      if (types.contains(method.getDeclClassType())) {
+        subSignatures.add(method.getSubSignature());
+      }
+    }
+    for (MethodSignature method : detached.keySet()) {
+      if (types.contains(method.getDeclClassType())) {
+        subSignatures.add(method.getSubSignature());
+      }
+    }
+    // constructors and static initializers are not dispatched
+    subSignatures.removeIf(
+        subSignature ->
+            subSignature.getName().equals("<init>") || subSignature.getName().equals("<clinit>"));
+
+    if (hierarchyChanged) {
+      Set<ClassType> invalidatedTypes = new HashSet<>(lowerTypes);
+      invalidatedTypes.addAll(upperTypes);
+      dispatchTable.invalidate(invalidatedTypes);
+    }
+
+    Set<MethodSignature> impacted = new HashSet<>();
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      if (!excluded.contains(method)
+          && isImpacted(
+              cg.callsFrom(method),
+              types,
+              hierarchyChanged,
+              lowerTypes,
+              upperTypes,
+              subSignatures)) {
+        impacted.add(method);
+      }
+    }
+    Iterator<Set<Call>> detachedCalls = detached.values().iterator();
+    while (detachedCalls.hasNext()) {
+      Set<Call> calls = detachedCalls.next();
+      if (isImpacted(calls, types, hierarchyChanged, lowerTypes, upperTypes, subSignatures)) {
+        removedCalls.addAll(calls);
+        detachedCalls.remove();
+      }
+    }
+    return impacted;
+  }
+
+  private boolean isImpacted(
+      @Nonnull Collection<Call> calls,
+      @Nonnull Set<ClassType> types,
+      boolean hierarchyChanged,
+      @Nonnull Set<ClassType> lowerTypes,
+      @Nonnull Set<ClassType> upperTypes,
+      @Nonnull Set<MethodSubSignature> subSignatures) {
+    for (Call call : calls) {
+      AbstractInvokeExpr invokeExpr = call.getInvokableStmt().getInvokeExpr().orElse(null);
+      // the instantiation of a class only changes the targets of dispatched calls
+      if (!hierarchyChanged
+          && (invokeExpr == null
+              || invokeExpr instanceof JStaticInvokeExpr
+              || invokeExpr instanceof JSpecialInvokeExpr)) {
+        continue;
+      }
+      if (types.contains(call.getTargetMethodSignature().getDeclClassType())) {
+        return true;
+      }
+      if (invokeExpr == null) {
+        continue;
+      }
+      if (invokeExpr instanceof JDynamicInvokeExpr) {
+        // the dispatched methods of the call site take the place of the invoked method
+        InvokeDynamicResolver.Targets targets =
+            dispatchTable.resolveInvokeDynamic((JDynamicInvokeExpr) invokeExpr);
+        if (Stream.concat(
+                targets.getVirtualTargets().stream(), targets.getInterfaceTargets().stream())
+            .anyMatch(
+                dispatchedMethod ->
+                    isImpacted(dispatchedMethod, lowerTypes, upperTypes, subSignatures))) {
+          return true;
+        }
+      } else if (isImpacted(
+          invokeExpr.getMethodSignature(), lowerTypes, upperTypes, subSignatures)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** @return true if a dispatch of the given method may change */
+  private static boolean isImpacted(
+      @Nonnull MethodSignature invokedMethod,
+      @Nonnull Set<ClassType> lowerTypes,
+      @Nonnull Set<ClassType> upperTypes,
+      @Nonnull Set<MethodSubSignature> subSignatures) {
+    ClassType invokedType = invokedMethod.getDeclClassType();
+    return lowerTypes.contains(invokedType)
+        || (upperTypes.contains(invokedType)
+            && subSignatures.contains(invokedMethod.getSubSignature()));
+  }
+
+  /**
+   * Removes the methods which are not reachable from the entry methods of the call graph. The
+   * calls of the removed methods which are not impacted are kept in <code>detached</code>.
+   */
+  private static void detachUnreachableMethods(
+      @Nonnull MutableCallGraph cg,
+      @Nonnull Set<MethodSignature> impacted,
+      @Nonnull Map<MethodSignature, Set<Call>> detached) {
+    Set<MethodSignature> reachable = new HashSet<>();
+    Deque<MethodSignature> workList = new ArrayDeque<>();
+    for (MethodSignature entryMethod : cg.getEntryMethods()) {
+      if (cg.containsMethod(entryMethod) && reachable.add(entryMethod)) {
+        workList.push(entryMethod);
+      }
+    }
+    while (!workList.isEmpty()) {
+      for (MethodSignature target : cg.callTargetsFrom(workList.pop())) {
+        if (reachable.add(target)) {
+          workList.push(target);
+        }
+      }
+    }
+    List<MethodSignature> unreachable = new ArrayList<>();
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      if (!reachable.contains(method)) {
+        unreachable.add(method);
+        // the calls are saved before any method is removed, which would remove its calls as well
+        if (!impacted.contains(method)) {
+          detached.put(method, new HashSet<>(cg.callsFrom(method)));
+        }
+      }
+    }
+    unreachable.forEach(cg::removeMethod);
+  }
+
+  /**
+   * This method is called in {@link #updateCallGraph} before the impacted methods are processed
+   * the first time. It enables to restore the state of the algorithm, which is deleted after the
+   * construction of the call graph.
+   *
+   * @param cg the call graph without the calls of the impacted methods
+   * @param processedMethods the methods of the call graph which are not processed again
+   */
+  protected void beforeUpdate(
+      @Nonnull MutableCallGraph cg, @Nonnull Set<MethodSignature> processedMethods) {}
+
+  /**
+   * @param removedCalls calls removed by {@link #updateCallGraph}
+   * @return the types whose dispatch may change because the calls are removed, e.g. the classes
+   *     which are no longer instantiated
+   */
+  @Nonnull
+  protected Set<ClassType> getDispatchChangesOfRemovedCalls(
+      @Nonnull Collection<Call> removedCalls) {
+    return Collections.emptySet();
+  }
+
+  /**
+   * @return the types whose dispatch changed while the impacted methods were processed in {@link
+   *     #updateCallGraph}, e.g. classes which are instantiated for the first time
+   */
+  @Nonnull
+  protected Set<ClassType> getDispatchChangesOfUpdate() {
+    return Collections.emptySet();
+  }
+
+  /** This method is called at the end of {@link #updateCallGraph} to delete the state again. */
+  protected void afterUpdate() {}
+
   /**
    * The method iterates over all classes present in view, and finds method with name main and
    * SourceType - Application. This method is used by initialize() method used for creating call
@@ -22,6 +22,7 @@ package sootup.callgraph;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nonnull;
 import sootup.core.signatures.MethodSignature;
@@ -60,4 +61,25 @@ public interface CallGraphAlgorithm {
    */
   @Nonnull
   CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull ClassType classType);
+
+  /**
+   * Updates the call graph in place after classes of the view were added, changed or removed.
+   * Methods which are not reachable from the entry methods anymore are removed.
+   *
+   * <p>By default, the call graph is constructed again for the entry methods of the given call
+   * graph, and the given call graph is changed to the new one. Algorithms which can process only
+   * the methods affected by the modifications override this method.
+   *
+   * @param cg the call graph constructed by this algorithm, which will be modified.
+   * @param addedClasses the classes which were added to the view
+   * @param changedClasses the classes whose methods or hierarchy changed in the view
+   * @param removedClasses the classes which were removed from the view
+   */
+  default void updateCallGraph(
+      @Nonnull MutableCallGraph cg,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> changedClasses,
+      @Nonnull Collection<ClassType> removedClasses) {
+    cg.replaceWith(initialize(cg.getEntryMethods()));
+  }
 }
@@ -0,0 +1,476 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Answers transitive reachability queries on a {@link CompactCallGraph}, e.g. which methods are
+ * called directly or indirectly by a method or which entry methods reach a method.
+ *
+ * <p>The strongly connected components of the call graph, i.e. the sets of mutually recursive
+ * methods, are collapsed into single nodes. The components are numbered in reverse topological
+ * order, so a closure is computed in a single pass over the set bits of a {@link BitSet} of
+ * components without any work list. For each component, the set of entry methods that reach it is
+ * precomputed. Most components are reached by the same few sets of entry methods, so each distinct
+ * set is stored only once and the components refer to it by an index.
+ *
+ * <p>The reachability is immutable after its construction, so its queries can be answered by
+ * several threads in parallel.
+ */
+public class CallGraphReachability {
+
+  @Nonnull private final CompactCallGraph callGraph;
+
+  /** method id -&gt; component, numbered in reverse topological order */
+  @Nonnull private final int[] components;
+
+  private final int componentCount;
+
+  /** the method ids of each component in CSR format */
+  @Nonnull private final int[] memberOffsets;
+
+  @Nonnull private final int[] members;
+
+  /** the distinct successors of each component in the condensed call graph in CSR format */
+  @Nonnull private final int[] successorOffsets;
+
+  @Nonnull private final int[] successors;
+
+  /** the distinct predecessors of each component in the condensed call graph in CSR format */
+  @Nonnull private final int[] predecessorOffsets;
+
+  @Nonnull private final int[] predecessors;
+
+  /** the entry methods contained in the call graph, indexed by the bits of the entry method sets */
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  /** component -&gt; index of the set of entry methods that reach it */
+  @Nonnull private final int[] entryMethodSetIds;
+
+  /** the distinct sets of entry methods, which must not be modified */
+  @Nonnull private final BitSet[] entryMethodSets;
+
+  public CallGraphReachability(@Nonnull CompactCallGraph callGraph) {
+    this.callGraph = callGraph;
+    int methodCount = callGraph.getMethodCount();
+    StronglyConnectedComponents stronglyConnectedComponents =
+        new StronglyConnectedComponents(
+            methodCount,
+            callGraph::getOutgoingCallsStart,
+            callGraph::getOutgoingCallsEnd,
+            callGraph::getOutgoingCallTarget);
+    components = stronglyConnectedComponents.getComponents();
+    componentCount = stronglyConnectedComponents.getComponentCount();
+
+    memberOffsets = new int[componentCount + 1];
+    for (int method = 0; method < methodCount; method++) {
+      memberOffsets[components[method] + 1]++;
+    }
+    for (int component = 0; component < componentCount; component++) {
+      memberOffsets[component + 1] += memberOffsets[component];
+    }
+    members = new int[methodCount];
+    int[] position = Arrays.copyOf(memberOffsets, componentCount);
+    for (int method = 0; method < methodCount; method++) {
+      members[position[components[method]]++] = method;
+    }
+
+    // collect the distinct successors of each component, marking the last component that added
+    // a successor avoids duplicates
+    int[] lastSource = new int[componentCount];
+    Arrays.fill(lastSource, -1);
+    successorOffsets = new int[componentCount + 1];
+    int[] successorBuffer = new int[Math.max(callGraph.callCount(), 1)];
+    int successorCount = 0;
+    for (int component = 0; component < componentCount; component++) {
+      for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+        int method = members[i];
+        int end = callGraph.getOutgoingCallsEnd(method);
+        for (int j = callGraph.getOutgoingCallsStart(method); j < end; j++) {
+          int successor = components[callGraph.getOutgoingCallTarget(j)];
+          if (successor != component && lastSource[successor] != component) {
+            lastSource[successor] = component;
+            successorBuffer[successorCount++] = successor;
+          }
+        }
+      }
+      successorOffsets[component + 1] = successorCount;
+    }
+    successors = Arrays.copyOf(successorBuffer, successorCount);
+
+    predecessorOffsets = new int[componentCount + 1];
+    for (int successor : successors) {
+      predecessorOffsets[successor + 1]++;
+    }
+    for (int component = 0; component < componentCount; component++) {
+      predecessorOffsets[component + 1] += predecessorOffsets[component];
+    }
+    predecessors = new int[successorCount];
+    position = Arrays.copyOf(predecessorOffsets, componentCount);
+    for (int component = 0; component < componentCount; component++) {
+      for (int i = successorOffsets[component]; i < successorOffsets[component + 1]; i++) {
+        predecessors[position[successors[i]]++] = component;
+      }
+    }
+
+    entryMethods =
+        Collections.unmodifiableList(
+            callGraph.getEntryMethods().stream()
+                .filter(callGraph::containsMethod)
+                .distinct()
+                .collect(Collectors.toList()));
+    entryMethodSetIds = new int[componentCount];
+    List<BitSet> distinctSets = new ArrayList<>();
+    Map<BitSet, Integer> distinctSetIds = new HashMap<>();
+    BitSet[] ownEntryMethods = new BitSet[componentCount];
+    for (int i = 0; i < entryMethods.size(); i++) {
+      int component = components[callGraph.getMethodId(entryMethods.get(i))];
+      if (ownEntryMethods[component] == null) {
+        ownEntryMethods[component] = new BitSet();
+      }
+      ownEntryMethods[component].set(i);
+    }
+    // the predecessors of a component have a higher number, i.e. they are completed before
+    for (int component = componentCount - 1; component >= 0; component--) {
+      BitSet reachingEntryMethods =
+          ownEntryMethods[component] == null ? new BitSet() : ownEntryMethods[component];
+      ownEntryMethods[component] = null;
+      for (int i = predecessorOffsets[component]; i < predecessorOffsets[component + 1]; i++) {
+        reachingEntryMethods.or(distinctSets.get(entryMethodSetIds[predecessors[i]]));
+      }
+      Integer setId = distinctSetIds.get(reachingEntryMethods);
+      if (setId == null) {
+        setId = distinctSets.size();
+        distinctSets.add(reachingEntryMethods);
+        distinctSetIds.put(reachingEntryMethods, setId);
+      }
+      entryMethodSetIds[component] = setId;
+    }
+    entryMethodSets = distinctSets.toArray(new BitSet[0]);
+  }
+
+  /** Creates the reachability of the given call graph, which is converted if it is not compact. */
+  @Nonnull
+  public static CallGraphReachability of(@Nonnull CallGraph callGraph) {
+    return new CallGraphReachability(
+        callGraph instanceof CompactCallGraph
+            ? (CompactCallGraph) callGraph
+            : CompactCallGraph.of(callGraph));
+  }
+
+  @Nonnull
+  public CompactCallGraph getCallGraph() {
+    return callGraph;
+  }
+
+  /** @return the number of strongly connected components of the call graph */
+  public int getComponentCount() {
+    return componentCount;
+  }
+
+  /**
+   * @return the strongly connected component of the given method. If a method calls another one,
+   *     the component of the callee is lower than or equal to the component of the caller.
+   */
+  public int getComponent(@Nonnull MethodSignature method) {
+    return components[idOf(method)];
+  }
+
+  /** @return the methods of the given strongly connected component */
+  @Nonnull
+  public List<MethodSignature> getComponentMethods(int component) {
+    List<MethodSignature> methods =
+        new ArrayList<>(memberOffsets[component + 1] - memberOffsets[component]);
+    for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+      methods.add(callGraph.getMethod(members[i]));
+    }
+    return methods;
+  }
+
+  /** @return the distinct components called by the methods of the given component */
+  @Nonnull
+  public int[] getComponentSuccessors(int component) {
+    return Arrays.copyOfRange(
+        successors, successorOffsets[component], successorOffsets[component + 1]);
+  }
+
+  /**
+   * @return true if the method is part of a cycle of calls, i.e. it calls itself directly or
+   *     indirectly
+   */
+  public boolean isRecursive(@Nonnull MethodSignature method) {
+    return isRecursive(idOf(method));
+  }
+
+  private boolean isRecursive(int methodId) {
+    int component = components[methodId];
+    if (memberOffsets[component + 1] - memberOffsets[component] > 1) {
+      return true;
+    }
+    int end = callGraph.getOutgoingCallsEnd(methodId);
+    for (int i = callGraph.getOutgoingCallsStart(methodId); i < end; i++) {
+      if (callGraph.getOutgoingCallTarget(i) == methodId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Computes the methods that are called directly or indirectly by the given methods. The given
+   * methods are contained as well.
+   *
+   * @param methodIds the ids of the methods in the compact call graph
+   * @return the ids of the reachable methods
+   */
+  @Nonnull
+  public BitSet forwardClosure(@Nonnull BitSet methodIds) {
+    BitSet reached = toComponents(methodIds);
+    // the successors of a component have a lower number, i.e. they are visited afterwards
+    for (int component = reached.previousSetBit(componentCount - 1);
+        component >= 0;
+        component = reached.previousSetBit(component - 1)) {
+      for (int i = successorOffsets[component]; i < successorOffsets[component + 1]; i++) {
+        reached.set(successors[i]);
+      }
+    }
+    return toMethods(reached);
+  }
+
+  /**
+   * Computes the methods that call the given methods directly or indirectly. The given methods are
+   * contained as well.
+   *
+   * @param methodIds the ids of the methods in the compact call graph
+   * @return the ids of the methods that reach one of the given methods
+   */
+  @Nonnull
+  public BitSet backwardClosure(@Nonnull BitSet methodIds) {
+    BitSet reached = toComponents(methodIds);
+    // the predecessors of a component have a higher number, i.e. they are visited afterwards
+    for (int component = reached.nextSetBit(0);
+        component >= 0;
+        component = reached.nextSetBit(component + 1)) {
+      for (int i = predecessorOffsets[component]; i < predecessorOffsets[component + 1]; i++) {
+        reached.set(predecessors[i]);
+      }
+    }
+    return toMethods(reached);
+  }
+
+  /**
+   * @return the methods that are called directly or indirectly by the given methods, including the
+   *     given methods
+   */
+  @Nonnull
+  public Set<MethodSignature> forwardClosure(@Nonnull Collection<MethodSignature> methods) {
+    return new MethodSet(forwardClosure(toMethodIds(methods)));
+  }
+
+  /**
+   * @return the methods that call the given methods directly or indirectly, including the given
+   *     methods
+   */
+  @Nonnull
+  public Set<MethodSignature> backwardClosure(@Nonnull Collection<MethodSignature> methods) {
+    return new MethodSet(backwardClosure(toMethodIds(methods)));
+  }
+
+  /** @return true if the source method calls the target method directly or indirectly */
+  public boolean isReachable(@Nonnull MethodSignature source, @Nonnull MethodSignature target) {
+    int sourceId = idOf(source);
+    int sourceComponent = components[sourceId];
+    int targetComponent = components[idOf(target)];
+    if (sourceComponent == targetComponent) {
+      // the methods of a component reach each other, a single method only if it calls itself
+      return isRecursive(sourceId);
+    }
+    if (targetComponent > sourceComponent) {
+      // a call never leads to a higher component
+      return false;
+    }
+    BitSet reached = new BitSet(sourceComponent + 1);
+    reached.set(sourceComponent);
+    for (int component = sourceComponent;
+        component > targetComponent;
+        component = reached.previousSetBit(component - 1)) {
+      for (int i = successorOffsets[component]; i < successorOffsets[component + 1]; i++) {
+        if (successors[i] == targetComponent) {
+          return true;
+        }
+        reached.set(successors[i]);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the entry methods of the call graph that reach the given method, in the order of
+   *     {@link CallGraph#getEntryMethods()}
+   */
+  @Nonnull
+  public List<MethodSignature> getReachingEntryMethods(@Nonnull MethodSignature method) {
+    BitSet entryMethodSet = entryMethodSets[entryMethodSetIds[components[idOf(method)]]];
+    List<MethodSignature> reachingEntryMethods = new ArrayList<>(entryMethodSet.cardinality());
+    for (int i = entryMethodSet.nextSetBit(0); i >= 0; i = entryMethodSet.nextSetBit(i + 1)) {
+      reachingEntryMethods.add(entryMethods.get(i));
+    }
+    return reachingEntryMethods;
+  }
+
+  /**
+   * Looks up the reaching entry methods of many methods at once. The methods are looked up in
+   * parallel in the common fork join pool.
+   *
+   * @return the entry methods that reach each of the given methods
+   */
+  @Nonnull
+  public Map<MethodSignature, List<MethodSignature>> getReachingEntryMethods(
+      @Nonnull Collection<MethodSignature> methods) {
+    return methods.parallelStream()
+        .distinct()
+        .collect(Collectors.toConcurrentMap(method -> method, this::getReachingEntryMethods));
+  }
+
+  /** @return true if the given entry method reaches the given method */
+  public boolean isReachableFromEntryMethod(
+      @Nonnull MethodSignature method, @Nonnull MethodSignature entryMethod) {
+    int index = entryMethods.indexOf(entryMethod);
+    return index >= 0
+        && entryMethodSets[entryMethodSetIds[components[idOf(method)]]].get(index);
+  }
+
+  /**
+   * @return the number of distinct sets of reaching entry methods, i.e. the number of rows stored
+   *     for the method to entry method reachability matrix
+   */
+  public int getDistinctEntryMethodSetCount() {
+    return entryMethodSets.length;
+  }
+
+  @Nonnull
+  private BitSet toComponents(@Nonnull BitSet methodIds) {
+    BitSet componentSet = new BitSet(componentCount);
+    for (int method = methodIds.nextSetBit(0);
+        method >= 0;
+        method = methodIds.nextSetBit(method + 1)) {
+      componentSet.set(components[method]);
+    }
+    return componentSet;
+  }
+
+  @Nonnull
+  private BitSet toMethods(@Nonnull BitSet componentSet) {
+    BitSet methodIds = new BitSet(callGraph.getMethodCount());
+    for (int component = componentSet.nextSetBit(0);
+        component >= 0;
+        component = componentSet.nextSetBit(component + 1)) {
+      for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+        methodIds.set(members[i]);
+      }
+    }
+    return methodIds;
+  }
+
+  @Nonnull
+  private BitSet toMethodIds(@Nonnull Collection<MethodSignature> methods) {
+    BitSet methodIds = new BitSet(callGraph.getMethodCount());
+    for (MethodSignature method : methods) {
+      methodIds.set(idOf(method));
+    }
+    return methodIds;
+  }
+
+  private int idOf(@Nonnull MethodSignature method) {
+    int id = callGraph.getMethodId(method);
+    if (id < 0) {
+      throw new IllegalArgumentException(
+          "Method " + method + " is not contained in the call graph");
+    }
+    return id;
+  }
+
+  /** An unmodifiable view on a set of method ids. */
+  private class MethodSet extends AbstractSet<MethodSignature> {
+
+    @Nonnull private final BitSet methodIds;
+    private final int size;
+
+    private MethodSet(@Nonnull BitSet methodIds) {
+      this.methodIds = methodIds;
+      this.size = methodIds.cardinality();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof MethodSignature)) {
+        return false;
+      }
+      int id = callGraph.getMethodId((MethodSignature) o);
+      return id >= 0 && methodIds.get(id);
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<MethodSignature> iterator() {
+      return new Iterator<MethodSignature>() {
+        private int next = methodIds.nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public MethodSignature next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          MethodSignature method = callGraph.getMethod(next);
+          next = methodIds.nextSetBit(next + 1);
+          return method;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
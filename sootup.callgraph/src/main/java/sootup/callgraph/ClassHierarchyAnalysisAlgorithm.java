@@ -23,19 +23,17 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
-import sootup.core.IdentifierFactory;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
 import sootup.core.jimple.common.expr.JInterfaceInvokeExpr;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.jimple.common.stmt.InvokableStmt;
 import sootup.core.model.MethodModifier;
-import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.MethodSignature;
-import sootup.core.types.ClassType;
 import sootup.core.views.View;
 
 /**
@@ -54,6 +52,16 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
     super(view);
   }
 
+  /**
+   * The constructor of the CHA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param dispatchTable memoizes the resolved calls, can be shared with other algorithms
+   */
+  public ClassHierarchyAnalysisAlgorithm(@Nonnull View view, @Nonnull DispatchTable dispatchTable) {
+    super(view, dispatchTable);
+  }
+
   @Nonnull
   @Override
   public CallGraph initialize() {
@@ -69,7 +77,8 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
   /**
    * In the CHA algorithm, every virtual call is resolved by only using the hierarchy. Every
    * subclass of the class is considered as target if it contains an implementation of the methods
-   * called in the invoke expression.
+   * called in the invoke expression. The methods called by invokedynamic call sites, e.g. the
+   * implementations of lambda expressions, are resolved by the {@link InvokeDynamicResolver}.
    *
    * @param method the method object that contains the given invoke expression in the body.
    * @param invokableStmt it contains the call which is resolved.
@@ -86,80 +95,37 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
     AbstractInvokeExpr invokeExpr = optInvokeExpr.get();
     MethodSignature targetMethodSignature = invokeExpr.getMethodSignature();
     if ((invokeExpr instanceof JDynamicInvokeExpr)) {
-      return Stream.empty();
+      InvokeDynamicResolver.Targets targets =
+          dispatchTable.resolveInvokeDynamic((JDynamicInvokeExpr) invokeExpr);
+      return Stream.of(
+              targets.getDirectTargets().stream(),
+              targets.getVirtualTargets().stream().flatMap(sig -> resolveVirtualCall(sig, false)),
+              targets.getInterfaceTargets().stream().flatMap(sig -> resolveVirtualCall(sig, true)))
+          .flatMap(Function.identity());
     }
+    if (invokeExpr instanceof JSpecialInvokeExpr) {
+      return Stream.of(targetMethodSignature);
+    }
+    return resolveVirtualCall(targetMethodSignature, invokeExpr instanceof JInterfaceInvokeExpr);
+  }
 
-    SootMethod targetMethod = findConcreteMethod(view, targetMethodSignature).orElse(null);
+  /**
+   * Resolves a call of the given signature to its concrete method and every implementation in a
+   * subtype. Calls of static methods or of methods without concrete implementation are resolved to
+   * the signature itself.
+   */
+  @Nonnull
+  private Stream<MethodSignature> resolveVirtualCall(
+      @Nonnull MethodSignature targetMethodSignature, boolean isInterfaceInvoke) {
+    SootMethod targetMethod = dispatchTable.findConcreteMethod(targetMethodSignature).orElse(null);
 
-    if (targetMethod == null
-        || MethodModifier.isStatic(targetMethod.getModifiers())
-        || (invokeExpr instanceof JSpecialInvokeExpr)) {
+    if (targetMethod == null || MethodModifier.isStatic(targetMethod.getModifiers())) {
       return Stream.of(targetMethodSignature);
     } else {
-      ArrayList<ClassType> noImplementedMethod = new ArrayList<>();
-      List<MethodSignature> targets =
-          resolveAllCallTargets(targetMethodSignature, noImplementedMethod);
-      if (!targetMethod.isAbstract()) {
-        targets.add(targetMethod.getSignature());
-      }
-      if (invokeExpr instanceof JInterfaceInvokeExpr) {
-        IdentifierFactory factory = view.getIdentifierFactory();
-        noImplementedMethod.stream()
-            .map(
-                classType ->
-                    resolveConcreteDispatch(
-                        view,
-                        factory.getMethodSignature(
-                            classType, targetMethodSignature.getSubSignature())))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .forEach(targets::add);
-      }
-      return targets.stream();
+      return dispatchTable.resolveAllCallTargets(targetMethodSignature, isInterfaceInvoke).stream();
     }
   }
 
-  private List<MethodSignature> resolveAllCallTargets(
-      MethodSignature targetMethodSignature, ArrayList<ClassType> noImplementedMethod) {
-    ArrayList<MethodSignature> targets = new ArrayList<>();
-    view.getTypeHierarchy()
-        .subtypesOf(targetMethodSignature.getDeclClassType())
-        .forEach(
-            classType -> {
-              SootClass clazz = view.getClass(classType).orElse(null);
-              if (clazz == null) {
-                return;
-              }
-              // check if method is implemented
-              SootMethod method =
-                  clazz.getMethod(targetMethodSignature.getSubSignature()).orElse(null);
-              if (method != null && !method.isAbstract()) {
-                targets.add(method.getSignature());
-              }
-              // save classes with no implementation of the searched method
-              if (method == null && !clazz.isInterface()) {
-                noImplementedMethod.add(classType);
-              }
-              // collect all default methods
-              clazz
-                  .getInterfaces()
-                  .forEach(
-                      interfaceType -> {
-                        SootMethod defaultMethod =
-                            view.getMethod(
-                                    view.getIdentifierFactory()
-                                        .getMethodSignature(
-                                            interfaceType, targetMethodSignature.getSubSignature()))
-                                .orElse(null);
-                        // contains an implemented default method
-                        if (defaultMethod != null && !defaultMethod.isAbstract()) {
-                          targets.add(defaultMethod.getSignature());
-                        }
-                      });
-            });
-    return targets;
-  }
-
   @Override
   protected void postProcessingMethod(
       View view,
@@ -0,0 +1,944 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.View;
+
+/**
+ * An immutable {@link CallGraph} that stores its calls in primitive arrays. Methods and call sites
+ * are represented by int ids:
+ *
+ * <ul>
+ *   <li>Methods are numbered in the order of their signatures.
+ *   <li>Call sites, i.e. invoke statements, are numbered in the order of their first call.
+ * </ul>
+ *
+ * The outgoing and incoming calls are stored in CSR (compressed sparse row) format. The outgoing
+ * calls of a method are sorted by target and call site, the incoming calls by source and call site.
+ * Hence, a call costs four ints instead of a {@link Call} object and a graph edge, and a call is
+ * found with a binary search.
+ *
+ * <p>The int based methods, e.g. {@link #getOutgoingCallsStart(int)} and {@link
+ * #getOutgoingCallTarget(int)}, query the graph without any allocation. The sets returned by the
+ * methods of {@link CallGraph} are views on the arrays that create {@link Call} objects only while
+ * they are iterated.
+ *
+ * <p>A compact call graph is created from a constructed call graph with {@link #of(CallGraph)} or
+ * {@link MutableCallGraph#freeze()}. {@link #copy()} creates a mutable call graph again. It can be
+ * written via {@link #writeTo(OutputStream, View)} and loaded with {@link #readFrom(Path, View)},
+ * so later analyses do not need to construct the call graph again. A loaded call graph binds the
+ * call sites of a method to the invoke statements of its body only when they are first needed.
+ */
+public class CompactCallGraph implements CallGraph {
+
+  private static final int MAGIC = 0x53554347;
+  private static final int FORMAT_VERSION = 2;
+
+  /** method id -&gt; method */
+  @Nonnull private final MethodSignature[] methods;
+
+  @Nonnull private final Map<MethodSignature, Integer> methodIds;
+
+  /** call site id -&gt; invoke statement, or null if the call site is not bound yet */
+  @Nonnull private final AtomicReferenceArray<InvokableStmt> callSites;
+
+  /**
+   * the locations of the call sites if the call graph was read via {@link #readFrom(Path, View)},
+   * which binds the call sites lazily
+   */
+  @Nullable private final CallSiteLocations callSiteLocations;
+
+  /**
+   * outgoing calls in CSR format, i.e. method i has the calls [outOffsets[i], outOffsets[i+1]). The
+   * buffers are views on the memory mapped file if the call graph was read via {@link
+   * #readFrom(Path, View)}.
+   */
+  @Nonnull private final IntBuffer outOffsets;
+
+  @Nonnull private final IntBuffer outTargets;
+
+  @Nonnull private final IntBuffer outCallSites;
+
+  /** incoming calls in CSR format, mapped like the outgoing calls */
+  @Nonnull private final IntBuffer inOffsets;
+
+  @Nonnull private final IntBuffer inSources;
+
+  @Nonnull private final IntBuffer inCallSites;
+
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  @Nonnull private final Set<MethodSignature> methodSignatures = new MethodSignatureSet();
+
+  private CompactCallGraph(
+      @Nonnull MethodSignature[] methods,
+      @Nonnull AtomicReferenceArray<InvokableStmt> callSites,
+      @Nullable CallSiteLocations callSiteLocations,
+      @Nonnull IntBuffer outOffsets,
+      @Nonnull IntBuffer outTargets,
+      @Nonnull IntBuffer outCallSites,
+      @Nonnull IntBuffer inOffsets,
+      @Nonnull IntBuffer inSources,
+      @Nonnull IntBuffer inCallSites,
+      @Nonnull List<MethodSignature> entryMethods) {
+    this.methods = methods;
+    this.callSites = callSites;
+    this.callSiteLocations = callSiteLocations;
+    this.outOffsets = outOffsets;
+    this.outTargets = outTargets;
+    this.outCallSites = outCallSites;
+    this.inOffsets = inOffsets;
+    this.inSources = inSources;
+    this.inCallSites = inCallSites;
+    this.entryMethods = entryMethods;
+
+    methodIds = new HashMap<>(methods.length * 4 / 3 + 1);
+    for (int i = 0; i < methods.length; i++) {
+      methodIds.put(methods[i], i);
+    }
+  }
+
+  /**
+   * Creates a compact call graph with the methods and calls of the given call graph. The given
+   * call graph must not be modified while it is converted.
+   */
+  @Nonnull
+  public static CompactCallGraph of(@Nonnull CallGraph callGraph) {
+    // compute the string of each signature only once for sorting
+    MethodSignature[] methods =
+        callGraph.getMethodSignatures().stream()
+            .map(method -> new AbstractMap.SimpleImmutableEntry<>(method.toString(), method))
+            .sorted(Map.Entry.comparingByKey())
+            .map(Map.Entry::getValue)
+            .toArray(MethodSignature[]::new);
+    Map<MethodSignature, Integer> methodIds = new HashMap<>(methods.length * 4 / 3 + 1);
+    for (int i = 0; i < methods.length; i++) {
+      methodIds.put(methods[i], i);
+    }
+
+    int[] outOffsets = new int[methods.length + 1];
+    for (int i = 0; i < methods.length; i++) {
+      outOffsets[i + 1] = outOffsets[i] + callGraph.callsFrom(methods[i]).size();
+    }
+    int callCount = outOffsets[methods.length];
+
+    // the target is stored in the upper and the call site in the lower half, so sorting the keys
+    // of a method sorts its calls by target and call site
+    long[] callKeys = new long[callCount];
+    Map<InvokableStmt, Integer> callSiteIds = new IdentityHashMap<>();
+    List<InvokableStmt> callSites = new ArrayList<>();
+    List<Call> calls = new ArrayList<>();
+    for (int i = 0; i < methods.length; i++) {
+      calls.clear();
+      calls.addAll(callGraph.callsFrom(methods[i]));
+      // number the call sites independent of the iteration order of the given call graph
+      calls.sort(
+          Comparator.comparingInt((Call call) -> methodIds.get(call.getTargetMethodSignature()))
+              .thenComparing(call -> call.getInvokableStmt().getPositionInfo().getStmtPosition())
+              .thenComparing(call -> call.getInvokableStmt().toString()));
+      int index = outOffsets[i];
+      for (Call call : calls) {
+        Integer callSite = callSiteIds.get(call.getInvokableStmt());
+        if (callSite == null) {
+          callSite = callSites.size();
+          callSiteIds.put(call.getInvokableStmt(), callSite);
+          callSites.add(call.getInvokableStmt());
+        }
+        int target = methodIds.get(call.getTargetMethodSignature());
+        callKeys[index++] = ((long) target << 32) | callSite;
+      }
+      Arrays.sort(callKeys, outOffsets[i], outOffsets[i + 1]);
+    }
+
+    int[] outTargets = new int[callCount];
+    int[] outCallSites = new int[callCount];
+    for (int i = 0; i < callCount; i++) {
+      outTargets[i] = (int) (callKeys[i] >>> 32);
+      outCallSites[i] = (int) callKeys[i];
+    }
+
+    // the sources are visited in ascending order, so the incoming calls are sorted as well
+    int[] inOffsets = new int[methods.length + 1];
+    for (int i = 0; i < callCount; i++) {
+      inOffsets[outTargets[i] + 1]++;
+    }
+    for (int i = 0; i < methods.length; i++) {
+      inOffsets[i + 1] += inOffsets[i];
+    }
+    int[] inSources = new int[callCount];
+    int[] inCallSites = new int[callCount];
+    int[] next = Arrays.copyOf(inOffsets, methods.length);
+    for (int source = 0; source < methods.length; source++) {
+      for (int i = outOffsets[source]; i < outOffsets[source + 1]; i++) {
+        int index = next[outTargets[i]]++;
+        inSources[index] = source;
+        inCallSites[index] = outCallSites[i];
+      }
+    }
+
+    return new CompactCallGraph(
+        methods,
+        new AtomicReferenceArray<>(callSites.toArray(new InvokableStmt[0])),
+        null,
+        IntBuffer.wrap(outOffsets),
+        IntBuffer.wrap(outTargets),
+        IntBuffer.wrap(outCallSites),
+        IntBuffer.wrap(inOffsets),
+        IntBuffer.wrap(inSources),
+        IntBuffer.wrap(inCallSites),
+        Collections.unmodifiableList(new ArrayList<>(callGraph.getEntryMethods())));
+  }
+
+  /**
+   * Writes the call graph in a binary format. Methods are stored by their signature and call sites
+   * by their line number and their index among the invokable statements of the body of their
+   * method. The outgoing and the incoming calls are written while the arrays are traversed, i.e. no
+   * intermediate representation of the calls is created.
+   *
+   * @param view contains the bodies of the methods of the call sites. It is not used if the call
+   *     graph was read via {@link #readFrom(Path, View)}, as the locations of its call sites are
+   *     already known.
+   * @throws IllegalArgumentException if a call site is not contained in the body of its method
+   * @see #readFrom(Path, View)
+   */
+  public void writeTo(@Nonnull OutputStream outputStream, @Nonnull View view) throws IOException {
+    CallSiteLocations locations =
+        callSiteLocations == null ? locateCallSites(view) : callSiteLocations;
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeInt(methods.length);
+    for (MethodSignature method : methods) {
+      byte[] bytes = method.toString().getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+    out.writeInt(entryMethods.size());
+    for (MethodSignature entryMethod : entryMethods) {
+      out.writeInt(getMethodId(entryMethod));
+    }
+
+    out.writeInt(callSites.length());
+    writeInts(out, locations.methodIds);
+    writeInts(out, locations.lines);
+    writeInts(out, locations.indices);
+
+    out.writeInt(outTargets.limit());
+    writeInts(out, outOffsets);
+    writeInts(out, outTargets);
+    writeInts(out, outCallSites);
+    writeInts(out, inOffsets);
+    writeInts(out, inSources);
+    writeInts(out, inCallSites);
+    out.flush();
+  }
+
+  /** Finds the call sites of this call graph in the bodies of their methods. */
+  @Nonnull
+  private CallSiteLocations locateCallSites(@Nonnull View view) {
+    int[] callSiteMethodIds = new int[callSites.length()];
+    for (int source = 0; source < methods.length; source++) {
+      for (int i = outOffsets.get(source); i < outOffsets.get(source + 1); i++) {
+        callSiteMethodIds[outCallSites.get(i)] = source;
+      }
+    }
+    int[] lines = new int[callSites.length()];
+    int[] indices = new int[callSites.length()];
+    int stmtsMethod = -1;
+    Map<Stmt, Integer> stmtIndices = Collections.emptyMap();
+    for (int callSite = 0; callSite < callSites.length(); callSite++) {
+      // the call sites are numbered method by method, so each body is only traversed once
+      if (callSiteMethodIds[callSite] != stmtsMethod) {
+        stmtsMethod = callSiteMethodIds[callSite];
+        stmtIndices = new IdentityHashMap<>();
+        List<InvokableStmt> stmts = invokableStmtsOf(view, methods[stmtsMethod]);
+        if (stmts != null) {
+          for (InvokableStmt stmt : stmts) {
+            stmtIndices.put(stmt, stmtIndices.size());
+          }
+        }
+      }
+      InvokableStmt stmt = callSites.get(callSite);
+      Integer index = stmtIndices.get(stmt);
+      if (index == null) {
+        throw new IllegalArgumentException(
+            "The call site " + stmt + " is not contained in the body of " + methods[stmtsMethod]);
+      }
+      lines[callSite] = stmt.getPositionInfo().getStmtPosition().getFirstLine();
+      indices[callSite] = index;
+    }
+    return new CallSiteLocations(
+        view, IntBuffer.wrap(callSiteMethodIds), IntBuffer.wrap(lines), IntBuffer.wrap(indices));
+  }
+
+  /**
+   * Loads a call graph that was written by {@link #writeTo(OutputStream, View)}. The file is memory
+   * mapped and the calls are not copied, i.e. the call graph reads the outgoing and incoming calls
+   * from the mapped file. The call sites of a method are bound to the invoke statements of its body
+   * in the given view when they are first needed, e.g. by {@link #callsFrom(MethodSignature)}, so
+   * only the bodies of the methods whose call sites are queried have to be available.
+   *
+   * @param view contains the methods of the call graph. It has to contain the same bodies as the
+   *     view the call graph was written with, otherwise binding the call sites of a method throws
+   *     an {@link IllegalStateException}.
+   * @throws IOException if the file is not a call graph or is corrupt
+   */
+  @Nonnull
+  public static CompactCallGraph readFrom(@Nonnull Path file, @Nonnull View view)
+      throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("The call graph file " + file + " is too large to be mapped.");
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("Not a serialized CompactCallGraph.");
+      }
+      int version = buffer.getInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported CompactCallGraph format version " + version + ".");
+      }
+      MethodSignature[] methods = new MethodSignature[readCount(buffer, Integer.BYTES, "methods")];
+      for (int i = 0; i < methods.length; i++) {
+        byte[] bytes = new byte[readCount(buffer, 1, "signature bytes")];
+        buffer.get(bytes);
+        String signature = new String(bytes, StandardCharsets.UTF_8);
+        try {
+          methods[i] = view.getIdentifierFactory().parseMethodSignature(signature);
+        } catch (IllegalArgumentException e) {
+          throw new IOException("Invalid method signature " + signature + ".", e);
+        }
+      }
+      List<MethodSignature> entryMethods = new ArrayList<>();
+      int entryMethodCount = readCount(buffer, Integer.BYTES, "entry methods");
+      for (int i = 0; i < entryMethodCount; i++) {
+        entryMethods.add(methods[readId(buffer, methods.length, "entry method")]);
+      }
+
+      int callSiteCount = readCount(buffer, 3 * Integer.BYTES, "call sites");
+      CallSiteLocations callSiteLocations =
+          new CallSiteLocations(
+              view,
+              readInts(buffer, callSiteCount),
+              readInts(buffer, callSiteCount),
+              readInts(buffer, callSiteCount));
+      checkCallSites(callSiteLocations.methodIds, methods.length);
+
+      int callCount = readCount(buffer, 4 * Integer.BYTES, "calls");
+      IntBuffer outOffsets = readInts(buffer, methods.length + 1);
+      IntBuffer outTargets = readInts(buffer, callCount);
+      IntBuffer outCallSites = readInts(buffer, callCount);
+      IntBuffer inOffsets = readInts(buffer, methods.length + 1);
+      IntBuffer inSources = readInts(buffer, callCount);
+      IntBuffer inCallSites = readInts(buffer, callCount);
+      checkCalls(outOffsets, outTargets, outCallSites, callSiteLocations.methodIds, true);
+      checkCalls(inOffsets, inSources, inCallSites, callSiteLocations.methodIds, false);
+      return new CompactCallGraph(
+          methods,
+          new AtomicReferenceArray<>(callSiteCount),
+          callSiteLocations,
+          outOffsets,
+          outTargets,
+          outCallSites,
+          inOffsets,
+          inSources,
+          inCallSites,
+          Collections.unmodifiableList(entryMethods));
+    } catch (BufferUnderflowException e) {
+      throw new IOException("The call graph file " + file + " is truncated.", e);
+    }
+  }
+
+  /**
+   * Reads the number of the following elements, which take at least the given number of bytes
+   * each, so a corrupt count is detected before anything is allocated for it.
+   */
+  private static int readCount(@Nonnull ByteBuffer buffer, int minElementBytes, String elements)
+      throws IOException {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / minElementBytes) {
+      throw new IOException("Invalid number of " + elements + ": " + count + ".");
+    }
+    return count;
+  }
+
+  private static int readId(@Nonnull ByteBuffer buffer, int idCount, String element)
+      throws IOException {
+    int id = buffer.getInt();
+    checkId(id, idCount, element);
+    return id;
+  }
+
+  private static void checkId(int id, int idCount, String element) throws IOException {
+    if (id < 0 || id >= idCount) {
+      throw new IOException("Invalid " + element + " id " + id + ".");
+    }
+  }
+
+  /** @return a view on the next length ints of the buffer, i.e. the ints are not copied */
+  @Nonnull
+  private static IntBuffer readInts(@Nonnull ByteBuffer buffer, int length) {
+    if (length > buffer.remaining() / Integer.BYTES) {
+      throw new BufferUnderflowException();
+    }
+    ByteBuffer ints = buffer.slice();
+    ints.limit(length * Integer.BYTES);
+    buffer.position(buffer.position() + length * Integer.BYTES);
+    return ints.asIntBuffer();
+  }
+
+  /**
+   * Checks that the call sites are numbered method by method, which the binding of the call sites
+   * of a method relies on.
+   */
+  private static void checkCallSites(@Nonnull IntBuffer callSiteMethodIds, int methodCount)
+      throws IOException {
+    for (int callSite = 0; callSite < callSiteMethodIds.limit(); callSite++) {
+      checkId(callSiteMethodIds.get(callSite), methodCount, "call site method");
+      if (callSite > 0 && callSiteMethodIds.get(callSite) < callSiteMethodIds.get(callSite - 1)) {
+        throw new IOException("The call sites are not sorted by method.");
+      }
+    }
+  }
+
+  /**
+   * Checks that the outgoing or incoming calls that were read are in CSR format, i.e. the offsets
+   * are ascending, and the calls of each method are sorted by the other method and call site, which
+   * the binary searches rely on. The call site of each call has to belong to its source method.
+   */
+  private static void checkCalls(
+      @Nonnull IntBuffer offsets,
+      @Nonnull IntBuffer otherMethods,
+      @Nonnull IntBuffer callSites,
+      @Nonnull IntBuffer callSiteMethodIds,
+      boolean outgoing)
+      throws IOException {
+    String direction = outgoing ? "outgoing" : "incoming";
+    int methodCount = offsets.limit() - 1;
+    if (offsets.get(0) != 0 || offsets.get(methodCount) != otherMethods.limit()) {
+      throw new IOException("The " + direction + " call offsets do not match the number of calls.");
+    }
+    for (int method = 0; method < methodCount; method++) {
+      int start = offsets.get(method);
+      int end = offsets.get(method + 1);
+      if (end < start) {
+        throw new IOException(
+            "The " + direction + " call offsets of method " + method + " are descending.");
+      }
+      for (int i = start; i < end; i++) {
+        checkId(otherMethods.get(i), methodCount, outgoing ? "call target" : "call source");
+        checkId(callSites.get(i), callSiteMethodIds.limit(), "call site");
+        int source = outgoing ? method : otherMethods.get(i);
+        if (callSiteMethodIds.get(callSites.get(i)) != source) {
+          throw new IOException(
+              "The call site " + callSites.get(i) + " does not belong to method " + source + ".");
+        }
+        if (i > start
+            && (otherMethods.get(i) < otherMethods.get(i - 1)
+                || (otherMethods.get(i) == otherMethods.get(i - 1)
+                    && callSites.get(i) < callSites.get(i - 1)))) {
+          throw new IOException(
+              "The " + direction + " calls of method " + method + " are not sorted.");
+        }
+      }
+    }
+  }
+
+  /** @return the invokable statements of the body of the method, or null if it has no body */
+  @Nullable
+  private static List<InvokableStmt> invokableStmtsOf(
+      @Nonnull View view, @Nonnull MethodSignature method) {
+    Optional<? extends SootMethod> sootMethod = view.getMethod(method);
+    if (!sootMethod.isPresent() || !sootMethod.get().hasBody()) {
+      return null;
+    }
+    return sootMethod.get().getBody().getStmts().stream()
+        .filter(Stmt::isInvokableStmt)
+        .map(Stmt::asInvokableStmt)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return the invoke statement of the given call site. The call sites of a call graph that was
+   *     read are bound to the statements of the body of their method on first use.
+   * @throws IllegalStateException if the body of the method does not match the call sites
+   */
+  @Nonnull
+  private InvokableStmt callSiteOf(int callSiteId) {
+    InvokableStmt stmt = callSites.get(callSiteId);
+    if (stmt == null) {
+      // only a call graph that was read has unbound call sites
+      bindCallSites(callSiteLocations, callSiteLocations.methodIds.get(callSiteId));
+      stmt = callSites.get(callSiteId);
+    }
+    return stmt;
+  }
+
+  /** Binds the call sites of the given method to the invoke statements of its body. */
+  private void bindCallSites(@Nonnull CallSiteLocations locations, int method) {
+    List<InvokableStmt> stmts = invokableStmtsOf(locations.view, methods[method]);
+    if (stmts == null) {
+      throw new IllegalStateException("The view does not contain a body for " + methods[method]);
+    }
+    int callSiteCount = callSites.length();
+    for (int callSite = findFirst(locations.methodIds, 0, callSiteCount, method);
+        callSite < callSiteCount && locations.methodIds.get(callSite) == method;
+        callSite++) {
+      int line = locations.lines.get(callSite);
+      int index = locations.indices.get(callSite);
+      if (index < 0
+          || index >= stmts.size()
+          || stmts.get(index).getPositionInfo().getStmtPosition().getFirstLine() != line) {
+        throw new IllegalStateException(
+            "The call site at line "
+                + line
+                + " of "
+                + methods[method]
+                + " does not match the body in the view.");
+      }
+      // another thread may have bound the call site concurrently
+      callSites.compareAndSet(callSite, null, stmts.get(index));
+    }
+  }
+
+  private static void writeInts(@Nonnull DataOutputStream out, @Nonnull IntBuffer values)
+      throws IOException {
+    for (int i = 0; i < values.limit(); i++) {
+      out.writeInt(values.get(i));
+    }
+  }
+
+  /** @return the number of methods in this call graph */
+  public int getMethodCount() {
+    return methods.length;
+  }
+
+  /** @return the id of the given method, or -1 if it is not contained in this call graph */
+  public int getMethodId(@Nonnull MethodSignature method) {
+    Integer id = methodIds.get(method);
+    return id == null ? -1 : id;
+  }
+
+  @Nonnull
+  public MethodSignature getMethod(int methodId) {
+    return methods[methodId];
+  }
+
+  /** @return the number of distinct invoke statements of the calls in this call graph */
+  public int getCallSiteCount() {
+    return callSites.length();
+  }
+
+  /**
+   * @throws IllegalStateException if the call graph was read and the body of the method of the call
+   *     site does not match the call graph
+   */
+  @Nonnull
+  public InvokableStmt getCallSite(int callSiteId) {
+    return callSiteOf(callSiteId);
+  }
+
+  /** @return the index of the first outgoing call of the given method */
+  public int getOutgoingCallsStart(int methodId) {
+    return outOffsets.get(methodId);
+  }
+
+  /** @return the exclusive end index of the outgoing calls of the given method */
+  public int getOutgoingCallsEnd(int methodId) {
+    return outOffsets.get(methodId + 1);
+  }
+
+  /** @return the method id of the target of the outgoing call at the given index */
+  public int getOutgoingCallTarget(int index) {
+    return outTargets.get(index);
+  }
+
+  /** @return the call site id of the outgoing call at the given index */
+  public int getOutgoingCallSite(int index) {
+    return outCallSites.get(index);
+  }
+
+  /** @return the index of the first incoming call of the given method */
+  public int getIncomingCallsStart(int methodId) {
+    return inOffsets.get(methodId);
+  }
+
+  /** @return the exclusive end index of the incoming calls of the given method */
+  public int getIncomingCallsEnd(int methodId) {
+    return inOffsets.get(methodId + 1);
+  }
+
+  /** @return the method id of the source of the incoming call at the given index */
+  public int getIncomingCallSource(int index) {
+    return inSources.get(index);
+  }
+
+  /** @return the call site id of the incoming call at the given index */
+  public int getIncomingCallSite(int index) {
+    return inCallSites.get(index);
+  }
+
+  /**
+   * Checks if the given call is contained in this call graph without any allocation.
+   *
+   * @return true if the source method calls the target method at the given call site
+   */
+  public boolean containsCall(int sourceId, int targetId, int callSiteId) {
+    int index =
+        findFirst(outTargets, outOffsets.get(sourceId), outOffsets.get(sourceId + 1), targetId);
+    for (; index < outOffsets.get(sourceId + 1) && outTargets.get(index) == targetId; index++) {
+      if (outCallSites.get(index) == callSiteId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return methodSignatures;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    int source = idOf(sourceMethod);
+    return new DistinctMethodSet(outTargets, outOffsets.get(source), outOffsets.get(source + 1));
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    int target = idOf(targetMethod);
+    return new DistinctMethodSet(inSources, inOffsets.get(target), inOffsets.get(target + 1));
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    return new CallSet(idOf(sourceMethod), true);
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    return new CallSet(idOf(targetMethod), false);
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return methodIds.containsKey(method);
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      InvokableStmt invokableStmt) {
+    Integer source = methodIds.get(sourceMethod);
+    Integer target = methodIds.get(targetMethod);
+    if (source == null || target == null) {
+      return false;
+    }
+    int index = findFirst(outTargets, outOffsets.get(source), outOffsets.get(source + 1), target);
+    for (; index < outOffsets.get(source + 1) && outTargets.get(index) == target; index++) {
+      if (callSiteOf(outCallSites.get(index)) == invokableStmt) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean containsCall(@Nonnull Call call) {
+    return containsCall(
+        call.getSourceMethodSignature(),
+        call.getTargetMethodSignature(),
+        call.getInvokableStmt());
+  }
+
+  @Override
+  public int callCount() {
+    return outTargets.limit();
+  }
+
+  @Override
+  public String exportAsDot() {
+    return copy().exportAsDot();
+  }
+
+  /** @return a {@link GraphBasedCallGraph} with the methods and calls of this call graph */
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    GraphBasedCallGraph callGraph = new GraphBasedCallGraph(new ArrayList<>(entryMethods));
+    for (MethodSignature method : methods) {
+      callGraph.addMethod(method);
+    }
+    for (int source = 0; source < methods.length; source++) {
+      for (int i = outOffsets.get(source); i < outOffsets.get(source + 1); i++) {
+        callGraph.addCall(
+            methods[source], methods[outTargets.get(i)], callSiteOf(outCallSites.get(i)));
+      }
+    }
+    return callGraph;
+  }
+
+  @Override
+  @Nonnull
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+
+  @Nonnull
+  @Override
+  public CallGraphDifference diff(@Nonnull CallGraph callGraph) {
+    return new CallGraphDifference(this, callGraph);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" + callCount() + ")";
+  }
+
+  private int idOf(@Nonnull MethodSignature method) {
+    Integer id = methodIds.get(method);
+    if (id == null) {
+      throw new IllegalArgumentException("Vertex of Method signature " + method + " not found");
+    }
+    return id;
+  }
+
+  /** @return the first index in [from, to) of the sorted buffer whose value is not below key */
+  private static int findFirst(IntBuffer sorted, int from, int to, int key) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted.get(mid) < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** A view on all methods of the call graph. */
+  private class MethodSignatureSet extends AbstractSet<MethodSignature> {
+
+    @Override
+    public boolean contains(Object o) {
+      return methodIds.containsKey(o);
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<MethodSignature> iterator() {
+      return Collections.unmodifiableList(Arrays.asList(methods)).iterator();
+    }
+
+    @Override
+    public int size() {
+      return methods.length;
+    }
+  }
+
+  /** A view on the distinct method ids in the sorted range [start, end) of a buffer. */
+  private class DistinctMethodSet extends AbstractSet<MethodSignature> {
+    @Nonnull private final IntBuffer methodIdBuffer;
+    private final int start;
+    private final int end;
+
+    private DistinctMethodSet(@Nonnull IntBuffer methodIdBuffer, int start, int end) {
+      this.methodIdBuffer = methodIdBuffer;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer id = methodIds.get(o);
+      if (id == null) {
+        return false;
+      }
+      int index = findFirst(methodIdBuffer, start, end, id);
+      return index < end && methodIdBuffer.get(index) == id;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<MethodSignature> iterator() {
+      return new Iterator<MethodSignature>() {
+        int index = start;
+
+        @Override
+        public boolean hasNext() {
+          return index < end;
+        }
+
+        @Override
+        public MethodSignature next() {
+          if (index >= end) {
+            throw new NoSuchElementException();
+          }
+          int id = methodIdBuffer.get(index);
+          // skip the other calls with the same method
+          while (index < end && methodIdBuffer.get(index) == id) {
+            index++;
+          }
+          return methods[id];
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      int size = 0;
+      for (int i = start; i < end; i++) {
+        if (i == start || methodIdBuffer.get(i) != methodIdBuffer.get(i - 1)) {
+          size++;
+        }
+      }
+      return size;
+    }
+  }
+
+  /** A view on the outgoing or incoming calls of a method. */
+  private class CallSet extends AbstractSet<Call> {
+    private final int methodId;
+    private final boolean outgoing;
+
+    private CallSet(int methodId, boolean outgoing) {
+      this.methodId = methodId;
+      this.outgoing = outgoing;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Call)) {
+        return false;
+      }
+      Call call = (Call) o;
+      MethodSignature method =
+          outgoing ? call.getSourceMethodSignature() : call.getTargetMethodSignature();
+      return method.equals(methods[methodId]) && containsCall(call);
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Call> iterator() {
+      IntBuffer offsets = outgoing ? outOffsets : inOffsets;
+      return new Iterator<Call>() {
+        int index = offsets.get(methodId);
+
+        @Override
+        public boolean hasNext() {
+          return index < offsets.get(methodId + 1);
+        }
+
+        @Override
+        public Call next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int i = index++;
+          if (outgoing) {
+            return new Call(
+                methods[methodId], methods[outTargets.get(i)], callSiteOf(outCallSites.get(i)));
+          }
+          return new Call(
+              methods[inSources.get(i)], methods[methodId], callSiteOf(inCallSites.get(i)));
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return outgoing
+          ? outOffsets.get(methodId + 1) - outOffsets.get(methodId)
+          : inOffsets.get(methodId + 1) - inOffsets.get(methodId);
+    }
+  }
+
+  /**
+   * The locations of the call sites in the bodies of their methods: for each call site id the id of
+   * its method, its first line and its index among the invokable statements of the body. The call
+   * sites are numbered method by method, so the method ids are ascending.
+   */
+  private static class CallSiteLocations {
+    @Nonnull private final View view;
+    @Nonnull private final IntBuffer methodIds;
+    @Nonnull private final IntBuffer lines;
+    @Nonnull private final IntBuffer indices;
+
+    private CallSiteLocations(
+        @Nonnull View view,
+        @Nonnull IntBuffer methodIds,
+        @Nonnull IntBuffer lines,
+        @Nonnull IntBuffer indices) {
+      this.view = view;
+      this.methodIds = methodIds;
+      this.lines = lines;
+      this.indices = indices;
+    }
+  }
+}
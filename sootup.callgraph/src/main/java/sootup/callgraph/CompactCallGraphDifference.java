@@ -0,0 +1,362 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * The difference of two {@link CompactCallGraph}s, computed in a single pass over both graphs.
+ * Unlike {@link CallGraphDifference}, neither the methods nor the calls of the graphs are copied:
+ * the methods of both graphs are sorted by their signature, so the graphs are walked in parallel
+ * like two sorted lists. Besides the graphs themselves, only two int arrays mapping the method ids
+ * of one graph to the other are allocated.
+ *
+ * <p>As in {@link CallGraphDifference}, a call is a pair of source and target method, i.e. several
+ * call sites of the same target count once. The difference provides the number of common, removed
+ * and added methods and calls as well as these numbers per package of the methods and of the
+ * source methods of the calls. Optionally, the removed and added calls are written to a {@link
+ * Writer} while the graphs are walked, one per line:
+ *
+ * <pre>
+ * - &lt;a.A: void m()&gt; -&gt; &lt;a.B: void n()&gt;
+ * + &lt;a.A: void m()&gt; -&gt; &lt;a.C: void n()&gt;
+ * </pre>
+ */
+public class CompactCallGraphDifference {
+
+  /** The removed and added methods and calls of a package. */
+  public static final class PackageDelta {
+    private int removedMethods;
+    private int addedMethods;
+    private int removedCalls;
+    private int addedCalls;
+
+    private PackageDelta() {}
+
+    public int getRemovedMethodCount() {
+      return removedMethods;
+    }
+
+    public int getAddedMethodCount() {
+      return addedMethods;
+    }
+
+    public int getRemovedCallCount() {
+      return removedCalls;
+    }
+
+    public int getAddedCallCount() {
+      return addedCalls;
+    }
+
+    @Override
+    public String toString() {
+      return "-"
+          + removedMethods
+          + "/+"
+          + addedMethods
+          + " methods, -"
+          + removedCalls
+          + "/+"
+          + addedCalls
+          + " calls";
+    }
+  }
+
+  @Nonnull private final CompactCallGraph baseCallGraph;
+  @Nonnull private final CompactCallGraph otherCallGraph;
+  @Nullable private final Writer callWriter;
+
+  /** base method id -&gt; other method id, or -1 */
+  @Nonnull private final int[] baseToOther;
+
+  /** other method id -&gt; base method id, or -1 */
+  @Nonnull private final int[] otherToBase;
+
+  private int commonMethods;
+  private int removedMethods;
+  private int addedMethods;
+  private int commonCalls;
+  private int removedCalls;
+  private int addedCalls;
+
+  /** package name -&gt; delta, only packages with changes are contained */
+  @Nonnull private final Map<String, PackageDelta> packageDeltas = new TreeMap<>();
+
+  private CompactCallGraphDifference(
+      @Nonnull CompactCallGraph baseCallGraph,
+      @Nonnull CompactCallGraph otherCallGraph,
+      @Nullable Writer callWriter) {
+    this.baseCallGraph = baseCallGraph;
+    this.otherCallGraph = otherCallGraph;
+    this.callWriter = callWriter;
+    baseToOther = mapMethodIds(baseCallGraph, otherCallGraph);
+    otherToBase = mapMethodIds(otherCallGraph, baseCallGraph);
+  }
+
+  /** Computes the difference of the given call graphs. */
+  @Nonnull
+  public static CompactCallGraphDifference of(
+      @Nonnull CompactCallGraph baseCallGraph, @Nonnull CompactCallGraph otherCallGraph) {
+    try {
+      return of(baseCallGraph, otherCallGraph, null);
+    } catch (IOException e) {
+      // there is no writer
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Computes the difference of the given call graphs and writes each removed and added call to the
+   * given writer. The calls are written grouped by their source method in the order of the
+   * signatures of the source methods. The writer is neither flushed nor closed.
+   *
+   * @param callWriter receives the removed and added calls, or null if they are not needed
+   */
+  @Nonnull
+  public static CompactCallGraphDifference of(
+      @Nonnull CompactCallGraph baseCallGraph,
+      @Nonnull CompactCallGraph otherCallGraph,
+      @Nullable Writer callWriter)
+      throws IOException {
+    CompactCallGraphDifference difference =
+        new CompactCallGraphDifference(baseCallGraph, otherCallGraph, callWriter);
+    difference.compute();
+    return difference;
+  }
+
+  @Nonnull
+  private static int[] mapMethodIds(@Nonnull CompactCallGraph from, @Nonnull CompactCallGraph to) {
+    int[] ids = new int[from.getMethodCount()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = to.getMethodId(from.getMethod(i));
+    }
+    return ids;
+  }
+
+  private void compute() throws IOException {
+    int base = 0;
+    int other = 0;
+    while (base < baseToOther.length || other < otherToBase.length) {
+      if (base < baseToOther.length && baseToOther[base] >= 0) {
+        if (other < otherToBase.length && otherToBase[other] < 0) {
+          addMethod(other++);
+        } else {
+          // the ids of common methods are in the same order in both graphs
+          compareCalls(base, baseToOther[base]);
+          commonMethods++;
+          base++;
+          other++;
+        }
+      } else if (base >= baseToOther.length) {
+        addMethod(other++);
+      } else if (other >= otherToBase.length || otherToBase[other] >= 0) {
+        removeMethod(base++);
+      } else if (baseCallGraph
+              .getMethod(base)
+              .toString()
+              .compareTo(otherCallGraph.getMethod(other).toString())
+          < 0) {
+        // the signatures are only compared if both methods are contained in one graph only
+        removeMethod(base++);
+      } else {
+        addMethod(other++);
+      }
+    }
+  }
+
+  private void removeMethod(int base) throws IOException {
+    removedMethods++;
+    MethodSignature method = baseCallGraph.getMethod(base);
+    packageDelta(method).removedMethods++;
+    int end = baseCallGraph.getOutgoingCallsEnd(base);
+    for (int i = baseCallGraph.getOutgoingCallsStart(base);
+        i < end;
+        i = nextTarget(baseCallGraph, i, end)) {
+      removeCall(method, baseCallGraph.getOutgoingCallTarget(i));
+    }
+  }
+
+  private void addMethod(int other) throws IOException {
+    addedMethods++;
+    MethodSignature method = otherCallGraph.getMethod(other);
+    packageDelta(method).addedMethods++;
+    int end = otherCallGraph.getOutgoingCallsEnd(other);
+    for (int i = otherCallGraph.getOutgoingCallsStart(other);
+        i < end;
+        i = nextTarget(otherCallGraph, i, end)) {
+      addCall(method, otherCallGraph.getOutgoingCallTarget(i));
+    }
+  }
+
+  /** Merges the outgoing calls of a method that is contained in both graphs. */
+  private void compareCalls(int base, int other) throws IOException {
+    MethodSignature method = baseCallGraph.getMethod(base);
+    int baseIndex = baseCallGraph.getOutgoingCallsStart(base);
+    int baseEnd = baseCallGraph.getOutgoingCallsEnd(base);
+    int otherIndex = otherCallGraph.getOutgoingCallsStart(other);
+    int otherEnd = otherCallGraph.getOutgoingCallsEnd(other);
+    while (baseIndex < baseEnd || otherIndex < otherEnd) {
+      int baseTarget = baseIndex < baseEnd ? baseCallGraph.getOutgoingCallTarget(baseIndex) : -1;
+      int otherTarget =
+          otherIndex < otherEnd ? otherCallGraph.getOutgoingCallTarget(otherIndex) : -1;
+      // the target of the base call as id of the other graph
+      int mappedTarget = baseTarget < 0 ? -1 : baseToOther[baseTarget];
+      if (otherTarget < 0
+          || (baseTarget >= 0
+              && (mappedTarget < 0
+                  || (otherToBase[otherTarget] >= 0 && mappedTarget < otherTarget)))) {
+        removeCall(method, baseTarget);
+        baseIndex = nextTarget(baseCallGraph, baseIndex, baseEnd);
+      } else if (baseTarget < 0 || mappedTarget != otherTarget) {
+        addCall(method, otherTarget);
+        otherIndex = nextTarget(otherCallGraph, otherIndex, otherEnd);
+      } else {
+        commonCalls++;
+        baseIndex = nextTarget(baseCallGraph, baseIndex, baseEnd);
+        otherIndex = nextTarget(otherCallGraph, otherIndex, otherEnd);
+      }
+    }
+  }
+
+  /**
+   * The outgoing calls of a method are sorted by their target, so the calls of further call sites
+   * to the same target follow directly.
+   *
+   * @return the index of the next outgoing call with a different target
+   */
+  private static int nextTarget(@Nonnull CompactCallGraph callGraph, int index, int end) {
+    int target = callGraph.getOutgoingCallTarget(index);
+    do {
+      index++;
+    } while (index < end && callGraph.getOutgoingCallTarget(index) == target);
+    return index;
+  }
+
+  private void removeCall(@Nonnull MethodSignature source, int target) throws IOException {
+    removedCalls++;
+    packageDelta(source).removedCalls++;
+    writeCall('-', source, baseCallGraph.getMethod(target));
+  }
+
+  private void addCall(@Nonnull MethodSignature source, int target) throws IOException {
+    addedCalls++;
+    packageDelta(source).addedCalls++;
+    writeCall('+', source, otherCallGraph.getMethod(target));
+  }
+
+  private void writeCall(char kind, @Nonnull MethodSignature source, MethodSignature target)
+      throws IOException {
+    if (callWriter != null) {
+      callWriter.write(kind);
+      callWriter.write(' ');
+      callWriter.write(source.toString());
+      callWriter.write(" -> ");
+      callWriter.write(target.toString());
+      callWriter.write('\n');
+    }
+  }
+
+  @Nonnull
+  private PackageDelta packageDelta(@Nonnull MethodSignature method) {
+    return packageDeltas.computeIfAbsent(
+        method.getDeclClassType().getPackageName().getName(), name -> new PackageDelta());
+  }
+
+  @Nonnull
+  public CompactCallGraph getBaseCallGraph() {
+    return baseCallGraph;
+  }
+
+  @Nonnull
+  public CompactCallGraph getOtherCallGraph() {
+    return otherCallGraph;
+  }
+
+  /** @return the number of methods contained in both call graphs */
+  public int getCommonMethodCount() {
+    return commonMethods;
+  }
+
+  /** @return the number of methods contained in the base call graph only */
+  public int getRemovedMethodCount() {
+    return removedMethods;
+  }
+
+  /** @return the number of methods contained in the other call graph only */
+  public int getAddedMethodCount() {
+    return addedMethods;
+  }
+
+  /** @return the number of source and target pairs contained in both call graphs */
+  public int getCommonCallCount() {
+    return commonCalls;
+  }
+
+  /** @return the number of source and target pairs contained in the base call graph only */
+  public int getRemovedCallCount() {
+    return removedCalls;
+  }
+
+  /** @return the number of source and target pairs contained in the other call graph only */
+  public int getAddedCallCount() {
+    return addedCalls;
+  }
+
+  /** @return true if both call graphs contain the same methods and calls */
+  public boolean isEmpty() {
+    return removedMethods == 0 && addedMethods == 0 && removedCalls == 0 && addedCalls == 0;
+  }
+
+  /**
+   * @return the changes per package sorted by the package name. Methods are assigned to the
+   *     package of their declaring class and calls to the package of their source method. Packages
+   *     without changes are not contained.
+   */
+  @Nonnull
+  public Map<String, PackageDelta> getPackageDeltas() {
+    return Collections.unmodifiableMap(packageDeltas);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "(methods: -"
+        + removedMethods
+        + "/+"
+        + addedMethods
+        + ", calls: -"
+        + removedCalls
+        + "/+"
+        + addedCalls
+        + ")";
+  }
+}
@@ -0,0 +1,272 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A mutable call graph that can be modified by several threads at the same time. It is used by the
+ * parallel construction of the call graph algorithms.
+ *
+ * <p>The order in which the methods and calls are returned depends on the order in which the
+ * threads added them. {@link #toGraphBasedCallGraph()} creates a call graph with a canonical order
+ * that does not depend on the scheduling of the threads.
+ */
+public class ConcurrentCallGraph implements MutableCallGraph {
+
+  /** The outgoing and incoming calls of a method in the call graph. */
+  private static class Node {
+    @Nonnull final Set<Call> outgoingCalls = ConcurrentHashMap.newKeySet();
+    @Nonnull final Set<Call> incomingCalls = ConcurrentHashMap.newKeySet();
+  }
+
+  @Nonnull private final ConcurrentHashMap<MethodSignature, Node> signatureToNode;
+  @Nonnull private volatile List<MethodSignature> entryMethods;
+  @Nonnull private final AtomicInteger callCount = new AtomicInteger();
+
+  /** The constructor of the concurrent call graph. it initializes the call graph object. */
+  public ConcurrentCallGraph(@Nonnull List<MethodSignature> entryMethods) {
+    this.signatureToNode = new ConcurrentHashMap<>();
+    this.entryMethods = entryMethods;
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    signatureToNode.computeIfAbsent(calledMethod, method -> new Node());
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    addCall(new Call(sourceMethod, targetMethod, invokableStmt));
+  }
+
+  @Override
+  public void addCall(@Nonnull Call call) {
+    Node source = signatureToNode.computeIfAbsent(call.getSourceMethodSignature(), m -> new Node());
+    Node target = signatureToNode.computeIfAbsent(call.getTargetMethodSignature(), m -> new Node());
+    if (source.outgoingCalls.add(call)) {
+      target.incomingCalls.add(call);
+      callCount.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void removeMethod(@Nonnull MethodSignature method) {
+    Node node = signatureToNode.remove(method);
+    if (node == null) {
+      return;
+    }
+    for (Call call : node.outgoingCalls) {
+      removeCall(call, node, signatureToNode.get(call.getTargetMethodSignature()));
+    }
+    for (Call call : node.incomingCalls) {
+      removeCall(call, signatureToNode.get(call.getSourceMethodSignature()), node);
+    }
+  }
+
+  @Override
+  public void removeCall(@Nonnull Call call) {
+    removeCall(
+        call,
+        signatureToNode.get(call.getSourceMethodSignature()),
+        signatureToNode.get(call.getTargetMethodSignature()));
+  }
+
+  private void removeCall(@Nonnull Call call, @Nullable Node source, @Nullable Node target) {
+    // the call is counted by the outgoing calls of its source. If the source is already removed,
+    // the call was counted down by the removal of its source.
+    if (source != null && source.outgoingCalls.remove(call)) {
+      callCount.decrementAndGet();
+    }
+    if (target != null) {
+      target.incomingCalls.remove(call);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(signatureToNode.keySet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    return callsFrom(sourceMethod).stream()
+        .map(Call::getTargetMethodSignature)
+        .collect(Collectors.toSet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    return callsTo(targetMethod).stream()
+        .map(Call::getSourceMethodSignature)
+        .collect(Collectors.toSet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    return Collections.unmodifiableSet(nodeOf(sourceMethod).outgoingCalls);
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    return Collections.unmodifiableSet(nodeOf(targetMethod).incomingCalls);
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return signatureToNode.containsKey(method);
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      InvokableStmt invokableStmt) {
+    return containsCall(new Call(sourceMethod, targetMethod, invokableStmt));
+  }
+
+  @Override
+  public boolean containsCall(@Nonnull Call call) {
+    Node source = signatureToNode.get(call.getSourceMethodSignature());
+    return source != null && source.outgoingCalls.contains(call);
+  }
+
+  @Override
+  public int callCount() {
+    return callCount.get();
+  }
+
+  @Override
+  public String exportAsDot() {
+    return toGraphBasedCallGraph().exportAsDot();
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    ConcurrentCallGraph copy = new ConcurrentCallGraph(new ArrayList<>(entryMethods));
+    signatureToNode.forEach(
+        (method, node) -> {
+          copy.addMethod(method);
+          node.outgoingCalls.forEach(copy::addCall);
+        });
+    return copy;
+  }
+
+  @Override
+  @Nonnull
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+
+  @Override
+  public void setEntryMethods(@Nonnull List<MethodSignature> entryMethods) {
+    this.entryMethods = new ArrayList<>(entryMethods);
+  }
+
+  @Nonnull
+  @Override
+  public CallGraphDifference diff(@Nonnull CallGraph callGraph) {
+    return new CallGraphDifference(this, callGraph);
+  }
+
+  /**
+   * Creates a {@link GraphBasedCallGraph} with the methods and calls of this call graph. The
+   * methods are added sorted by their signature and the calls sorted by their source, their target
+   * and the position of their invoke statement. Hence, the created call graph is the same for every
+   * run, no matter in which order the threads added the methods and calls to this call graph.
+   *
+   * <p>This call graph must not be modified while it is converted.
+   *
+   * @return a call graph containing the methods and calls of this call graph in a canonical order
+   */
+  @Nonnull
+  public GraphBasedCallGraph toGraphBasedCallGraph() {
+    // compute the string of each signature only once for sorting
+    List<Map.Entry<String, MethodSignature>> keyedMethods =
+        signatureToNode.keySet().stream()
+            .map(method -> new AbstractMap.SimpleImmutableEntry<>(method.toString(), method))
+            .sorted(Map.Entry.comparingByKey())
+            .collect(Collectors.toList());
+    Map<MethodSignature, Integer> methodIndices = new HashMap<>();
+    for (Map.Entry<String, MethodSignature> entry : keyedMethods) {
+      methodIndices.put(entry.getValue(), methodIndices.size());
+    }
+
+    List<Call> calls = new ArrayList<>(callCount());
+    signatureToNode.values().forEach(node -> calls.addAll(node.outgoingCalls));
+    calls.sort(
+        Comparator.comparingInt((Call call) -> methodIndices.get(call.getSourceMethodSignature()))
+            .thenComparingInt(call -> methodIndices.get(call.getTargetMethodSignature()))
+            .thenComparing(call -> call.getInvokableStmt().getPositionInfo().getStmtPosition())
+            .thenComparing(call -> call.getInvokableStmt().toString()));
+
+    GraphBasedCallGraph callGraph = new GraphBasedCallGraph(new ArrayList<>(entryMethods));
+    keyedMethods.forEach(entry -> callGraph.addMethod(entry.getValue()));
+    calls.forEach(callGraph::addCall);
+    return callGraph;
+  }
+
+  /**
+   * it returns the node of the given method signature in the call graph.
+   *
+   * @param method the method signature searched in the call graph
+   * @return the node of the requested method signature
+   * @throws IllegalArgumentException if there is no node for the requested method signature
+   */
+  @Nonnull
+  private Node nodeOf(@Nonnull MethodSignature method) {
+    Node node = signatureToNode.get(method);
+    if (node == null) {
+      throw new IllegalArgumentException("Vertex of Method signature " + method + " not found");
+    }
+    return node;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" + callCount() + ")";
+  }
+}
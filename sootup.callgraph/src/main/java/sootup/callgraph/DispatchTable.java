@@ -0,0 +1,254 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+
+/**
+ * Memoizes the dispatch of method signatures in a {@link View}. Many call sites invoke the same
+ * method signature (e.g. <code>Object.toString()</code>), so the hierarchy walk to resolve its
+ * targets is done only once per signature. The table is thread-safe and can be shared by several
+ * call graph algorithms on the same view. It has to be {@link #clear() cleared} if classes are
+ * added to the view.
+ */
+public class DispatchTable {
+
+  @Nonnull private final View view;
+
+  @Nonnull
+  private final Map<MethodSignature, Optional<SootMethod>> concreteMethods =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<MethodSignature, List<MethodSignature>> subtypeSignatures =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<MethodSignature, List<MethodSignature>> virtualCallTargets =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<MethodSignature, List<MethodSignature>> interfaceCallTargets =
+      new ConcurrentHashMap<>();
+
+  @Nonnull private final InvokeDynamicResolver invokeDynamicResolver;
+
+  public DispatchTable(@Nonnull View view) {
+    this.view = view;
+    this.invokeDynamicResolver = new InvokeDynamicResolver(view);
+  }
+
+  @Nonnull
+  public View getView() {
+    return view;
+  }
+
+  /**
+   * memoized version of {@link AbstractCallGraphAlgorithm#findConcreteMethod(View,
+   * MethodSignature)}
+   */
+  @Nonnull
+  public Optional<SootMethod> findConcreteMethod(@Nonnull MethodSignature sig) {
+    return lookup(
+        concreteMethods, sig, key -> AbstractCallGraphAlgorithm.findConcreteMethod(view, key));
+  }
+
+  /**
+   * memoized version of {@link AbstractCallGraphAlgorithm#resolveConcreteDispatch(View,
+   * MethodSignature)}
+   */
+  @Nonnull
+  public Optional<MethodSignature> resolveConcreteDispatch(@Nonnull MethodSignature sig) {
+    return findConcreteMethod(sig)
+        .filter(method -> !method.isAbstract())
+        .map(SootMethod::getSignature);
+  }
+
+  /**
+   * @return the signatures with the sub signature of the given signature in every subtype of its
+   *     declaring class
+   */
+  @Nonnull
+  public List<MethodSignature> getSubtypeSignatures(@Nonnull MethodSignature sig) {
+    return lookup(
+        subtypeSignatures,
+        sig,
+        key -> {
+          IdentifierFactory identifierFactory = view.getIdentifierFactory();
+          return Collections.unmodifiableList(
+              view.getTypeHierarchy()
+                  .subtypesOf(key.getDeclClassType())
+                  .map(
+                      classType ->
+                          identifierFactory.getMethodSignature(classType, key.getSubSignature()))
+                  .collect(Collectors.toList()));
+        });
+  }
+
+  /**
+   * see {@link InvokeDynamicResolver#resolve(JDynamicInvokeExpr)}, the targets are shared by all
+   * call sites with the same bootstrap method and call site descriptor
+   */
+  @Nonnull
+  public InvokeDynamicResolver.Targets resolveInvokeDynamic(
+      @Nonnull JDynamicInvokeExpr invokeExpr) {
+    return invokeDynamicResolver.resolve(invokeExpr);
+  }
+
+  /**
+   * Resolves a virtual call by the class hierarchy: the call targets are the concrete method found
+   * for the given signature and every implementation in a subtype of its declaring class, including
+   * default methods. For interface invocations, subclasses which do not implement the method
+   * themselves dispatch to an implementation of their superclasses.
+   *
+   * @param sig the signature of the method whose concrete implementation is not static
+   * @param isInterfaceInvoke whether the call is an interface invocation
+   * @return the (possibly duplicated) signatures of all call targets
+   */
+  @Nonnull
+  public List<MethodSignature> resolveAllCallTargets(
+      @Nonnull MethodSignature sig, boolean isInterfaceInvoke) {
+    return lookup(
+        isInterfaceInvoke ? interfaceCallTargets : virtualCallTargets,
+        sig,
+        key -> computeAllCallTargets(key, isInterfaceInvoke));
+  }
+
+  @Nonnull
+  private List<MethodSignature> computeAllCallTargets(
+      @Nonnull MethodSignature sig, boolean isInterfaceInvoke) {
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    List<MethodSignature> targets = new ArrayList<>();
+    List<ClassType> noImplementedMethod = new ArrayList<>();
+    view.getTypeHierarchy()
+        .subtypesOf(sig.getDeclClassType())
+        .forEach(
+            classType -> {
+              SootClass clazz = view.getClass(classType).orElse(null);
+              if (clazz == null) {
+                return;
+              }
+              // check if method is implemented
+              SootMethod method = clazz.getMethod(sig.getSubSignature()).orElse(null);
+              if (method != null && !method.isAbstract()) {
+                targets.add(method.getSignature());
+              }
+              // save classes with no implementation of the searched method
+              if (method == null && !clazz.isInterface()) {
+                noImplementedMethod.add(classType);
+              }
+              // collect all default methods
+              for (ClassType interfaceType : clazz.getInterfaces()) {
+                view.getMethod(
+                        identifierFactory.getMethodSignature(interfaceType, sig.getSubSignature()))
+                    .filter(defaultMethod -> !defaultMethod.isAbstract())
+                    .ifPresent(defaultMethod -> targets.add(defaultMethod.getSignature()));
+              }
+            });
+
+    findConcreteMethod(sig)
+        .filter(method -> !method.isAbstract())
+        .ifPresent(method -> targets.add(method.getSignature()));
+
+    if (isInterfaceInvoke) {
+      for (ClassType classType : noImplementedMethod) {
+        resolveConcreteDispatch(
+                identifierFactory.getMethodSignature(classType, sig.getSubSignature()))
+            .ifPresent(targets::add);
+      }
+    }
+    return Collections.unmodifiableList(targets);
+  }
+
+  /** forgets all resolved dispatches, e.g. after classes were added to the view. */
+  public void clear() {
+    concreteMethods.clear();
+    subtypeSignatures.clear();
+    virtualCallTargets.clear();
+    interfaceCallTargets.clear();
+    invokeDynamicResolver.clear();
+  }
+
+  /**
+   * forgets the resolved dispatches which depend on the given types, i.e. the dispatches of methods
+   * declared in one of the types and the dispatches which resolved to a method of one of the types.
+   * The given types have to contain the super- and subtypes of changed classes, whose dispatches
+   * depend on the hierarchy as well.
+   */
+  public void invalidate(@Nonnull Collection<ClassType> types) {
+    concreteMethods
+        .entrySet()
+        .removeIf(
+            entry ->
+                types.contains(entry.getKey().getDeclClassType())
+                    || entry
+                        .getValue()
+                        .filter(method -> types.contains(method.getDeclaringClassType()))
+                        .isPresent());
+    invalidate(subtypeSignatures, types);
+    invalidate(virtualCallTargets, types);
+    invalidate(interfaceCallTargets, types);
+    invokeDynamicResolver.invalidate(types);
+  }
+
+  private static void invalidate(
+      @Nonnull Map<MethodSignature, List<MethodSignature>> map,
+      @Nonnull Collection<ClassType> types) {
+    map.entrySet()
+        .removeIf(
+            entry ->
+                types.contains(entry.getKey().getDeclClassType())
+                    || entry.getValue().stream()
+                        .anyMatch(sig -> types.contains(sig.getDeclClassType())));
+  }
+
+  /**
+   * looks up the value of the given key or computes it. Unlike {@link
+   * ConcurrentHashMap#computeIfAbsent}, the computation does not block other threads and may use
+   * the other maps of this table. If two threads compute the same key, the first result is kept.
+   */
+  @Nonnull
+  private static <V> V lookup(
+      @Nonnull Map<MethodSignature, V> map,
+      @Nonnull MethodSignature key,
+      @Nonnull Function<MethodSignature, V> computation) {
+    V value = map.get(key);
+    if (value != null) {
+      return value;
+    }
+    value = computation.apply(key);
+    V previous = map.putIfAbsent(key, value);
+    return previous == null ? value : previous;
+  }
+}
@@ -58,7 +58,7 @@ public class GraphBasedCallGraph implements MutableCallGraph {
 
   @Nonnull private final DirectedPseudograph<Vertex, Call> graph;
   @Nonnull private final Map<MethodSignature, Vertex> signatureToVertex;
-  @Nonnull private final List<MethodSignature> entryMethods;
+  @Nonnull private List<MethodSignature> entryMethods;
 
   /** The constructor of the graph based call graph. it initializes the call graph object. */
   public GraphBasedCallGraph(List<MethodSignature> entryMethods) {
@@ -109,6 +109,19 @@ public class GraphBasedCallGraph implements MutableCallGraph {
     graph.addEdge(source, target, call);
   }
 
+  @Override
+  public void removeMethod(@Nonnull MethodSignature method) {
+    Vertex vertex = signatureToVertex.remove(method);
+    if (vertex != null) {
+      graph.removeVertex(vertex);
+    }
+  }
+
+  @Override
+  public void removeCall(@Nonnull Call call) {
+    graph.removeEdge(call);
+  }
+
   @Nonnull
   @Override
   public Set<MethodSignature> getMethodSignatures() {
@@ -379,4 +392,9 @@ public class GraphBasedCallGraph implements MutableCallGraph {
   public List<MethodSignature> getEntryMethods() {
     return entryMethods;
   }
+
+  @Override
+  public void setEntryMethods(@Nonnull List<MethodSignature> entryMethods) {
+    this.entryMethods = new ArrayList<>(entryMethods);
+  }
 }
@@ -0,0 +1,284 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.basic.Immediate;
+import sootup.core.jimple.common.constant.MethodHandle;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
+import sootup.core.model.SootClass;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * Resolves the methods which are called by <code>invokedynamic</code> call sites. Two kinds of
+ * bootstrap methods are modelled:
+ *
+ * <ul>
+ *   <li>The call sites of <code>java.lang.invoke.LambdaMetafactory</code> create the objects of
+ *       lambda expressions and method references. They are modelled as calls of the implementation
+ *       method, since the functional interface method which calls it is usually invoked by library
+ *       code.
+ *   <li>The call sites of <code>java.lang.invoke.StringConcatFactory</code> concatenate strings.
+ *       They are modelled as calls of <code>toString()</code> of the declared type of each
+ *       concatenated object, which are dispatched to the type and its subtypes. Like the factory,
+ *       objects declared as <code>java.lang.Object</code> are converted by a call of <code>
+ *       String.valueOf</code>. Its single call of <code>toString()</code> is dispatched to every
+ *       implementation only once, instead of once per call site.
+ * </ul>
+ *
+ * <p>Many call sites share the same bootstrap method and call site descriptor, e.g. the
+ * concatenations of the same types, so the targets are memoized per bootstrap method, call site
+ * descriptor and bootstrap arguments. The resolver is thread-safe.
+ */
+public class InvokeDynamicResolver {
+
+  private static final String LAMBDA_METAFACTORY = "java.lang.invoke.LambdaMetafactory";
+  private static final String STRING_CONCAT_FACTORY = "java.lang.invoke.StringConcatFactory";
+
+  @Nonnull private final View view;
+  @Nonnull private final Map<CallSiteKey, Targets> targets = new ConcurrentHashMap<>();
+
+  public InvokeDynamicResolver(@Nonnull View view) {
+    this.view = view;
+  }
+
+  /** @return the memoized targets of the given call site */
+  @Nonnull
+  public Targets resolve(@Nonnull JDynamicInvokeExpr invokeExpr) {
+    return targets.computeIfAbsent(new CallSiteKey(invokeExpr), key -> computeTargets(invokeExpr));
+  }
+
+  /** @return true if the given call site creates a lambda expression or method reference */
+  public static boolean isLambdaMetafactory(@Nonnull JDynamicInvokeExpr invokeExpr) {
+    return invokeExpr
+        .getBootstrapMethodSignature()
+        .getDeclClassType()
+        .getFullyQualifiedName()
+        .equals(LAMBDA_METAFACTORY);
+  }
+
+  /** forgets all resolved call sites, e.g. after classes were added to the view. */
+  public void clear() {
+    targets.clear();
+  }
+
+  /** forgets the resolved call sites whose targets are declared in one of the given types. */
+  public void invalidate(@Nonnull Collection<ClassType> types) {
+    targets
+        .values()
+        .removeIf(
+            callSiteTargets ->
+                callSiteTargets
+                    .getAllTargets()
+                    .anyMatch(target -> types.contains(target.getDeclClassType())));
+  }
+
+  @Nonnull
+  private Targets computeTargets(@Nonnull JDynamicInvokeExpr invokeExpr) {
+    String bootstrapClass =
+        invokeExpr.getBootstrapMethodSignature().getDeclClassType().getFullyQualifiedName();
+    if (bootstrapClass.equals(LAMBDA_METAFACTORY)) {
+      // metafactory and altMetafactory pass the implementation method as second argument
+      if (invokeExpr.getBootstrapArgCount() > 1
+          && invokeExpr.getBootstrapArg(1) instanceof MethodHandle) {
+        return computeLambdaTargets((MethodHandle) invokeExpr.getBootstrapArg(1));
+      }
+    } else if (bootstrapClass.equals(STRING_CONCAT_FACTORY)) {
+      return computeStringConcatTargets(invokeExpr.getMethodSignature().getParameterTypes());
+    }
+    return Targets.EMPTY;
+  }
+
+  @Nonnull
+  private Targets computeLambdaTargets(@Nonnull MethodHandle implementation) {
+    if (!implementation.isMethodRef()) {
+      return Targets.EMPTY;
+    }
+    MethodSignature implementationMethod =
+        (MethodSignature) implementation.getReferenceSignature();
+    switch (implementation.getKind()) {
+      case REF_INVOKE_VIRTUAL:
+        return new Targets(
+            Collections.emptyList(),
+            Collections.singletonList(implementationMethod),
+            Collections.emptyList(),
+            Collections.emptyList());
+      case REF_INVOKE_INTERFACE:
+        return new Targets(
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.singletonList(implementationMethod),
+            Collections.emptyList());
+      case REF_INVOKE_CONSTRUCTOR:
+        return new Targets(
+            Collections.singletonList(implementationMethod),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.singletonList(implementationMethod.getDeclClassType()));
+      default:
+        return new Targets(
+            Collections.singletonList(implementationMethod),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyList());
+    }
+  }
+
+  @Nonnull
+  private Targets computeStringConcatTargets(@Nonnull List<Type> concatenatedTypes) {
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    Set<MethodSignature> directTargets = new LinkedHashSet<>();
+    Set<MethodSignature> virtualTargets = new LinkedHashSet<>();
+    Set<MethodSignature> interfaceTargets = new LinkedHashSet<>();
+    for (Type type : concatenatedTypes) {
+      // strings are appended as they are
+      if (!(type instanceof ClassType)
+          || ((ClassType) type).getFullyQualifiedName().equals("java.lang.String")) {
+        continue;
+      }
+      if (((ClassType) type).getFullyQualifiedName().equals("java.lang.Object")) {
+        directTargets.add(
+            identifierFactory.getMethodSignature(
+                identifierFactory.getClassType("java.lang.String"),
+                "valueOf",
+                "java.lang.String",
+                Collections.singletonList("java.lang.Object")));
+        continue;
+      }
+      MethodSignature toString =
+          identifierFactory.getMethodSignature(
+              (ClassType) type, "toString", "java.lang.String", Collections.emptyList());
+      if (view.getClass((ClassType) type).filter(SootClass::isInterface).isPresent()) {
+        interfaceTargets.add(toString);
+      } else {
+        virtualTargets.add(toString);
+      }
+    }
+    if (directTargets.isEmpty() && virtualTargets.isEmpty() && interfaceTargets.isEmpty()) {
+      return Targets.EMPTY;
+    }
+    return new Targets(
+        new ArrayList<>(directTargets),
+        new ArrayList<>(virtualTargets),
+        new ArrayList<>(interfaceTargets),
+        Collections.emptyList());
+  }
+
+  /** The methods called by an <code>invokedynamic</code> call site. */
+  public static final class Targets {
+
+    @Nonnull
+    static final Targets EMPTY =
+        new Targets(
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyList());
+
+    @Nonnull private final List<MethodSignature> directTargets;
+    @Nonnull private final List<MethodSignature> virtualTargets;
+    @Nonnull private final List<MethodSignature> interfaceTargets;
+    @Nonnull private final List<ClassType> instantiatedClasses;
+
+    Targets(
+        @Nonnull List<MethodSignature> directTargets,
+        @Nonnull List<MethodSignature> virtualTargets,
+        @Nonnull List<MethodSignature> interfaceTargets,
+        @Nonnull List<ClassType> instantiatedClasses) {
+      this.directTargets = Collections.unmodifiableList(directTargets);
+      this.virtualTargets = Collections.unmodifiableList(virtualTargets);
+      this.interfaceTargets = Collections.unmodifiableList(interfaceTargets);
+      this.instantiatedClasses = Collections.unmodifiableList(instantiatedClasses);
+    }
+
+    /** @return the methods which are called without dispatch, e.g. static methods */
+    @Nonnull
+    public List<MethodSignature> getDirectTargets() {
+      return directTargets;
+    }
+
+    /** @return the methods which are dispatched like a virtual invocation */
+    @Nonnull
+    public List<MethodSignature> getVirtualTargets() {
+      return virtualTargets;
+    }
+
+    /** @return the methods which are dispatched like an interface invocation */
+    @Nonnull
+    public List<MethodSignature> getInterfaceTargets() {
+      return interfaceTargets;
+    }
+
+    /** @return the classes instantiated by the call site, e.g. by a constructor reference */
+    @Nonnull
+    public List<ClassType> getInstantiatedClasses() {
+      return instantiatedClasses;
+    }
+
+    /** @return the direct, virtual and interface targets */
+    @Nonnull
+    public Stream<MethodSignature> getAllTargets() {
+      return Stream.of(directTargets, virtualTargets, interfaceTargets).flatMap(List::stream);
+    }
+  }
+
+  /** the bootstrap method, the call site descriptor and the bootstrap arguments of a call site */
+  private static final class CallSiteKey {
+
+    @Nonnull private final MethodSignature bootstrapMethod;
+    @Nonnull private final MethodSignature callSiteDescriptor;
+    @Nonnull private final List<Immediate> bootstrapArgs;
+
+    CallSiteKey(@Nonnull JDynamicInvokeExpr invokeExpr) {
+      this.bootstrapMethod = invokeExpr.getBootstrapMethodSignature();
+      this.callSiteDescriptor = invokeExpr.getMethodSignature();
+      this.bootstrapArgs = invokeExpr.getBootstrapArgs();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CallSiteKey)) {
+        return false;
+      }
+      CallSiteKey that = (CallSiteKey) o;
+      return bootstrapMethod.equals(that.bootstrapMethod)
+          && callSiteDescriptor.equals(that.callSiteDescriptor)
+          && bootstrapArgs.equals(that.bootstrapArgs);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(bootstrapMethod, callSiteDescriptor, bootstrapArgs);
+    }
+  }
+}
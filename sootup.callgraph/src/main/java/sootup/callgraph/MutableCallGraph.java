@@ -22,6 +22,8 @@ package sootup.callgraph;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.common.stmt.InvokableStmt;
 import sootup.core.signatures.MethodSignature;
@@ -57,4 +59,70 @@ public interface MutableCallGraph extends CallGraph {
    * @param call this parameter defines the call that is transformed to the edge in the call graph.
    */
   void addCall(@Nonnull Call call);
+
+  /**
+   * This method enables to remove methods and all their calls from the call graph.
+   *
+   * @param method the method that will be removed from the call graph.
+   */
+  void removeMethod(@Nonnull MethodSignature method);
+
+  /**
+   * This method enables to remove calls from the call graph. The source and target method remain
+   * in the call graph.
+   *
+   * @param call this parameter defines the call that will be removed from the call graph.
+   */
+  void removeCall(@Nonnull Call call);
+
+  /**
+   * This method enables to replace the entry methods of the call graph.
+   *
+   * @param entryMethods the new entry methods of the call graph.
+   */
+  void setEntryMethods(@Nonnull List<MethodSignature> entryMethods);
+
+  /**
+   * Modifies this call graph in place, so it contains exactly the entry methods, methods and calls
+   * of the given call graph. Methods and calls contained in both call graphs are kept.
+   *
+   * @param callGraph the call graph whose entry methods, methods and calls are taken over
+   */
+  default void replaceWith(@Nonnull CallGraph callGraph) {
+    setEntryMethods(callGraph.getEntryMethods());
+    for (MethodSignature method : new ArrayList<>(getMethodSignatures())) {
+      if (!callGraph.containsMethod(method)) {
+        removeMethod(method);
+        continue;
+      }
+      for (Call call : new ArrayList<>(callsFrom(method))) {
+        if (!callGraph.containsCall(call)) {
+          removeCall(call);
+        }
+      }
+    }
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      if (!containsMethod(method)) {
+        addMethod(method);
+      }
+    }
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      for (Call call : callGraph.callsFrom(method)) {
+        if (!containsCall(call)) {
+          addCall(call);
+        }
+      }
+    }
+  }
+
+  /**
+   * This method creates a read-only compact copy of the call graph. It needs much less memory, so
+   * it should be used once the call graph is constructed.
+   *
+   * @return a compact call graph containing the methods and calls of this call graph.
+   */
+  @Nonnull
+  default CompactCallGraph freeze() {
+    return CompactCallGraph.of(this);
+  }
 }
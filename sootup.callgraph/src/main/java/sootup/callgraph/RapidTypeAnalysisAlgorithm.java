@@ -23,18 +23,23 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.callgraph.CallGraph.Call;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
 import sootup.core.jimple.common.expr.JNewExpr;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.jimple.common.stmt.InvokableStmt;
 import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.MethodModifier;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
 
@@ -50,6 +55,7 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
 
   @Nonnull protected Set<ClassType> instantiatedClasses = Collections.emptySet();
   @Nonnull protected Map<ClassType, List<Call>> ignoredCalls = Collections.emptyMap();
+  @Nonnull private Set<ClassType> instantiatedClassesBeforeUpdate = Collections.emptySet();
 
   /**
    * The constructor of the RTA algorithm.
@@ -60,6 +66,16 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     super(view);
   }
 
+  /**
+   * The constructor of the RTA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param dispatchTable memoizes the resolved calls, can be shared with other algorithms
+   */
+  public RapidTypeAnalysisAlgorithm(@Nonnull View view, @Nonnull DispatchTable dispatchTable) {
+    super(view, dispatchTable);
+  }
+
   @Nonnull
   @Override
   public CallGraph initialize() {
@@ -71,8 +87,13 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   @Override
   public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
     // init helper data structures
-    instantiatedClasses = new HashSet<>();
-    ignoredCalls = new HashMap<>();
+    if (isParallel()) {
+      instantiatedClasses = ConcurrentHashMap.newKeySet();
+      ignoredCalls = new ConcurrentHashMap<>();
+    } else {
+      instantiatedClasses = new HashSet<>();
+      ignoredCalls = new HashMap<>();
+    }
 
     CallGraph cg = constructCompleteCallGraph(view, entryPoints);
 
@@ -82,9 +103,76 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     return cg;
   }
 
+  /**
+   * Restores the instantiated classes of the methods which are not processed again in the update.
+   * The ignored calls of these methods are not restored. Instead, the methods are processed again
+   * if one of the classes is instantiated for the first time.
+   */
+  @Override
+  protected void beforeUpdate(
+      @Nonnull MutableCallGraph cg, @Nonnull Set<MethodSignature> processedMethods) {
+    instantiatedClasses = new HashSet<>();
+    ignoredCalls = new HashMap<>();
+    for (MethodSignature processedMethod : processedMethods) {
+      view.getClass(processedMethod.getDeclClassType())
+          .filter(clazz -> !clazz.isLibraryClass())
+          .flatMap(clazz -> clazz.getMethod(processedMethod.getSubSignature()))
+          .ifPresent(this::collectInstantiatedClassesInMethod);
+    }
+    instantiatedClassesBeforeUpdate = new HashSet<>(instantiatedClasses);
+  }
+
+  /**
+   * @return the classes instantiated by the removed calls. Calls of super constructors are skipped.
+   */
+  @Nonnull
+  @Override
+  protected Set<ClassType> getDispatchChangesOfRemovedCalls(
+      @Nonnull Collection<Call> removedCalls) {
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    Set<ClassType> uninstantiatedClasses = new HashSet<>();
+    for (Call call : removedCalls) {
+      MethodSignature target = call.getTargetMethodSignature();
+      if (!target.getName().equals("<init>")) {
+        continue;
+      }
+      MethodSignature source = call.getSourceMethodSignature();
+      ClassType sourceClass = source.getDeclClassType();
+      if (source.getName().equals("<init>")
+          && (sourceClass.equals(target.getDeclClassType())
+              || (typeHierarchy.contains(sourceClass)
+                  && typeHierarchy
+                      .superClassOf(sourceClass)
+                      .filter(target.getDeclClassType()::equals)
+                      .isPresent()))) {
+        continue;
+      }
+      uninstantiatedClasses.add(target.getDeclClassType());
+    }
+    return uninstantiatedClasses;
+  }
+
+  /** @return the classes which were instantiated since the last call */
+  @Nonnull
+  @Override
+  protected Set<ClassType> getDispatchChangesOfUpdate() {
+    Set<ClassType> newInstantiatedClasses = new HashSet<>(instantiatedClasses);
+    newInstantiatedClasses.removeAll(instantiatedClassesBeforeUpdate);
+    instantiatedClassesBeforeUpdate.addAll(newInstantiatedClasses);
+    return newInstantiatedClasses;
+  }
+
+  @Override
+  protected void afterUpdate() {
+    instantiatedClasses = Collections.emptySet();
+    ignoredCalls = Collections.emptyMap();
+    instantiatedClassesBeforeUpdate = Collections.emptySet();
+  }
+
   /**
    * This method is called to collect all instantiation of classes in a given method body. This is
-   * important since the RTA algorithm resolves virtual calls only to instantiated classes
+   * important since the RTA algorithm resolves virtual calls only to instantiated classes. Besides
+   * new expressions, constructor references instantiate classes.
    *
    * @param method this object contains the method body which is inspected.
    */
@@ -93,26 +181,33 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       return Collections.emptyList();
     }
 
-    Set<ClassType> instantiated =
-        method.getBody().getStmts().stream()
-            .filter(stmt -> stmt instanceof JAssignStmt)
-            .map(stmt -> ((JAssignStmt) stmt).getRightOp())
-            .filter(value -> value instanceof JNewExpr)
-            .map(value -> ((JNewExpr) value).getType())
-            .collect(Collectors.toSet());
-    List<ClassType> newInstantiatedClassTypes =
-        instantiated.stream()
-            .filter(classType -> !instantiatedClasses.contains(classType))
-            .collect(Collectors.toList());
-    instantiatedClasses.addAll(instantiated);
-    return newInstantiatedClassTypes;
+    Set<ClassType> instantiated = new HashSet<>();
+    for (Stmt stmt : method.getBody().getStmts()) {
+      if (stmt instanceof JAssignStmt && ((JAssignStmt) stmt).getRightOp() instanceof JNewExpr) {
+        instantiated.add(((JNewExpr) ((JAssignStmt) stmt).getRightOp()).getType());
+      } else if (stmt.isInvokableStmt()) {
+        // e.g. constructor references
+        stmt.asInvokableStmt()
+            .getInvokeExpr()
+            .filter(invokeExpr -> invokeExpr instanceof JDynamicInvokeExpr)
+            .ifPresent(
+                invokeExpr ->
+                    instantiated.addAll(
+                        dispatchTable
+                            .resolveInvokeDynamic((JDynamicInvokeExpr) invokeExpr)
+                            .getInstantiatedClasses()));
+      }
+    }
+    // adding the class decides whether it is new, i.e. only one thread includes its ignored calls
+    return instantiated.stream().filter(instantiatedClasses::add).collect(Collectors.toList());
   }
 
   /**
    * In the RTA algorithm, every virtual call is resolved by using the hierarchy and a hashset
    * containing every instantiated class. Every subclass of the class is considered as target if it
    * is instantiated and if it contains an implementation of the methods called in the invoke
-   * expression.
+   * expression. The methods called by invokedynamic call sites are resolved by the {@link
+   * InvokeDynamicResolver} and dispatched the same way.
    *
    * @param sourceMethod the method object that contains the given invoke expression in the body.
    * @param invokableStmt the statement containing the call which is resolved.
@@ -128,25 +223,50 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       return Stream.empty();
     }
     AbstractInvokeExpr invokeExpr = optInvokeExpr.get();
+    if (invokeExpr instanceof JDynamicInvokeExpr) {
+      InvokeDynamicResolver.Targets targets =
+          dispatchTable.resolveInvokeDynamic((JDynamicInvokeExpr) invokeExpr);
+      return Stream.of(
+              targets.getDirectTargets().stream(),
+              Stream.concat(
+                      targets.getVirtualTargets().stream(), targets.getInterfaceTargets().stream())
+                  .flatMap(
+                      resolveBaseMethodSignature ->
+                          resolveVirtualCall(
+                              sourceMethod, resolveBaseMethodSignature, invokableStmt)))
+          .flatMap(Function.identity());
+    }
     MethodSignature resolveBaseMethodSignature = invokeExpr.getMethodSignature();
-    Stream<MethodSignature> result = Stream.of(resolveBaseMethodSignature);
+    if (invokeExpr instanceof JSpecialInvokeExpr) {
+      return Stream.of(resolveBaseMethodSignature);
+    }
+    return resolveVirtualCall(sourceMethod, resolveBaseMethodSignature, invokableStmt);
+  }
 
+  /**
+   * Resolves a call of the given signature to the concrete method and the implementations in
+   * subtypes whose classes are instantiated. Calls of static methods or of methods without concrete
+   * implementation are resolved to the signature itself.
+   */
+  @Nonnull
+  private Stream<MethodSignature> resolveVirtualCall(
+      SootMethod sourceMethod,
+      MethodSignature resolveBaseMethodSignature,
+      InvokableStmt invokableStmt) {
     SootMethod concreteBaseMethod =
-        findConcreteMethod(view, resolveBaseMethodSignature).orElse(null);
+        dispatchTable.findConcreteMethod(resolveBaseMethodSignature).orElse(null);
 
-    if (concreteBaseMethod == null
-        || MethodModifier.isStatic(concreteBaseMethod.getModifiers())
-        || (invokeExpr instanceof JSpecialInvokeExpr)) {
-      return result;
+    if (concreteBaseMethod == null || MethodModifier.isStatic(concreteBaseMethod.getModifiers())) {
+      return Stream.of(resolveBaseMethodSignature);
     } else {
       // the class of the actual method call is instantiated
-      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())) {
+      if (isInstantiatedOrIgnoreCall(
+          sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt)) {
         return Stream.concat(
             Stream.of(concreteBaseMethod.getSignature()),
             resolveAllCallTargets(
                 sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt));
       } else {
-        saveIgnoredCall(sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
         return resolveAllCallTargets(
             sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
       }
@@ -169,17 +289,12 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       MethodSignature source,
       MethodSignature resolveBaseMethodSignature,
       InvokableStmt invokableStmt) {
-    return view.getTypeHierarchy()
-        .subtypesOf(resolveBaseMethodSignature.getDeclClassType())
+    return dispatchTable.getSubtypeSignatures(resolveBaseMethodSignature).stream()
         .map(
-            classType -> {
-              MethodSignature method =
-                  view.getIdentifierFactory()
-                      .getMethodSignature(classType, resolveBaseMethodSignature.getSubSignature());
-              if (instantiatedClasses.contains(classType)) {
-                return resolveConcreteDispatch(view, method);
+            method -> {
+              if (isInstantiatedOrIgnoreCall(source, method, invokableStmt)) {
+                return dispatchTable.resolveConcreteDispatch(method);
               } else {
-                saveIgnoredCall(source, method, invokableStmt);
                 return Optional.<MethodSignature>empty();
               }
             })
@@ -187,6 +302,28 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
         .map(Optional::get);
   }
 
+  /**
+   * Checks if the declaring class of the target is instantiated. If it is not, the call is saved as
+   * ignored call.
+   *
+   * <p>In the parallel construction, another thread can instantiate the class and include its
+   * ignored calls while the call is saved. Therefore, the class is checked again after the call is
+   * saved. If it is instantiated by then, the call is resolved directly.
+   *
+   * @param source the source method of the call
+   * @param target the target method of the call
+   * @param invokableStmt the statement causing the call
+   * @return true if the declaring class of the target is instantiated
+   */
+  private boolean isInstantiatedOrIgnoreCall(
+      MethodSignature source, MethodSignature target, InvokableStmt invokableStmt) {
+    if (instantiatedClasses.contains(target.getDeclClassType())) {
+      return true;
+    }
+    saveIgnoredCall(source, target, invokableStmt);
+    return instantiatedClasses.contains(target.getDeclClassType());
+  }
+
   /**
    * This method saves an ignored call If this is the first ignored call of the class type in the
    * target method, an entry for the class type is created in the ignoredCalls Hashmap
@@ -197,14 +334,17 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    */
   private void saveIgnoredCall(
       MethodSignature source, MethodSignature target, InvokableStmt invokableStmt) {
-    ClassType notInstantiatedClass = target.getDeclClassType();
-    List<Call> calls = ignoredCalls.get(notInstantiatedClass);
     Call ignoredCall = new Call(source, target, invokableStmt);
-    if (calls == null) {
-      calls = new ArrayList<>();
-      ignoredCalls.put(notInstantiatedClass, calls);
-    }
-    calls.add(ignoredCall);
+    // compute is atomic in the parallel construction, so the call cannot get lost
+    ignoredCalls.compute(
+        target.getDeclClassType(),
+        (notInstantiatedClass, calls) -> {
+          if (calls == null) {
+            calls = new ArrayList<>();
+          }
+          calls.add(ignoredCall);
+          return calls;
+        });
   }
 
   /**
@@ -248,12 +388,15 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    */
   protected void includeIgnoredCallsToClass(
       ClassType classType, MutableCallGraph cg, Deque<MethodSignature> workList) {
-    List<Call> newEdges = ignoredCalls.get(classType);
+    // can be removed because the instantiated class will be considered in future resolves
+    List<Call> newEdges = ignoredCalls.remove(classType);
     if (newEdges != null) {
       newEdges.forEach(
           call -> {
             MethodSignature concreteTarget =
-                resolveConcreteDispatch(view, call.getTargetMethodSignature()).orElse(null);
+                dispatchTable
+                    .resolveConcreteDispatch(call.getTargetMethodSignature())
+                    .orElse(null);
             if (concreteTarget == null) {
               return;
             }
@@ -264,8 +407,6 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
                 cg,
                 workList);
           });
-      // can be removed because the instantiated class will be considered in future resolves
-      ignoredCalls.remove(classType);
     }
   }
 
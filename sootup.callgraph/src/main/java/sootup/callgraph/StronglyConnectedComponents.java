@@ -0,0 +1,118 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import javax.annotation.Nonnull;
+
+/**
+ * The strongly connected components of a graph whose nodes are numbered from 0 and whose outgoing
+ * edges are stored in consecutive index ranges, e.g. in CSR (compressed sparse row) format. The
+ * components are numbered with an iterative version of Tarjan's algorithm. Components are
+ * completed after all components reachable from them, so the numbers are in reverse topological
+ * order, i.e. an edge between two components always leads to a lower number.
+ */
+final class StronglyConnectedComponents {
+
+  /** node -&gt; component */
+  @Nonnull private final int[] components;
+
+  private int componentCount = 0;
+
+  /**
+   * @param edgesStart maps a node to the index of its first outgoing edge
+   * @param edgesEnd maps a node to the exclusive end index of its outgoing edges
+   * @param edgeTarget maps the index of an edge to its target node
+   */
+  StronglyConnectedComponents(
+      int nodeCount,
+      @Nonnull IntUnaryOperator edgesStart,
+      @Nonnull IntUnaryOperator edgesEnd,
+      @Nonnull IntUnaryOperator edgeTarget) {
+    components = new int[nodeCount];
+    int[] index = new int[nodeCount];
+    Arrays.fill(index, -1);
+    int[] lowLink = new int[nodeCount];
+    boolean[] onStack = new boolean[nodeCount];
+    int[] stack = new int[nodeCount];
+    int stackSize = 0;
+    int[] callStack = new int[nodeCount];
+    int[] nextEdge = new int[nodeCount];
+    int nextIndex = 0;
+
+    for (int root = 0; root < nodeCount; root++) {
+      if (index[root] >= 0) {
+        continue;
+      }
+      index[root] = lowLink[root] = nextIndex++;
+      stack[stackSize++] = root;
+      onStack[root] = true;
+      callStack[0] = root;
+      nextEdge[0] = edgesStart.applyAsInt(root);
+      int callStackSize = 1;
+
+      while (callStackSize > 0) {
+        int node = callStack[callStackSize - 1];
+        if (nextEdge[callStackSize - 1] < edgesEnd.applyAsInt(node)) {
+          int successor = edgeTarget.applyAsInt(nextEdge[callStackSize - 1]++);
+          if (index[successor] < 0) {
+            index[successor] = lowLink[successor] = nextIndex++;
+            stack[stackSize++] = successor;
+            onStack[successor] = true;
+            callStack[callStackSize] = successor;
+            nextEdge[callStackSize] = edgesStart.applyAsInt(successor);
+            callStackSize++;
+          } else if (onStack[successor]) {
+            lowLink[node] = Math.min(lowLink[node], index[successor]);
+          }
+          continue;
+        }
+        callStackSize--;
+        if (lowLink[node] == index[node]) {
+          int member;
+          do {
+            member = stack[--stackSize];
+            onStack[member] = false;
+            components[member] = componentCount;
+          } while (member != node);
+          componentCount++;
+        }
+        if (callStackSize > 0) {
+          int caller = callStack[callStackSize - 1];
+          lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+        }
+      }
+    }
+  }
+
+  /** @return the component of each node. The array is not copied. */
+  @Nonnull
+  int[] getComponents() {
+    return components;
+  }
+
+  int getComponentCount() {
+    return componentCount;
+  }
+}
@@ -0,0 +1,546 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.callgraph.CallGraph.Call;
+import sootup.core.jimple.basic.Immediate;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.constant.Constant;
+import sootup.core.jimple.common.expr.AbstractInstanceInvokeExpr;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JCastExpr;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
+import sootup.core.jimple.common.expr.JNewArrayExpr;
+import sootup.core.jimple.common.expr.JNewExpr;
+import sootup.core.jimple.common.expr.JNewMultiArrayExpr;
+import sootup.core.jimple.common.expr.JPhiExpr;
+import sootup.core.jimple.common.ref.IdentityRef;
+import sootup.core.jimple.common.ref.JArrayRef;
+import sootup.core.jimple.common.ref.JFieldRef;
+import sootup.core.jimple.common.ref.JParameterRef;
+import sootup.core.jimple.common.ref.JThisRef;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.JIdentityStmt;
+import sootup.core.jimple.common.stmt.JReturnStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.FieldSubSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * The type propagation graph of the Variable Type Analysis. Its nodes are the reference typed
+ * locals, parameters, <code>this</code> and return values of the methods of a seed call graph, one
+ * node per field sub signature and one node for the elements of all arrays. An edge from one node
+ * to another means that a value of the first node may be assigned to the second one. The
+ * interprocedural edges are taken from the calls of the seed call graph.
+ *
+ * <p>The types of the allocations are propagated along the edges to compute the types that may
+ * reach each node. To propagate each type only once per cycle, the strongly connected components of
+ * the graph are collapsed and the type sets are propagated along the condensation in topological
+ * order. Type sets are {@link BitSet}s over the numbered types.
+ *
+ * <p>Values whose types cannot be tracked, e.g. the results of library methods, caught exceptions,
+ * the parameters of the entry methods or of methods called by invokedynamic call sites, are marked
+ * with the {@link #UNKNOWN} bit, unless their declared type is a final class.
+ */
+class TypePropagationGraph {
+
+  /** the bit of a type set which marks that the node may contain values of any type */
+  static final int UNKNOWN = 0;
+
+  @Nonnull private final View view;
+  @Nonnull private final ClassType objectType;
+
+  @Nonnull private final Map<MethodSignature, MethodNodes> methodNodes = new HashMap<>();
+  @Nonnull private final Map<FieldSubSignature, Integer> fieldNodes = new HashMap<>();
+  private int arrayElementNode = -1;
+
+  @Nonnull
+  private final Map<InvokableStmt, List<MethodSignature>> seedTargets = new IdentityHashMap<>();
+
+  @Nonnull private final Map<ClassType, Integer> typeIds = new HashMap<>();
+  @Nonnull private final List<ClassType> types = new ArrayList<>();
+
+  private int nodeCount = 0;
+  private int edgeCount = 0;
+  @Nonnull private int[] edgeSources = new int[64];
+  @Nonnull private int[] edgeTargets = new int[64];
+  private int seedCount = 0;
+  @Nonnull private int[] seedNodes = new int[64];
+  @Nonnull private int[] seedTypes = new int[64];
+
+  /** the component of each node, numbered in reverse topological order */
+  @Nonnull private int[] components = new int[0];
+
+  private int componentCount = 0;
+  @Nonnull private BitSet[] componentTypes = new BitSet[0];
+
+  /**
+   * builds the type propagation graph of the methods of the given seed call graph and propagates
+   * the types of their allocations.
+   */
+  TypePropagationGraph(@Nonnull View view, @Nonnull CallGraph seedCallGraph) {
+    this.view = view;
+    this.objectType = view.getIdentifierFactory().getClassType("java.lang.Object");
+    // the bit of UNKNOWN
+    types.add(null);
+
+    for (MethodSignature method : seedCallGraph.getMethodSignatures()) {
+      for (Call call : seedCallGraph.callsFrom(method)) {
+        MethodSignature target = call.getTargetMethodSignature();
+        if (!target.getName().equals("<clinit>")) {
+          seedTargets
+              .computeIfAbsent(call.getInvokableStmt(), stmt -> new ArrayList<>())
+              .add(target);
+        }
+      }
+    }
+    for (MethodSignature method : seedCallGraph.getMethodSignatures()) {
+      getApplicationMethod(method).ifPresent(this::addMethod);
+    }
+    for (MethodSignature entryMethod : seedCallGraph.getEntryMethods()) {
+      // the arguments of entry methods are created outside the analyzed program
+      if (!getApplicationMethod(entryMethod).isPresent()) {
+        continue;
+      }
+      List<Type> parameterTypes = entryMethod.getParameterTypes();
+      for (int i = 0; i < parameterTypes.size(); i++) {
+        addUnknown(getParameterNode(entryMethod, i), parameterTypes.get(i));
+      }
+      addUnknown(getThisNode(entryMethod), entryMethod.getDeclClassType());
+    }
+    propagate();
+  }
+
+  /**
+   * @return the targets of the given statement in the seed call graph, without static initializers
+   */
+  @Nonnull
+  List<MethodSignature> getSeedTargets(@Nonnull InvokableStmt stmt) {
+    return seedTargets.getOrDefault(stmt, Collections.emptyList());
+  }
+
+  /**
+   * @return the types which may reach the given local of the given method, or null if the local is
+   *     not part of the graph. The returned set must not be modified.
+   */
+  @Nullable
+  BitSet getReachingTypes(@Nonnull MethodSignature method, @Nonnull Local local) {
+    MethodNodes nodes = methodNodes.get(method);
+    if (nodes == null) {
+      return null;
+    }
+    Integer node = nodes.locals.get(local);
+    if (node == null) {
+      return null;
+    }
+    BitSet reachingTypes = componentTypes[components[node]];
+    return reachingTypes == null ? new BitSet() : reachingTypes;
+  }
+
+  /** @return the type of the given bit of a type set */
+  @Nonnull
+  ClassType getType(int typeId) {
+    return types.get(typeId);
+  }
+
+  int getNodeCount() {
+    return nodeCount;
+  }
+
+  int getComponentCount() {
+    return componentCount;
+  }
+
+  @Nonnull
+  private Optional<? extends SootMethod> getApplicationMethod(@Nonnull MethodSignature method) {
+    return view.getClass(method.getDeclClassType())
+        .filter(clazz -> !clazz.isLibraryClass())
+        .flatMap(clazz -> clazz.getMethod(method.getSubSignature()))
+        .filter(SootMethod::hasBody);
+  }
+
+  private void addMethod(@Nonnull SootMethod method) {
+    MethodSignature signature = method.getSignature();
+    for (Stmt stmt : method.getBody().getStmts()) {
+      if (stmt instanceof JIdentityStmt) {
+        Local left = ((JIdentityStmt) stmt).getLeftOp();
+        IdentityRef right = ((JIdentityStmt) stmt).getRightOp();
+        int target = getLocalNode(signature, left);
+        if (target < 0) {
+          continue;
+        }
+        if (right instanceof JThisRef) {
+          addEdge(getThisNode(signature), target);
+        } else if (right instanceof JParameterRef) {
+          addEdge(getParameterNode(signature, ((JParameterRef) right).getIndex()), target);
+        } else {
+          // caught exceptions may be thrown by library methods or the virtual machine
+          addUnknown(target, left.getType());
+        }
+      } else if (stmt instanceof JAssignStmt) {
+        JAssignStmt assignStmt = (JAssignStmt) stmt;
+        int target = getLValueNode(signature, assignStmt.getLeftOp());
+        if (assignStmt.containsInvokeExpr()) {
+          addCall(signature, assignStmt, target, assignStmt.getLeftOp().getType());
+        } else if (target >= 0) {
+          addAssignment(signature, assignStmt.getRightOp(), target);
+        }
+      } else if (stmt instanceof JReturnStmt) {
+        Immediate op = ((JReturnStmt) stmt).getOp();
+        if (isReferenceType(op.getType())) {
+          addAssignment(signature, op, getReturnNode(signature));
+        }
+      } else if (stmt.isInvokableStmt() && stmt.asInvokableStmt().containsInvokeExpr()) {
+        addCall(signature, stmt.asInvokableStmt(), -1, null);
+      }
+    }
+  }
+
+  /** adds the edges or types of the given value which is assigned to the given node */
+  private void addAssignment(@Nonnull MethodSignature method, @Nonnull Value value, int target) {
+    if (value instanceof Local) {
+      addEdge(getLocalNode(method, (Local) value), target);
+    } else if (value instanceof JCastExpr) {
+      JCastExpr castExpr = (JCastExpr) value;
+      addAssignment(method, castExpr.getOp(), target);
+      if (castExpr.getType() instanceof ArrayType) {
+        // the cast value may be an array created outside the analyzed program
+        addUnknown(getArrayElementNode(), ((ArrayType) castExpr.getType()).getElementType());
+      }
+    } else if (value instanceof JFieldRef) {
+      addEdge(getFieldNode(((JFieldRef) value).getFieldSignature()), target);
+    } else if (value instanceof JArrayRef) {
+      addEdge(getArrayElementNode(), target);
+    } else if (value instanceof JNewExpr) {
+      addType(target, ((JNewExpr) value).getType());
+    } else if (value instanceof JNewArrayExpr || value instanceof JNewMultiArrayExpr) {
+      // arrays dispatch to the methods of java.lang.Object
+      addType(target, objectType);
+    } else if (value instanceof JPhiExpr) {
+      for (Local arg : ((JPhiExpr) value).getArgs()) {
+        addEdge(getLocalNode(method, arg), target);
+      }
+    } else if (value instanceof Constant && value.getType() instanceof ClassType) {
+      // e.g. string and class constants
+      addType(target, (ClassType) value.getType());
+    }
+  }
+
+  /**
+   * adds the edges from the arguments to the parameters of the targets of the given call and from
+   * the return values of the targets to the given node, if it is not negative.
+   */
+  private void addCall(
+      @Nonnull MethodSignature method,
+      @Nonnull InvokableStmt stmt,
+      int resultNode,
+      @Nullable Type resultType) {
+    AbstractInvokeExpr invokeExpr = stmt.getInvokeExpr().get();
+    List<MethodSignature> targets = getSeedTargets(stmt);
+    if (invokeExpr instanceof JDynamicInvokeExpr) {
+      // the targets, e.g. the implementations of lambda expressions, are called by library code
+      for (MethodSignature target : targets) {
+        Optional<? extends SootMethod> targetMethod = getApplicationMethod(target);
+        if (!targetMethod.isPresent()) {
+          continue;
+        }
+        List<Type> parameterTypes = target.getParameterTypes();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+          addUnknown(getParameterNode(target, i), parameterTypes.get(i));
+        }
+        if (!targetMethod.get().isStatic()) {
+          addUnknown(getThisNode(target), target.getDeclClassType());
+        }
+      }
+      if (resultNode >= 0) {
+        addUnknown(resultNode, resultType);
+      }
+      return;
+    }
+    // e.g. dynamic invokes have no targets
+    boolean unknownResult = targets.isEmpty();
+    for (MethodSignature target : targets) {
+      Optional<? extends SootMethod> targetMethod = getApplicationMethod(target);
+      if (!targetMethod.isPresent()) {
+        unknownResult = true;
+        continue;
+      }
+      List<Immediate> args = invokeExpr.getArgs();
+      for (int i = 0; i < args.size(); i++) {
+        Immediate arg = args.get(i);
+        if (isReferenceType(arg.getType())) {
+          addAssignment(method, arg, getParameterNode(target, i));
+        }
+      }
+      if (invokeExpr instanceof AbstractInstanceInvokeExpr && !targetMethod.get().isStatic()) {
+        addEdge(
+            getLocalNode(method, ((AbstractInstanceInvokeExpr) invokeExpr).getBase()),
+            getThisNode(target));
+      }
+      if (resultNode >= 0) {
+        addEdge(getReturnNode(target), resultNode);
+      }
+    }
+    if (unknownResult && resultNode >= 0) {
+      addUnknown(resultNode, resultType);
+    }
+  }
+
+  /** @return the node of the given local or -1 if the local has a primitive type */
+  private int getLocalNode(@Nonnull MethodSignature method, @Nonnull Local local) {
+    if (!isReferenceType(local.getType())) {
+      return -1;
+    }
+    return getMethodNodes(method).locals.computeIfAbsent(local, key -> newNode());
+  }
+
+  /** @return the node which is assigned by the given left hand side or -1 if it is primitive */
+  private int getLValueNode(@Nonnull MethodSignature method, @Nonnull LValue lValue) {
+    if (!isReferenceType(lValue.getType())) {
+      return -1;
+    }
+    if (lValue instanceof Local) {
+      return getLocalNode(method, (Local) lValue);
+    } else if (lValue instanceof JFieldRef) {
+      return getFieldNode(((JFieldRef) lValue).getFieldSignature());
+    } else if (lValue instanceof JArrayRef) {
+      return getArrayElementNode();
+    }
+    return -1;
+  }
+
+  private int getThisNode(@Nonnull MethodSignature method) {
+    MethodNodes nodes = getMethodNodes(method);
+    if (nodes.thisNode < 0) {
+      nodes.thisNode = newNode();
+    }
+    return nodes.thisNode;
+  }
+
+  private int getParameterNode(@Nonnull MethodSignature method, int index) {
+    MethodNodes nodes = getMethodNodes(method);
+    if (nodes.parameterNodes == null) {
+      nodes.parameterNodes = new int[method.getParameterTypes().size()];
+      Arrays.fill(nodes.parameterNodes, -1);
+    }
+    if (nodes.parameterNodes[index] < 0) {
+      nodes.parameterNodes[index] = newNode();
+    }
+    return nodes.parameterNodes[index];
+  }
+
+  private int getReturnNode(@Nonnull MethodSignature method) {
+    MethodNodes nodes = getMethodNodes(method);
+    if (nodes.returnNode < 0) {
+      nodes.returnNode = newNode();
+    }
+    return nodes.returnNode;
+  }
+
+  /**
+   * @return the node of all fields with the sub signature of the given field. Fields of classes
+   *     which are not part of the analyzed program may contain any type.
+   */
+  private int getFieldNode(@Nonnull FieldSignature field) {
+    Integer node = fieldNodes.get(field.getSubSignature());
+    if (node != null) {
+      return node;
+    }
+    int newNode = newNode();
+    fieldNodes.put(field.getSubSignature(), newNode);
+    if (!view.getClass(field.getDeclClassType())
+        .filter(clazz -> !clazz.isLibraryClass())
+        .isPresent()) {
+      addUnknown(newNode, field.getType());
+    }
+    return newNode;
+  }
+
+  private int getArrayElementNode() {
+    if (arrayElementNode < 0) {
+      arrayElementNode = newNode();
+    }
+    return arrayElementNode;
+  }
+
+  @Nonnull
+  private MethodNodes getMethodNodes(@Nonnull MethodSignature method) {
+    return methodNodes.computeIfAbsent(method, key -> new MethodNodes());
+  }
+
+  private int newNode() {
+    return nodeCount++;
+  }
+
+  private void addEdge(int source, int target) {
+    if (source < 0 || target < 0 || source == target) {
+      return;
+    }
+    if (edgeCount == edgeSources.length) {
+      edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+      edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+    }
+    edgeSources[edgeCount] = source;
+    edgeTargets[edgeCount] = target;
+    edgeCount++;
+  }
+
+  private void addType(int node, @Nonnull ClassType type) {
+    Integer typeId = typeIds.get(type);
+    if (typeId == null) {
+      typeId = types.size();
+      typeIds.put(type, typeId);
+      types.add(type);
+    }
+    addTypeId(node, typeId);
+  }
+
+  private void addTypeId(int node, int typeId) {
+    if (seedCount == seedNodes.length) {
+      seedNodes = Arrays.copyOf(seedNodes, seedCount * 2);
+      seedTypes = Arrays.copyOf(seedTypes, seedCount * 2);
+    }
+    seedNodes[seedCount] = node;
+    seedTypes[seedCount] = typeId;
+    seedCount++;
+  }
+
+  /**
+   * marks that the given node may contain values created outside the analyzed program. If the
+   * declared type is a final class, the values can only be of this type. If it is an array type,
+   * the elements of the array are unknown as well.
+   */
+  private void addUnknown(int node, @Nullable Type declaredType) {
+    if (declaredType instanceof ClassType) {
+      Optional<? extends SootClass> clazz = view.getClass((ClassType) declaredType);
+      if (clazz.isPresent() && clazz.get().isFinal()) {
+        addType(node, (ClassType) declaredType);
+        return;
+      }
+    }
+    addTypeId(node, UNKNOWN);
+    if (declaredType instanceof ArrayType && node != getArrayElementNode()) {
+      addUnknown(getArrayElementNode(), ((ArrayType) declaredType).getElementType());
+    }
+  }
+
+  private static boolean isReferenceType(@Nonnull Type type) {
+    return !(type instanceof PrimitiveType);
+  }
+
+  /**
+   * collapses the strongly connected components and propagates the types of the seeds along the
+   * condensation.
+   */
+  private void propagate() {
+    // the outgoing edges of each node in compressed sparse row format
+    int[] offsets = new int[nodeCount + 1];
+    for (int i = 0; i < edgeCount; i++) {
+      offsets[edgeSources[i] + 1]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      offsets[node + 1] += offsets[node];
+    }
+    int[] successors = new int[edgeCount];
+    int[] position = Arrays.copyOf(offsets, nodeCount);
+    for (int i = 0; i < edgeCount; i++) {
+      successors[position[edgeSources[i]]++] = edgeTargets[i];
+    }
+    edgeSources = new int[0];
+    edgeTargets = new int[0];
+
+    StronglyConnectedComponents stronglyConnectedComponents =
+        new StronglyConnectedComponents(
+            nodeCount, node -> offsets[node], node -> offsets[node + 1], i -> successors[i]);
+    components = stronglyConnectedComponents.getComponents();
+    componentCount = stronglyConnectedComponents.getComponentCount();
+
+    componentTypes = new BitSet[componentCount];
+    for (int i = 0; i < seedCount; i++) {
+      int component = components[seedNodes[i]];
+      if (componentTypes[component] == null) {
+        componentTypes[component] = new BitSet();
+      }
+      componentTypes[component].set(seedTypes[i]);
+    }
+    seedNodes = new int[0];
+    seedTypes = new int[0];
+
+    // the nodes of each component
+    int[] componentOffsets = new int[componentCount + 1];
+    for (int node = 0; node < nodeCount; node++) {
+      componentOffsets[components[node] + 1]++;
+    }
+    for (int component = 0; component < componentCount; component++) {
+      componentOffsets[component + 1] += componentOffsets[component];
+    }
+    int[] componentNodes = new int[nodeCount];
+    position = Arrays.copyOf(componentOffsets, componentCount);
+    for (int node = 0; node < nodeCount; node++) {
+      componentNodes[position[components[node]]++] = node;
+    }
+
+    // successors of a component have a lower number, i.e. they are visited afterwards
+    for (int component = componentCount - 1; component >= 0; component--) {
+      BitSet reachingTypes = componentTypes[component];
+      if (reachingTypes == null) {
+        continue;
+      }
+      for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+        int node = componentNodes[i];
+        for (int j = offsets[node]; j < offsets[node + 1]; j++) {
+          int successor = components[successors[j]];
+          if (successor == component) {
+            continue;
+          }
+          if (componentTypes[successor] == null) {
+            componentTypes[successor] = new BitSet();
+          }
+          componentTypes[successor].or(reachingTypes);
+        }
+      }
+    }
+  }
+
+  /** the nodes of a method, which are created when they are needed */
+  private static class MethodNodes {
+    @Nonnull final Map<Local, Integer> locals = new HashMap<>();
+    int thisNode = -1;
+    @Nullable int[] parameterNodes;
+    int returnNode = -1;
+  }
+}
@@ -0,0 +1,242 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.common.expr.AbstractInstanceInvokeExpr;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JInterfaceInvokeExpr;
+import sootup.core.jimple.common.expr.JVirtualInvokeExpr;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.model.Method;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+
+/**
+ * This class implements the Variable Type Analysis call graph algorithm. In this algorithm, every
+ * virtual call is resolved to the implementations of the types which may reach the receiver of the
+ * call. These types are propagated from the allocations over the assignments of the program in a
+ * {@link TypePropagationGraph}, whose interprocedural edges are taken from a seed call graph
+ * constructed by RTA or CHA.
+ *
+ * <p>Compared to the RTA algorithm, this algorithm is more precise because it only considers the
+ * classes whose instances are assigned to the receiver, while RTA considers all instantiated
+ * classes. The calls are a subset of the calls of the seed call graph. If the types of a receiver
+ * are unknown, e.g. because it was returned by a library method, the targets of the seed call graph
+ * are kept.
+ */
+public class VariableTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
+
+  @Nonnull private final AbstractCallGraphAlgorithm seedAlgorithm;
+  @Nullable private TypePropagationGraph typePropagationGraph;
+
+  /**
+   * The constructor of the VTA algorithm. The seed call graph is constructed by RTA.
+   *
+   * @param view it contains the data of the classes and methods
+   */
+  public VariableTypeAnalysisAlgorithm(@Nonnull View view) {
+    this(view, new RapidTypeAnalysisAlgorithm(view));
+  }
+
+  /**
+   * The constructor of the VTA algorithm. Both algorithms share the dispatch table of the seed
+   * algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param seedAlgorithm the algorithm which constructs the seed call graph, e.g. RTA or CHA
+   */
+  public VariableTypeAnalysisAlgorithm(
+      @Nonnull View view, @Nonnull AbstractCallGraphAlgorithm seedAlgorithm) {
+    super(view, seedAlgorithm.getDispatchTable());
+    this.seedAlgorithm = seedAlgorithm;
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize() {
+    List<MethodSignature> entryPoints = Collections.singletonList(findMainMethod(view));
+    return initialize(entryPoints);
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
+    return initialize(entryPoints, seedAlgorithm.initialize(entryPoints));
+  }
+
+  /**
+   * Constructs the call graph with a seed call graph which has already been constructed.
+   *
+   * @param entryPoints the entry methods of the call graph
+   * @param seedCallGraph a sound call graph of the same entry methods, e.g. constructed by RTA or
+   *     CHA
+   * @return the call graph, whose calls are a subset of the calls of the seed call graph
+   */
+  @Nonnull
+  public CallGraph initialize(
+      @Nonnull List<MethodSignature> entryPoints, @Nonnull CallGraph seedCallGraph) {
+    typePropagationGraph = new TypePropagationGraph(view, seedCallGraph);
+    try {
+      return constructCompleteCallGraph(view, entryPoints);
+    } finally {
+      // delete the data structures
+      typePropagationGraph = null;
+    }
+  }
+
+  /**
+   * Adds a class to the call graph. The types which reach the receivers depend on the whole
+   * program, so the seed call graph and the type propagation are constructed again. The methods of
+   * the class which are not contained in the old call graph are added to its entry methods.
+   *
+   * @return the old call graph if it contains all methods of the class already, otherwise a new
+   *     call graph
+   */
+  @Nonnull
+  @Override
+  public CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull ClassType classType) {
+    SootClass clazz = view.getClassOrThrow(classType);
+    List<MethodSignature> newMethodSignatures =
+        clazz.getMethods().stream()
+            .map(Method::getSignature)
+            .filter(methodSig -> !oldCallGraph.containsMethod(methodSig))
+            .collect(Collectors.toList());
+    if (newMethodSignatures.isEmpty()) {
+      return oldCallGraph;
+    }
+    // the new class changes the hierarchy, i.e. the dispatch of calls
+    dispatchTable.clear();
+    List<MethodSignature> entryPoints = new ArrayList<>(oldCallGraph.getEntryMethods());
+    entryPoints.addAll(newMethodSignatures);
+    return initialize(entryPoints);
+  }
+
+  /**
+   * Updates the call graph in place after classes of the view were added, changed or removed. The
+   * types which reach the receivers depend on the whole program, so the seed call graph and the
+   * type propagation are constructed again for the entry methods of the given call graph. Then the
+   * methods and calls of the given call graph are replaced by the new ones.
+   *
+   * <p>The type hierarchy of the view has to contain the modifications already.
+   */
+  @Override
+  public void updateCallGraph(
+      @Nonnull MutableCallGraph cg,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> changedClasses,
+      @Nonnull Collection<ClassType> removedClasses) {
+    dispatchTable.clear();
+    cg.replaceWith(initialize(cg.getEntryMethods()));
+  }
+
+  /**
+   * In the VTA algorithm, every virtual call is resolved to the concrete implementations of the
+   * types which may reach the receiver. Only targets of the call in the seed call graph are kept.
+   * Static and special calls and calls with receivers of unknown types are resolved to the targets
+   * in the seed call graph.
+   *
+   * @param sourceMethod the method object that contains the given invoke expression in the body.
+   * @param invokableStmt the statement containing the call which is resolved.
+   * @return a stream containing all reachable method signatures after applying the VTA call graph
+   *     algorithm
+   */
+  @Override
+  @Nonnull
+  protected Stream<MethodSignature> resolveCall(
+      SootMethod sourceMethod, InvokableStmt invokableStmt) {
+    TypePropagationGraph graph = Objects.requireNonNull(typePropagationGraph);
+    List<MethodSignature> seedTargets = graph.getSeedTargets(invokableStmt);
+    Optional<AbstractInvokeExpr> optInvokeExpr = invokableStmt.getInvokeExpr();
+    if (!optInvokeExpr.isPresent()) {
+      return Stream.empty();
+    }
+    AbstractInvokeExpr invokeExpr = optInvokeExpr.get();
+    if (!(invokeExpr instanceof JVirtualInvokeExpr || invokeExpr instanceof JInterfaceInvokeExpr)) {
+      return seedTargets.stream();
+    }
+    BitSet reachingTypes =
+        graph.getReachingTypes(
+            sourceMethod.getSignature(), ((AbstractInstanceInvokeExpr) invokeExpr).getBase());
+    if (reachingTypes == null || reachingTypes.get(TypePropagationGraph.UNKNOWN)) {
+      return seedTargets.stream();
+    }
+
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    Set<MethodSignature> targets = new HashSet<>();
+    for (int type = reachingTypes.nextSetBit(0);
+        type >= 0;
+        type = reachingTypes.nextSetBit(type + 1)) {
+      dispatchTable
+          .resolveConcreteDispatch(
+              identifierFactory.getMethodSignature(
+                  graph.getType(type), invokeExpr.getMethodSignature().getSubSignature()))
+          .ifPresent(targets::add);
+    }
+    // targets without an implementation in the view are kept, like in the seed call graph
+    return seedTargets.stream()
+        .filter(target -> targets.contains(target) || !view.getMethod(target).isPresent());
+  }
+
+  /**
+   * Preprocessing is not needed in VTA
+   *
+   * @param view view
+   * @param sourceMethod the processed method
+   * @param workList the current worklist that is extended by methods that have to be analyzed.
+   * @param cg the current cg is extended by new call targets and calls
+   */
+  @Override
+  protected void preProcessingMethod(
+      View view,
+      MethodSignature sourceMethod,
+      @Nonnull Deque<MethodSignature> workList,
+      @Nonnull MutableCallGraph cg) {
+    //    not needed
+  }
+
+  /**
+   * Postprocessing is not needed in VTA
+   *
+   * @param view view
+   * @param sourceMethod the processed method
+   * @param workList the current worklist that is extended by methods that have to be analyzed.
+   * @param cg the current cg is extended by new call targets and calls
+   */
+  @Override
+  protected void postProcessingMethod(
+      View view,
+      MethodSignature sourceMethod,
+      @Nonnull Deque<MethodSignature> workList,
+      @Nonnull MutableCallGraph cg) {
+    //    not needed
+  }
+}
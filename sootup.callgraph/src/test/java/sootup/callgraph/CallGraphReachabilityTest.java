@@ -0,0 +1,156 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class CallGraphReachabilityTest {
+
+  private static CallGraph callGraph;
+  private static CallGraphReachability reachability;
+  private static List<MethodSignature> methods;
+
+  @BeforeAll
+  public static void setUp() {
+    List<AnalysisInputLocation> inputLocations = new ArrayList<>();
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation(
+            "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    inputLocations.add(new DefaultRuntimeAnalysisInputLocation());
+    JavaView view = new JavaView(inputLocations);
+    MethodSignature mainMethod =
+        view.getIdentifierFactory()
+            .getMethodSignature(
+                view.getIdentifierFactory().getClassType("MiniApp"),
+                "main",
+                "void",
+                Collections.singletonList("java.lang.String[]"));
+    callGraph =
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(Collections.singletonList(mainMethod));
+    reachability = CallGraphReachability.of(callGraph);
+    methods = new ArrayList<>(reachability.getCallGraph().getMethodSignatures());
+  }
+
+  @Test
+  public void testClosures() {
+    for (int i = 0; i < methods.size(); i += 7) {
+      MethodSignature method = methods.get(i);
+      assertEquals(
+          closure(method, callGraph::callTargetsFrom),
+          reachability.forwardClosure(Collections.singletonList(method)));
+      assertEquals(
+          closure(method, callGraph::callSourcesTo),
+          reachability.backwardClosure(Collections.singletonList(method)));
+    }
+    // every method is reached by the entry methods
+    assertEquals(
+        callGraph.getMethodSignatures(),
+        reachability.forwardClosure(callGraph.getEntryMethods()));
+  }
+
+  @Test
+  public void testComponents() {
+    assertTrue(reachability.getComponentCount() <= methods.size());
+    int componentMethods = 0;
+    for (int component = 0; component < reachability.getComponentCount(); component++) {
+      List<MethodSignature> members = reachability.getComponentMethods(component);
+      componentMethods += members.size();
+      for (MethodSignature member : members) {
+        assertEquals(component, reachability.getComponent(member));
+        // the methods of a component reach each other
+        assertTrue(closure(member, callGraph::callTargetsFrom).containsAll(members));
+      }
+      // calls lead to lower components
+      for (int successor : reachability.getComponentSuccessors(component)) {
+        assertTrue(successor < component);
+      }
+    }
+    assertEquals(methods.size(), componentMethods);
+  }
+
+  @Test
+  public void testIsReachable() {
+    MethodSignature source = callGraph.getEntryMethods().get(0);
+    Set<MethodSignature> reachable = closure(source, callGraph::callTargetsFrom);
+    for (MethodSignature target : methods) {
+      // the closures contain their start, but a method only reaches itself if it is recursive
+      if (!target.equals(source)) {
+        assertEquals(reachable.contains(target), reachability.isReachable(source, target));
+        assertEquals(
+            closure(target, callGraph::callTargetsFrom).contains(source),
+            reachability.isReachable(target, source));
+      }
+    }
+    boolean recursive = callGraph.callSourcesTo(source).stream().anyMatch(reachable::contains);
+    assertEquals(recursive, reachability.isRecursive(source));
+    assertEquals(recursive, reachability.isReachable(source, source));
+  }
+
+  @Test
+  public void testReachingEntryMethods() {
+    List<MethodSignature> entryMethods = callGraph.getEntryMethods();
+    Map<MethodSignature, List<MethodSignature>> reachingEntryMethods =
+        reachability.getReachingEntryMethods(methods);
+    assertEquals(methods.size(), reachingEntryMethods.size());
+    for (MethodSignature method : methods) {
+      Set<MethodSignature> callers = closure(method, callGraph::callSourcesTo);
+      List<MethodSignature> expected =
+          entryMethods.stream().filter(callers::contains).collect(Collectors.toList());
+      assertEquals(expected, reachingEntryMethods.get(method));
+      for (MethodSignature entryMethod : entryMethods) {
+        assertEquals(
+            expected.contains(entryMethod),
+            reachability.isReachableFromEntryMethod(method, entryMethod));
+      }
+    }
+    // the components share the rows of the matrix
+    assertTrue(reachability.getDistinctEntryMethodSetCount() <= reachability.getComponentCount());
+  }
+
+  @Test
+  public void testUnknownMethod() {
+    MethodSignature method = methods.get(0);
+    MethodSignature missing =
+        new MethodSignature(
+            method.getDeclClassType(), "missing", Collections.emptyList(), method.getType());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> reachability.forwardClosure(Collections.singletonList(missing)));
+  }
+
+  /** @return the given method and all methods reachable from it via the given edges */
+  private static Set<MethodSignature> closure(
+      MethodSignature method, Function<MethodSignature, Set<MethodSignature>> edges) {
+    Set<MethodSignature> reached = new HashSet<>();
+    Deque<MethodSignature> workList = new ArrayDeque<>();
+    reached.add(method);
+    workList.add(method);
+    while (!workList.isEmpty()) {
+      for (MethodSignature next : edges.apply(workList.poll())) {
+        if (reached.add(next)) {
+          workList.add(next);
+        }
+      }
+    }
+    return reached;
+  }
+}
@@ -0,0 +1,128 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class CompactCallGraphDifferenceTest {
+
+  private static CallGraph chaCallGraph;
+  private static CallGraph rtaCallGraph;
+
+  @BeforeAll
+  public static void setUp() {
+    List<AnalysisInputLocation> inputLocations = new ArrayList<>();
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation(
+            "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    inputLocations.add(new DefaultRuntimeAnalysisInputLocation());
+    JavaView view = new JavaView(inputLocations);
+    MethodSignature mainMethod =
+        view.getIdentifierFactory()
+            .getMethodSignature(
+                view.getIdentifierFactory().getClassType("MiniApp"),
+                "main",
+                "void",
+                Collections.singletonList("java.lang.String[]"));
+    chaCallGraph =
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(Collections.singletonList(mainMethod));
+    rtaCallGraph =
+        new RapidTypeAnalysisAlgorithm(view).initialize(Collections.singletonList(mainMethod));
+  }
+
+  @Test
+  public void testSameCallGraph() {
+    CompactCallGraph callGraph = CompactCallGraph.of(chaCallGraph);
+    CompactCallGraphDifference difference =
+        CompactCallGraphDifference.of(callGraph, CompactCallGraph.of(chaCallGraph));
+
+    assertTrue(difference.isEmpty());
+    assertEquals(callGraph.getMethodCount(), difference.getCommonMethodCount());
+    assertEquals(
+        new CallGraphDifference(chaCallGraph, chaCallGraph).intersectedCalls().size(),
+        difference.getCommonCallCount());
+    assertTrue(difference.getPackageDeltas().isEmpty());
+  }
+
+  @Test
+  public void testCountsMatchCallGraphDifference() {
+    CompactCallGraphDifference difference =
+        CompactCallGraphDifference.of(
+            CompactCallGraph.of(chaCallGraph), CompactCallGraph.of(rtaCallGraph));
+    CallGraphDifference expected = new CallGraphDifference(chaCallGraph, rtaCallGraph);
+
+    assertFalse(difference.isEmpty());
+    assertEquals(expected.intersectedMethods().size(), difference.getCommonMethodCount());
+    assertEquals(expected.uniqueBaseGraphMethods().size(), difference.getRemovedMethodCount());
+    assertEquals(expected.uniqueOtherGraphMethods().size(), difference.getAddedMethodCount());
+    assertEquals(expected.intersectedCalls().size(), difference.getCommonCallCount());
+    assertEquals(expected.uniqueBaseGraphCalls().size(), difference.getRemovedCallCount());
+    assertEquals(expected.uniqueOtherGraphCalls().size(), difference.getAddedCallCount());
+
+    // the reverse difference swaps removed and added
+    CompactCallGraphDifference reverse =
+        CompactCallGraphDifference.of(
+            CompactCallGraph.of(rtaCallGraph), CompactCallGraph.of(chaCallGraph));
+    assertEquals(difference.getRemovedMethodCount(), reverse.getAddedMethodCount());
+    assertEquals(difference.getRemovedCallCount(), reverse.getAddedCallCount());
+    assertEquals(difference.getCommonCallCount(), reverse.getCommonCallCount());
+  }
+
+  @Test
+  public void testPackageDeltas() {
+    CompactCallGraphDifference difference =
+        CompactCallGraphDifference.of(
+            CompactCallGraph.of(chaCallGraph), CompactCallGraph.of(rtaCallGraph));
+
+    int removedMethods = 0;
+    int addedCalls = 0;
+    int removedCalls = 0;
+    for (CompactCallGraphDifference.PackageDelta delta :
+        difference.getPackageDeltas().values()) {
+      removedMethods += delta.getRemovedMethodCount();
+      removedCalls += delta.getRemovedCallCount();
+      addedCalls += delta.getAddedCallCount();
+    }
+    assertEquals(difference.getRemovedMethodCount(), removedMethods);
+    assertEquals(difference.getRemovedCallCount(), removedCalls);
+    assertEquals(difference.getAddedCallCount(), addedCalls);
+  }
+
+  @Test
+  public void testCallListing() throws IOException {
+    StringWriter writer = new StringWriter();
+    CompactCallGraphDifference difference =
+        CompactCallGraphDifference.of(
+            CompactCallGraph.of(chaCallGraph), CompactCallGraph.of(rtaCallGraph), writer);
+    CallGraphDifference expected = new CallGraphDifference(chaCallGraph, rtaCallGraph);
+
+    Set<String> expectedLines = new HashSet<>();
+    for (Pair<MethodSignature, MethodSignature> call : expected.uniqueBaseGraphCalls()) {
+      expectedLines.add("- " + call.getLeft() + " -> " + call.getRight());
+    }
+    for (Pair<MethodSignature, MethodSignature> call : expected.uniqueOtherGraphCalls()) {
+      expectedLines.add("+ " + call.getLeft() + " -> " + call.getRight());
+    }
+    List<String> lines = Arrays.asList(writer.toString().split("\n"));
+    assertEquals(difference.getRemovedCallCount() + difference.getAddedCallCount(), lines.size());
+    assertEquals(expectedLines, new HashSet<>(lines));
+  }
+}
@@ -0,0 +1,253 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class CompactCallGraphTest {
+
+  private static JavaView view;
+  private static CallGraph callGraph;
+
+  @BeforeAll
+  public static void setUp() {
+    List<AnalysisInputLocation> inputLocations = new ArrayList<>();
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation(
+            "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    inputLocations.add(new DefaultRuntimeAnalysisInputLocation());
+    view = new JavaView(inputLocations);
+    MethodSignature mainMethod =
+        view.getIdentifierFactory()
+            .getMethodSignature(
+                view.getIdentifierFactory().getClassType("MiniApp"),
+                "main",
+                "void",
+                Collections.singletonList("java.lang.String[]"));
+    callGraph =
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(Collections.singletonList(mainMethod));
+  }
+
+  @Test
+  public void testFreeze() {
+    CompactCallGraph compactCallGraph = ((MutableCallGraph) callGraph).freeze();
+
+    assertEquals(callGraph.callCount(), compactCallGraph.callCount());
+    assertEquals(callGraph.getMethodSignatures(), compactCallGraph.getMethodSignatures());
+    assertEquals(callGraph.getEntryMethods(), compactCallGraph.getEntryMethods());
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      assertEquals(callGraph.callsFrom(method), compactCallGraph.callsFrom(method));
+      assertEquals(callGraph.callsTo(method), compactCallGraph.callsTo(method));
+      assertEquals(callGraph.callTargetsFrom(method), compactCallGraph.callTargetsFrom(method));
+      assertEquals(callGraph.callSourcesTo(method), compactCallGraph.callSourcesTo(method));
+      for (CallGraph.Call call : callGraph.callsFrom(method)) {
+        assertTrue(compactCallGraph.containsCall(call));
+        assertTrue(compactCallGraph.callsTo(call.getTargetMethodSignature()).contains(call));
+      }
+    }
+  }
+
+  @Test
+  public void testIdQueries() {
+    CompactCallGraph compactCallGraph = CompactCallGraph.of(callGraph);
+
+    Set<CallGraph.Call> outgoingCalls = new HashSet<>();
+    Set<CallGraph.Call> incomingCalls = new HashSet<>();
+    for (int method = 0; method < compactCallGraph.getMethodCount(); method++) {
+      assertEquals(method, compactCallGraph.getMethodId(compactCallGraph.getMethod(method)));
+      for (int i = compactCallGraph.getOutgoingCallsStart(method);
+          i < compactCallGraph.getOutgoingCallsEnd(method);
+          i++) {
+        int target = compactCallGraph.getOutgoingCallTarget(i);
+        int callSite = compactCallGraph.getOutgoingCallSite(i);
+        assertTrue(compactCallGraph.containsCall(method, target, callSite));
+        outgoingCalls.add(
+            new CallGraph.Call(
+                compactCallGraph.getMethod(method),
+                compactCallGraph.getMethod(target),
+                compactCallGraph.getCallSite(callSite)));
+      }
+      for (int i = compactCallGraph.getIncomingCallsStart(method);
+          i < compactCallGraph.getIncomingCallsEnd(method);
+          i++) {
+        incomingCalls.add(
+            new CallGraph.Call(
+                compactCallGraph.getMethod(compactCallGraph.getIncomingCallSource(i)),
+                compactCallGraph.getMethod(method),
+                compactCallGraph.getCallSite(compactCallGraph.getIncomingCallSite(i))));
+      }
+    }
+    assertEquals(callGraph.callCount(), outgoingCalls.size());
+    assertEquals(outgoingCalls, incomingCalls);
+    for (CallGraph.Call call : outgoingCalls) {
+      assertTrue(callGraph.containsCall(call));
+    }
+  }
+
+  @Test
+  public void testCopy() {
+    CompactCallGraph compactCallGraph = CompactCallGraph.of(callGraph);
+    CallGraph copy = compactCallGraph.copy();
+
+    assertEquals(callGraph.callCount(), copy.callCount());
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      assertEquals(callGraph.callsFrom(method), copy.callsFrom(method));
+    }
+    // the dot export does not order calls between methods of classes with the same name
+    assertEquals(
+        new HashSet<>(Arrays.asList(callGraph.exportAsDot().split("\n"))),
+        new HashSet<>(Arrays.asList(compactCallGraph.exportAsDot().split("\n"))));
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    CompactCallGraph compactCallGraph = CompactCallGraph.of(callGraph);
+    Path file = Files.createTempFile("callgraph", ".bin");
+    try {
+      try (OutputStream outputStream = Files.newOutputStream(file)) {
+        compactCallGraph.writeTo(outputStream, view);
+      }
+      CompactCallGraph readCallGraph = CompactCallGraph.readFrom(file, view);
+
+      assertEquals(compactCallGraph.getEntryMethods(), readCallGraph.getEntryMethods());
+      assertEquals(compactCallGraph.callCount(), readCallGraph.callCount());
+      assertEquals(compactCallGraph.getMethodSignatures(), readCallGraph.getMethodSignatures());
+      for (MethodSignature method : callGraph.getMethodSignatures()) {
+        assertEquals(callGraph.callsFrom(method), readCallGraph.callsFrom(method));
+        assertEquals(callGraph.callsTo(method), readCallGraph.callsTo(method));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testReadBindsCallSitesLazily() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    CompactCallGraph.of(callGraph).writeTo(outputStream, view);
+    byte[] bytes = outputStream.toByteArray();
+    Path file = Files.createTempFile("callgraph", ".bin");
+    try {
+      Files.write(file, bytes);
+      // the view does not contain the bodies of the library methods
+      JavaView applicationView =
+          new JavaView(
+              new JavaClassPathAnalysisInputLocation(
+                  "../shared-test-resources/java-miniapps/MiniApp.jar"));
+      CompactCallGraph readCallGraph = CompactCallGraph.readFrom(file, applicationView);
+
+      MethodSignature mainMethod = callGraph.getEntryMethods().get(0);
+      assertEquals(
+          callGraph.callsFrom(mainMethod).size(), readCallGraph.callsFrom(mainMethod).size());
+      List<InvokableStmt> mainStmts =
+          applicationView.getMethod(mainMethod).get().getBody().getStmts().stream()
+              .filter(Stmt::isInvokableStmt)
+              .map(Stmt::asInvokableStmt)
+              .collect(Collectors.toList());
+      for (CallGraph.Call call : readCallGraph.callsFrom(mainMethod)) {
+        assertTrue(mainStmts.stream().anyMatch(stmt -> stmt == call.getInvokableStmt()));
+      }
+
+      MethodSignature libraryMethod =
+          callGraph.getMethodSignatures().stream()
+              .filter(method -> !applicationView.getClass(method.getDeclClassType()).isPresent())
+              .filter(method -> !callGraph.callsFrom(method).isEmpty())
+              .findFirst()
+              .get();
+      assertEquals(
+          callGraph.callTargetsFrom(libraryMethod), readCallGraph.callTargetsFrom(libraryMethod));
+      assertThrows(
+          IllegalStateException.class,
+          () -> readCallGraph.callsFrom(libraryMethod).iterator().next());
+
+      // the locations of the call sites are written without the bodies
+      ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+      readCallGraph.writeTo(rewritten, applicationView);
+      assertArrayEquals(bytes, rewritten.toByteArray());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testReadInvalidFile() throws IOException {
+    Path file = Files.createTempFile("callgraph", ".bin");
+    try {
+      Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+      assertThrows(IOException.class, () -> CompactCallGraph.readFrom(file, view));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testReadCorruptFile() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    CompactCallGraph.of(callGraph).writeTo(outputStream, view);
+    byte[] bytes = outputStream.toByteArray();
+    Path file = Files.createTempFile("callgraph", ".bin");
+    try {
+      // truncated
+      Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+      assertThrows(IOException.class, () -> CompactCallGraph.readFrom(file, view));
+
+      // negative and too large method count
+      byte[] corrupt = bytes.clone();
+      ByteBuffer.wrap(corrupt).putInt(8, -1);
+      Files.write(file, corrupt);
+      assertThrows(IOException.class, () -> CompactCallGraph.readFrom(file, view));
+      ByteBuffer.wrap(corrupt).putInt(8, Integer.MAX_VALUE);
+      Files.write(file, corrupt);
+      assertThrows(IOException.class, () -> CompactCallGraph.readFrom(file, view));
+
+      // call site id of the last call out of range
+      corrupt = bytes.clone();
+      ByteBuffer.wrap(corrupt).putInt(corrupt.length - Integer.BYTES, Integer.MAX_VALUE);
+      Files.write(file, corrupt);
+      assertThrows(IOException.class, () -> CompactCallGraph.readFrom(file, view));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testUnknownMethod() {
+    CompactCallGraph compactCallGraph = CompactCallGraph.of(callGraph);
+    MethodSignature unknownMethod =
+        view.getIdentifierFactory().parseMethodSignature("Unknown#unknown(): void");
+
+    assertFalse(compactCallGraph.containsMethod(unknownMethod));
+    assertEquals(-1, compactCallGraph.getMethodId(unknownMethod));
+    CallGraph.Call call = callGraph.callsFrom(callGraph.getEntryMethods().get(0)).iterator().next();
+    assertFalse(
+        compactCallGraph.containsCall(unknownMethod, unknownMethod, call.getInvokableStmt()));
+    assertFalse(
+        compactCallGraph.containsCall(
+            call.getSourceMethodSignature(), unknownMethod, call.getInvokableStmt()));
+    assertThrows(IllegalArgumentException.class, () -> compactCallGraph.callsFrom(unknownMethod));
+  }
+}
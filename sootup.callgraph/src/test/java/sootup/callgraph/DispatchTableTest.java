@@ -0,0 +1,134 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.IdentifierFactory;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class DispatchTableTest {
+
+  private JavaView view;
+  private IdentifierFactory factory;
+
+  @BeforeEach
+  public void setUp() {
+    List<AnalysisInputLocation> inputLocations = new ArrayList<>();
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation("src/test/resources/callgraph/ConcreteCall/binary"));
+    inputLocations.add(new DefaultRuntimeAnalysisInputLocation());
+    view = new JavaView(inputLocations);
+    factory = view.getIdentifierFactory();
+  }
+
+  @Test
+  public void testResolveConcreteDispatchIsMemoized() {
+    DispatchTable dispatchTable = new DispatchTable(view);
+    for (String signature :
+        new String[] {
+          "java.lang.String#toString(): java.lang.String",
+          "java.util.ArrayList#size(): int",
+          "java.util.AbstractList#get(int): java.lang.Object",
+          "cvcscddi.SubClass#target(): void"
+        }) {
+      MethodSignature sig = factory.parseMethodSignature(signature);
+      assertEquals(
+          AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, sig),
+          dispatchTable.resolveConcreteDispatch(sig),
+          signature);
+      assertSame(dispatchTable.findConcreteMethod(sig), dispatchTable.findConcreteMethod(sig));
+    }
+  }
+
+  @Test
+  public void testResolveAllCallTargets() {
+    DispatchTable dispatchTable = new DispatchTable(view);
+    MethodSignature target = factory.parseMethodSignature("cvcscddi.Class#target(): void");
+    List<MethodSignature> targets = dispatchTable.resolveAllCallTargets(target, false);
+    assertSame(targets, dispatchTable.resolveAllCallTargets(target, false));
+    assertEquals(
+        new HashSet<>(
+            Arrays.asList(
+                factory.parseMethodSignature("cvcscddi.Interface#target(): void"),
+                factory.parseMethodSignature("cvcscddi.SubInterface#target(): void"))),
+        new HashSet<>(targets));
+
+    dispatchTable.clear();
+    assertNotSame(targets, dispatchTable.resolveAllCallTargets(target, false));
+  }
+
+  @Test
+  public void testInvalidate() {
+    DispatchTable dispatchTable = new DispatchTable(view);
+    MethodSignature target = factory.parseMethodSignature("cvcscddi.Class#target(): void");
+    MethodSignature size = factory.parseMethodSignature("java.util.ArrayList#size(): int");
+    List<MethodSignature> targets = dispatchTable.resolveAllCallTargets(target, false);
+    List<MethodSignature> sizeTargets = dispatchTable.resolveAllCallTargets(size, false);
+
+    // the targets of the call are declared in the interfaces
+    dispatchTable.invalidate(Collections.singleton(factory.getClassType("cvcscddi.SubInterface")));
+    assertNotSame(targets, dispatchTable.resolveAllCallTargets(target, false));
+    assertSame(sizeTargets, dispatchTable.resolveAllCallTargets(size, false));
+  }
+
+  @Test
+  public void testSharedDispatchTable() {
+    MethodSignature mainMethod =
+        factory.getMethodSignature(
+            factory.getClassType("cvcscddi.Class"),
+            "main",
+            "void",
+            Collections.singletonList("java.lang.String[]"));
+    List<MethodSignature> entryPoints = Collections.singletonList(mainMethod);
+
+    DispatchTable sharedTable = new DispatchTable(view);
+    CallGraph sharedCha =
+        new ClassHierarchyAnalysisAlgorithm(view, sharedTable).initialize(entryPoints);
+    CallGraph sharedRta = new RapidTypeAnalysisAlgorithm(view, sharedTable).initialize(entryPoints);
+    CallGraph cha = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph rta = new RapidTypeAnalysisAlgorithm(view).initialize(entryPoints);
+
+    assertEquals(calls(cha), calls(sharedCha));
+    assertEquals(calls(rta), calls(sharedRta));
+  }
+
+  @Test
+  public void testDispatchTableOfDifferentView() {
+    DispatchTable dispatchTable = new DispatchTable(view);
+    JavaView otherView =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "src/test/resources/callgraph/ConcreteCall/binary"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ClassHierarchyAnalysisAlgorithm(otherView, dispatchTable));
+  }
+
+  private static Set<String> calls(CallGraph cg) {
+    Set<String> calls = new HashSet<>();
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      for (CallGraph.Call call : cg.callsFrom(method)) {
+        calls.add(
+            call.getSourceMethodSignature()
+                + " -> "
+                + call.getTargetMethodSignature()
+                + " @ "
+                + call.getInvokableStmt());
+      }
+    }
+    return calls;
+  }
+}
@@ -0,0 +1,215 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.JavaView;
+import sootup.java.core.views.MutableJavaView;
+
+@Tag("Java8")
+public class IncrementalCallGraphTest {
+
+  private static final String CLASS_PATH = "src/test/resources/callgraph/Incremental/binary/";
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+  private final ClassType mainClass = identifierFactory.getClassType("inc.Main");
+  private final List<MethodSignature> entryPoints =
+      Collections.singletonList(
+          identifierFactory.getMethodSignature(
+              mainClass, "main", "void", Collections.singletonList("java.lang.String[]")));
+
+  @Test
+  public void testUpdateChaAfterClassesChanged() {
+    assertUpdateEqualsConstruction(ClassHierarchyAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void testUpdateRtaAfterClassesChanged() {
+    assertUpdateEqualsConstruction(RapidTypeAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void testUpdateVtaAfterClassesChanged() {
+    assertUpdateEqualsConstruction(VariableTypeAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void testUpdateProcessesOnlyImpactedMethods() {
+    MutableCallGraph cg =
+        new ClassHierarchyAnalysisAlgorithm(createView("v1")).initialize(entryPoints).copy();
+    ProcessedMethodsRecorder algorithm = new ProcessedMethodsRecorder(createView("v2"));
+
+    algorithm.updateCallGraph(
+        cg,
+        Collections.singletonList(identifierFactory.getClassType("inc.Triangle")),
+        Collections.singletonList(identifierFactory.getClassType("inc.Circle")),
+        Collections.singletonList(identifierFactory.getClassType("inc.Square")));
+
+    MethodSignature logMethod =
+        identifierFactory.getMethodSignature(
+            mainClass, "log", "void", Collections.singletonList("java.lang.String"));
+    MethodSignature triangleArea =
+        identifierFactory.getMethodSignature(
+            identifierFactory.getClassType("inc.Triangle"), "area", "int", Collections.emptyList());
+    assertTrue(cg.containsMethod(logMethod));
+    assertFalse(algorithm.processedMethods.contains(logMethod));
+    assertTrue(algorithm.processedMethods.contains(triangleArea));
+    assertTrue(algorithm.processedMethods.contains(entryPoints.get(0)));
+  }
+
+  @Test
+  public void testUpdateAfterMethodRemoved() {
+    MutableJavaView view =
+        new MutableJavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH + "v1"));
+    MutableCallGraph cg = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints).copy();
+    ClassType squareClass = identifierFactory.getClassType("inc.Square");
+    MethodSignature squareName =
+        identifierFactory.getMethodSignature(
+            squareClass, "name", "java.lang.String", Collections.emptyList());
+    assertTrue(cg.containsMethod(squareName));
+
+    view.removeMethod((JavaSootMethod) view.getMethod(squareName).get());
+    view.setTypeHierarchy(new ViewTypeHierarchy(view));
+    new ClassHierarchyAnalysisAlgorithm(view)
+        .updateCallGraph(
+            cg,
+            Collections.emptyList(),
+            Collections.singletonList(squareClass),
+            Collections.emptyList());
+
+    CallGraph expected = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    assertFalse(cg.containsMethod(squareName));
+    assertEquals(expected.getMethodSignatures(), cg.getMethodSignatures());
+    assertEquals(calls(expected), calls(cg));
+    assertEquals(expected.callCount(), cg.callCount());
+  }
+
+  @Test
+  public void testRemoveMethodAndCall() {
+    CallGraph original =
+        new ClassHierarchyAnalysisAlgorithm(createView("v1")).initialize(entryPoints);
+    MutableCallGraph cg = original.copy();
+    MethodSignature mainMethod = entryPoints.get(0);
+    CallGraph.Call call = cg.callsFrom(mainMethod).iterator().next();
+
+    cg.removeCall(call);
+    assertFalse(cg.containsCall(call));
+    assertEquals(original.callCount() - 1, cg.callCount());
+
+    cg.removeMethod(mainMethod);
+    assertFalse(cg.containsMethod(mainMethod));
+    assertEquals(original.callCount() - original.callsFrom(mainMethod).size(), cg.callCount());
+  }
+
+  @Test
+  public void testReplaceWith() {
+    CallGraph original =
+        new ClassHierarchyAnalysisAlgorithm(createView("v1")).initialize(entryPoints);
+    MutableCallGraph cg = new GraphBasedCallGraph(Collections.emptyList());
+
+    cg.replaceWith(original);
+    assertEquals(entryPoints, cg.getEntryMethods());
+    assertEquals(original.getMethodSignatures(), cg.getMethodSignatures());
+    assertEquals(calls(original), calls(cg));
+    assertEquals(original.callCount(), cg.callCount());
+  }
+
+  @Test
+  public void testDefaultUpdateConstructsCallGraphAgain() {
+    MutableCallGraph cg =
+        new ClassHierarchyAnalysisAlgorithm(createView("v1")).initialize(entryPoints).copy();
+    ClassHierarchyAnalysisAlgorithm cha = new ClassHierarchyAnalysisAlgorithm(createView("v2"));
+    // an algorithm which does not support incremental updates
+    CallGraphAlgorithm algorithm =
+        new CallGraphAlgorithm() {
+          @Nonnull
+          @Override
+          public CallGraph initialize() {
+            return cha.initialize();
+          }
+
+          @Nonnull
+          @Override
+          public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
+            return cha.initialize(entryPoints);
+          }
+
+          @Nonnull
+          @Override
+          public CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull ClassType classType) {
+            return cha.addClass(oldCallGraph, classType);
+          }
+        };
+
+    algorithm.updateCallGraph(
+        cg,
+        Collections.singletonList(identifierFactory.getClassType("inc.Triangle")),
+        Collections.singletonList(identifierFactory.getClassType("inc.Circle")),
+        Collections.singletonList(identifierFactory.getClassType("inc.Square")));
+
+    CallGraph expected = cha.initialize(entryPoints);
+    assertEquals(expected.getMethodSignatures(), cg.getMethodSignatures());
+    assertEquals(calls(expected), calls(cg));
+    assertEquals(expected.callCount(), cg.callCount());
+  }
+
+  private void assertUpdateEqualsConstruction(
+      Function<View, AbstractCallGraphAlgorithm> createAlgorithm) {
+    MutableCallGraph cg = createAlgorithm.apply(createView("v1")).initialize(entryPoints).copy();
+
+    View newView = createView("v2");
+    createAlgorithm
+        .apply(newView)
+        .updateCallGraph(
+            cg,
+            Collections.singletonList(identifierFactory.getClassType("inc.Triangle")),
+            Collections.singletonList(identifierFactory.getClassType("inc.Circle")),
+            Collections.singletonList(identifierFactory.getClassType("inc.Square")));
+
+    CallGraph expected = createAlgorithm.apply(newView).initialize(entryPoints);
+    assertEquals(expected.getMethodSignatures(), cg.getMethodSignatures());
+    // the unchanged methods keep the statements of the old view
+    assertEquals(calls(expected), calls(cg));
+    assertEquals(expected.callCount(), cg.callCount());
+  }
+
+  private static JavaView createView(String version) {
+    return new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH + version));
+  }
+
+  private static Set<String> calls(CallGraph cg) {
+    Set<String> calls = new HashSet<>();
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      cg.callsFrom(method).forEach(call -> calls.add(call.toString()));
+    }
+    return calls;
+  }
+
+  private static class ProcessedMethodsRecorder extends ClassHierarchyAnalysisAlgorithm {
+    private final Set<MethodSignature> processedMethods = new HashSet<>();
+
+    private ProcessedMethodsRecorder(@Nonnull View view) {
+      super(view);
+    }
+
+    @Override
+    protected void postProcessingMethod(
+        View view,
+        MethodSignature sourceMethod,
+        @Nonnull Deque<MethodSignature> workList,
+        @Nonnull MutableCallGraph cg) {
+      processedMethods.add(sourceMethod);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class InvokeDynamicCallGraphTest {
+
+  // compiled with javac --release 11, so strings are concatenated by invokedynamic
+  private static final String CLASS_PATH = "src/test/resources/callgraph/InvokeDynamic/binary/";
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+  private final MethodSignature mainMethod =
+      identifierFactory.getMethodSignature(
+          identifierFactory.getClassType("indy.Main"),
+          "main",
+          "void",
+          Collections.singletonList("java.lang.String[]"));
+
+  @Test
+  public void testCha() {
+    JavaView view = createView();
+    CallGraph cg =
+        new ClassHierarchyAnalysisAlgorithm(view).initialize(Collections.singletonList(mainMethod));
+
+    Set<String> targets = getDynamicCallTargets(view, cg);
+    assertEquals(
+        new HashSet<>(
+            Arrays.asList(
+                "<indy.Main: void lambda$main$0()>",
+                "<indy.Main: java.lang.String name()>",
+                "<indy.Sub: java.lang.String name()>",
+                "<indy.Sub: void <init>()>",
+                "<indy.Circle: java.lang.String toString()>",
+                "<indy.Square: java.lang.String toString()>",
+                "<java.lang.Object: java.lang.String toString()>")),
+        targets);
+    // the implementation of the lambda is processed as well
+    assertTrue(
+        cg.callTargetsFrom(
+                identifierFactory.parseMethodSignature("<indy.Main: void lambda$main$0()>"))
+            .contains(
+                identifierFactory.parseMethodSignature("<indy.Main: void log(java.lang.String)>")));
+  }
+
+  @Test
+  public void testRta() {
+    JavaView view = createView();
+    CallGraph cg =
+        new RapidTypeAnalysisAlgorithm(view).initialize(Collections.singletonList(mainMethod));
+
+    // Square is never instantiated, Sub is instantiated by the constructor reference
+    Set<String> targets = getDynamicCallTargets(view, cg);
+    assertEquals(
+        new HashSet<>(
+            Arrays.asList(
+                "<indy.Main: void lambda$main$0()>",
+                "<indy.Main: java.lang.String name()>",
+                "<indy.Sub: java.lang.String name()>",
+                "<indy.Sub: void <init>()>",
+                "<indy.Circle: java.lang.String toString()>")),
+        targets);
+  }
+
+  @Test
+  public void testChaConcatenationOfObjects() {
+    JavaView view = createView();
+    MethodSignature printMethod =
+        identifierFactory.parseMethodSignature(
+            "<indy.Printer: void print(java.lang.Object,java.lang.Object,indy.Shape)>");
+    CallGraph cg =
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(Collections.singletonList(printMethod));
+
+    // one call per concatenation of objects, instead of a call of every toString implementation in
+    // the runtime library
+    List<CallGraph.Call> calls = getDynamicCalls(cg, printMethod);
+    assertEquals(6, calls.size());
+    assertEquals(
+        new HashSet<>(
+            Arrays.asList(
+                "<java.lang.String: java.lang.String valueOf(java.lang.Object)>",
+                "<indy.Circle: java.lang.String toString()>",
+                "<indy.Square: java.lang.String toString()>",
+                "<java.lang.Object: java.lang.String toString()>")),
+        calls.stream()
+            .map(call -> call.getTargetMethodSignature().toString())
+            .collect(Collectors.toSet()));
+    // the toString implementations are called by String.valueOf
+    assertTrue(
+        cg.callTargetsFrom(
+                identifierFactory.parseMethodSignature(
+                    "<java.lang.String: java.lang.String valueOf(java.lang.Object)>"))
+            .contains(
+                identifierFactory.parseMethodSignature(
+                    "<indy.Circle: java.lang.String toString()>")));
+  }
+
+  @Test
+  public void testTargetsAreSharedByCallSites() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH));
+    DispatchTable dispatchTable = new DispatchTable(view);
+    List<JDynamicInvokeExpr> concatenations =
+        getDynamicInvokeExprs(view).stream()
+            .filter(invokeExpr -> !InvokeDynamicResolver.isLambdaMetafactory(invokeExpr))
+            .collect(Collectors.toList());
+    assertEquals(2, concatenations.size());
+    assertNotSame(concatenations.get(0), concatenations.get(1));
+
+    InvokeDynamicResolver.Targets targets =
+        dispatchTable.resolveInvokeDynamic(concatenations.get(0));
+    assertSame(targets, dispatchTable.resolveInvokeDynamic(concatenations.get(1)));
+    assertEquals(
+        Collections.singletonList(
+            identifierFactory.parseMethodSignature("<indy.Shape: java.lang.String toString()>")),
+        targets.getInterfaceTargets());
+
+    dispatchTable.invalidate(
+        Collections.singletonList(identifierFactory.getClassType("indy.Shape")));
+    assertNotSame(targets, dispatchTable.resolveInvokeDynamic(concatenations.get(1)));
+  }
+
+  private static JavaView createView() {
+    // toString of the concatenated interface type is resolved via java.lang.Object
+    return new JavaView(
+        Arrays.asList(
+            new JavaClassPathAnalysisInputLocation(CLASS_PATH),
+            new DefaultRuntimeAnalysisInputLocation()));
+  }
+
+  private List<JDynamicInvokeExpr> getDynamicInvokeExprs(JavaView view) {
+    List<JDynamicInvokeExpr> invokeExprs = new ArrayList<>();
+    for (Stmt stmt : view.getMethod(mainMethod).get().getBody().getStmts()) {
+      if (stmt.isInvokableStmt()) {
+        AbstractInvokeExpr invokeExpr = stmt.asInvokableStmt().getInvokeExpr().orElse(null);
+        if (invokeExpr instanceof JDynamicInvokeExpr) {
+          invokeExprs.add((JDynamicInvokeExpr) invokeExpr);
+        }
+      }
+    }
+    return invokeExprs;
+  }
+
+  /** @return the targets of the calls of the invokedynamic call sites in the main method */
+  private Set<String> getDynamicCallTargets(JavaView view, CallGraph cg) {
+    return getDynamicCalls(cg, mainMethod).stream()
+        .map(call -> call.getTargetMethodSignature().toString())
+        .collect(Collectors.toSet());
+  }
+
+  /** @return the calls of the invokedynamic call sites in the given method */
+  private static List<CallGraph.Call> getDynamicCalls(CallGraph cg, MethodSignature method) {
+    return cg.callsFrom(method).stream()
+        .filter(
+            call ->
+                call.getInvokableStmt().getInvokeExpr().orElse(null)
+                    instanceof JDynamicInvokeExpr)
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,128 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class ParallelCallGraphTest {
+
+  private static JavaView view;
+  private static List<MethodSignature> entryPoints;
+  private static ForkJoinPool pool;
+
+  @BeforeAll
+  public static void setUp() {
+    List<AnalysisInputLocation> inputLocations = new ArrayList<>();
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation(
+            "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    inputLocations.add(new DefaultRuntimeAnalysisInputLocation());
+    view = new JavaView(inputLocations, new ConcurrentFullCacheProvider());
+    entryPoints =
+        Collections.singletonList(
+            view.getIdentifierFactory()
+                .getMethodSignature(
+                    view.getIdentifierFactory().getClassType("MiniApp"),
+                    "main",
+                    "void",
+                    Collections.singletonList("java.lang.String[]")));
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void testParallelCha() {
+    CallGraph sequential = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph parallel =
+        parallel(new ClassHierarchyAnalysisAlgorithm(view), pool).initialize(entryPoints);
+
+    assertEquals(sequential.getMethodSignatures(), parallel.getMethodSignatures());
+    assertEquals(calls(sequential), calls(parallel));
+    assertEquals(sequential.callCount(), parallel.callCount());
+  }
+
+  @Test
+  public void testParallelRta() {
+    CallGraph sequential = new RapidTypeAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph parallel =
+        parallel(new RapidTypeAnalysisAlgorithm(view), pool).initialize(entryPoints);
+
+    assertEquals(sequential.getMethodSignatures(), parallel.getMethodSignatures());
+    assertEquals(calls(sequential), calls(parallel));
+    assertEquals(sequential.callCount(), parallel.callCount());
+  }
+
+  @Test
+  public void testParallelOrderIsDeterministic() {
+    Function<ForkJoinPool, CallGraph> constructCallGraph =
+        forkJoinPool ->
+            parallel(new RapidTypeAnalysisAlgorithm(view), forkJoinPool).initialize(entryPoints);
+    ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+    try {
+      assertEquals(
+          order(constructCallGraph.apply(singleThreadPool)),
+          order(constructCallGraph.apply(pool)));
+    } finally {
+      singleThreadPool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConcurrentCallGraphCopy() {
+    CallGraph sequential = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    ConcurrentCallGraph concurrentCallGraph = new ConcurrentCallGraph(entryPoints);
+    for (MethodSignature method : sequential.getMethodSignatures()) {
+      concurrentCallGraph.addMethod(method);
+      sequential.callsFrom(method).forEach(concurrentCallGraph::addCall);
+    }
+
+    assertEquals(sequential.callCount(), concurrentCallGraph.callCount());
+    assertEquals(calls(sequential), calls(concurrentCallGraph.copy()));
+    assertEquals(calls(sequential), calls(concurrentCallGraph.toGraphBasedCallGraph()));
+  }
+
+  private static AbstractCallGraphAlgorithm parallel(
+      AbstractCallGraphAlgorithm algorithm, ForkJoinPool forkJoinPool) {
+    algorithm.setForkJoinPool(forkJoinPool);
+    return algorithm;
+  }
+
+  private static Set<CallGraph.Call> calls(CallGraph cg) {
+    Set<CallGraph.Call> calls = new HashSet<>();
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      calls.addAll(cg.callsFrom(method));
+    }
+    return calls;
+  }
+
+  private static List<String> order(CallGraph cg) {
+    List<String> order = new ArrayList<>();
+    for (MethodSignature method : cg.getMethodSignatures()) {
+      order.add(method.toString());
+      cg.callsFrom(method).forEach(call -> order.add(call.toString()));
+      cg.callsTo(method).forEach(call -> order.add(call.toString()));
+    }
+    return order;
+  }
+}
@@ -0,0 +1,166 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.callgraph.CallGraph.Call;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class VariableTypeAnalysisAlgorithmTest {
+
+  private static final String CLASS_PATH = "src/test/resources/callgraph/VTA/binary/";
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+  private final MethodSignature mainMethod =
+      identifierFactory.getMethodSignature(
+          identifierFactory.getClassType("vta.Main"),
+          "main",
+          "void",
+          Collections.singletonList("java.lang.String[]"));
+  private final List<MethodSignature> entryPoints = Collections.singletonList(mainMethod);
+
+  @Test
+  public void testVtaSeededByRta() {
+    JavaView view = createView();
+    CallGraph cg = new VariableTypeAnalysisAlgorithm(view).initialize(entryPoints);
+    assertSpeakTargets(view, cg);
+  }
+
+  @Test
+  public void testVtaSeededByCha() {
+    JavaView view = createView();
+    CallGraph cg =
+        new VariableTypeAnalysisAlgorithm(view, new ClassHierarchyAnalysisAlgorithm(view))
+            .initialize(entryPoints);
+    assertSpeakTargets(view, cg);
+  }
+
+  @Test
+  public void testVtaIsSubsetOfSeed() {
+    JavaView view = createView();
+    CallGraph rtaCallGraph = new RapidTypeAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph vtaCallGraph =
+        new VariableTypeAnalysisAlgorithm(view).initialize(entryPoints, rtaCallGraph);
+
+    assertEquals(rtaCallGraph.getMethodSignatures(), vtaCallGraph.getMethodSignatures());
+    Set<Call> rtaCalls = calls(rtaCallGraph);
+    Set<Call> vtaCalls = calls(vtaCallGraph);
+    assertTrue(rtaCalls.containsAll(vtaCalls));
+    assertTrue(rtaCalls.size() > vtaCalls.size());
+    // RTA resolves every call to speak to all four animals
+    for (List<String> targets : getSpeakTargets(view, rtaCallGraph)) {
+      assertEquals(Arrays.asList("Bird", "Cat", "Dog", "Fish"), targets);
+    }
+  }
+
+  @Test
+  public void testAddClass() {
+    JavaView view = createView();
+    VariableTypeAnalysisAlgorithm algorithm = new VariableTypeAnalysisAlgorithm(view);
+    ClassType mainClass = identifierFactory.getClassType("vta.Main");
+    MethodSignature createMethod =
+        identifierFactory.getMethodSignature(
+            mainClass, "create", "vta.Animal", Collections.emptyList());
+    CallGraph cg = algorithm.initialize(Collections.singletonList(createMethod));
+    assertFalse(cg.containsMethod(mainMethod));
+
+    CallGraph updated = algorithm.addClass(cg, mainClass);
+    assertTrue(updated.getEntryMethods().contains(createMethod));
+    assertTrue(updated.getEntryMethods().contains(mainMethod));
+    assertSpeakTargets(view, updated);
+    // all methods of the class are contained already
+    assertSame(updated, algorithm.addClass(updated, mainClass));
+  }
+
+  @Test
+  public void testUpdateCallGraph() {
+    JavaView view = createView();
+    VariableTypeAnalysisAlgorithm algorithm = new VariableTypeAnalysisAlgorithm(view);
+    CallGraph expected = algorithm.initialize(entryPoints);
+    MutableCallGraph cg = expected.copy();
+    MethodSignature dogSpeak =
+        identifierFactory.getMethodSignature(
+            identifierFactory.getClassType("vta.Dog"), "speak", "void", Collections.emptyList());
+    cg.removeMethod(dogSpeak);
+
+    algorithm.updateCallGraph(
+        cg,
+        Collections.emptyList(),
+        Collections.singletonList(identifierFactory.getClassType("vta.Dog")),
+        Collections.emptyList());
+
+    assertEquals(expected.getMethodSignatures(), cg.getMethodSignatures());
+    assertEquals(calls(expected), calls(cg));
+    assertSpeakTargets(view, cg);
+  }
+
+  private static JavaView createView() {
+    // the runtime tells that e.g. the strings of the arguments of main are final
+    return new JavaView(
+        Arrays.asList(
+            new JavaClassPathAnalysisInputLocation(CLASS_PATH),
+            new DefaultRuntimeAnalysisInputLocation()));
+  }
+
+  private void assertSpeakTargets(JavaView view, CallGraph cg) {
+    assertEquals(
+        Arrays.asList(
+            // local
+            Collections.singletonList("Dog"),
+            // return value
+            Collections.singletonList("Cat"),
+            // field
+            Collections.singletonList("Bird"),
+            // array element
+            Collections.singletonList("Fish"),
+            // cycle of locals
+            Arrays.asList("Cat", "Dog"),
+            // unknown types keep the targets of the seed call graph
+            Arrays.asList("Bird", "Cat", "Dog", "Fish")),
+        getSpeakTargets(view, cg));
+  }
+
+  /** @return the simple class names of the targets of each call to speak in the main method */
+  private List<List<String>> getSpeakTargets(JavaView view, CallGraph cg) {
+    Map<InvokableStmt, List<String>> targetsByStmt = new IdentityHashMap<>();
+    for (Call call : cg.callsFrom(mainMethod)) {
+      targetsByStmt
+          .computeIfAbsent(call.getInvokableStmt(), stmt -> new ArrayList<>())
+          .add(call.getTargetMethodSignature().getDeclClassType().getClassName());
+    }
+    List<List<String>> speakTargets = new ArrayList<>();
+    for (Stmt stmt : view.getMethod(mainMethod).get().getBody().getStmts()) {
+      if (stmt.isInvokableStmt()
+          && stmt.asInvokableStmt().containsInvokeExpr()
+          && stmt.asInvokableStmt()
+              .getInvokeExpr()
+              .get()
+              .getMethodSignature()
+              .getName()
+              .equals("speak")) {
+        List<String> targets =
+            targetsByStmt.getOrDefault(stmt.asInvokableStmt(), Collections.emptyList());
+        speakTargets.add(targets.stream().sorted().collect(Collectors.toList()));
+      }
+    }
+    assertEquals(6, speakTargets.size());
+    return speakTargets;
+  }
+
+  private static Set<Call> calls(CallGraph cg) {
+    return cg.getMethodSignatures().stream()
+        .flatMap(method -> cg.callsFrom(method).stream())
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,51 @@
+// inc/Main.java
+package inc;
+
+public class Main {
+
+  public static void main(String[] args) {
+    Shape shape = args.length > 0 ? new Circle() : new Square();
+    shape.area();
+    Shape.describe(shape);
+    new Printer().print(shape);
+    log("done");
+  }
+
+  static void log(String message) {
+    System.out.println(message);
+  }
+}
+
+abstract class Shape {
+  abstract int area();
+
+  static String describe(Shape shape) {
+    return shape.name();
+  }
+
+  String name() {
+    return "shape";
+  }
+}
+
+class Circle extends Shape {
+  int area() {
+    return 3;
+  }
+}
+
+class Square extends Shape {
+  int area() {
+    return 4;
+  }
+
+  String name() {
+    return "square";
+  }
+}
+
+class Printer {
+  void print(Shape shape) {
+    Main.log(shape.name() + shape.area());
+  }
+}
@@ -0,0 +1,67 @@
+// inc/Main.java
+// Circle is changed and Triangle is added. Square.class is removed from the binaries, i.e. Main
+// refers to a missing class.
+package inc;
+
+public class Main {
+
+  public static void main(String[] args) {
+    Shape shape = args.length > 0 ? new Circle() : new Square();
+    shape.area();
+    Shape.describe(shape);
+    new Printer().print(shape);
+    log("done");
+  }
+
+  static void log(String message) {
+    System.out.println(message);
+  }
+}
+
+abstract class Shape {
+  abstract int area();
+
+  static String describe(Shape shape) {
+    return shape.name();
+  }
+
+  String name() {
+    return "shape";
+  }
+}
+
+class Circle extends Shape {
+  int area() {
+    return new Triangle().area() + 1;
+  }
+
+  String name() {
+    return "circle";
+  }
+}
+
+class Square extends Shape {
+  int area() {
+    return 4;
+  }
+
+  String name() {
+    return "square";
+  }
+}
+
+class Triangle extends Shape {
+  int area() {
+    return 2;
+  }
+
+  String name() {
+    return "triangle";
+  }
+}
+
+class Printer {
+  void print(Shape shape) {
+    Main.log(shape.name() + shape.area());
+  }
+}
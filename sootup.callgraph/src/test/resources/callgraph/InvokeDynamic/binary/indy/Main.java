@@ -0,0 +1,48 @@
+// indy/Main.java, compiled with javac --release 11
+package indy;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class Main {
+
+  public static void main(String[] args) {
+    Runnable runnable = () -> log("run");
+    runnable.run();
+
+    Main main = new Main();
+    Supplier<String> boundName = main::name;
+    Function<Main, String> unboundName = Main::name;
+    Supplier<Main> constructor = Sub::new;
+
+    Shape shape = new Circle();
+    log("shape: " + shape);
+    log("shape: " + shape);
+  }
+
+  static void log(String message) {}
+
+  String name() {
+    return "main";
+  }
+}
+
+class Sub extends Main {
+  String name() {
+    return "sub";
+  }
+}
+
+interface Shape {}
+
+class Circle implements Shape {
+  public String toString() {
+    return "circle";
+  }
+}
+
+class Square implements Shape {
+  public String toString() {
+    return "square";
+  }
+}
@@ -0,0 +1,12 @@
+// indy/Printer.java, compiled with javac --release 11
+package indy;
+
+class Printer {
+
+  static void print(Object first, Object second, Shape shape) {
+    Main.log("first: " + first);
+    Main.log("first: " + first + ", second: " + second);
+    Main.log("second: " + second);
+    Main.log("shape: " + shape);
+  }
+}
@@ -0,0 +1,64 @@
+// vta/Main.java
+package vta;
+
+import java.util.Collections;
+
+public class Main {
+
+  public static void main(String[] args) {
+    Animal dog = new Dog();
+    dog.speak();
+
+    Animal cat = create();
+    cat.speak();
+
+    Holder holder = new Holder();
+    holder.animal = new Bird();
+    holder.animal.speak();
+
+    Animal[] animals = {new Fish()};
+    animals[0].speak();
+
+    // the locals form a cycle
+    Animal first = new Dog();
+    Animal second = new Cat();
+    for (int i = 0; i < args.length; i++) {
+      Animal swap = first;
+      first = second;
+      second = swap;
+    }
+    first.speak();
+
+    // the type of a value returned by a library method is unknown
+    Animal unknown = (Animal) Collections.singletonList(dog).get(0);
+    unknown.speak();
+  }
+
+  static Animal create() {
+    return new Cat();
+  }
+}
+
+class Holder {
+  Animal animal;
+}
+
+interface Animal {
+  void speak();
+}
+
+class Dog implements Animal {
+  public void speak() {}
+}
+
+class Cat implements Animal {
+  public void speak() {}
+}
+
+class Bird implements Animal {
+  public void speak() {}
+}
+
+class Fish implements Animal {
+  public void speak() {}
+}
@@ -0,0 +1,54 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+
+/**
+ * Interface for different strategies that decide how long the resolved {@link Body} of a {@link
+ * sootup.core.model.SootMethod} is kept in memory. A body that was released is resolved again from
+ * its {@link sootup.core.frontend.BodySource} on the next request, i.e. it is an equal but not the
+ * identical {@link Body} object.
+ *
+ * <p>The policy is a setting of a view: frontends that resolve bodies lazily create the methods
+ * with {@link sootup.core.views.View#getBodyRetentionPolicy()}. A policy such as {@link
+ * LRUBodyRetentionPolicy} therefore shares its budget only among the methods of the views it was
+ * passed to.
+ *
+ * @see sootup.core.model.SootMethod#getBodyRetentionPolicy()
+ */
+public interface BodyRetentionPolicy {
+
+  /**
+   * Creates the holder of the body of a single method.
+   *
+   * @param bodyResolver resolves the body of the method; may be called again after the body was
+   *     released
+   * @return a thread-safe supplier that returns the retained or, if necessary, a newly resolved
+   *     body
+   */
+  @Nonnull
+  Supplier<Body> retain(@Nonnull Supplier<Body> bodyResolver);
+}
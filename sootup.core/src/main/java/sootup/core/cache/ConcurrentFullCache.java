@@ -0,0 +1,133 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Thread-safe cache that stores any class that has been resolved. Lookups of already resolved
+ * classes do not take a lock. Building a class that is not yet cached is done at most once per
+ * {@link ClassType}: concurrent requests for the same type wait for the thread that builds it,
+ * while unrelated types are built in parallel.
+ */
+public class ConcurrentFullCache implements ClassCache {
+
+  protected final Map<ClassType, SootClass> cache = new ConcurrentHashMap<>();
+
+  /** classes that are currently built by some thread */
+  private final Map<ClassType, FutureTask<SootClass>> inFlight = new ConcurrentHashMap<>();
+
+  @Override
+  public SootClass getClass(ClassType classType) {
+    return cache.get(classType);
+  }
+
+  @Nonnull
+  @Override
+  public Collection<SootClass> getClasses() {
+    return cache.values();
+  }
+
+  @Override
+  public void putClass(ClassType classType, SootClass sootClass) {
+    cache.putIfAbsent(classType, sootClass);
+  }
+
+  @Override
+  public boolean hasClass(ClassType classType) {
+    return cache.containsKey(classType);
+  }
+
+  @Override
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * Returns the cached class of the given type or builds it via <code>builder</code>. If several
+   * threads request the same uncached type at the same time, only one of them executes the builder
+   * and the others wait for its result.
+   *
+   * @param classType the type of the requested class
+   * @param builder creates the class if it is not cached yet
+   * @return the class that is stored in the cache for <code>classType</code>
+   */
+  @Nonnull
+  public SootClass getOrBuild(
+      @Nonnull ClassType classType, @Nonnull Supplier<? extends SootClass> builder) {
+    SootClass cachedClass = cache.get(classType);
+    if (cachedClass != null) {
+      return cachedClass;
+    }
+
+    FutureTask<SootClass> task = new FutureTask<>(builder::get);
+    FutureTask<SootClass> runningTask = inFlight.putIfAbsent(classType, task);
+    if (runningTask == null) {
+      runningTask = task;
+      try {
+        // another thread could have finished building the class in the meantime
+        cachedClass = cache.get(classType);
+        if (cachedClass != null) {
+          return cachedClass;
+        }
+        task.run();
+        cache.putIfAbsent(classType, Uninterruptibles.getUninterruptibly(task));
+      } catch (ExecutionException e) {
+        throw unwrap(e);
+      } finally {
+        inFlight.remove(classType, task);
+      }
+      return cache.get(classType);
+    }
+
+    try {
+      SootClass builtClass = Uninterruptibles.getUninterruptibly(runningTask);
+      SootClass storedClass = cache.get(classType);
+      return storedClass != null ? storedClass : builtClass;
+    } catch (ExecutionException e) {
+      throw unwrap(e);
+    }
+  }
+
+  @Nonnull
+  private static RuntimeException unwrap(@Nonnull ExecutionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new UncheckedExecutionException(cause);
+  }
+}
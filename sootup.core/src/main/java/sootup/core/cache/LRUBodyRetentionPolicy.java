@@ -0,0 +1,114 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+
+/**
+ * Keeps the least recently used bodies as long as they contain at most a specified amount of
+ * statements in total. The budget is shared by all methods whose bodies are retained by the same
+ * instance of this policy. The most recently used body is always kept, even if it exceeds the budget
+ * on its own.
+ */
+public class LRUBodyRetentionPolicy implements BodyRetentionPolicy {
+  private final long maxStmtCount;
+  private long retainedStmtCount = 0;
+  private final LinkedHashMap<LRUBodyHolder, Body> retainedBodies =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  public LRUBodyRetentionPolicy(long maxStmtCount) {
+    if (maxStmtCount < 1) {
+      throw new IllegalArgumentException("The statement count has to be at least 1");
+    }
+    this.maxStmtCount = maxStmtCount;
+  }
+
+  @Nonnull
+  @Override
+  public Supplier<Body> retain(@Nonnull Supplier<Body> bodyResolver) {
+    return new LRUBodyHolder(bodyResolver);
+  }
+
+  /** Returns the number of statements of all currently retained bodies. */
+  public synchronized long getRetainedStmtCount() {
+    return retainedStmtCount;
+  }
+
+  /** Returns the number of currently retained bodies. */
+  public synchronized int size() {
+    return retainedBodies.size();
+  }
+
+  private synchronized Body lookup(@Nonnull LRUBodyHolder holder) {
+    return retainedBodies.get(holder);
+  }
+
+  private synchronized void store(@Nonnull LRUBodyHolder holder, @Nonnull Body body) {
+    Body previous = retainedBodies.put(holder, body);
+    if (previous != null) {
+      retainedStmtCount -= stmtCountOf(previous);
+    }
+    retainedStmtCount += stmtCountOf(body);
+
+    Iterator<Map.Entry<LRUBodyHolder, Body>> it = retainedBodies.entrySet().iterator();
+    while (retainedStmtCount > maxStmtCount && retainedBodies.size() > 1) {
+      Map.Entry<LRUBodyHolder, Body> eldest = it.next();
+      retainedStmtCount -= stmtCountOf(eldest.getValue());
+      it.remove();
+    }
+  }
+
+  private static int stmtCountOf(@Nonnull Body body) {
+    return body.getStmtGraph().getNodes().size();
+  }
+
+  private class LRUBodyHolder implements Supplier<Body> {
+    @Nonnull private final Supplier<Body> bodyResolver;
+
+    private LRUBodyHolder(@Nonnull Supplier<Body> bodyResolver) {
+      this.bodyResolver = bodyResolver;
+    }
+
+    @Override
+    public Body get() {
+      Body body = lookup(this);
+      if (body != null) {
+        return body;
+      }
+      // resolve outside of the policy's lock so that bodies of different methods resolve in parallel
+      synchronized (this) {
+        body = lookup(this);
+        if (body == null) {
+          body = bodyResolver.get();
+          store(this, body);
+        }
+        return body;
+      }
+    }
+  }
+}
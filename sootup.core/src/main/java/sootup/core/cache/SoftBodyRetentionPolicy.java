@@ -0,0 +1,66 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.ref.SoftReference;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+
+/**
+ * Keeps resolved bodies via {@link SoftReference}s, i.e. the garbage collector is allowed to
+ * release them if the heap runs low.
+ */
+public class SoftBodyRetentionPolicy implements BodyRetentionPolicy {
+
+  @Nonnull
+  @Override
+  public Supplier<Body> retain(@Nonnull Supplier<Body> bodyResolver) {
+    return new SoftBodyHolder(bodyResolver);
+  }
+
+  private static class SoftBodyHolder implements Supplier<Body> {
+    @Nonnull private final Supplier<Body> bodyResolver;
+    @Nonnull private volatile SoftReference<Body> bodyRef = new SoftReference<>(null);
+
+    private SoftBodyHolder(@Nonnull Supplier<Body> bodyResolver) {
+      this.bodyResolver = bodyResolver;
+    }
+
+    @Override
+    public Body get() {
+      Body body = bodyRef.get();
+      if (body != null) {
+        return body;
+      }
+      synchronized (this) {
+        body = bodyRef.get();
+        if (body == null) {
+          body = bodyResolver.get();
+          bodyRef = new SoftReference<>(body);
+        }
+        return body;
+      }
+    }
+  }
+}
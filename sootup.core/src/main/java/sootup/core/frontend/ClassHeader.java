@@ -0,0 +1,140 @@
+package sootup.core.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.ClassModifier;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * The header of a class, i.e. its type, modifiers, superclass and directly implemented (or
+ * extended) interfaces. This is all the information that is needed to build a {@link
+ * sootup.core.typehierarchy.TypeHierarchy}, and frontends can usually read it without converting
+ * fields, methods and bodies of the class.
+ *
+ * @see sootup.core.inputlocation.AnalysisInputLocation#getClassHeaders(sootup.core.views.View)
+ */
+public final class ClassHeader {
+
+  @Nonnull private final ClassType type;
+  @Nonnull private final Set<ClassModifier> modifiers;
+  @Nullable private final ClassType superclass;
+  @Nonnull private final Set<ClassType> interfaces;
+
+  public ClassHeader(
+      @Nonnull ClassType type,
+      @Nonnull Set<ClassModifier> modifiers,
+      @Nullable ClassType superclass,
+      @Nonnull Set<? extends ClassType> interfaces) {
+    this.type = type;
+    this.modifiers =
+        modifiers.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(EnumSet.copyOf(modifiers));
+    this.superclass = superclass;
+    this.interfaces =
+        interfaces.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(new LinkedHashSet<>(interfaces));
+  }
+
+  /** Creates the header of an already built class. */
+  @Nonnull
+  public static ClassHeader of(@Nonnull SootClass sootClass) {
+    return new ClassHeader(
+        sootClass.getType(),
+        sootClass.getModifiers(),
+        sootClass.getSuperclass().orElse(null),
+        sootClass.getInterfaces());
+  }
+
+  /**
+   * Creates the header from a class source. Depending on the frontend this may be as expensive as
+   * building the whole class, so frontends should prefer a more specific way if they have one.
+   */
+  @Nonnull
+  public static ClassHeader of(@Nonnull SootClassSource classSource) {
+    return new ClassHeader(
+        classSource.getClassType(),
+        classSource.resolveModifiers(),
+        classSource.resolveSuperclass().orElse(null),
+        classSource.resolveInterfaces());
+  }
+
+  @Nonnull
+  public ClassType getType() {
+    return type;
+  }
+
+  @Nonnull
+  public Set<ClassModifier> getModifiers() {
+    return modifiers;
+  }
+
+  @Nonnull
+  public Optional<ClassType> getSuperclass() {
+    return Optional.ofNullable(superclass);
+  }
+
+  @Nonnull
+  public Set<ClassType> getInterfaces() {
+    return interfaces;
+  }
+
+  public boolean isInterface() {
+    return ClassModifier.isInterface(modifiers);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ClassHeader)) {
+      return false;
+    }
+    ClassHeader that = (ClassHeader) o;
+    return type.equals(that.type)
+        && modifiers.equals(that.modifiers)
+        && Objects.equals(superclass, that.superclass)
+        && interfaces.equals(that.interfaces);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, modifiers, superclass, interfaces);
+  }
+
+  @Override
+  public String toString() {
+    return "ClassHeader{" + type + " extends " + superclass + " implements " + interfaces + "}";
+  }
+}
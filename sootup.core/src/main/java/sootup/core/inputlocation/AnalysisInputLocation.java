@@ -24,7 +24,9 @@ package sootup.core.inputlocation;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.model.SootClass;
 import sootup.core.model.SourceType;
@@ -63,6 +65,19 @@ public interface AnalysisInputLocation {
   @Nonnull
   Collection<? extends SootClassSource> getClassSources(@Nonnull View view);
 
+  /**
+   * Scan the input location and read the {@link ClassHeader} of every class it contains, e.g. to
+   * build a type hierarchy. Frontends should override this to read only the headers without
+   * creating class sources, as the default implementation resolves the headers from {@link
+   * #getClassSources(View)}.
+   *
+   * @return The headers of all classes of the input location.
+   */
+  @Nonnull
+  default Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    return getClassSources(view).stream().map(ClassHeader::of).collect(Collectors.toList());
+  }
+
   /**
    * If the AnalysisInputLocation is initialized with the SourceType then this method should return
    * that specific SourceType. This is the default implementation and it returns null when no source
@@ -22,7 +22,6 @@ package sootup.core.model;
  * #L%
  */
 
-import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
@@ -36,6 +35,8 @@ import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyRetentionPolicy;
+import sootup.core.cache.StrongBodyRetentionPolicy;
 import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.ResolveException;
@@ -69,19 +70,46 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
   /** Tells this method how to find out where its body lives. */
   @Nonnull protected final BodySource bodySource;
 
-  /** Constructs a SootMethod object with the given attributes. */
+  /** Decides how long the resolved body of this method is kept in memory. */
+  @Nonnull protected final BodyRetentionPolicy bodyRetentionPolicy;
+
+  @Nonnull private final Supplier<Body> _lazyBody;
+
+  /** Constructs a SootMethod object with the given attributes that keeps its resolved body. */
   public SootMethod(
       @Nonnull BodySource source,
       @Nonnull MethodSignature methodSignature,
       @Nonnull Iterable<MethodModifier> modifiers,
       @Nonnull Iterable<ClassType> thrownExceptions,
       @Nonnull Position position) {
+    this(
+        source,
+        methodSignature,
+        modifiers,
+        thrownExceptions,
+        position,
+        StrongBodyRetentionPolicy.getInstance());
+  }
+
+  /**
+   * Constructs a SootMethod object with the given attributes whose resolved body is held by the
+   * given {@link BodyRetentionPolicy}, usually the one of the view the method belongs to.
+   */
+  public SootMethod(
+      @Nonnull BodySource source,
+      @Nonnull MethodSignature methodSignature,
+      @Nonnull Iterable<MethodModifier> modifiers,
+      @Nonnull Iterable<ClassType> thrownExceptions,
+      @Nonnull Position position,
+      @Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
     super(methodSignature, position);
 
     this.bodySource = source;
     this.parameterTypes = ImmutableUtils.immutableListOf(methodSignature.getParameterTypes());
     this.modifiers = ImmutableUtils.immutableEnumSetOf(modifiers);
     this.exceptions = ImmutableUtils.immutableListOf(thrownExceptions);
+    this.bodyRetentionPolicy = bodyRetentionPolicy;
+    this._lazyBody = bodyRetentionPolicy.retain(this::lazyBodyInitializer);
   }
 
   @Nonnull
@@ -169,7 +197,10 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
     return parameterTypes;
   }
 
-  @Nonnull private final Supplier<Body> _lazyBody = Suppliers.memoize(this::lazyBodyInitializer);
+  @Nonnull
+  public BodyRetentionPolicy getBodyRetentionPolicy() {
+    return bodyRetentionPolicy;
+  }
 
   /** Retrieves the active body for this method. */
   @Nonnull
@@ -255,24 +286,36 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
         getSignature(),
         getModifiers(),
         exceptions,
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
   public SootMethod withSource(BodySource source) {
-    return new SootMethod(source, getSignature(), getModifiers(), exceptions, getPosition());
+    return new SootMethod(
+        source, getSignature(), getModifiers(), exceptions, getPosition(), bodyRetentionPolicy);
   }
 
   @Nonnull
   public SootMethod withModifiers(Iterable<MethodModifier> modifiers) {
     return new SootMethod(
-        bodySource, getSignature(), modifiers, getExceptionSignatures(), getPosition());
+        bodySource,
+        getSignature(),
+        modifiers,
+        getExceptionSignatures(),
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
   public SootMethod withThrownExceptions(Iterable<ClassType> thrownExceptions) {
     return new SootMethod(
-        bodySource, getSignature(), getModifiers(), thrownExceptions, getPosition());
+        bodySource,
+        getSignature(),
+        getModifiers(),
+        thrownExceptions,
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
@@ -282,7 +325,14 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
         getSignature(),
         getModifiers(),
         exceptions,
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
+  }
+
+  @Nonnull
+  public SootMethod withBodyRetentionPolicy(@Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
+    return new SootMethod(
+        bodySource, getSignature(), getModifiers(), exceptions, getPosition(), bodyRetentionPolicy);
   }
 
   /**
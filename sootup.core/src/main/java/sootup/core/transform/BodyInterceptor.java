@@ -22,6 +22,7 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
@@ -37,4 +38,17 @@ public interface BodyInterceptor {
    * @param view
    */
   void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view);
+
+  /**
+   * Describes the settings of this instance that influence the transformed bodies, e.g. for caches
+   * of transformed bodies. Bodies transformed by an interceptor that does not override it are
+   * never cached, as its settings are unknown.
+   *
+   * @return an empty String if all instances of the class transform bodies the same way, or an
+   *     empty Optional if the settings of this instance are unknown
+   */
+  @Nonnull
+  default Optional<String> getConfiguration() {
+    return Optional.empty();
+  }
 }
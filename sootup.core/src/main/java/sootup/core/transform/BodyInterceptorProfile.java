@@ -0,0 +1,152 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Thread-safe measurements of a single {@link BodyInterceptor}: a histogram of the time it spent
+ * per body, the bytes it allocated and the methods it spent the most time on.
+ */
+public class BodyInterceptorProfile {
+
+  public static final int DEFAULT_SLOWEST_METHOD_COUNT = 10;
+
+  @Nonnull private final String interceptorName;
+  @Nonnull private final LatencyHistogram nanos = new LatencyHistogram();
+  @Nonnull private final LatencyHistogram allocatedBytes = new LatencyHistogram();
+  private final int slowestMethodCount;
+
+  /** min-heap, so that the fastest of the slowest methods is evicted first */
+  @Nonnull
+  private final PriorityQueue<MethodSample> slowestMethods =
+      new PriorityQueue<>(Comparator.comparingLong(MethodSample::getNanos));
+
+  /** lets most samples skip the lock once the slowest methods are collected */
+  private volatile long slowestMethodThreshold = -1;
+
+  public BodyInterceptorProfile(@Nonnull String interceptorName) {
+    this(interceptorName, DEFAULT_SLOWEST_METHOD_COUNT);
+  }
+
+  public BodyInterceptorProfile(@Nonnull String interceptorName, int slowestMethodCount) {
+    if (slowestMethodCount < 0) {
+      throw new IllegalArgumentException("slowestMethodCount must not be negative.");
+    }
+    this.interceptorName = interceptorName;
+    this.slowestMethodCount = slowestMethodCount;
+  }
+
+  /**
+   * @param method the method whose body was intercepted, if known
+   * @param nanos the time the interceptor took
+   * @param allocatedBytes the bytes allocated by the interceptor or a negative value if they could
+   *     not be measured
+   */
+  public void record(@Nullable MethodSignature method, long nanos, long allocatedBytes) {
+    this.nanos.record(nanos);
+    if (allocatedBytes >= 0) {
+      this.allocatedBytes.record(allocatedBytes);
+    }
+    if (slowestMethodCount > 0 && nanos > slowestMethodThreshold) {
+      synchronized (slowestMethods) {
+        slowestMethods.add(new MethodSample(method, nanos, allocatedBytes));
+        if (slowestMethods.size() > slowestMethodCount) {
+          slowestMethods.poll();
+        }
+        if (slowestMethods.size() == slowestMethodCount) {
+          slowestMethodThreshold = slowestMethods.peek().getNanos();
+        }
+      }
+    }
+  }
+
+  @Nonnull
+  public String getInterceptorName() {
+    return interceptorName;
+  }
+
+  /** the time in nanoseconds the interceptor spent per body */
+  @Nonnull
+  public LatencyHistogram getNanos() {
+    return nanos;
+  }
+
+  /**
+   * the bytes the interceptor allocated per body. Empty if the JVM does not support measuring
+   * allocations per thread.
+   */
+  @Nonnull
+  public LatencyHistogram getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /** the slowest methods, starting with the slowest one */
+  @Nonnull
+  public List<MethodSample> getSlowestMethods() {
+    List<MethodSample> samples;
+    synchronized (slowestMethods) {
+      samples = new ArrayList<>(slowestMethods);
+    }
+    samples.sort(Comparator.comparingLong(MethodSample::getNanos).reversed());
+    return samples;
+  }
+
+  /** a single intercepted body. */
+  public static class MethodSample {
+    @Nullable private final MethodSignature method;
+    private final long nanos;
+    private final long allocatedBytes;
+
+    public MethodSample(@Nullable MethodSignature method, long nanos, long allocatedBytes) {
+      this.method = method;
+      this.nanos = nanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    @Nullable
+    public MethodSignature getMethod() {
+      return method;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+
+    /** the allocated bytes or a negative value if they could not be measured */
+    public long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return method + " took " + nanos + " ns and allocated " + allocatedBytes + " bytes";
+    }
+  }
+}
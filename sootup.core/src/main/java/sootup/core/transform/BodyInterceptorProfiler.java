@@ -0,0 +1,229 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Profiles a chain of {@link BodyInterceptor}s and exports the measurements e.g. to find the
+ * interceptor that blows up on a pathological method.
+ *
+ * <pre>{@code
+ * BodyInterceptorProfiler profiler = new BodyInterceptorProfiler();
+ * List<BodyInterceptor> interceptors =
+ *     profiler.wrap(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+ * // ... resolve bodies with the wrapped interceptors
+ * profiler.writeJson(writer);
+ * }</pre>
+ */
+public class BodyInterceptorProfiler {
+
+  private static final int[] PERCENTILES = {50, 90, 99};
+
+  private final int slowestMethodCount;
+  private final List<BodyInterceptorProfile> profiles = new ArrayList<>();
+
+  public BodyInterceptorProfiler() {
+    this(BodyInterceptorProfile.DEFAULT_SLOWEST_METHOD_COUNT);
+  }
+
+  /** @param slowestMethodCount how many of the slowest methods are kept per interceptor */
+  public BodyInterceptorProfiler(int slowestMethodCount) {
+    this.slowestMethodCount = slowestMethodCount;
+  }
+
+  /** @return the given interceptors, in the same order, each wrapped to be profiled. */
+  @Nonnull
+  public synchronized List<BodyInterceptor> wrap(@Nonnull List<BodyInterceptor> bodyInterceptors) {
+    List<BodyInterceptor> wrapped = new ArrayList<>(bodyInterceptors.size());
+    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
+      BodyInterceptorProfile profile =
+          new BodyInterceptorProfile(
+              bodyInterceptor.getClass().getSimpleName(), slowestMethodCount);
+      profiles.add(profile);
+      wrapped.add(new RunTimeBodyInterceptor(bodyInterceptor, profile));
+    }
+    return Collections.unmodifiableList(wrapped);
+  }
+
+  @Nonnull
+  public synchronized List<BodyInterceptorProfile> getProfiles() {
+    return Collections.unmodifiableList(new ArrayList<>(profiles));
+  }
+
+  /** writes one line per interceptor with the number of bodies, the time and the allocations. */
+  public void writeCsv(@Nonnull Appendable out) {
+    try {
+      out.append("interceptor,bodies,total_ns,mean_ns");
+      for (int percentile : PERCENTILES) {
+        out.append(",p").append(Integer.toString(percentile)).append("_ns");
+      }
+      out.append(",max_ns,total_allocated_bytes,max_allocated_bytes\n");
+      for (BodyInterceptorProfile profile : getProfiles()) {
+        LatencyHistogram nanos = profile.getNanos();
+        out.append(csvField(profile.getInterceptorName()))
+            .append(',')
+            .append(Long.toString(nanos.getCount()))
+            .append(',')
+            .append(Long.toString(nanos.getSum()))
+            .append(',')
+            .append(Long.toString(Math.round(nanos.getMean())));
+        for (int percentile : PERCENTILES) {
+          out.append(',').append(Long.toString(nanos.getPercentile(percentile)));
+        }
+        out.append(',')
+            .append(Long.toString(nanos.getMax()))
+            .append(',')
+            .append(Long.toString(profile.getAllocatedBytes().getSum()))
+            .append(',')
+            .append(Long.toString(profile.getAllocatedBytes().getMax()))
+            .append('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** writes one line per interceptor and one of its slowest methods. */
+  public void writeSlowestMethodsCsv(@Nonnull Appendable out) {
+    try {
+      out.append("interceptor,method,ns,allocated_bytes\n");
+      for (BodyInterceptorProfile profile : getProfiles()) {
+        for (BodyInterceptorProfile.MethodSample sample : profile.getSlowestMethods()) {
+          out.append(csvField(profile.getInterceptorName()))
+              .append(',')
+              .append(csvField(String.valueOf(sample.getMethod())))
+              .append(',')
+              .append(Long.toString(sample.getNanos()))
+              .append(',')
+              .append(Long.toString(sample.getAllocatedBytes()))
+              .append('\n');
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** writes all measurements including the slowest methods as a JSON array. */
+  public void writeJson(@Nonnull Appendable out) {
+    try {
+      out.append("[");
+      boolean firstProfile = true;
+      for (BodyInterceptorProfile profile : getProfiles()) {
+        if (!firstProfile) {
+          out.append(",");
+        }
+        firstProfile = false;
+        out.append("\n  {\"interceptor\": ").append(jsonString(profile.getInterceptorName()));
+        out.append(",\n   \"nanos\": ");
+        appendHistogramJson(out, profile.getNanos());
+        out.append(",\n   \"allocatedBytes\": ");
+        appendHistogramJson(out, profile.getAllocatedBytes());
+        out.append(",\n   \"slowestMethods\": [");
+        boolean firstSample = true;
+        for (BodyInterceptorProfile.MethodSample sample : profile.getSlowestMethods()) {
+          if (!firstSample) {
+            out.append(",");
+          }
+          firstSample = false;
+          MethodSignature method = sample.getMethod();
+          out.append("\n     {\"method\": ")
+              .append(method == null ? "null" : jsonString(method.toString()))
+              .append(", \"nanos\": ")
+              .append(Long.toString(sample.getNanos()))
+              .append(", \"allocatedBytes\": ")
+              .append(Long.toString(sample.getAllocatedBytes()))
+              .append("}");
+        }
+        out.append(firstSample ? "]}" : "\n   ]}");
+      }
+      out.append(firstProfile ? "]\n" : "\n]\n");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void appendHistogramJson(@Nonnull Appendable out, @Nonnull LatencyHistogram h)
+      throws IOException {
+    out.append("{\"count\": ")
+        .append(Long.toString(h.getCount()))
+        .append(", \"total\": ")
+        .append(Long.toString(h.getSum()))
+        .append(", \"mean\": ")
+        .append(Long.toString(Math.round(h.getMean())));
+    for (int percentile : PERCENTILES) {
+      out.append(", \"p")
+          .append(Integer.toString(percentile))
+          .append("\": ")
+          .append(Long.toString(h.getPercentile(percentile)));
+    }
+    out.append(", \"max\": ").append(Long.toString(h.getMax())).append("}");
+  }
+
+  @Nonnull
+  private static String csvField(@Nonnull String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  @Nonnull
+  private static String jsonString(@Nonnull String value) {
+    StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.append('"').toString();
+  }
+}
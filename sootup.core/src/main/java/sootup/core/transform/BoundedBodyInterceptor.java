@@ -0,0 +1,99 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.views.View;
+
+/**
+ * Limits the number of bodies that are processed by the wrapped {@link BodyInterceptor} at the
+ * same time. When bodies are resolved in parallel (see {@link sootup.core.views.BodyPipeline}),
+ * this applies back-pressure to single expensive interceptors, e.g. to bound their memory usage,
+ * while the other interceptors of the chain still run with full parallelism. Further bodies wait
+ * in front of the interceptor until a slot is free.
+ */
+public class BoundedBodyInterceptor implements BodyInterceptor {
+
+  @Nonnull private final BodyInterceptor bodyInterceptor;
+  @Nonnull private final Semaphore permits;
+  private final int maxConcurrentBodies;
+
+  /**
+   * @param bodyInterceptor the interceptor to wrap
+   * @param maxConcurrentBodies the maximum number of bodies the interceptor processes at a time
+   */
+  public BoundedBodyInterceptor(@Nonnull BodyInterceptor bodyInterceptor, int maxConcurrentBodies) {
+    if (maxConcurrentBodies < 1) {
+      throw new IllegalArgumentException("maxConcurrentBodies must be positive.");
+    }
+    this.bodyInterceptor = bodyInterceptor;
+    this.maxConcurrentBodies = maxConcurrentBodies;
+    this.permits = new Semaphore(maxConcurrentBodies, true);
+  }
+
+  @Nonnull
+  public BodyInterceptor getBodyInterceptor() {
+    return bodyInterceptor;
+  }
+
+  public int getMaxConcurrentBodies() {
+    return maxConcurrentBodies;
+  }
+
+  /** Returns an estimate of the number of bodies that currently wait for the interceptor. */
+  public int getWaitingBodyCount() {
+    return permits.getQueueLength();
+  }
+
+  /** The wrapped interceptor determines the result. */
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return bodyInterceptor
+        .getConfiguration()
+        .map(configuration -> bodyInterceptor.getClass().getName() + "(" + configuration + ")");
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for " + bodyInterceptor, e);
+    }
+    try {
+      bodyInterceptor.interceptBody(builder, view);
+    } finally {
+      permits.release();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BoundedBodyInterceptor{" + bodyInterceptor + ", " + maxConcurrentBodies + '}';
+  }
+}
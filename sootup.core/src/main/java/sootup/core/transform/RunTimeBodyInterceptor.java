@@ -22,43 +22,99 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
 
+/**
+ * Measures a wrapped {@link BodyInterceptor}: the elapsed time via {@link System#nanoTime()} and
+ * the bytes allocated by the current thread via {@link com.sun.management.ThreadMXBean}. Unlike a
+ * heap delta, the allocated bytes neither include allocations of other threads nor are distorted
+ * by garbage collections. The measurements are safe to be recorded from multiple threads.
+ */
 public class RunTimeBodyInterceptor implements BodyInterceptor {
 
-  private BodyInterceptorMetric biMetric = new BodyInterceptorMetric(0L, 0L);
+  private static final com.sun.management.ThreadMXBean threadMXBean = findThreadMXBean();
+
+  @Nonnull private final BodyInterceptor bodyInterceptor;
+  @Nonnull private final BodyInterceptorProfile profile;
 
-  private final BodyInterceptor bodyInterceptor;
+  public RunTimeBodyInterceptor(@Nonnull BodyInterceptor bodyInterceptor) {
+    this(bodyInterceptor, new BodyInterceptorProfile(bodyInterceptor.getClass().getSimpleName()));
+  }
 
-  public RunTimeBodyInterceptor(BodyInterceptor bodyInterceptor) {
+  public RunTimeBodyInterceptor(
+      @Nonnull BodyInterceptor bodyInterceptor, @Nonnull BodyInterceptorProfile profile) {
     this.bodyInterceptor = bodyInterceptor;
+    this.profile = profile;
   }
 
+  /**
+   * @return the summed up runtime in milliseconds and allocated memory in MB. Use {@link
+   *     #getProfile()} for the precise measurements.
+   */
   public BodyInterceptorMetric getBiMetric() {
-    return biMetric;
+    final int MB = 1024 * 1024;
+    return new BodyInterceptorMetric(
+        profile.getNanos().getSum() / 1_000_000, profile.getAllocatedBytes().getSum() / MB);
   }
 
+  @Nonnull
+  public BodyInterceptorProfile getProfile() {
+    return profile;
+  }
+
+  @Nonnull
   public BodyInterceptor getBodyInterceptor() {
     return bodyInterceptor;
   }
 
+  /** The wrapped interceptor determines the result. */
+  @Nonnull
   @Override
-  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
-    long startTime = System.currentTimeMillis(); // Start time
-    final int MB = 1024 * 1024;
-    Runtime runtime = Runtime.getRuntime();
-    long usedMemoryBefore = runtime.totalMemory() - runtime.freeMemory();
+  public Optional<String> getConfiguration() {
+    return bodyInterceptor
+        .getConfiguration()
+        .map(configuration -> bodyInterceptor.getClass().getName() + "(" + configuration + ")");
+  }
 
-    bodyInterceptor.interceptBody(builder, view);
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
+    long allocatedBytesBefore = currentThreadAllocatedBytes();
+    long startTime = System.nanoTime();
+    try {
+      bodyInterceptor.interceptBody(builder, view);
+    } finally {
+      long duration = System.nanoTime() - startTime;
+      long allocatedBytes =
+          allocatedBytesBefore < 0 ? -1 : currentThreadAllocatedBytes() - allocatedBytesBefore;
+      profile.record(builder.getMethodSignature(), duration, allocatedBytes);
+    }
+  }
 
-    long endTime = System.currentTimeMillis(); // End time
-    long duration = endTime - startTime;
-    long usedMemoryAfter = runtime.totalMemory() - runtime.freeMemory();
-    long memoryUsed = (usedMemoryAfter - usedMemoryBefore) / MB;
+  /** @return the bytes allocated by the current thread so far or -1 if unsupported */
+  private static long currentThreadAllocatedBytes() {
+    if (threadMXBean == null) {
+      return -1;
+    }
+    return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
 
-    biMetric.setRuntime(biMetric.getRuntime() + duration);
-    biMetric.setMemoryUsage(biMetric.getMemoryUsage() + memoryUsed);
+  private static com.sun.management.ThreadMXBean findThreadMXBean() {
+    try {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (sunBean.isThreadAllocatedMemorySupported()) {
+          sunBean.setThreadAllocatedMemoryEnabled(true);
+          return sunBean;
+        }
+      }
+    } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+      // e.g. no com.sun.management available: allocations are not measured
+    }
+    return null;
   }
 }
@@ -0,0 +1,655 @@
+package sootup.core.typehierarchy;
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.*;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * An immutable {@link TypeHierarchy} that is precomputed from a {@link View} and stored in
+ * primitive arrays. Each type is represented by an int id:
+ *
+ * <ul>
+ *   <li>Classes are numbered in pre-order of the class inheritance tree, so the (transitive)
+ *       subclasses of a class form the contiguous id interval directly after the class itself.
+ *   <li>Interfaces are numbered after all classes. The (transitive) subtypes of each interface are
+ *       materialized as a {@link BitSet} of ids.
+ * </ul>
+ *
+ * Hence {@link #isSubtype(Type, Type)} is a constant time check for class types and subtype queries
+ * do not traverse a graph. The index can be written via {@link #writeTo(OutputStream)} and restored
+ * with {@link #readFrom(InputStream, IdentifierFactory)} to reuse it across runs.
+ *
+ * <p>Like the {@link ViewTypeHierarchy}, the index contains every type that is referenced as a
+ * superclass or interface - even if it is not contained in the view. Use it via {@link
+ * sootup.core.views.AbstractView#setTypeHierarchy(TypeHierarchy)}.
+ */
+public class CompactTypeHierarchy implements TypeHierarchy {
+
+  private static final int MAGIC = 0x53555448;
+  private static final int FORMAT_VERSION = 1;
+  private static final int NO_TYPE = -1;
+
+  @Nonnull private final ClassType objectClassType;
+
+  /** id -&gt; type */
+  @Nonnull private final ClassType[] types;
+
+  @Nonnull private final Map<ClassType, Integer> typeIds;
+
+  /** all ids below are classes, all ids above or equal are interfaces */
+  private final int classCount;
+
+  /** class id -&gt; id of its direct superclass or {@link #NO_TYPE} */
+  @Nonnull private final int[] superClasses;
+
+  /** class id -&gt; exclusive end of its pre-order interval, i.e. of its subclasses */
+  @Nonnull private final int[] subtreeEnds;
+
+  /** directly implemented (classes) or extended (interfaces) interfaces in CSR format */
+  @Nonnull private final int[] superInterfaceOffsets;
+
+  @Nonnull private final int[] superInterfaces;
+
+  /** direct subclasses (classes) or implementers and extending interfaces (interfaces) in CSR */
+  @Nonnull private final int[] directSubtypeOffsets;
+
+  @Nonnull private final int[] directSubtypes;
+
+  /** (interface id - classCount) -&gt; ids of all of its subtypes */
+  @Nonnull private final BitSet[] interfaceSubtypes;
+
+  private CompactTypeHierarchy(
+      @Nonnull ClassType objectClassType,
+      @Nonnull ClassType[] types,
+      int classCount,
+      @Nonnull int[] superClasses,
+      @Nonnull int[] subtreeEnds,
+      @Nonnull int[] superInterfaceOffsets,
+      @Nonnull int[] superInterfaces,
+      @Nonnull int[] directSubtypeOffsets,
+      @Nonnull int[] directSubtypes,
+      @Nonnull BitSet[] interfaceSubtypes) {
+    this.objectClassType = objectClassType;
+    this.types = types;
+    this.classCount = classCount;
+    this.superClasses = superClasses;
+    this.subtreeEnds = subtreeEnds;
+    this.superInterfaceOffsets = superInterfaceOffsets;
+    this.superInterfaces = superInterfaces;
+    this.directSubtypeOffsets = directSubtypeOffsets;
+    this.directSubtypes = directSubtypes;
+    this.interfaceSubtypes = interfaceSubtypes;
+
+    typeIds = new HashMap<>(types.length * 4 / 3 + 1);
+    for (int i = 0; i < types.length; i++) {
+      typeIds.put(types[i], i);
+    }
+  }
+
+  /** Reads the headers of all classes of the view and builds the index of their hierarchy. */
+  @Nonnull
+  public static CompactTypeHierarchy fromView(@Nonnull View view) {
+    return new Builder(view.getIdentifierFactory().getClassType("java.lang.Object"))
+        .addClasses(view.getClassHeaders())
+        .build();
+  }
+
+  /** @return the number of types in this hierarchy */
+  public int size() {
+    return types.length;
+  }
+
+  private int idOf(@Nonnull ClassType type) {
+    final Integer id = typeIds.get(type);
+    if (id == null) {
+      throw new IllegalArgumentException("Could not find '" + type + "' in hierarchy.");
+    }
+    return id;
+  }
+
+  private boolean isInterfaceId(int id) {
+    return id >= classCount;
+  }
+
+  @Nonnull
+  private Stream<ClassType> toTypes(@Nonnull IntStream ids) {
+    return ids.mapToObj(id -> types[id]);
+  }
+
+  @Nonnull
+  private Stream<ClassType> subtypesOf(int id) {
+    if (isInterfaceId(id)) {
+      return toTypes(interfaceSubtypes[id - classCount].stream());
+    }
+    return toTypes(IntStream.range(id + 1, subtreeEnds[id]));
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementersOf(@Nonnull ClassType interfaceType) {
+    final int id = idOf(interfaceType);
+    if (!isInterfaceId(id)) {
+      throw new IllegalArgumentException("'" + interfaceType + "' is not an interface.");
+    }
+    return subtypesOf(id);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subclassesOf(@Nonnull ClassType classType) {
+    final int id = idOf(classType);
+    if (isInterfaceId(id)) {
+      throw new IllegalArgumentException("'" + classType + "' is not a class.");
+    }
+    return subtypesOf(id);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subtypesOf(@Nonnull ClassType type) {
+    return subtypesOf(idOf(type));
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> directSubtypesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    return toTypes(
+        Arrays.stream(directSubtypes, directSubtypeOffsets[id], directSubtypeOffsets[id + 1]));
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementedInterfacesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    final BitSet interfaces = new BitSet(types.length);
+    if (isInterfaceId(id)) {
+      addSuperInterfaces(id, interfaces);
+    } else {
+      for (int classId = id; classId != NO_TYPE; classId = superClasses[classId]) {
+        addSuperInterfaces(classId, interfaces);
+      }
+    }
+    return toTypes(interfaces.stream());
+  }
+
+  /** adds the transitively implemented or extended interfaces of the given type */
+  private void addSuperInterfaces(int id, @Nonnull BitSet interfaces) {
+    for (int i = superInterfaceOffsets[id]; i < superInterfaceOffsets[id + 1]; i++) {
+      final int superInterface = superInterfaces[i];
+      if (!interfaces.get(superInterface)) {
+        interfaces.set(superInterface);
+        addSuperInterfaces(superInterface, interfaces);
+      }
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Optional<ClassType> superClassOf(@Nonnull ClassType classType) {
+    final int id = idOf(classType);
+    if (objectClassType.equals(classType)) {
+      return Optional.empty();
+    }
+    if (isInterfaceId(id)) {
+      return Optional.of(objectClassType);
+    }
+    final int superClass = superClasses[id];
+    return superClass == NO_TYPE ? Optional.empty() : Optional.of(types[superClass]);
+  }
+
+  @Override
+  public boolean isSubtype(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+    if (supertype instanceof ClassType && potentialSubtype instanceof ClassType) {
+      final Integer superId = typeIds.get(supertype);
+      final Integer subId = typeIds.get(potentialSubtype);
+      if (superId != null && subId != null) {
+        if (supertype.equals(objectClassType)) {
+          return !potentialSubtype.equals(objectClassType);
+        }
+        if (isInterfaceId(superId)) {
+          return interfaceSubtypes[superId - classCount].get(subId);
+        }
+        return superId < subId && subId < subtreeEnds[superId];
+      }
+    }
+    return TypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+  }
+
+  @Override
+  public Stream<ClassType> directlyImplementedInterfacesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    if (isInterfaceId(id)) {
+      throw new IllegalArgumentException(type + " is not a class.");
+    }
+    return toTypes(
+        Arrays.stream(superInterfaces, superInterfaceOffsets[id], superInterfaceOffsets[id + 1]));
+  }
+
+  @Override
+  public boolean isInterface(@Nonnull ClassType type) {
+    return isInterfaceId(idOf(type));
+  }
+
+  public boolean isClass(@Nonnull ClassType type) {
+    return !isInterfaceId(idOf(type));
+  }
+
+  @Override
+  public Stream<ClassType> directlyExtendedInterfacesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    if (!isInterfaceId(id)) {
+      throw new IllegalArgumentException(type + " is not an interface.");
+    }
+    return toTypes(
+        Arrays.stream(superInterfaces, superInterfaceOffsets[id], superInterfaceOffsets[id + 1]));
+  }
+
+  @Override
+  public boolean contains(ClassType type) {
+    return typeIds.containsKey(type);
+  }
+
+  /** @return the ids of all superclasses and (transitively) implemented interfaces of the type */
+  @Nonnull
+  private BitSet ancestorsOf(int id) {
+    final BitSet ancestors = new BitSet(types.length);
+    if (isInterfaceId(id)) {
+      addSuperInterfaces(id, ancestors);
+    } else {
+      addSuperInterfaces(id, ancestors);
+      for (int classId = superClasses[id]; classId != NO_TYPE; classId = superClasses[classId]) {
+        ancestors.set(classId);
+        addSuperInterfaces(classId, ancestors);
+      }
+    }
+    return ancestors;
+  }
+
+  @Override
+  public Collection<ClassType> getLowestCommonAncestors(ClassType a, ClassType b) {
+    final Integer idA = typeIds.get(a);
+    final Integer idB = typeIds.get(b);
+    if (idA == null || idB == null) {
+      return Collections.singleton(objectClassType);
+    }
+    final BitSet commonAncestors = ancestorsOf(idA);
+    if (commonAncestors.isEmpty()) {
+      return Collections.singleton(objectClassType);
+    }
+    final BitSet ancestorsOfB = ancestorsOf(idB);
+    if (ancestorsOfB.isEmpty()) {
+      return Collections.singleton(objectClassType);
+    }
+    commonAncestors.and(ancestorsOfB);
+
+    // a common ancestor is a lowest one if none of its direct subtypes is a common ancestor, too
+    final Set<ClassType> lcas = new HashSet<>();
+    for (int id = commonAncestors.nextSetBit(0); id >= 0; id = commonAncestors.nextSetBit(id + 1)) {
+      boolean isLowest = true;
+      for (int i = directSubtypeOffsets[id]; i < directSubtypeOffsets[id + 1]; i++) {
+        if (commonAncestors.get(directSubtypes[i])) {
+          isLowest = false;
+          break;
+        }
+      }
+      if (isLowest) {
+        lcas.add(types[id]);
+      }
+    }
+    if (lcas.isEmpty()) {
+      return Collections.singleton(objectClassType);
+    }
+    return lcas;
+  }
+
+  /**
+   * Writes the index in a binary format. Types are stored by their fully qualified name.
+   *
+   * @see #readFrom(InputStream, IdentifierFactory)
+   */
+  public void writeTo(@Nonnull OutputStream outputStream) throws IOException {
+    final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeUTF(objectClassType.getFullyQualifiedName());
+    out.writeInt(types.length);
+    for (ClassType type : types) {
+      out.writeUTF(type.getFullyQualifiedName());
+    }
+    out.writeInt(classCount);
+    writeInts(out, superClasses);
+    writeInts(out, subtreeEnds);
+    writeInts(out, superInterfaceOffsets);
+    writeInts(out, superInterfaces);
+    writeInts(out, directSubtypeOffsets);
+    writeInts(out, directSubtypes);
+    for (BitSet subtypes : interfaceSubtypes) {
+      final long[] words = subtypes.toLongArray();
+      out.writeInt(words.length);
+      for (long word : words) {
+        out.writeLong(word);
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Restores an index that was written by {@link #writeTo(OutputStream)}.
+   *
+   * @param identifierFactory creates the types of the hierarchy from their fully qualified names
+   */
+  @Nonnull
+  public static CompactTypeHierarchy readFrom(
+      @Nonnull InputStream inputStream, @Nonnull IdentifierFactory identifierFactory)
+      throws IOException {
+    final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a serialized CompactTypeHierarchy.");
+    }
+    final int version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unsupported CompactTypeHierarchy format version " + version + ".");
+    }
+    final ClassType objectClassType = identifierFactory.getClassType(in.readUTF());
+    final ClassType[] types = new ClassType[in.readInt()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = identifierFactory.getClassType(in.readUTF());
+    }
+    final int classCount = in.readInt();
+    final int[] superClasses = readInts(in);
+    final int[] subtreeEnds = readInts(in);
+    final int[] superInterfaceOffsets = readInts(in);
+    final int[] superInterfaces = readInts(in);
+    final int[] directSubtypeOffsets = readInts(in);
+    final int[] directSubtypes = readInts(in);
+    final BitSet[] interfaceSubtypes = new BitSet[types.length - classCount];
+    for (int i = 0; i < interfaceSubtypes.length; i++) {
+      final long[] words = new long[in.readInt()];
+      for (int j = 0; j < words.length; j++) {
+        words[j] = in.readLong();
+      }
+      interfaceSubtypes[i] = BitSet.valueOf(words);
+    }
+    return new CompactTypeHierarchy(
+        objectClassType,
+        types,
+        classCount,
+        superClasses,
+        subtreeEnds,
+        superInterfaceOffsets,
+        superInterfaces,
+        directSubtypeOffsets,
+        directSubtypes,
+        interfaceSubtypes);
+  }
+
+  private static void writeInts(@Nonnull DataOutputStream out, @Nonnull int[] values)
+      throws IOException {
+    out.writeInt(values.length);
+    for (int value : values) {
+      out.writeInt(value);
+    }
+  }
+
+  @Nonnull
+  private static int[] readInts(@Nonnull DataInputStream in) throws IOException {
+    final int[] values = new int[in.readInt()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = in.readInt();
+    }
+    return values;
+  }
+
+  /** Collects the direct supertypes of all classes and numbers the types. */
+  private static class Builder {
+
+    @Nonnull private final ClassType objectClassType;
+
+    /** in order of appearance, declared classes win over types that are only referenced */
+    @Nonnull private final Map<ClassType, Boolean> isInterfaceByType = new LinkedHashMap<>();
+
+    @Nonnull private final Map<ClassType, ClassType> superClassByType = new HashMap<>();
+    @Nonnull private final Map<ClassType, Set<ClassType>> superInterfacesByType = new HashMap<>();
+
+    Builder(@Nonnull ClassType objectClassType) {
+      this.objectClassType = objectClassType;
+    }
+
+    @Nonnull
+    Builder addClasses(@Nonnull Stream<ClassHeader> classes) {
+      final List<ClassHeader> classList = new ArrayList<>();
+      classes.forEach(
+          header -> {
+            classList.add(header);
+            isInterfaceByType.put(header.getType(), header.isInterface());
+          });
+      for (ClassHeader header : classList) {
+        final ClassType type = header.getType();
+        final Set<ClassType> interfaces = header.getInterfaces();
+        superInterfacesByType.put(type, interfaces);
+        for (ClassType superInterface : interfaces) {
+          isInterfaceByType.putIfAbsent(superInterface, true);
+        }
+        if (!header.isInterface()) {
+          header
+              .getSuperclass()
+              .ifPresent(
+                  superClass -> {
+                    superClassByType.put(type, superClass);
+                    isInterfaceByType.putIfAbsent(superClass, false);
+                  });
+        }
+      }
+      return this;
+    }
+
+    @Nonnull
+    CompactTypeHierarchy build() {
+      // number the classes in pre-order of the inheritance tree
+      final Map<ClassType, List<ClassType>> subClassesByType = new HashMap<>();
+      final List<ClassType> roots = new ArrayList<>();
+      final List<ClassType> interfaceTypes = new ArrayList<>();
+      isInterfaceByType.forEach(
+          (type, isInterface) -> {
+            if (isInterface) {
+              interfaceTypes.add(type);
+              return;
+            }
+            final ClassType superClass = superClassByType.get(type);
+            if (superClass == null || isInterfaceByType.get(superClass)) {
+              roots.add(type);
+            } else {
+              subClassesByType.computeIfAbsent(superClass, k -> new ArrayList<>()).add(type);
+            }
+          });
+
+      final int typeCount = isInterfaceByType.size();
+      final ClassType[] types = new ClassType[typeCount];
+      final Map<ClassType, Integer> ids = new HashMap<>(typeCount * 4 / 3 + 1);
+      final int[] subtreeEnds = new int[typeCount];
+      int nextId = 0;
+      final Deque<ClassType> stack = new ArrayDeque<>();
+      final Deque<Integer> openSubtrees = new ArrayDeque<>();
+      for (ClassType root : roots) {
+        stack.push(root);
+        while (!stack.isEmpty()) {
+          final ClassType type = stack.peek();
+          final Integer id = ids.get(type);
+          if (id == null) {
+            // enter the subtree of type
+            ids.put(type, nextId);
+            types[nextId] = type;
+            openSubtrees.push(nextId);
+            nextId++;
+            final List<ClassType> subClasses = subClassesByType.get(type);
+            if (subClasses != null) {
+              for (int i = subClasses.size() - 1; i >= 0; i--) {
+                stack.push(subClasses.get(i));
+              }
+            }
+          } else {
+            // all subclasses are numbered -> leave the subtree of type
+            stack.pop();
+            subtreeEnds[openSubtrees.pop()] = nextId;
+          }
+        }
+      }
+      // classes in an inheritance cycle are not reachable from a root
+      isInterfaceByType.forEach(
+          (type, isInterface) -> {
+            if (!isInterface && !ids.containsKey(type)) {
+              throw new IllegalStateException("Cyclic class hierarchy detected at " + type);
+            }
+          });
+      final int classCount = nextId;
+      for (ClassType interfaceType : interfaceTypes) {
+        ids.put(interfaceType, nextId);
+        types[nextId] = interfaceType;
+        subtreeEnds[nextId] = nextId + 1;
+        nextId++;
+      }
+
+      // direct supertypes
+      final int[] superClasses = new int[typeCount];
+      final int[] superInterfaceOffsets = new int[typeCount + 1];
+      final List<int[]> superInterfaceIds = new ArrayList<>(typeCount);
+      final int[] directSubtypeCounts = new int[typeCount];
+      for (int id = 0; id < typeCount; id++) {
+        final ClassType superClass = superClassByType.get(types[id]);
+        superClasses[id] =
+            id < classCount && superClass != null && !isInterfaceByType.get(superClass)
+                ? ids.get(superClass)
+                : NO_TYPE;
+        if (superClasses[id] != NO_TYPE) {
+          directSubtypeCounts[superClasses[id]]++;
+        }
+        final Set<ClassType> interfaces =
+            superInterfacesByType.getOrDefault(types[id], Collections.emptySet());
+        final int[] interfaceIds =
+            interfaces.stream()
+                .filter(isInterfaceByType::get)
+                .mapToInt(ids::get)
+                .toArray();
+        for (int interfaceId : interfaceIds) {
+          directSubtypeCounts[interfaceId]++;
+        }
+        superInterfaceIds.add(interfaceIds);
+        superInterfaceOffsets[id + 1] = superInterfaceOffsets[id] + interfaceIds.length;
+      }
+      final int[] superInterfaces = new int[superInterfaceOffsets[typeCount]];
+      for (int id = 0; id < typeCount; id++) {
+        final int[] interfaceIds = superInterfaceIds.get(id);
+        System.arraycopy(
+            interfaceIds, 0, superInterfaces, superInterfaceOffsets[id], interfaceIds.length);
+      }
+
+      // direct subtypes i.e. the inverted supertype relation
+      final int[] directSubtypeOffsets = new int[typeCount + 1];
+      for (int id = 0; id < typeCount; id++) {
+        directSubtypeOffsets[id + 1] = directSubtypeOffsets[id] + directSubtypeCounts[id];
+      }
+      final int[] directSubtypes = new int[directSubtypeOffsets[typeCount]];
+      final int[] fillLevels = Arrays.copyOf(directSubtypeOffsets, typeCount);
+      for (int id = 0; id < typeCount; id++) {
+        if (superClasses[id] != NO_TYPE) {
+          directSubtypes[fillLevels[superClasses[id]]++] = id;
+        }
+        for (int i = superInterfaceOffsets[id]; i < superInterfaceOffsets[id + 1]; i++) {
+          directSubtypes[fillLevels[superInterfaces[i]]++] = id;
+        }
+      }
+
+      // materialize the subtypes of each interface
+      final BitSet[] interfaceSubtypes = new BitSet[typeCount - classCount];
+      for (int id = classCount; id < typeCount; id++) {
+        computeInterfaceSubtypes(
+            id,
+            classCount,
+            subtreeEnds,
+            directSubtypeOffsets,
+            directSubtypes,
+            interfaceSubtypes,
+            new BitSet(typeCount));
+      }
+
+      return new CompactTypeHierarchy(
+          objectClassType,
+          types,
+          classCount,
+          superClasses,
+          subtreeEnds,
+          superInterfaceOffsets,
+          superInterfaces,
+          directSubtypeOffsets,
+          directSubtypes,
+          interfaceSubtypes);
+    }
+
+    @Nonnull
+    private static BitSet computeInterfaceSubtypes(
+        int interfaceId,
+        int classCount,
+        @Nonnull int[] subtreeEnds,
+        @Nonnull int[] directSubtypeOffsets,
+        @Nonnull int[] directSubtypes,
+        @Nonnull BitSet[] interfaceSubtypes,
+        @Nonnull BitSet inProgress) {
+      BitSet subtypes = interfaceSubtypes[interfaceId - classCount];
+      if (subtypes != null) {
+        return subtypes;
+      }
+      subtypes = new BitSet();
+      inProgress.set(interfaceId);
+      for (int i = directSubtypeOffsets[interfaceId]; i < directSubtypeOffsets[interfaceId + 1]; i++) {
+        final int subtype = directSubtypes[i];
+        subtypes.set(subtype);
+        if (subtype < classCount) {
+          // the implementing class and all of its subclasses
+          subtypes.set(subtype, subtreeEnds[subtype]);
+        } else if (!inProgress.get(subtype)) {
+          subtypes.or(
+              computeInterfaceSubtypes(
+                  subtype,
+                  classCount,
+                  subtreeEnds,
+                  directSubtypeOffsets,
+                  directSubtypes,
+                  interfaceSubtypes,
+                  inProgress));
+        }
+      }
+      inProgress.clear(interfaceId);
+      interfaceSubtypes[interfaceId - classCount] = subtypes;
+      return subtypes;
+    }
+  }
+}
@@ -22,7 +22,10 @@ package sootup.core.typehierarchy;
  */
 
 import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -33,6 +36,7 @@ import org.jgrapht.Graph;
 import org.jgrapht.graph.SimpleDirectedGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.model.SootClass;
 import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.Edge;
 import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.EdgeType;
@@ -44,20 +48,38 @@ import sootup.core.views.View;
  * Full documentation is in the <a
  * href="https://github.com/secure-software-engineering/soot-reloaded/wiki/Type-Hierarchy-Algorithm">wiki</a>.
  *
+ * <p>Queries can be issued from several threads concurrently, e.g. by body interceptors that run
+ * in parallel. Adding types via {@link #addType(SootClass)} must not happen concurrently to
+ * queries.
+ *
  * @author Christian Brüggemann
  */
 public class ViewTypeHierarchy implements MutableTypeHierarchy {
 
   private static final Logger logger = LoggerFactory.getLogger(ViewTypeHierarchy.class);
 
+  /** the default maximum number of type pairs whose lowest common ancestors are cached */
+  public static final int DEFAULT_LCA_CACHE_SIZE = 100_000;
+
   private final Supplier<ScanResult> lazyScanResult;
   private final ClassType objectClassType;
-  private final Map<SymmetricKey, Set<ClassType>> lcaCache = new HashMap<>();
+  private final Cache<SymmetricKey, Set<ClassType>> lcaCache;
+
+  /** all (transitive) supertypes of a type, sorted by {@link Vertex#id} */
+  private final Map<Vertex, Vertex[]> ancestorCache = new ConcurrentHashMap<>();
 
   /** to allow caching use Typehierarchy.fromView() to get/create the Typehierarchy. */
   public ViewTypeHierarchy(@Nonnull View view) {
+    this(view, DEFAULT_LCA_CACHE_SIZE);
+  }
+
+  /**
+   * @param lcaCacheSize the maximum number of type pairs whose lowest common ancestors are cached
+   */
+  public ViewTypeHierarchy(@Nonnull View view, int lcaCacheSize) {
     lazyScanResult = Suppliers.memoize(() -> scanView(view));
     objectClassType = view.getIdentifierFactory().getClassType("java.lang.Object");
+    lcaCache = CacheBuilder.newBuilder().maximumSize(lcaCacheSize).build();
   }
 
   @Nonnull
@@ -177,19 +199,37 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
   }
 
   protected Set<Vertex> findAncestors(ClassType type) {
-    Graph<Vertex, Edge> graph = lazyScanResult.get().graph;
     Vertex vertex = lazyScanResult.get().typeToVertex.get(type);
     if (vertex == null) {
       logger.warn("Could not find {} in this hierarchy!", type.toString());
       return Collections.emptySet();
     }
-    Set<Vertex> ancestors = new HashSet<>();
+    return new HashSet<>(Arrays.asList(ancestorsOf(vertex)));
+  }
+
+  /**
+   * Returns all (transitive) supertypes of the vertex sorted by their id. The result is memoized,
+   * so it must not be modified.
+   */
+  @Nonnull
+  private Vertex[] ancestorsOf(@Nonnull Vertex vertex) {
+    Vertex[] ancestors = ancestorCache.get(vertex);
+    if (ancestors != null) {
+      return ancestors;
+    }
+
+    // not computeIfAbsent: the ancestors of the parents are memoized recursively
+    Graph<Vertex, Edge> graph = lazyScanResult.get().graph;
+    Set<Vertex> ancestorSet = new HashSet<>();
     for (Edge edge : graph.outgoingEdgesOf(vertex)) {
       Vertex parent = graph.getEdgeTarget(edge);
-      ancestors.add(parent);
-      ancestors.addAll(findAncestors(parent.javaClassType));
+      ancestorSet.add(parent);
+      Collections.addAll(ancestorSet, ancestorsOf(parent));
     }
-    return ancestors;
+    ancestors = ancestorSet.toArray(new Vertex[0]);
+    Arrays.sort(ancestors, Comparator.comparingInt(v -> v.id));
+    Vertex[] concurrentlyComputed = ancestorCache.putIfAbsent(vertex, ancestors);
+    return concurrentlyComputed == null ? ancestors : concurrentlyComputed;
   }
 
   /**
@@ -200,43 +240,63 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
   public Collection<ClassType> getLowestCommonAncestors(ClassType a, ClassType b) {
     // search in cache
     SymmetricKey pair = new SymmetricKey(a, b);
-    Set<ClassType> lcas = lcaCache.get(pair);
+    Set<ClassType> lcas = lcaCache.getIfPresent(pair);
     if (lcas != null) {
       return lcas;
     }
+    lcas = computeLowestCommonAncestors(a, b);
+    lcaCache.put(pair, lcas);
+    return lcas;
+  }
 
-    Graph<Vertex, Edge> graph = lazyScanResult.get().graph;
-    Set<Vertex> ancestorsOfA = findAncestors(a);
-    Set<Vertex> ancestorsOfB = findAncestors(b);
-    lcas = new HashSet<>();
-
-    if (ancestorsOfA.isEmpty() || ancestorsOfB.isEmpty()) {
-      lcas.add(objectClassType);
-      lcaCache.put(pair, lcas);
-      return lcas;
+  @Nonnull
+  private Set<ClassType> computeLowestCommonAncestors(ClassType a, ClassType b) {
+    ScanResult scanResult = lazyScanResult.get();
+    Vertex vertexA = scanResult.typeToVertex.get(a);
+    Vertex vertexB = scanResult.typeToVertex.get(b);
+    if (vertexA == null || vertexB == null) {
+      logger.warn("Could not find {} in this hierarchy!", (vertexA == null ? a : b).toString());
+      return Collections.singleton(objectClassType);
+    }
+    Vertex[] ancestorsOfA = ancestorsOf(vertexA);
+    Vertex[] ancestorsOfB = ancestorsOf(vertexB);
+    if (ancestorsOfA.length == 0 || ancestorsOfB.length == 0) {
+      return Collections.singleton(objectClassType);
+    }
+
+    // merge the sorted ancestors into the common ancestors of a and b
+    List<Vertex> commonAncestors = new ArrayList<>();
+    for (int i = 0, j = 0; i < ancestorsOfA.length && j < ancestorsOfB.length; ) {
+      int cmp = Integer.compare(ancestorsOfA[i].id, ancestorsOfB[j].id);
+      if (cmp == 0) {
+        commonAncestors.add(ancestorsOfA[i]);
+        i++;
+        j++;
+      } else if (cmp < 0) {
+        i++;
+      } else {
+        j++;
+      }
     }
-    // ancestorsOfA contains now common ancestors of a and b
-    ancestorsOfA.retainAll(ancestorsOfB);
-    boolean notLca = false;
-    for (Vertex ca : ancestorsOfA) {
-      Set<Edge> incomingEdges = graph.incomingEdgesOf(ca);
-      for (Edge ie : incomingEdges) {
-        if (ancestorsOfA.contains(graph.getEdgeSource(ie))) {
-          notLca = true;
-          break;
-        }
+
+    // a common ancestor is not lowest if it is the direct supertype of another common ancestor
+    Graph<Vertex, Edge> graph = scanResult.graph;
+    Set<Vertex> notLowest = new HashSet<>();
+    for (Vertex commonAncestor : commonAncestors) {
+      for (Edge edge : graph.outgoingEdgesOf(commonAncestor)) {
+        notLowest.add(graph.getEdgeTarget(edge));
       }
-      if (notLca) {
-        notLca = false;
-      } else {
-        lcas.add(ca.javaClassType);
+    }
+    Set<ClassType> lcas = new HashSet<>();
+    for (Vertex commonAncestor : commonAncestors) {
+      if (!notLowest.contains(commonAncestor)) {
+        lcas.add(commonAncestor.javaClassType);
       }
     }
     if (lcas.isEmpty()) {
-      lcas = Collections.singleton(objectClassType);
+      return Collections.singleton(objectClassType);
     }
-    lcaCache.put(pair, lcas);
-    return lcas;
+    return Collections.unmodifiableSet(lcas);
   }
 
   @Nonnull
@@ -353,10 +413,10 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
   }
 
   /**
-   * This method scans the view by iterating over its classes and creating a graph vertex for each
-   * one. When a class is encountered that extends another one or implements an interface, the graph
-   * vertex of the extended class or implemented interface is connected to the vertex of the
-   * subtype.
+   * This method scans the view by iterating over the headers of its classes and creating a graph
+   * vertex for each one. When a class is encountered that extends another one or implements an
+   * interface, the graph vertex of the extended class or implemented interface is connected to the
+   * vertex of the subtype.
    *
    * <p>We distinguish between interface and class vertices, as interfaces may have direct
    * implementers as well as other interfaces that extend them.
@@ -367,17 +427,17 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     Map<ClassType, Vertex> typeToVertex = new HashMap<>();
     Graph<Vertex, Edge> graph = new SimpleDirectedGraph<>(null, null, false);
 
-    view.getClasses().forEach(sootClass -> addSootClassToGraph(sootClass, typeToVertex, graph));
+    view.getClassHeaders().forEach(header -> addClassHeaderToGraph(header, typeToVertex, graph));
     return new ScanResult(typeToVertex, graph);
   }
 
-  private static void addSootClassToGraph(
-      SootClass sootClass, Map<ClassType, Vertex> typeToVertex, Graph<Vertex, Edge> graph) {
-    if (sootClass.isInterface()) {
+  private static void addClassHeaderToGraph(
+      ClassHeader header, Map<ClassType, Vertex> typeToVertex, Graph<Vertex, Edge> graph) {
+    if (header.isInterface()) {
       Vertex vertex =
           typeToVertex.computeIfAbsent(
-              sootClass.getType(), type -> createAndAddInterfaceVertex(graph, type));
-      for (ClassType extendedInterface : sootClass.getInterfaces()) {
+              header.getType(), type -> createAndAddInterfaceVertex(graph, type));
+      for (ClassType extendedInterface : header.getInterfaces()) {
         Vertex extendedInterfaceVertex =
             typeToVertex.computeIfAbsent(
                 extendedInterface, type -> createAndAddInterfaceVertex(graph, type));
@@ -386,15 +446,15 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     } else {
       Vertex vertex =
           typeToVertex.computeIfAbsent(
-              sootClass.getType(), type -> createAndAddClassVertex(graph, type));
-      for (ClassType implementedInterface : sootClass.getInterfaces()) {
+              header.getType(), type -> createAndAddClassVertex(graph, type));
+      for (ClassType implementedInterface : header.getInterfaces()) {
         Vertex implementedInterfaceVertex =
             typeToVertex.computeIfAbsent(
                 implementedInterface, type -> createAndAddInterfaceVertex(graph, type));
         graph.addEdge(
             vertex, implementedInterfaceVertex, new Edge(EdgeType.ClassDirectlyImplements));
       }
-      sootClass
+      header
           .getSuperclass()
           .ifPresent(
               superClass -> {
@@ -408,14 +468,14 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
 
   @Nonnull
   private static Vertex createAndAddClassVertex(Graph<Vertex, Edge> graph, ClassType type) {
-    Vertex classVertex = new ScanResult.ClassVertex(type);
+    Vertex classVertex = new ScanResult.ClassVertex(type, graph.vertexSet().size());
     graph.addVertex(classVertex);
     return classVertex;
   }
 
   @Nonnull
   private static Vertex createAndAddInterfaceVertex(Graph<Vertex, Edge> graph, ClassType type) {
-    Vertex interfaceVertex = new ScanResult.InterfaceVertex(type);
+    Vertex interfaceVertex = new ScanResult.InterfaceVertex(type, graph.vertexSet().size());
     graph.addVertex(interfaceVertex);
     return interfaceVertex;
   }
@@ -423,7 +483,10 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
   @Override
   public void addType(@Nonnull SootClass sootClass) {
     ScanResult scanResult = lazyScanResult.get();
-    addSootClassToGraph(sootClass, scanResult.typeToVertex, scanResult.graph);
+    addClassHeaderToGraph(ClassHeader.of(sootClass), scanResult.typeToVertex, scanResult.graph);
+    // the new type can change the ancestors of existing types
+    ancestorCache.clear();
+    lcaCache.invalidateAll();
   }
 
   /** Holds a vertex for each {@link ClassType} encountered during the scan. */
@@ -432,17 +495,20 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     /** @see #javaClassType */
     protected abstract static class Vertex {
       @Nonnull final ClassType javaClassType;
+      /** unique number of the vertex in its graph, in order of creation */
+      final int id;
 
-      private Vertex(@Nonnull ClassType javaClassType) {
+      private Vertex(@Nonnull ClassType javaClassType, int id) {
         this.javaClassType = javaClassType;
+        this.id = id;
       }
 
       public abstract Stream<ClassType> directSubTypesOf(Graph<Vertex, Edge> graph, Vertex vertex);
     }
 
     private static class InterfaceVertex extends Vertex {
-      public InterfaceVertex(ClassType javaClassType) {
-        super(javaClassType);
+      public InterfaceVertex(ClassType javaClassType, int id) {
+        super(javaClassType, id);
       }
 
       public Stream<ClassType> directSubTypesOf(Graph<Vertex, Edge> graph, Vertex vertex) {
@@ -458,8 +524,8 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     }
 
     private static class ClassVertex extends Vertex {
-      public ClassVertex(ClassType javaClassType) {
-        super(javaClassType);
+      public ClassVertex(ClassType javaClassType, int id) {
+        super(javaClassType, id);
       }
 
       @Override
@@ -534,5 +600,20 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     public int hashCode() {
       return Objects.hash(getKey()) + Objects.hash(getValue());
     }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof SymmetricKey)) {
+        return false;
+      }
+      SymmetricKey other = (SymmetricKey) obj;
+      return (Objects.equals(getKey(), other.getKey())
+              && Objects.equals(getValue(), other.getValue()))
+          || (Objects.equals(getKey(), other.getValue())
+              && Objects.equals(getValue(), other.getKey()));
+    }
   }
 }
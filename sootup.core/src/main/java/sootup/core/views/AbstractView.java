@@ -25,6 +25,8 @@ package sootup.core.views;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import sootup.core.cache.BodyRetentionPolicy;
+import sootup.core.cache.StrongBodyRetentionPolicy;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootField;
 import sootup.core.model.SootMethod;
@@ -39,17 +41,46 @@ import sootup.core.typehierarchy.ViewTypeHierarchy;
  * @author Linghui Luo
  */
 public abstract class AbstractView implements View {
-  @Nullable private TypeHierarchy typeHierarchy;
+  @Nullable private volatile TypeHierarchy typeHierarchy;
+  @Nonnull private final BodyRetentionPolicy bodyRetentionPolicy;
 
-  public AbstractView() {}
+  public AbstractView() {
+    this(StrongBodyRetentionPolicy.getInstance());
+  }
+
+  public AbstractView(@Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
+    this.bodyRetentionPolicy = bodyRetentionPolicy;
+  }
+
+  @Override
+  @Nonnull
+  public BodyRetentionPolicy getBodyRetentionPolicy() {
+    return bodyRetentionPolicy;
+  }
 
   @Override
   @Nonnull
   public TypeHierarchy getTypeHierarchy() {
-    if (this.typeHierarchy == null) {
-      typeHierarchy = new ViewTypeHierarchy(this);
+    // double-checked, as e.g. the parallel call graph algorithms query it from many threads
+    TypeHierarchy hierarchy = typeHierarchy;
+    if (hierarchy == null) {
+      synchronized (this) {
+        hierarchy = typeHierarchy;
+        if (hierarchy == null) {
+          hierarchy = new ViewTypeHierarchy(this);
+          typeHierarchy = hierarchy;
+        }
+      }
     }
-    return typeHierarchy;
+    return hierarchy;
+  }
+
+  /**
+   * Replaces the {@link TypeHierarchy} of this view, e.g. by a precomputed {@link
+   * sootup.core.typehierarchy.CompactTypeHierarchy}.
+   */
+  public void setTypeHierarchy(@Nonnull TypeHierarchy typeHierarchy) {
+    this.typeHierarchy = typeHierarchy;
   }
 
   /**
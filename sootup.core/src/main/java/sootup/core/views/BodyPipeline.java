@@ -0,0 +1,262 @@
+package sootup.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Resolves the bodies of many methods in parallel, i.e. the conversion of the bodies and the
+ * {@link sootup.core.transform.BodyInterceptor}s of their frontend run on a configurable number of
+ * workers of an {@link Executor}.
+ *
+ * <p>The methods are handed to the workers through a bounded queue: if the workers can not keep
+ * up, the enumeration of the methods (e.g. the resolving of their classes) blocks until the queue
+ * has free capacity again. To additionally limit the parallelism of single interceptors, wrap them
+ * in a {@link sootup.core.transform.BoundedBodyInterceptor}.
+ *
+ * <p>The runs in progress can be cancelled from any thread via {@link #cancel()}. Bodies that are
+ * already being resolved are completed, the remaining methods are skipped. A pipeline can be
+ * reused after a cancelled run.
+ *
+ * @see View#resolveBodies(Stream, BodyPipeline, BiConsumer)
+ */
+public class BodyPipeline {
+
+  private static final List<SootMethod> END_OF_INPUT = Collections.emptyList();
+
+  @Nonnull private final Executor executor;
+  private final int parallelism;
+  private final int queueCapacity;
+  @Nonnull private final Set<Run> runningRuns = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates a pipeline with a queue that holds up to four methods per worker.
+   *
+   * @see #BodyPipeline(Executor, int, int)
+   */
+  public BodyPipeline(@Nonnull Executor executor, int parallelism) {
+    this(executor, parallelism, 4 * parallelism);
+  }
+
+  /**
+   * @param executor runs the workers; it has to be able to run <code>parallelism</code> tasks at
+   *     the same time, otherwise the workers run with less parallelism. It must not run the workers
+   *     on the thread that submits them (e.g. <code>Runnable::run</code>), as the workers wait for
+   *     methods that this thread enumerates only afterwards; {@link #run(Stream, BiConsumer)} fails
+   *     for such an executor.
+   * @param parallelism the number of workers that resolve bodies
+   * @param queueCapacity the number of methods that can wait for a free worker
+   */
+  public BodyPipeline(@Nonnull Executor executor, int parallelism, int queueCapacity) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive.");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queueCapacity must be positive.");
+    }
+    this.executor = executor;
+    this.parallelism = parallelism;
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /** Stops the runs of this pipeline that are in progress. Later runs are not affected. */
+  public void cancel() {
+    runningRuns.forEach(Run::cancel);
+  }
+
+  /**
+   * Resolves the bodies of the given methods and passes each of them to the consumer. Methods
+   * without a body (see {@link SootMethod#isConcrete()}) are ignored. A body that can not be
+   * resolved does not abort the run but is reported in the returned {@link BodyResolutionResult}.
+   * The method blocks until every method is processed or the run is cancelled. Interrupting the
+   * calling thread or a worker cancels only this run.
+   *
+   * @param methods is consumed by the calling thread
+   * @param consumer is called from the worker that resolved the body; it has to be thread-safe
+   * @throws IllegalStateException if the executor runs a worker on the calling thread
+   */
+  @Nonnull
+  public BodyResolutionResult run(
+      @Nonnull Stream<? extends SootMethod> methods,
+      @Nonnull BiConsumer<? super SootMethod, ? super Body> consumer) {
+    Run run = new Run(queueCapacity);
+    runningRuns.add(run);
+    try {
+      return run.execute(methods, consumer);
+    } finally {
+      runningRuns.remove(run);
+    }
+  }
+
+  /** The state of a single run, so that cancelling a run does not affect other runs. */
+  private final class Run {
+    @Nonnull private final BlockingQueue<List<SootMethod>> queue;
+    @Nonnull private final AtomicInteger resolvedBodyCount = new AtomicInteger();
+    @Nonnull private final AtomicInteger skippedBodyCount = new AtomicInteger();
+    @Nonnull
+    private final Map<MethodSignature, Throwable> failedMethods = new ConcurrentHashMap<>();
+    private volatile boolean cancelled = false;
+
+    Run(int queueCapacity) {
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+
+    @Nonnull
+    BodyResolutionResult execute(
+        @Nonnull Stream<? extends SootMethod> methods,
+        @Nonnull BiConsumer<? super SootMethod, ? super Body> consumer) {
+      Thread caller = Thread.currentThread();
+      CompletableFuture<?>[] workers = new CompletableFuture[parallelism];
+      int startedWorkers = 0;
+      try {
+        for (; startedWorkers < parallelism; startedWorkers++) {
+          // a worker that the executor runs right away on this thread would wait for the methods
+          // forever, so it returns immediately and the run fails instead
+          boolean[] ranOnCaller = new boolean[1];
+          workers[startedWorkers] =
+              CompletableFuture.runAsync(
+                  () -> {
+                    if (Thread.currentThread() == caller) {
+                      ranOnCaller[0] = true;
+                    } else {
+                      processQueue(consumer);
+                    }
+                  },
+                  executor);
+          if (ranOnCaller[0]) {
+            cancel();
+            throw new IllegalStateException(
+                "The executor of the BodyPipeline has to run the workers on other threads.");
+          }
+        }
+
+        Iterator<? extends SootMethod> iterator = methods.iterator();
+        while (!cancelled && iterator.hasNext()) {
+          SootMethod method = iterator.next();
+          if (method.isConcrete()) {
+            put(Collections.singletonList(method));
+          }
+        }
+      } finally {
+        // the workers drain the queue even if the run is cancelled, so this can not block forever
+        for (int i = 0; i < startedWorkers; i++) {
+          put(END_OF_INPUT);
+        }
+      }
+      CompletableFuture.allOf(workers).join();
+
+      return new BodyResolutionResult(
+          resolvedBodyCount.get(), skippedBodyCount.get(), failedMethods, cancelled);
+    }
+
+    private void processQueue(@Nonnull BiConsumer<? super SootMethod, ? super Body> consumer) {
+      while (true) {
+        List<SootMethod> methods = take();
+        if (methods.isEmpty()) {
+          return;
+        }
+        for (SootMethod method : methods) {
+          if (cancelled) {
+            skippedBodyCount.incrementAndGet();
+            continue;
+          }
+          try {
+            consumer.accept(method, method.getBody());
+            resolvedBodyCount.incrementAndGet();
+          } catch (Throwable throwable) {
+            // keep the worker alive, otherwise the queue would not be drained anymore
+            failedMethods.put(method.getSignature(), throwable);
+          }
+        }
+      }
+    }
+
+    /** Interrupting the producer cancels the run, but the end of the input is still enqueued. */
+    private void put(@Nonnull List<SootMethod> item) {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            queue.put(item);
+            return;
+          } catch (InterruptedException e) {
+            interrupted = true;
+            cancel();
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    /** Interrupting a worker cancels the run, but the worker keeps draining the queue. */
+    @Nonnull
+    private List<SootMethod> take() {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            return queue.take();
+          } catch (InterruptedException e) {
+            interrupted = true;
+            cancel();
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
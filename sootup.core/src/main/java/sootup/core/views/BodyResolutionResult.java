@@ -0,0 +1,92 @@
+package sootup.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Summary of a run of a {@link BodyPipeline}.
+ *
+ * @see View#resolveBodies(java.util.stream.Stream, BodyPipeline,
+ *     java.util.function.BiConsumer)
+ */
+public class BodyResolutionResult {
+
+  private final int resolvedBodyCount;
+  private final int skippedBodyCount;
+  @Nonnull private final Map<MethodSignature, Throwable> failedMethods;
+  private final boolean cancelled;
+
+  public BodyResolutionResult(
+      int resolvedBodyCount,
+      int skippedBodyCount,
+      @Nonnull Map<MethodSignature, Throwable> failedMethods,
+      boolean cancelled) {
+    this.resolvedBodyCount = resolvedBodyCount;
+    this.skippedBodyCount = skippedBodyCount;
+    this.failedMethods = Collections.unmodifiableMap(failedMethods);
+    this.cancelled = cancelled;
+  }
+
+  /** Returns the number of bodies that were resolved and passed to the consumer successfully. */
+  public int getResolvedBodyCount() {
+    return resolvedBodyCount;
+  }
+
+  /** Returns the number of methods that were not processed because the run was cancelled. */
+  public int getSkippedBodyCount() {
+    return skippedBodyCount;
+  }
+
+  /** Returns the methods whose body could not be resolved together with the reason. */
+  @Nonnull
+  public Map<MethodSignature, Throwable> getFailedMethods() {
+    return failedMethods;
+  }
+
+  /** Returns true if the run was cancelled before all methods were processed. */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /** Returns true if every body was resolved and the run was not cancelled. */
+  public boolean isSuccessful() {
+    return failedMethods.isEmpty() && !cancelled;
+  }
+
+  @Override
+  public String toString() {
+    return "BodyResolutionResult{resolved="
+        + resolvedBodyCount
+        + ", skipped="
+        + skippedBodyCount
+        + ", failed="
+        + failedMethods.keySet()
+        + ", cancelled="
+        + cancelled
+        + '}';
+  }
+}
@@ -23,9 +23,14 @@ package sootup.core.views;
  */
 
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyRetentionPolicy;
+import sootup.core.cache.StrongBodyRetentionPolicy;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.model.Body;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootField;
 import sootup.core.model.SootMethod;
@@ -46,6 +51,16 @@ public interface View {
   @Nonnull
   Stream<? extends SootClass> getClasses();
 
+  /**
+   * Return the headers of all classes in the view. Views backed by {@link
+   * sootup.core.inputlocation.AnalysisInputLocation}s can read them without building the classes,
+   * which is all that is needed to build the {@link TypeHierarchy}.
+   */
+  @Nonnull
+  default Stream<ClassHeader> getClassHeaders() {
+    return getClasses().map(ClassHeader::of);
+  }
+
   /**
    * Return a class with given signature.
    *
@@ -58,6 +73,33 @@ public interface View {
 
   Optional<? extends SootMethod> getMethod(@Nonnull MethodSignature signature);
 
+  /**
+   * Resolves the bodies of the given methods in parallel on the given pipeline and passes them to
+   * the consumer.
+   *
+   * @see BodyPipeline#run(Stream, BiConsumer)
+   */
+  @Nonnull
+  default BodyResolutionResult resolveBodies(
+      @Nonnull Stream<? extends SootMethod> methods,
+      @Nonnull BodyPipeline pipeline,
+      @Nonnull BiConsumer<? super SootMethod, ? super Body> consumer) {
+    return pipeline.run(methods, consumer);
+  }
+
+  /**
+   * Resolves the bodies of all methods of the view in parallel on the given pipeline, e.g. to warm
+   * up the bodies before an analysis. The classes are resolved by the calling thread while the
+   * bodies are resolved.
+   */
+  @Nonnull
+  default BodyResolutionResult resolveAllBodies(@Nonnull BodyPipeline pipeline) {
+    return resolveBodies(
+        getClasses().flatMap(sootClass -> sootClass.getMethods().stream()),
+        pipeline,
+        (method, body) -> {});
+  }
+
   @Nonnull
   TypeHierarchy getTypeHierarchy();
 
@@ -65,6 +107,15 @@ public interface View {
   @Nonnull
   IdentifierFactory getIdentifierFactory();
 
+  /**
+   * Returns the {@link BodyRetentionPolicy} that decides how long the bodies of the methods of this
+   * view are kept in memory. By default, every resolved body is kept as long as its method.
+   */
+  @Nonnull
+  default BodyRetentionPolicy getBodyRetentionPolicy() {
+    return StrongBodyRetentionPolicy.getInstance();
+  }
+
   @Nonnull
   default SootClass getClassOrThrow(@Nonnull ClassType classType) {
     return getClass(classType)
@@ -0,0 +1,147 @@
+package sootup.core.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.TestUtil;
+import sootup.core.frontend.OverridingBodySource;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.basic.NoPositionInformation;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.stmt.FallsThroughStmt;
+import sootup.core.jimple.common.stmt.JNopStmt;
+import sootup.core.jimple.common.stmt.JReturnVoidStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
+import sootup.core.model.SootMethod;
+
+@Tag("Java8")
+public class BodyRetentionPolicyTest {
+
+  /** creates a body with the given amount of statements */
+  private static Body createBody(int stmtCount) {
+    StmtPositionInfo noPosition = StmtPositionInfo.getNoStmtPositionInfo();
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    Stmt returnStmt = new JReturnVoidStmt(noPosition);
+    FallsThroughStmt previous = null;
+    for (int i = 1; i < stmtCount; i++) {
+      JNopStmt nop = new JNopStmt(noPosition);
+      if (previous == null) {
+        graph.setStartingStmt(nop);
+      } else {
+        graph.putEdge(previous, nop);
+      }
+      previous = nop;
+    }
+    if (previous == null) {
+      graph.setStartingStmt(returnStmt);
+    } else {
+      graph.putEdge(previous, returnStmt);
+    }
+    return Body.builder(graph)
+        .setModifiers(Collections.emptySet())
+        .setMethodSignature(TestUtil.createDummyMethodSignature())
+        .build();
+  }
+
+  private static Supplier<Body> countingResolver(int stmtCount, AtomicInteger resolveCount) {
+    return () -> {
+      resolveCount.incrementAndGet();
+      return createBody(stmtCount);
+    };
+  }
+
+  @Test
+  public void testStrongRetention() {
+    AtomicInteger resolveCount = new AtomicInteger();
+    Supplier<Body> holder =
+        new StrongBodyRetentionPolicy().retain(countingResolver(3, resolveCount));
+    Body body = holder.get();
+    assertSame(body, holder.get());
+    assertEquals(1, resolveCount.get());
+  }
+
+  @Test
+  public void testSoftRetention() {
+    AtomicInteger resolveCount = new AtomicInteger();
+    Supplier<Body> holder = new SoftBodyRetentionPolicy().retain(countingResolver(3, resolveCount));
+    Body body = holder.get();
+    // the body is strongly reachable here, so it must not have been released
+    assertSame(body, holder.get());
+    assertEquals(1, resolveCount.get());
+  }
+
+  @Test
+  public void testLRURetention() {
+    LRUBodyRetentionPolicy policy = new LRUBodyRetentionPolicy(10);
+    AtomicInteger resolveCountA = new AtomicInteger();
+    AtomicInteger resolveCountB = new AtomicInteger();
+    AtomicInteger resolveCountC = new AtomicInteger();
+    Supplier<Body> holderA = policy.retain(countingResolver(4, resolveCountA));
+    Supplier<Body> holderB = policy.retain(countingResolver(4, resolveCountB));
+    Supplier<Body> holderC = policy.retain(countingResolver(4, resolveCountC));
+
+    Body bodyA = holderA.get();
+    holderB.get();
+    assertSame(bodyA, holderA.get());
+    assertEquals(8, policy.getRetainedStmtCount());
+    assertEquals(2, policy.size());
+
+    // exceeds the budget: B is the least recently used body
+    holderC.get();
+    assertEquals(8, policy.getRetainedStmtCount());
+    assertSame(bodyA, holderA.get());
+    assertEquals(1, resolveCountA.get());
+
+    // B was released and is resolved again
+    holderB.get();
+    assertEquals(2, resolveCountB.get());
+    assertEquals(1, resolveCountC.get());
+    assertEquals(2, policy.size());
+  }
+
+  @Test
+  public void testLRURetentionKeepsBodyLargerThanBudget() {
+    LRUBodyRetentionPolicy policy = new LRUBodyRetentionPolicy(2);
+    AtomicInteger resolveCount = new AtomicInteger();
+    Supplier<Body> holder = policy.retain(countingResolver(5, resolveCount));
+    Body body = holder.get();
+    assertSame(body, holder.get());
+    assertEquals(1, resolveCount.get());
+    assertEquals(5, policy.getRetainedStmtCount());
+  }
+
+  @Test
+  public void testInvalidLRUBudget() {
+    assertThrows(IllegalArgumentException.class, () -> new LRUBodyRetentionPolicy(0));
+  }
+
+  @Test
+  public void testMethodKeepsItsPolicy() {
+    Body body = createBody(2);
+    LRUBodyRetentionPolicy policy = new LRUBodyRetentionPolicy(10);
+    SootMethod method =
+        new SootMethod(
+            new OverridingBodySource(body.getMethodSignature(), body),
+            body.getMethodSignature(),
+            Collections.emptySet(),
+            Collections.emptyList(),
+            NoPositionInformation.getInstance(),
+            policy);
+    assertSame(policy, method.getBodyRetentionPolicy());
+    assertSame(body, method.getBody());
+    assertSame(
+        policy, method.withModifiers(EnumSet.of(MethodModifier.PUBLIC)).getBodyRetentionPolicy());
+
+    SootMethod defaultMethod =
+        method.withBodyRetentionPolicy(StrongBodyRetentionPolicy.getInstance());
+    assertSame(StrongBodyRetentionPolicy.getInstance(), defaultMethod.getBodyRetentionPolicy());
+    assertSame(policy, method.getBodyRetentionPolicy());
+  }
+}
@@ -0,0 +1,113 @@
+package sootup.core.transform;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.TestUtil;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+
+@Tag("Java8")
+public class BodyInterceptorProfilerTest {
+
+  @Test
+  public void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(99));
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(500500, histogram.getSum());
+    assertEquals(1000, histogram.getMax());
+    assertEquals(500.5, histogram.getMean(), 0.001);
+    assertWithinBucket(500, histogram.getPercentile(50));
+    assertWithinBucket(900, histogram.getPercentile(90));
+    assertWithinBucket(990, histogram.getPercentile(99));
+    assertEquals(1000, histogram.getPercentile(100));
+    assertEquals(1, histogram.getPercentile(0));
+  }
+
+  @Test
+  public void testHistogramBuckets() {
+    for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 1000, 123456789, Long.MAX_VALUE}) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, Long.toString(value));
+      if (index > 0) {
+        assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value, Long.toString(value));
+      }
+    }
+  }
+
+  @Test
+  public void testProfilerRecordsEveryBody() {
+    BodyInterceptorProfiler profiler = new BodyInterceptorProfiler(2);
+    List<BodyInterceptor> interceptors =
+        profiler.wrap(
+            Arrays.asList(
+                (builder, view) -> {}, (builder, view) -> busyWait()));
+
+    MethodSignature method = TestUtil.createDummyMethodSignature();
+    for (int i = 0; i < 5; i++) {
+      Body.BodyBuilder builder = Body.builder().setMethodSignature(method);
+      for (BodyInterceptor interceptor : interceptors) {
+        interceptor.interceptBody(builder, null);
+      }
+    }
+
+    List<BodyInterceptorProfile> profiles = profiler.getProfiles();
+    assertEquals(2, profiles.size());
+    for (BodyInterceptorProfile profile : profiles) {
+      assertEquals(5, profile.getNanos().getCount());
+      List<BodyInterceptorProfile.MethodSample> slowestMethods = profile.getSlowestMethods();
+      assertEquals(2, slowestMethods.size());
+      assertEquals(method, slowestMethods.get(0).getMethod());
+      assertTrue(slowestMethods.get(0).getNanos() >= slowestMethods.get(1).getNanos());
+    }
+    assertTrue(profiles.get(1).getNanos().getMax() >= 100_000);
+
+    StringBuilder csv = new StringBuilder();
+    profiler.writeCsv(csv);
+    String[] lines = csv.toString().split("\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[0].startsWith("interceptor,bodies,total_ns"));
+    assertEquals(lines[0].split(",").length, lines[1].split(",").length);
+
+    StringBuilder slowest = new StringBuilder();
+    profiler.writeSlowestMethodsCsv(slowest);
+    assertEquals(1 + 2 * 2, slowest.toString().split("\n").length);
+
+    StringBuilder json = new StringBuilder();
+    profiler.writeJson(json);
+    String jsonString = json.toString();
+    assertTrue(jsonString.trim().startsWith("[") && jsonString.trim().endsWith("]"));
+    assertTrue(jsonString.contains("\"slowestMethods\""));
+    assertTrue(jsonString.contains("\"p99\""));
+  }
+
+  @Test
+  public void testRunTimeBodyInterceptorRecordsThrowingInterceptor() {
+    RunTimeBodyInterceptor interceptor =
+        new RunTimeBodyInterceptor(
+            (builder, view) -> {
+              throw new IllegalStateException();
+            });
+    assertThrows(
+        IllegalStateException.class, () -> interceptor.interceptBody(Body.builder(), null));
+    assertEquals(1, interceptor.getProfile().getNanos().getCount());
+  }
+
+  private static void assertWithinBucket(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected * 1.125, expected + " vs. " + actual);
+  }
+
+  private static void busyWait() {
+    long end = System.nanoTime() + 100_000;
+    while (System.nanoTime() < end) {
+      // spin
+    }
+  }
+}
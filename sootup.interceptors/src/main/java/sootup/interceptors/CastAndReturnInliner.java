@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 import com.google.common.collect.Lists;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import sootup.core.graph.MutableStmtGraph;
@@ -64,6 +65,12 @@ import sootup.core.views.View;
  */
 public class CastAndReturnInliner implements BodyInterceptor {
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
 
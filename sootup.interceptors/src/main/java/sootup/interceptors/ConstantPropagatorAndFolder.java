@@ -25,6 +25,7 @@ import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import javax.annotation.Nonnull;
 import sootup.core.graph.MutableStmtGraph;
@@ -52,6 +53,12 @@ import sootup.core.views.View;
  */
 public class ConstantPropagatorAndFolder implements BodyInterceptor {
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     List<Stmt> defs = new ArrayList<>();
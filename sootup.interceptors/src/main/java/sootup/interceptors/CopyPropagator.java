@@ -24,6 +24,7 @@ package sootup.interceptors;
 import com.google.common.collect.Lists;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -58,6 +59,12 @@ public class CopyPropagator implements BodyInterceptor {
   static final IntConstant zeroIntConstInstance = IntConstant.getInstance(0);
   static final LongConstant zeroLongConstInstance = LongConstant.getInstance(0);
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     MutableStmtGraph stmtGraph = builder.getStmtGraph();
@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 import java.util.ArrayList;
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.Jimple;
@@ -40,6 +41,12 @@ import sootup.core.views.View;
  */
 public class EmptySwitchEliminator implements BodyInterceptor {
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     // Iterate all stmts in the body
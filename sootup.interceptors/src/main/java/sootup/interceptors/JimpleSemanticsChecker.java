@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 import java.util.List;
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +45,12 @@ public abstract class JimpleSemanticsChecker implements BodyInterceptor {
     throw new UnsupportedOperationException("List of Validators is not incorporated yet.");
   }
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public abstract void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view);
 
@@ -35,6 +35,12 @@ import sootup.core.views.View;
 /** @author Zun Wang */
 public class LocalNameStandardizer implements BodyInterceptor {
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
 
@@ -38,6 +38,12 @@ import sootup.core.views.View;
  */
 public class NopEliminator implements BodyInterceptor {
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   /**
    * Removes {@link JNopStmt}s from the given {@link Body}. Complexity is linear with respect to the
    * statements.
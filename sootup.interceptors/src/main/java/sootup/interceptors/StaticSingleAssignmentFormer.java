@@ -52,6 +52,12 @@ import sootup.core.views.View;
  */
 public class StaticSingleAssignmentFormer implements BodyInterceptor {
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
 
@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.transform.BodyInterceptor;
@@ -37,6 +38,12 @@ public class TypeAssigner implements BodyInterceptor {
 
   public TypeAssigner() {}
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     new TypeResolver((JavaView) view).resolve(builder);
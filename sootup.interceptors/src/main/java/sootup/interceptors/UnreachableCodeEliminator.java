@@ -37,6 +37,12 @@ public class UnreachableCodeEliminator implements BodyInterceptor {
 
   // TODO: performance - quite expensive; maybe work on Block level to reduce hash calculations etc?
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
 
@@ -22,6 +22,7 @@ package sootup.interceptors;
  *
  */
 import java.util.LinkedHashSet;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.Local;
@@ -39,6 +40,12 @@ import sootup.core.views.View;
  */
 public class UnusedLocalEliminator implements BodyInterceptor {
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("");
+  }
+
   /**
    * Collects all used Locals.
    *
@@ -21,21 +21,38 @@ package sootup.java.bytecode.frontend.conversion;
  * #L%
  */
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.FileType;
+import sootup.core.signatures.MethodSignature;
 import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.util.Modifiers;
 import sootup.core.views.View;
 import sootup.java.core.JavaModuleIdentifierFactory;
+import sootup.java.core.entrypoints.ClassDeclaration;
+import sootup.java.core.entrypoints.MethodDeclaration;
 import sootup.java.core.types.JavaClassType;
 import sootup.java.core.types.ModuleJavaClassType;
 
@@ -45,8 +62,20 @@ public class AsmJavaClassProvider implements ClassProvider {
   @Nonnull private final View view;
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(AsmJavaClassProvider.class);
 
+  @Nullable private final PersistentBodyCache persistentBodyCache;
+
   public AsmJavaClassProvider(@Nonnull View view) {
+    this(view, null);
+  }
+
+  /**
+   * @param persistentBodyCache stores the bodies of the created classes, or <code>null</code> to
+   *     resolve them from the bytecode every time
+   */
+  public AsmJavaClassProvider(
+      @Nonnull View view, @Nullable PersistentBodyCache persistentBodyCache) {
     this.view = view;
+    this.persistentBodyCache = persistentBodyCache;
   }
 
   @Override
@@ -58,8 +87,18 @@ public class AsmJavaClassProvider implements ClassProvider {
     SootClassNode classNode;
     final String actualClassSignature;
     try {
-      classNode = new SootClassNode(analysisInputLocation);
-      actualClassSignature = AsmUtil.initAsmClassSource(sourcePath, classNode);
+      if (persistentBodyCache == null) {
+        classNode = new SootClassNode(analysisInputLocation);
+        actualClassSignature = AsmUtil.initAsmClassSource(sourcePath, classNode);
+      } else {
+        final byte[] classBytes = Files.readAllBytes(sourcePath);
+        final PersistentBodyCache.ClassKey classKey =
+            persistentBodyCache
+                .computeClassKey(classBytes, analysisInputLocation.getBodyInterceptors(), view)
+                .orElse(null);
+        classNode = new SootClassNode(analysisInputLocation, persistentBodyCache, classKey);
+        actualClassSignature = AsmUtil.initAsmClassSource(classBytes, classNode);
+      }
     } catch (IOException exception) {
       logger.warn("ioe: " + sourcePath, exception);
       return Optional.empty();
@@ -68,13 +107,7 @@ public class AsmJavaClassProvider implements ClassProvider {
       return Optional.empty();
     }
 
-    String requestedName = classType.getPackageName().getName();
-    String requestedFQClassName =
-        classType.getPackageName().getName()
-            + (requestedName.isEmpty() ? "" : ".")
-            + classType.getClassName();
-    String actualFQClassName = actualClassSignature.replace('/', '.');
-    if (!actualFQClassName.equals(requestedFQClassName)) {
+    if (!isRequestedClass(classType, actualClassSignature)) {
       return Optional.empty();
     }
 
@@ -91,8 +124,90 @@ public class AsmJavaClassProvider implements ClassProvider {
       }
 
       return Optional.of(
-          new AsmClassSource(analysisInputLocation, sourcePath, klassType, classNode));
+          new AsmClassSource(
+              analysisInputLocation,
+              sourcePath,
+              klassType,
+              classNode,
+              view.getBodyRetentionPolicy()));
+    }
+  }
+
+  /**
+   * Reads only the header of the class file, i.e. access flags, superclass and interfaces are taken
+   * from the constant pool without visiting fields, methods or their code.
+   *
+   * @return the header or an empty Optional if the file does not contain the requested class
+   */
+  @Nonnull
+  public Optional<ClassHeader> createClassHeader(
+      @Nonnull Path sourcePath, @Nonnull ClassType classType) {
+    return readClass(sourcePath, classType)
+        .map(classReader -> createClassHeader(classReader, classType));
+  }
+
+  /**
+   * Reads the header, the annotations and the method declarations of the class file. The code of
+   * the methods is skipped, so this is much cheaper than creating the class source.
+   *
+   * @return the declaration or an empty Optional if the file does not contain the requested class
+   */
+  @Nonnull
+  public Optional<ClassDeclaration> createClassDeclaration(
+      @Nonnull Path sourcePath, @Nonnull ClassType classType) {
+    return readClass(sourcePath, classType)
+        .map(
+            classReader -> {
+              DeclarationVisitor visitor = new DeclarationVisitor(classType);
+              classReader.accept(
+                  visitor,
+                  ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+              return new ClassDeclaration(
+                  createClassHeader(classReader, classType), visitor.annotations, visitor.methods);
+            });
+  }
+
+  @Nonnull
+  private Optional<ClassReader> readClass(@Nonnull Path sourcePath, @Nonnull ClassType classType) {
+    final ClassReader classReader;
+    try {
+      classReader = new ClassReader(Files.readAllBytes(sourcePath));
+    } catch (IOException exception) {
+      logger.warn("ioe: " + sourcePath, exception);
+      return Optional.empty();
+    } catch (IllegalArgumentException exception) {
+      logger.warn("iae: " + sourcePath, exception);
+      return Optional.empty();
+    }
+
+    if (!isRequestedClass(classType, classReader.getClassName())
+        || (classType instanceof ModuleJavaClassType
+            && classType.getClassName().equals(JavaModuleIdentifierFactory.MODULE_INFO_FILE))) {
+      return Optional.empty();
     }
+    return Optional.of(classReader);
+  }
+
+  @Nonnull
+  private static ClassHeader createClassHeader(
+      @Nonnull ClassReader classReader, @Nonnull ClassType classType) {
+    final String superName = classReader.getSuperName();
+    return new ClassHeader(
+        classType,
+        Modifiers.getClassModifiers(classReader.getAccess()),
+        superName == null ? null : AsmUtil.toJimpleClassType(superName),
+        new HashSet<>(AsmUtil.asmIdToSignature(Arrays.asList(classReader.getInterfaces()))));
+  }
+
+  private static boolean isRequestedClass(
+      @Nonnull ClassType classType, @Nonnull String actualClassSignature) {
+    String requestedName = classType.getPackageName().getName();
+    String requestedFQClassName =
+        classType.getPackageName().getName()
+            + (requestedName.isEmpty() ? "" : ".")
+            + classType.getClassName();
+    String actualFQClassName = actualClassSignature.replace('/', '.');
+    return actualFQClassName.equals(requestedFQClassName);
   }
 
   @Override
@@ -101,13 +216,71 @@ public class AsmJavaClassProvider implements ClassProvider {
     return FileType.CLASS;
   }
 
+  /** Collects the annotations and the declarations of the methods of a class. */
+  private class DeclarationVisitor extends ClassVisitor {
+
+    @Nonnull private final ClassType classType;
+    @Nonnull private final Set<ClassType> annotations = new LinkedHashSet<>();
+    @Nonnull private final List<MethodDeclaration> methods = new ArrayList<>();
+
+    DeclarationVisitor(@Nonnull ClassType classType) {
+      super(AsmUtil.SUPPORTED_ASM_OPCODE);
+      this.classType = classType;
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+      annotations.add((ClassType) AsmUtil.toJimpleType(descriptor));
+      return null;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(
+        int access, String name, String descriptor, String signature, String[] exceptions) {
+      if ((access & Opcodes.ACC_SYNTHETIC) != 0) {
+        // e.g. bridge methods and the implementations of lambda expressions
+        return null;
+      }
+      List<Type> types = AsmUtil.toJimpleSignatureDesc(descriptor);
+      Type returnType = types.remove(types.size() - 1);
+      MethodSignature methodSignature =
+          view.getIdentifierFactory().getMethodSignature(classType, name, returnType, types);
+      Set<ClassType> methodAnnotations = new LinkedHashSet<>();
+      return new MethodVisitor(AsmUtil.SUPPORTED_ASM_OPCODE) {
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+          methodAnnotations.add((ClassType) AsmUtil.toJimpleType(descriptor));
+          return null;
+        }
+
+        @Override
+        public void visitEnd() {
+          methods.add(
+              new MethodDeclaration(
+                  methodSignature, Modifiers.getMethodModifiers(access), methodAnnotations));
+        }
+      };
+    }
+  }
+
   class SootClassNode extends ClassNode {
 
     private final AnalysisInputLocation analysisInputLocation;
+    @Nullable private final PersistentBodyCache bodyCache;
+    @Nullable private final PersistentBodyCache.ClassKey classKey;
 
     SootClassNode(AnalysisInputLocation analysisInputLocation) {
+      this(analysisInputLocation, null, null);
+    }
+
+    SootClassNode(
+        AnalysisInputLocation analysisInputLocation,
+        @Nullable PersistentBodyCache bodyCache,
+        @Nullable PersistentBodyCache.ClassKey classKey) {
       super(AsmUtil.SUPPORTED_ASM_OPCODE);
       this.analysisInputLocation = analysisInputLocation;
+      this.bodyCache = bodyCache;
+      this.classKey = classKey;
     }
 
     @Override
@@ -128,6 +301,9 @@ public class AsmJavaClassProvider implements ClassProvider {
               exceptions,
               view,
               analysisInputLocation.getBodyInterceptors());
+      if (bodyCache != null && classKey != null) {
+        mn.setPersistentBodyCache(bodyCache, classKey);
+      }
       methods.add(mn);
       return mn;
     }
@@ -115,6 +115,9 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   private final JavaIdentifierFactory identifierFactory;
   private final Supplier<MethodSignature> lazyMethodSignature;
 
+  @Nullable private PersistentBodyCache bodyCache;
+  @Nullable private PersistentBodyCache.ClassKey bodyCacheClassKey;
+
   AsmMethodSource(
       int access,
       @Nonnull String name,
@@ -148,6 +151,12 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     this.declaringClass = (JavaClassType) declaringClass;
   }
 
+  void setPersistentBodyCache(
+      @Nonnull PersistentBodyCache bodyCache, @Nonnull PersistentBodyCache.ClassKey classKey) {
+    this.bodyCache = bodyCache;
+    this.bodyCacheClassKey = classKey;
+  }
+
   StmtPositionInfo getStmtPositionInfo() {
     return currentLineNumber > 0
         ? new SimpleStmtPositionInfo(currentLineNumber)
@@ -157,6 +166,30 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   @Override
   @Nonnull
   public Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
+    if (bodyCache != null && bodyCacheClassKey != null) {
+      final Optional<Body> cachedBody =
+          bodyCache.load(
+              bodyCacheClassKey,
+              lazyMethodSignature.get(),
+              Modifiers.getMethodModifiers(access),
+              identifierFactory,
+              i ->
+                  AsmUtil.createAnnotationUsage(
+                      invisibleParameterAnnotations == null
+                          ? null
+                          : invisibleParameterAnnotations[i]));
+      if (cachedBody.isPresent()) {
+        return cachedBody.get();
+      }
+      final Body body = convertBody();
+      bodyCache.store(bodyCacheClassKey, body);
+      return body;
+    }
+    return convertBody();
+  }
+
+  @Nonnull
+  private Body convertBody() {
 
     /* initialize */
     nextLocal = maxLocals;
@@ -75,6 +75,14 @@ public final class AsmUtil {
     }
   }
 
+  /** Like {@link #initAsmClassSource(Path, ClassVisitor)} for already loaded class file contents. */
+  protected static String initAsmClassSource(
+      @Nonnull byte[] classBytes, @Nonnull ClassVisitor classNode) {
+    ClassReader clsr = new ClassReader(classBytes);
+    clsr.accept(classNode, ClassReader.SKIP_FRAMES);
+    return clsr.getClassName();
+  }
+
   /**
    * Determines if a type is a dword type.
    *
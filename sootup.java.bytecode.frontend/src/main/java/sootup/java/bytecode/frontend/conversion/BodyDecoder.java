@@ -0,0 +1,636 @@
+package sootup.java.bytecode.frontend.conversion;
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static sootup.java.bytecode.frontend.conversion.BodyEncoder.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.IntFunction;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.MethodModifier;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.types.*;
+import sootup.java.core.AnnotationUsage;
+import sootup.java.core.jimple.basic.JavaLocal;
+
+/**
+ * Restores a {@link Body} from the binary format written by the {@link BodyEncoder}.
+ *
+ * <p>Malformed or outdated input is reported via an {@link IllegalStateException} (or a {@link
+ * java.nio.BufferUnderflowException} for truncated input).
+ */
+final class BodyDecoder {
+
+  @Nonnull private final ByteBuffer in;
+  @Nonnull private final IdentifierFactory identifierFactory;
+  @Nonnull private final IntFunction<Iterable<AnnotationUsage>> parameterAnnotations;
+
+  private String[] strings;
+  private Local[] locals;
+
+  private BodyDecoder(
+      @Nonnull ByteBuffer in,
+      @Nonnull IdentifierFactory identifierFactory,
+      @Nonnull IntFunction<Iterable<AnnotationUsage>> parameterAnnotations) {
+    this.in = in;
+    this.identifierFactory = identifierFactory;
+    this.parameterAnnotations = parameterAnnotations;
+  }
+
+  /**
+   * @param in the encoded body
+   * @param signature the signature of the method whose body is expected
+   * @param modifiers the modifiers of that method
+   * @param identifierFactory creates the types and signatures referenced by the body
+   * @param parameterAnnotations provides the annotations of the parameter with the given index
+   */
+  @Nonnull
+  static Body decode(
+      @Nonnull ByteBuffer in,
+      @Nonnull MethodSignature signature,
+      @Nonnull Set<MethodModifier> modifiers,
+      @Nonnull IdentifierFactory identifierFactory,
+      @Nonnull IntFunction<Iterable<AnnotationUsage>> parameterAnnotations) {
+    return new BodyDecoder(in, identifierFactory, parameterAnnotations)
+        .decodeBody(signature, modifiers);
+  }
+
+  @Nonnull
+  private Body decodeBody(
+      @Nonnull MethodSignature signature, @Nonnull Set<MethodModifier> modifiers) {
+    if (in.getInt() != MAGIC) {
+      throw new IllegalStateException("not an encoded body");
+    }
+    final int version = readVarInt();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalStateException("unsupported format version " + version);
+    }
+    strings = new String[readVarInt()];
+    for (int i = 0; i < strings.length; i++) {
+      final char[] chars = new char[readVarInt()];
+      for (int j = 0; j < chars.length; j++) {
+        chars[j] = (char) readVarInt();
+      }
+      strings[i] = new String(chars);
+    }
+
+    final String encodedSignature = readString();
+    if (!encodedSignature.equals(signature.toString())) {
+      throw new IllegalStateException(
+          "encoded body belongs to " + encodedSignature + " instead of " + signature);
+    }
+    final Position position = readPosition();
+
+    locals = new Local[readVarInt()];
+    for (int i = 0; i < locals.length; i++) {
+      final String name = readString();
+      final Type type = readType();
+      final int kind = in.get();
+      switch (kind) {
+        case LOCAL_PLAIN:
+          locals[i] = new Local(name, type);
+          break;
+        case LOCAL_JAVA:
+          locals[i] = new JavaLocal(name, type, Collections.emptyList());
+          break;
+        case LOCAL_ANNOTATED_PARAMETER:
+          locals[i] = new JavaLocal(name, type, parameterAnnotations.apply(readVarInt()));
+          break;
+        default:
+          throw new IllegalStateException("unknown Local kind " + kind);
+      }
+    }
+
+    final Stmt[] stmts = new Stmt[readVarInt()];
+    final boolean[] blockStarts = new boolean[stmts.length];
+    final int[][] branchTargets = new int[stmts.length][];
+    for (int i = 0; i < stmts.length; i++) {
+      blockStarts[i] = in.get() != 0;
+      stmts[i] = readStmt();
+      if (stmts[i] instanceof BranchingStmt) {
+        final int[] targets = new int[readVarInt()];
+        for (int j = 0; j < targets.length; j++) {
+          targets[j] = readVarInt();
+        }
+        branchTargets[i] = targets;
+      }
+    }
+    final int blockCount = readVarInt();
+
+    final int trapCount = readVarInt();
+    final List<Trap> traps = new ArrayList<>(trapCount);
+    for (int i = 0; i < trapCount; i++) {
+      final ClassType exceptionType = (ClassType) readType();
+      traps.add(
+          Jimple.newTrap(
+              exceptionType,
+              stmts[readVarInt()],
+              stmts[readVarInt()],
+              stmts[readVarInt()]));
+    }
+
+    // rebuild the StmtGraph
+    final List<List<Stmt>> blocks = new ArrayList<>(blockCount);
+    final Map<BranchingStmt, List<Stmt>> successorMap = new HashMap<>();
+    List<Stmt> block = null;
+    for (int i = 0; i < stmts.length; i++) {
+      if (blockStarts[i]) {
+        block = new ArrayList<>();
+        blocks.add(block);
+      }
+      if (block == null) {
+        throw new IllegalStateException("first Stmt does not start a block");
+      }
+      block.add(stmts[i]);
+      if (branchTargets[i] != null) {
+        final List<Stmt> targets = new ArrayList<>(branchTargets[i].length);
+        for (int targetIdx : branchTargets[i]) {
+          targets.add(stmts[targetIdx]);
+        }
+        successorMap.put((BranchingStmt) stmts[i], targets);
+      }
+    }
+    if (blocks.size() != blockCount) {
+      throw new IllegalStateException("block count mismatch");
+    }
+
+    final MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(blocks, successorMap, traps);
+    return Body.builder(graph)
+        .setMethodSignature(signature)
+        .setModifiers(modifiers)
+        .setLocals(new LinkedHashSet<>(Arrays.asList(locals)))
+        .setPosition(position)
+        .build();
+  }
+
+  private int readVarInt() {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      final byte b = in.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("malformed variable length int");
+  }
+
+  private int readSignedVarInt() {
+    final int zigzag = readVarInt();
+    return (zigzag >>> 1) ^ -(zigzag & 1);
+  }
+
+  private long readSignedVarLong() {
+    long zigzag = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      final byte b = in.get();
+      zigzag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+      }
+    }
+    throw new IllegalStateException("malformed variable length long");
+  }
+
+  @Nonnull
+  private String readString() {
+    return strings[readVarInt()];
+  }
+
+  @Nonnull
+  private Position readPosition() {
+    final int tag = in.get();
+    switch (tag) {
+      case POSITION_NONE:
+        return NoPositionInformation.getInstance();
+      case POSITION_FULL:
+        return new FullPosition(
+            readSignedVarInt(), readSignedVarInt(), readSignedVarInt(), readSignedVarInt());
+      default:
+        throw new IllegalStateException("unknown Position tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private StmtPositionInfo readStmtPositionInfo() {
+    final int tag = in.get();
+    switch (tag) {
+      case POSITION_NONE:
+        return StmtPositionInfo.getNoStmtPositionInfo();
+      case POSITION_LINE:
+        return new SimpleStmtPositionInfo(readSignedVarInt());
+      default:
+        throw new IllegalStateException("unknown StmtPositionInfo tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private Type readType() {
+    final int tag = in.get();
+    switch (tag) {
+      case TYPE_BOOLEAN:
+        return PrimitiveType.getBoolean();
+      case TYPE_BYTE:
+        return PrimitiveType.getByte();
+      case TYPE_CHAR:
+        return PrimitiveType.getChar();
+      case TYPE_SHORT:
+        return PrimitiveType.getShort();
+      case TYPE_INT:
+        return PrimitiveType.getInt();
+      case TYPE_LONG:
+        return PrimitiveType.getLong();
+      case TYPE_FLOAT:
+        return PrimitiveType.getFloat();
+      case TYPE_DOUBLE:
+        return PrimitiveType.getDouble();
+      case TYPE_VOID:
+        return VoidType.getInstance();
+      case TYPE_NULL:
+        return NullType.getInstance();
+      case TYPE_UNKNOWN:
+        return UnknownType.getInstance();
+      case TYPE_CLASS:
+        return identifierFactory.getClassType(readString());
+      case TYPE_ARRAY:
+        final Type baseType = readType();
+        return identifierFactory.getArrayType(baseType, readVarInt());
+      default:
+        throw new IllegalStateException("unknown Type tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private List<Type> readTypes() {
+    final int count = readVarInt();
+    final List<Type> types = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      types.add(readType());
+    }
+    return types;
+  }
+
+  @Nonnull
+  private MethodSignature readMethodSignature() {
+    final ClassType declaringClass = (ClassType) readType();
+    return identifierFactory.getMethodSignature(declaringClass, readMethodSubSignature());
+  }
+
+  @Nonnull
+  private MethodSubSignature readMethodSubSignature() {
+    final String name = readString();
+    final Type returnType = readType();
+    return identifierFactory.getMethodSubSignature(name, returnType, readTypes());
+  }
+
+  @Nonnull
+  private FieldSignature readFieldSignature() {
+    final ClassType declaringClass = (ClassType) readType();
+    final String name = readString();
+    return identifierFactory.getFieldSignature(name, declaringClass, readType());
+  }
+
+  @Nonnull
+  private Local readLocal() {
+    final int tag = in.get();
+    if (tag != VAL_LOCAL) {
+      throw new IllegalStateException("expected a Local but found tag " + tag);
+    }
+    return locals[readVarInt()];
+  }
+
+  @Nonnull
+  private Immediate readImmediate() {
+    return (Immediate) readValue();
+  }
+
+  @Nonnull
+  private List<Immediate> readImmediates() {
+    final int count = readVarInt();
+    final List<Immediate> immediates = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      immediates.add(readImmediate());
+    }
+    return immediates;
+  }
+
+  @Nonnull
+  private Value readValue() {
+    final int tag = in.get();
+    switch (tag) {
+      case VAL_LOCAL:
+        return locals[readVarInt()];
+      case VAL_INT:
+        return IntConstant.getInstance(readSignedVarInt());
+      case VAL_LONG:
+        return LongConstant.getInstance(readSignedVarLong());
+      case VAL_FLOAT:
+        return FloatConstant.getInstance(Float.intBitsToFloat(in.getInt()));
+      case VAL_DOUBLE:
+        return DoubleConstant.getInstance(Double.longBitsToDouble(in.getLong()));
+      case VAL_NULL:
+        return NullConstant.getInstance();
+      case VAL_STRING:
+        {
+          final String value = readString();
+          return new StringConstant(value, readType());
+        }
+      case VAL_CLASS:
+        {
+          final String value = readString();
+          return new ClassConstant(value, readType());
+        }
+      case VAL_BOOLEAN:
+        return BooleanConstant.getInstance(in.get() != 0);
+      case VAL_ENUM:
+        {
+          final String value = readString();
+          return new EnumConstant(value, (ClassType) readType());
+        }
+      case VAL_METHOD_HANDLE:
+        {
+          final MethodHandle.Kind kind = MethodHandle.Kind.getKind(readVarInt());
+          if (MethodHandle.isMethodRef(kind.getValue())) {
+            final MethodSignature ref = readMethodSignature();
+            return new MethodHandle(ref, kind, readType());
+          }
+          final FieldSignature ref = readFieldSignature();
+          return new MethodHandle(ref, kind, readType());
+        }
+      case VAL_METHOD_TYPE:
+        {
+          final MethodSubSignature subSignature = readMethodSubSignature();
+          return new MethodType(subSignature, (ClassType) readType());
+        }
+      case VAL_THIS_REF:
+        return new JThisRef((ClassType) readType());
+      case VAL_PARAMETER_REF:
+        {
+          final Type type = readType();
+          return new JParameterRef(type, readVarInt());
+        }
+      case VAL_CAUGHT_EXCEPTION_REF:
+        return new JCaughtExceptionRef(readType());
+      case VAL_STATIC_FIELD_REF:
+        return new JStaticFieldRef(readFieldSignature());
+      case VAL_INSTANCE_FIELD_REF:
+        {
+          final Local base = readLocal();
+          return new JInstanceFieldRef(base, readFieldSignature());
+        }
+      case VAL_ARRAY_REF:
+        {
+          final Local base = readLocal();
+          return new JArrayRef(base, readImmediate());
+        }
+      case VAL_ADD:
+      case VAL_AND:
+      case VAL_CMP:
+      case VAL_CMPG:
+      case VAL_CMPL:
+      case VAL_DIV:
+      case VAL_EQ:
+      case VAL_NE:
+      case VAL_GE:
+      case VAL_GT:
+      case VAL_LE:
+      case VAL_LT:
+      case VAL_MUL:
+      case VAL_OR:
+      case VAL_REM:
+      case VAL_SHL:
+      case VAL_SHR:
+      case VAL_USHR:
+      case VAL_SUB:
+      case VAL_XOR:
+        {
+          final Immediate op1 = readImmediate();
+          return newBinopExpr(tag, op1, readImmediate());
+        }
+      case VAL_NEG:
+        return Jimple.newNegExpr(readImmediate());
+      case VAL_LENGTH:
+        return Jimple.newLengthExpr(readImmediate());
+      case VAL_CAST:
+        {
+          final Immediate op = readImmediate();
+          return Jimple.newCastExpr(op, readType());
+        }
+      case VAL_INSTANCE_OF:
+        {
+          final Immediate op = readImmediate();
+          return Jimple.newInstanceOfExpr(op, readType());
+        }
+      case VAL_NEW:
+        return Jimple.newNewExpr((ClassType) readType());
+      case VAL_NEW_ARRAY:
+        {
+          final Type baseType = readType();
+          return new JNewArrayExpr(baseType, readImmediate(), identifierFactory);
+        }
+      case VAL_NEW_MULTI_ARRAY:
+        {
+          final ArrayType baseType = (ArrayType) readType();
+          return Jimple.newNewMultiArrayExpr(baseType, readImmediates());
+        }
+      case VAL_SPECIAL_INVOKE:
+        {
+          final Local base = readLocal();
+          final MethodSignature method = readMethodSignature();
+          return Jimple.newSpecialInvokeExpr(base, method, readImmediates());
+        }
+      case VAL_VIRTUAL_INVOKE:
+        {
+          final Local base = readLocal();
+          final MethodSignature method = readMethodSignature();
+          return Jimple.newVirtualInvokeExpr(base, method, readImmediates());
+        }
+      case VAL_INTERFACE_INVOKE:
+        {
+          final Local base = readLocal();
+          final MethodSignature method = readMethodSignature();
+          return Jimple.newInterfaceInvokeExpr(base, method, readImmediates());
+        }
+      case VAL_STATIC_INVOKE:
+        {
+          final MethodSignature method = readMethodSignature();
+          return Jimple.newStaticInvokeExpr(method, readImmediates());
+        }
+      case VAL_DYNAMIC_INVOKE:
+        {
+          final MethodSignature bootstrapMethod = readMethodSignature();
+          final List<Immediate> bootstrapArgs = readImmediates();
+          final MethodSignature method = readMethodSignature();
+          final int handleTag = readSignedVarInt();
+          return Jimple.newDynamicInvokeExpr(
+              bootstrapMethod, bootstrapArgs, method, handleTag, readImmediates());
+        }
+      default:
+        throw new IllegalStateException("unknown Value tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private AbstractBinopExpr newBinopExpr(int tag, @Nonnull Immediate op1, @Nonnull Immediate op2) {
+    switch (tag) {
+      case VAL_ADD:
+        return Jimple.newAddExpr(op1, op2);
+      case VAL_AND:
+        return Jimple.newAndExpr(op1, op2);
+      case VAL_CMP:
+        return Jimple.newCmpExpr(op1, op2);
+      case VAL_CMPG:
+        return Jimple.newCmpgExpr(op1, op2);
+      case VAL_CMPL:
+        return Jimple.newCmplExpr(op1, op2);
+      case VAL_DIV:
+        return Jimple.newDivExpr(op1, op2);
+      case VAL_EQ:
+        return Jimple.newEqExpr(op1, op2);
+      case VAL_NE:
+        return Jimple.newNeExpr(op1, op2);
+      case VAL_GE:
+        return Jimple.newGeExpr(op1, op2);
+      case VAL_GT:
+        return Jimple.newGtExpr(op1, op2);
+      case VAL_LE:
+        return Jimple.newLeExpr(op1, op2);
+      case VAL_LT:
+        return Jimple.newLtExpr(op1, op2);
+      case VAL_MUL:
+        return Jimple.newMulExpr(op1, op2);
+      case VAL_OR:
+        return Jimple.newOrExpr(op1, op2);
+      case VAL_REM:
+        return Jimple.newRemExpr(op1, op2);
+      case VAL_SHL:
+        return Jimple.newShlExpr(op1, op2);
+      case VAL_SHR:
+        return Jimple.newShrExpr(op1, op2);
+      case VAL_USHR:
+        return Jimple.newUshrExpr(op1, op2);
+      case VAL_SUB:
+        return Jimple.newSubExpr(op1, op2);
+      case VAL_XOR:
+        return Jimple.newXorExpr(op1, op2);
+      default:
+        throw new IllegalStateException("unknown binary Expr tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private Stmt readStmt() {
+    final int tag = in.get();
+    switch (tag) {
+      case STMT_ASSIGN:
+        {
+          final LValue leftOp = (LValue) readValue();
+          final Value rightOp = readValue();
+          return Jimple.newAssignStmt(leftOp, rightOp, readStmtPositionInfo());
+        }
+      case STMT_IDENTITY:
+        {
+          final Local local = readLocal();
+          final IdentityRef ref = (IdentityRef) readValue();
+          return Jimple.newIdentityStmt(local, ref, readStmtPositionInfo());
+        }
+      case STMT_INVOKE:
+        {
+          final AbstractInvokeExpr expr = (AbstractInvokeExpr) readValue();
+          return Jimple.newInvokeStmt(expr, readStmtPositionInfo());
+        }
+      case STMT_IF:
+        {
+          final AbstractConditionExpr condition = (AbstractConditionExpr) readValue();
+          return Jimple.newIfStmt(condition, readStmtPositionInfo());
+        }
+      case STMT_GOTO:
+        return Jimple.newGotoStmt(readStmtPositionInfo());
+      case STMT_RETURN:
+        {
+          final Immediate op = readImmediate();
+          return Jimple.newReturnStmt(op, readStmtPositionInfo());
+        }
+      case STMT_RETURN_VOID:
+        return Jimple.newReturnVoidStmt(readStmtPositionInfo());
+      case STMT_THROW:
+        {
+          final Immediate op = readImmediate();
+          return Jimple.newThrowStmt(op, readStmtPositionInfo());
+        }
+      case STMT_TABLE_SWITCH:
+        {
+          final Immediate key = readImmediate();
+          final int lowIndex = readSignedVarInt();
+          final int highIndex = readSignedVarInt();
+          return Jimple.newTableSwitchStmt(key, lowIndex, highIndex, readStmtPositionInfo());
+        }
+      case STMT_LOOKUP_SWITCH:
+        {
+          final Immediate key = readImmediate();
+          final int count = readVarInt();
+          final List<IntConstant> values = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            values.add(IntConstant.getInstance(readSignedVarInt()));
+          }
+          return Jimple.newLookupSwitchStmt(key, values, readStmtPositionInfo());
+        }
+      case STMT_NOP:
+        return Jimple.newNopStmt(readStmtPositionInfo());
+      case STMT_ENTER_MONITOR:
+        {
+          final Immediate op = readImmediate();
+          return Jimple.newEnterMonitorStmt(op, readStmtPositionInfo());
+        }
+      case STMT_EXIT_MONITOR:
+        {
+          final Immediate op = readImmediate();
+          return Jimple.newExitMonitorStmt(op, readStmtPositionInfo());
+        }
+      case STMT_RET:
+        {
+          final Immediate stmtAddress = readImmediate();
+          return Jimple.newRetStmt(stmtAddress, readStmtPositionInfo());
+        }
+      case STMT_BREAKPOINT:
+        return Jimple.newBreakpointStmt(readStmtPositionInfo());
+      default:
+        throw new IllegalStateException("unknown Stmt tag " + tag);
+    }
+  }
+}
@@ -0,0 +1,718 @@
+package sootup.java.bytecode.frontend.conversion;
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.LinePosition;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.types.*;
+import sootup.java.core.jimple.basic.JavaLocal;
+import sootup.java.core.types.JavaClassType;
+
+/**
+ * Encodes a post-interceptor {@link Body} into the compact binary format that is stored by the
+ * {@link PersistentBodyCache} and restored by the {@link BodyDecoder}.
+ *
+ * <p>The format starts with a header (magic number, format version) and a string table; all names
+ * are referenced by their index into this table. Stmts are written in the order of {@link
+ * Body#getStmts()} and reference each other (branch targets, trap boundaries) by that index. All
+ * integers are written as variable length quantities.
+ *
+ * <p>Elements that can not be restored faithfully (e.g. phi expressions or types of other
+ * languages) are rejected with an {@link IllegalArgumentException} - such a body is just not
+ * cached.
+ */
+final class BodyEncoder {
+
+  static final int MAGIC = 0x53554243;
+  static final int FORMAT_VERSION = 1;
+
+  // type tags
+  static final int TYPE_BOOLEAN = 1;
+  static final int TYPE_BYTE = 2;
+  static final int TYPE_CHAR = 3;
+  static final int TYPE_SHORT = 4;
+  static final int TYPE_INT = 5;
+  static final int TYPE_LONG = 6;
+  static final int TYPE_FLOAT = 7;
+  static final int TYPE_DOUBLE = 8;
+  static final int TYPE_VOID = 9;
+  static final int TYPE_NULL = 10;
+  static final int TYPE_UNKNOWN = 11;
+  static final int TYPE_CLASS = 12;
+  static final int TYPE_ARRAY = 13;
+
+  // immediate tags
+  static final int VAL_LOCAL = 1;
+  static final int VAL_INT = 2;
+  static final int VAL_LONG = 3;
+  static final int VAL_FLOAT = 4;
+  static final int VAL_DOUBLE = 5;
+  static final int VAL_NULL = 6;
+  static final int VAL_STRING = 7;
+  static final int VAL_CLASS = 8;
+  static final int VAL_BOOLEAN = 9;
+  static final int VAL_ENUM = 10;
+  static final int VAL_METHOD_HANDLE = 11;
+  static final int VAL_METHOD_TYPE = 12;
+
+  // ref tags
+  static final int VAL_THIS_REF = 20;
+  static final int VAL_PARAMETER_REF = 21;
+  static final int VAL_CAUGHT_EXCEPTION_REF = 22;
+  static final int VAL_STATIC_FIELD_REF = 23;
+  static final int VAL_INSTANCE_FIELD_REF = 24;
+  static final int VAL_ARRAY_REF = 25;
+
+  // expr tags - binary expressions are numbered consecutively
+  static final int VAL_ADD = 30;
+  static final int VAL_AND = 31;
+  static final int VAL_CMP = 32;
+  static final int VAL_CMPG = 33;
+  static final int VAL_CMPL = 34;
+  static final int VAL_DIV = 35;
+  static final int VAL_EQ = 36;
+  static final int VAL_NE = 37;
+  static final int VAL_GE = 38;
+  static final int VAL_GT = 39;
+  static final int VAL_LE = 40;
+  static final int VAL_LT = 41;
+  static final int VAL_MUL = 42;
+  static final int VAL_OR = 43;
+  static final int VAL_REM = 44;
+  static final int VAL_SHL = 45;
+  static final int VAL_SHR = 46;
+  static final int VAL_USHR = 47;
+  static final int VAL_SUB = 48;
+  static final int VAL_XOR = 49;
+  static final int VAL_NEG = 50;
+  static final int VAL_LENGTH = 51;
+  static final int VAL_CAST = 52;
+  static final int VAL_INSTANCE_OF = 53;
+  static final int VAL_NEW = 54;
+  static final int VAL_NEW_ARRAY = 55;
+  static final int VAL_NEW_MULTI_ARRAY = 56;
+  static final int VAL_SPECIAL_INVOKE = 57;
+  static final int VAL_VIRTUAL_INVOKE = 58;
+  static final int VAL_INTERFACE_INVOKE = 59;
+  static final int VAL_STATIC_INVOKE = 60;
+  static final int VAL_DYNAMIC_INVOKE = 61;
+
+  // stmt tags
+  static final int STMT_NOP = 1;
+  static final int STMT_BREAKPOINT = 2;
+  static final int STMT_ASSIGN = 3;
+  static final int STMT_IDENTITY = 4;
+  static final int STMT_ENTER_MONITOR = 5;
+  static final int STMT_EXIT_MONITOR = 6;
+  static final int STMT_GOTO = 7;
+  static final int STMT_IF = 8;
+  static final int STMT_RET = 9;
+  static final int STMT_RETURN = 10;
+  static final int STMT_RETURN_VOID = 11;
+  static final int STMT_TABLE_SWITCH = 12;
+  static final int STMT_LOOKUP_SWITCH = 13;
+  static final int STMT_THROW = 14;
+  static final int STMT_INVOKE = 15;
+
+  // position tags
+  static final int POSITION_NONE = 0;
+  static final int POSITION_LINE = 1;
+  static final int POSITION_FULL = 2;
+
+  // local kinds
+  static final int LOCAL_PLAIN = 0;
+  static final int LOCAL_JAVA = 1;
+  /** a JavaLocal whose annotations are restored from the annotations of its parameter */
+  static final int LOCAL_ANNOTATED_PARAMETER = 2;
+
+  @Nonnull private final ByteSink out = new ByteSink();
+  @Nonnull private final Map<String, Integer> stringIndices = new HashMap<>();
+  @Nonnull private final List<String> strings = new ArrayList<>();
+  @Nonnull private final Map<String, Integer> localIndices = new HashMap<>();
+  @Nonnull private final List<Local> locals = new ArrayList<>();
+  @Nonnull private final Map<Stmt, Integer> stmtIndices = new IdentityHashMap<>();
+
+  private BodyEncoder() {}
+
+  /**
+   * @return the binary representation of the given body
+   * @throws IllegalArgumentException if the body contains elements that are not supported by the
+   *     format
+   */
+  @Nonnull
+  static byte[] encode(@Nonnull Body body) {
+    return new BodyEncoder().encodeBody(body);
+  }
+
+  @Nonnull
+  private byte[] encodeBody(@Nonnull Body body) {
+    final StmtGraph<?> graph = body.getStmtGraph();
+    final List<Stmt> stmts = body.getStmts();
+    for (int i = 0; i < stmts.size(); i++) {
+      stmtIndices.put(stmts.get(i), i);
+    }
+
+    writeString(body.getMethodSignature().toString());
+    writePosition(body.getPosition());
+
+    out.writeVarInt(body.getLocals().size());
+    for (Local local : body.getLocals()) {
+      localIndices.put(local.getName(), locals.size());
+      locals.add(local);
+      writeString(local.getName());
+      writeType(local.getType());
+      if (local.getClass() == Local.class) {
+        out.writeByte(LOCAL_PLAIN);
+      } else if (local.getClass() == JavaLocal.class) {
+        if (((JavaLocal) local).getAnnotations().iterator().hasNext()) {
+          out.writeByte(LOCAL_ANNOTATED_PARAMETER);
+          out.writeVarInt(findParameterIndex(stmts, local));
+        } else {
+          out.writeByte(LOCAL_JAVA);
+        }
+      } else {
+        throw new IllegalArgumentException("unsupported Local: " + local.getClass());
+      }
+    }
+
+    // stmts including their branch targets
+    out.writeVarInt(stmts.size());
+    final Collection<Stmt> labeledStmts = graph.getLabeledStmts();
+    int blockCount = 0;
+    Stmt previousStmt = null;
+    for (Stmt stmt : stmts) {
+      // mark where a new block needs to start when the graph is rebuilt
+      final boolean startsBlock =
+          previousStmt == null
+              || labeledStmts.contains(stmt)
+              || !(previousStmt instanceof FallsThroughStmt)
+              || previousStmt.branches();
+      out.writeByte(startsBlock ? 1 : 0);
+      if (startsBlock) {
+        blockCount++;
+      }
+      writeStmt(stmt);
+      if (stmt instanceof BranchingStmt) {
+        final List<Stmt> targets = graph.getBranchTargetsOf((BranchingStmt) stmt);
+        out.writeVarInt(targets.size());
+        for (Stmt target : targets) {
+          out.writeVarInt(indexOf(target));
+        }
+      }
+      previousStmt = stmt;
+    }
+    out.writeVarInt(blockCount);
+
+    final List<Trap> traps = body.getTraps();
+    out.writeVarInt(traps.size());
+    for (Trap trap : traps) {
+      writeType(trap.getExceptionType());
+      out.writeVarInt(indexOf(trap.getBeginStmt()));
+      out.writeVarInt(indexOf(trap.getEndStmt()));
+      out.writeVarInt(indexOf(trap.getHandlerStmt()));
+    }
+
+    // assemble: header, string table, payload
+    final ByteSink result = new ByteSink();
+    result.writeFixedInt(MAGIC);
+    result.writeVarInt(FORMAT_VERSION);
+    result.writeVarInt(strings.size());
+    for (String str : strings) {
+      result.writeVarInt(str.length());
+      for (int i = 0; i < str.length(); i++) {
+        result.writeVarInt(str.charAt(i));
+      }
+    }
+    out.writeTo(result);
+    return result.toByteArray();
+  }
+
+  private int findParameterIndex(@Nonnull List<Stmt> stmts, @Nonnull Local local) {
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof JIdentityStmt) {
+        final JIdentityStmt identityStmt = (JIdentityStmt) stmt;
+        if (identityStmt.getLeftOp() == local
+            && identityStmt.getRightOp() instanceof JParameterRef) {
+          return ((JParameterRef) identityStmt.getRightOp()).getIndex();
+        }
+      }
+    }
+    throw new IllegalArgumentException(
+        "annotated Local '" + local + "' is not assigned from a parameter");
+  }
+
+  private int indexOf(@Nonnull Stmt stmt) {
+    final Integer idx = stmtIndices.get(stmt);
+    if (idx == null) {
+      throw new IllegalArgumentException("Stmt '" + stmt + "' is not part of the body");
+    }
+    return idx;
+  }
+
+  private void writeString(@Nonnull String str) {
+    Integer idx = stringIndices.get(str);
+    if (idx == null) {
+      idx = strings.size();
+      strings.add(str);
+      stringIndices.put(str, idx);
+    }
+    out.writeVarInt(idx);
+  }
+
+  private void writePosition(@Nonnull Position position) {
+    if (position instanceof NoPositionInformation) {
+      out.writeByte(POSITION_NONE);
+    } else if (position.getClass() == FullPosition.class) {
+      out.writeByte(POSITION_FULL);
+      out.writeSignedVarInt(position.getFirstLine());
+      out.writeSignedVarInt(position.getFirstCol());
+      out.writeSignedVarInt(position.getLastLine());
+      out.writeSignedVarInt(position.getLastCol());
+    } else {
+      throw new IllegalArgumentException("unsupported Position: " + position.getClass());
+    }
+  }
+
+  private void writeStmtPositionInfo(@Nonnull StmtPositionInfo positionInfo) {
+    if (positionInfo == StmtPositionInfo.getNoStmtPositionInfo()) {
+      out.writeByte(POSITION_NONE);
+    } else if (positionInfo.getClass() == SimpleStmtPositionInfo.class
+        && positionInfo.getStmtPosition().getClass() == LinePosition.class) {
+      out.writeByte(POSITION_LINE);
+      out.writeSignedVarInt(positionInfo.getStmtPosition().getFirstLine());
+    } else {
+      throw new IllegalArgumentException(
+          "unsupported StmtPositionInfo: " + positionInfo.getClass());
+    }
+  }
+
+  private void writeType(@Nonnull Type type) {
+    if (type == PrimitiveType.getBoolean()) {
+      out.writeByte(TYPE_BOOLEAN);
+    } else if (type == PrimitiveType.getByte()) {
+      out.writeByte(TYPE_BYTE);
+    } else if (type == PrimitiveType.getChar()) {
+      out.writeByte(TYPE_CHAR);
+    } else if (type == PrimitiveType.getShort()) {
+      out.writeByte(TYPE_SHORT);
+    } else if (type == PrimitiveType.getInt()) {
+      out.writeByte(TYPE_INT);
+    } else if (type == PrimitiveType.getLong()) {
+      out.writeByte(TYPE_LONG);
+    } else if (type == PrimitiveType.getFloat()) {
+      out.writeByte(TYPE_FLOAT);
+    } else if (type == PrimitiveType.getDouble()) {
+      out.writeByte(TYPE_DOUBLE);
+    } else if (type == VoidType.getInstance()) {
+      out.writeByte(TYPE_VOID);
+    } else if (type == NullType.getInstance()) {
+      out.writeByte(TYPE_NULL);
+    } else if (type == UnknownType.getInstance()) {
+      out.writeByte(TYPE_UNKNOWN);
+    } else if (type.getClass() == JavaClassType.class) {
+      out.writeByte(TYPE_CLASS);
+      writeString(((JavaClassType) type).getFullyQualifiedName());
+    } else if (type.getClass() == ArrayType.class) {
+      final ArrayType arrayType = (ArrayType) type;
+      out.writeByte(TYPE_ARRAY);
+      writeType(arrayType.getBaseType());
+      out.writeVarInt(arrayType.getDimension());
+    } else {
+      throw new IllegalArgumentException("unsupported Type: " + type.getClass());
+    }
+  }
+
+  private void writeTypes(@Nonnull List<Type> types) {
+    out.writeVarInt(types.size());
+    for (Type type : types) {
+      writeType(type);
+    }
+  }
+
+  private void writeMethodSignature(@Nonnull MethodSignature signature) {
+    writeType(signature.getDeclClassType());
+    writeMethodSubSignature(signature.getSubSignature());
+  }
+
+  private void writeMethodSubSignature(@Nonnull MethodSubSignature subSignature) {
+    writeString(subSignature.getName());
+    writeType(subSignature.getType());
+    writeTypes(subSignature.getParameterTypes());
+  }
+
+  private void writeFieldSignature(@Nonnull FieldSignature signature) {
+    writeType(signature.getDeclClassType());
+    writeString(signature.getName());
+    writeType(signature.getType());
+  }
+
+  private void writeLocal(@Nonnull Local local) {
+    final Integer idx = localIndices.get(local.getName());
+    if (idx == null) {
+      throw new IllegalArgumentException("Local '" + local + "' is not declared in the body");
+    }
+    final Local declaredLocal = locals.get(idx);
+    if (declaredLocal != local
+        && (declaredLocal.getClass() != local.getClass()
+            || !declaredLocal.getType().equals(local.getType()))) {
+      throw new IllegalArgumentException("Local '" + local + "' differs from its declaration");
+    }
+    out.writeByte(VAL_LOCAL);
+    out.writeVarInt(idx);
+  }
+
+  private void writeImmediates(@Nonnull List<? extends Value> values) {
+    out.writeVarInt(values.size());
+    for (Value value : values) {
+      writeValue(value);
+    }
+  }
+
+  private void writeValue(@Nonnull Value value) {
+    if (value instanceof Local) {
+      writeLocal((Local) value);
+    } else if (value instanceof Constant) {
+      writeConstant((Constant) value);
+    } else if (value instanceof Ref) {
+      writeRef((Ref) value);
+    } else if (value instanceof AbstractInvokeExpr) {
+      writeInvokeExpr((AbstractInvokeExpr) value);
+    } else if (value instanceof AbstractBinopExpr) {
+      final AbstractBinopExpr binop = (AbstractBinopExpr) value;
+      out.writeByte(binopTag(binop));
+      writeValue(binop.getOp1());
+      writeValue(binop.getOp2());
+    } else if (value instanceof JNegExpr) {
+      out.writeByte(VAL_NEG);
+      writeValue(((JNegExpr) value).getOp());
+    } else if (value instanceof JLengthExpr) {
+      out.writeByte(VAL_LENGTH);
+      writeValue(((JLengthExpr) value).getOp());
+    } else if (value instanceof JCastExpr) {
+      final JCastExpr expr = (JCastExpr) value;
+      out.writeByte(VAL_CAST);
+      writeValue(expr.getOp());
+      writeType(expr.getType());
+    } else if (value instanceof JInstanceOfExpr) {
+      final JInstanceOfExpr expr = (JInstanceOfExpr) value;
+      out.writeByte(VAL_INSTANCE_OF);
+      writeValue(expr.getOp());
+      writeType(expr.getCheckType());
+    } else if (value instanceof JNewExpr) {
+      out.writeByte(VAL_NEW);
+      writeType(((JNewExpr) value).getType());
+    } else if (value instanceof JNewArrayExpr) {
+      final JNewArrayExpr expr = (JNewArrayExpr) value;
+      out.writeByte(VAL_NEW_ARRAY);
+      writeType(expr.getBaseType());
+      writeValue(expr.getSize());
+    } else if (value instanceof JNewMultiArrayExpr) {
+      final JNewMultiArrayExpr expr = (JNewMultiArrayExpr) value;
+      out.writeByte(VAL_NEW_MULTI_ARRAY);
+      writeType(expr.getBaseType());
+      writeImmediates(expr.getSizes());
+    } else {
+      throw new IllegalArgumentException("unsupported Value: " + value.getClass());
+    }
+  }
+
+  private int binopTag(@Nonnull AbstractBinopExpr expr) {
+    if (expr instanceof JAddExpr) {
+      return VAL_ADD;
+    } else if (expr instanceof JAndExpr) {
+      return VAL_AND;
+    } else if (expr instanceof JCmpExpr) {
+      return VAL_CMP;
+    } else if (expr instanceof JCmpgExpr) {
+      return VAL_CMPG;
+    } else if (expr instanceof JCmplExpr) {
+      return VAL_CMPL;
+    } else if (expr instanceof JDivExpr) {
+      return VAL_DIV;
+    } else if (expr instanceof JEqExpr) {
+      return VAL_EQ;
+    } else if (expr instanceof JNeExpr) {
+      return VAL_NE;
+    } else if (expr instanceof JGeExpr) {
+      return VAL_GE;
+    } else if (expr instanceof JGtExpr) {
+      return VAL_GT;
+    } else if (expr instanceof JLeExpr) {
+      return VAL_LE;
+    } else if (expr instanceof JLtExpr) {
+      return VAL_LT;
+    } else if (expr instanceof JMulExpr) {
+      return VAL_MUL;
+    } else if (expr instanceof JOrExpr) {
+      return VAL_OR;
+    } else if (expr instanceof JRemExpr) {
+      return VAL_REM;
+    } else if (expr instanceof JShlExpr) {
+      return VAL_SHL;
+    } else if (expr instanceof JShrExpr) {
+      return VAL_SHR;
+    } else if (expr instanceof JUshrExpr) {
+      return VAL_USHR;
+    } else if (expr instanceof JSubExpr) {
+      return VAL_SUB;
+    } else if (expr instanceof JXorExpr) {
+      return VAL_XOR;
+    }
+    throw new IllegalArgumentException("unsupported Expr: " + expr.getClass());
+  }
+
+  private void writeConstant(@Nonnull Constant constant) {
+    if (constant instanceof BooleanConstant) {
+      out.writeByte(VAL_BOOLEAN);
+      out.writeByte(constant == BooleanConstant.getTrue() ? 1 : 0);
+    } else if (constant.getClass() == IntConstant.class) {
+      out.writeByte(VAL_INT);
+      out.writeSignedVarInt(((IntConstant) constant).getValue());
+    } else if (constant.getClass() == LongConstant.class) {
+      out.writeByte(VAL_LONG);
+      out.writeSignedVarLong(((LongConstant) constant).getValue());
+    } else if (constant.getClass() == FloatConstant.class) {
+      out.writeByte(VAL_FLOAT);
+      out.writeFixedInt(Float.floatToRawIntBits(((FloatConstant) constant).getValue()));
+    } else if (constant.getClass() == DoubleConstant.class) {
+      out.writeByte(VAL_DOUBLE);
+      out.writeFixedLong(Double.doubleToRawLongBits(((DoubleConstant) constant).getValue()));
+    } else if (constant == NullConstant.getInstance()) {
+      out.writeByte(VAL_NULL);
+    } else if (constant.getClass() == StringConstant.class) {
+      out.writeByte(VAL_STRING);
+      writeString(((StringConstant) constant).getValue());
+      writeType(constant.getType());
+    } else if (constant.getClass() == ClassConstant.class) {
+      out.writeByte(VAL_CLASS);
+      writeString(((ClassConstant) constant).getValue());
+      writeType(constant.getType());
+    } else if (constant.getClass() == EnumConstant.class) {
+      out.writeByte(VAL_ENUM);
+      writeString(((EnumConstant) constant).getValue());
+      writeType(constant.getType());
+    } else if (constant.getClass() == MethodHandle.class) {
+      final MethodHandle handle = (MethodHandle) constant;
+      out.writeByte(VAL_METHOD_HANDLE);
+      out.writeVarInt(handle.getKind().getValue());
+      if (handle.isMethodRef()) {
+        writeMethodSignature((MethodSignature) handle.getReferenceSignature());
+      } else {
+        writeFieldSignature((FieldSignature) handle.getReferenceSignature());
+      }
+      writeType(handle.getType());
+    } else if (constant.getClass() == MethodType.class) {
+      final MethodType methodType = (MethodType) constant;
+      out.writeByte(VAL_METHOD_TYPE);
+      writeMethodSubSignature(methodType.getSubSignature());
+      writeType(methodType.getType());
+    } else {
+      throw new IllegalArgumentException("unsupported Constant: " + constant.getClass());
+    }
+  }
+
+  private void writeRef(@Nonnull Ref ref) {
+    if (ref instanceof JThisRef) {
+      out.writeByte(VAL_THIS_REF);
+      writeType(ref.getType());
+    } else if (ref instanceof JParameterRef) {
+      out.writeByte(VAL_PARAMETER_REF);
+      writeType(ref.getType());
+      out.writeVarInt(((JParameterRef) ref).getIndex());
+    } else if (ref instanceof JCaughtExceptionRef) {
+      out.writeByte(VAL_CAUGHT_EXCEPTION_REF);
+      writeType(ref.getType());
+    } else if (ref instanceof JStaticFieldRef) {
+      out.writeByte(VAL_STATIC_FIELD_REF);
+      writeFieldSignature(((JStaticFieldRef) ref).getFieldSignature());
+    } else if (ref instanceof JInstanceFieldRef) {
+      final JInstanceFieldRef fieldRef = (JInstanceFieldRef) ref;
+      out.writeByte(VAL_INSTANCE_FIELD_REF);
+      writeLocal(fieldRef.getBase());
+      writeFieldSignature(fieldRef.getFieldSignature());
+    } else if (ref instanceof JArrayRef) {
+      final JArrayRef arrayRef = (JArrayRef) ref;
+      out.writeByte(VAL_ARRAY_REF);
+      writeLocal(arrayRef.getBase());
+      writeValue(arrayRef.getIndex());
+    } else {
+      throw new IllegalArgumentException("unsupported Ref: " + ref.getClass());
+    }
+  }
+
+  private void writeInvokeExpr(@Nonnull AbstractInvokeExpr expr) {
+    if (expr instanceof JDynamicInvokeExpr) {
+      final JDynamicInvokeExpr dynamicExpr = (JDynamicInvokeExpr) expr;
+      out.writeByte(VAL_DYNAMIC_INVOKE);
+      writeMethodSignature(dynamicExpr.getBootstrapMethodSignature());
+      writeImmediates(dynamicExpr.getBootstrapArgs());
+      writeMethodSignature(dynamicExpr.getMethodSignature());
+      out.writeSignedVarInt(dynamicExpr.getHandleTag());
+      writeImmediates(dynamicExpr.getArgs());
+      return;
+    }
+
+    if (expr instanceof JStaticInvokeExpr) {
+      out.writeByte(VAL_STATIC_INVOKE);
+    } else {
+      if (expr instanceof JSpecialInvokeExpr) {
+        out.writeByte(VAL_SPECIAL_INVOKE);
+      } else if (expr instanceof JVirtualInvokeExpr) {
+        out.writeByte(VAL_VIRTUAL_INVOKE);
+      } else if (expr instanceof JInterfaceInvokeExpr) {
+        out.writeByte(VAL_INTERFACE_INVOKE);
+      } else {
+        throw new IllegalArgumentException("unsupported InvokeExpr: " + expr.getClass());
+      }
+      writeLocal(((AbstractInstanceInvokeExpr) expr).getBase());
+    }
+    writeMethodSignature(expr.getMethodSignature());
+    writeImmediates(expr.getArgs());
+  }
+
+  private void writeStmt(@Nonnull Stmt stmt) {
+    if (stmt instanceof JAssignStmt) {
+      final JAssignStmt assignStmt = (JAssignStmt) stmt;
+      out.writeByte(STMT_ASSIGN);
+      writeValue(assignStmt.getLeftOp());
+      writeValue(assignStmt.getRightOp());
+    } else if (stmt instanceof JIdentityStmt) {
+      final JIdentityStmt identityStmt = (JIdentityStmt) stmt;
+      out.writeByte(STMT_IDENTITY);
+      writeLocal(identityStmt.getLeftOp());
+      writeRef(identityStmt.getRightOp());
+    } else if (stmt instanceof JInvokeStmt) {
+      out.writeByte(STMT_INVOKE);
+      writeInvokeExpr(((JInvokeStmt) stmt).getInvokeExpr().get());
+    } else if (stmt instanceof JIfStmt) {
+      out.writeByte(STMT_IF);
+      writeValue(((JIfStmt) stmt).getCondition());
+    } else if (stmt instanceof JGotoStmt) {
+      out.writeByte(STMT_GOTO);
+    } else if (stmt instanceof JReturnStmt) {
+      out.writeByte(STMT_RETURN);
+      writeValue(((JReturnStmt) stmt).getOp());
+    } else if (stmt instanceof JReturnVoidStmt) {
+      out.writeByte(STMT_RETURN_VOID);
+    } else if (stmt instanceof JThrowStmt) {
+      out.writeByte(STMT_THROW);
+      writeValue(((JThrowStmt) stmt).getOp());
+    } else if (stmt instanceof JSwitchStmt) {
+      final JSwitchStmt switchStmt = (JSwitchStmt) stmt;
+      final List<IntConstant> values = switchStmt.getValues();
+      if (switchStmt.isTableSwitch()) {
+        out.writeByte(STMT_TABLE_SWITCH);
+        writeValue(switchStmt.getKey());
+        out.writeSignedVarInt(values.get(0).getValue());
+        out.writeSignedVarInt(values.get(values.size() - 1).getValue());
+      } else {
+        out.writeByte(STMT_LOOKUP_SWITCH);
+        writeValue(switchStmt.getKey());
+        out.writeVarInt(values.size());
+        for (IntConstant value : values) {
+          out.writeSignedVarInt(value.getValue());
+        }
+      }
+    } else if (stmt instanceof JNopStmt) {
+      out.writeByte(STMT_NOP);
+    } else if (stmt instanceof JEnterMonitorStmt) {
+      out.writeByte(STMT_ENTER_MONITOR);
+      writeValue(((JEnterMonitorStmt) stmt).getOp());
+    } else if (stmt instanceof JExitMonitorStmt) {
+      out.writeByte(STMT_EXIT_MONITOR);
+      writeValue(((JExitMonitorStmt) stmt).getOp());
+    } else if (stmt instanceof JRetStmt) {
+      out.writeByte(STMT_RET);
+      writeValue(((JRetStmt) stmt).getStmtAddress());
+    } else if (stmt instanceof JBreakpointStmt) {
+      out.writeByte(STMT_BREAKPOINT);
+    } else {
+      throw new IllegalArgumentException("unsupported Stmt: " + stmt.getClass());
+    }
+    writeStmtPositionInfo(stmt.getPositionInfo());
+  }
+
+  /** a growable byte buffer that writes variable length quantities */
+  static final class ByteSink extends ByteArrayOutputStream {
+
+    ByteSink() {
+      super(256);
+    }
+
+    void writeByte(int value) {
+      write(value);
+    }
+
+    void writeVarInt(int value) {
+      while ((value & ~0x7F) != 0) {
+        write((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      write(value);
+    }
+
+    void writeSignedVarInt(int value) {
+      // zigzag encoding keeps small negative numbers short
+      writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeSignedVarLong(long value) {
+      long zigzag = (value << 1) ^ (value >> 63);
+      while ((zigzag & ~0x7FL) != 0) {
+        write((int) ((zigzag & 0x7F) | 0x80));
+        zigzag >>>= 7;
+      }
+      write((int) zigzag);
+    }
+
+    void writeFixedInt(int value) {
+      write(value >>> 24);
+      write(value >>> 16);
+      write(value >>> 8);
+      write(value);
+    }
+
+    void writeFixedLong(long value) {
+      writeFixedInt((int) (value >>> 32));
+      writeFixedInt((int) value);
+    }
+
+    void writeTo(@Nonnull ByteSink other) {
+      other.write(buf, 0, count);
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package sootup.java.bytecode.frontend.conversion;
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+
+/**
+ * Fingerprints the classes a class depends on. Interceptors like the TypeAssigner consult the
+ * hierarchy of the types that are referenced by a body, so a body they produced is only valid as
+ * long as none of these types and none of their supertypes changed. Other classes of the view do
+ * not influence the body, hence changing them keeps the cached bodies valid.
+ */
+final class DependencyFingerprint {
+
+  /** marks a dependency that is not contained in the view */
+  private static final HashCode ABSENT = HashCode.fromInt(0);
+
+  /** the dependencies of each class are resolved and hashed once per view */
+  @Nonnull
+  private final Map<View, Map<ClassType, Optional<Dependency>>> dependencies =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * Collects the types that are referenced by the class file, i.e. the classes of its constant pool
+   * and the types of the fields and methods it declares, accesses or invokes.
+   */
+  @Nonnull
+  static Set<ClassType> collectReferencedTypes(@Nonnull byte[] classBytes) {
+    final Set<ClassType> referencedTypes = new HashSet<>();
+    final ClassReader classReader = new ClassReader(classBytes);
+    final char[] buffer = new char[classReader.getMaxStringLength()];
+    for (int item = 1; item < classReader.getItemCount(); item++) {
+      final int offset = classReader.getItem(item);
+      if (offset == 0) {
+        // the second slot of a long or double constant
+        continue;
+      }
+      switch (classBytes[offset - 1]) {
+        case 7: // CONSTANT_Class
+          addType(referencedTypes, Type.getObjectType(classReader.readUTF8(offset, buffer)));
+          break;
+        case 12: // CONSTANT_NameAndType
+          addType(referencedTypes, Type.getType(classReader.readUTF8(offset + 2, buffer)));
+          break;
+        case 16: // CONSTANT_MethodType
+          addType(referencedTypes, Type.getType(classReader.readUTF8(offset, buffer)));
+          break;
+        default:
+          break;
+      }
+    }
+    classReader.accept(
+        new ClassVisitor(AsmUtil.SUPPORTED_ASM_OPCODE) {
+          @Override
+          public FieldVisitor visitField(
+              int access, String name, String descriptor, String signature, Object value) {
+            addType(referencedTypes, Type.getType(descriptor));
+            return null;
+          }
+
+          @Override
+          public MethodVisitor visitMethod(
+              int access, String name, String descriptor, String signature, String[] exceptions) {
+            addType(referencedTypes, Type.getMethodType(descriptor));
+            return null;
+          }
+        },
+        ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    return referencedTypes;
+  }
+
+  private static void addType(@Nonnull Set<ClassType> types, @Nonnull Type type) {
+    switch (type.getSort()) {
+      case Type.OBJECT:
+        types.add(AsmUtil.toJimpleClassType(type.getInternalName()));
+        break;
+      case Type.ARRAY:
+        addType(types, type.getElementType());
+        break;
+      case Type.METHOD:
+        for (Type argumentType : type.getArgumentTypes()) {
+          addType(types, argumentType);
+        }
+        addType(types, type.getReturnType());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * @param referencedTypes the types referenced by a class, see {@link #collectReferencedTypes}
+   * @return a fingerprint of the class files of the referenced types and all of their supertypes in
+   *     the view or an empty Optional if the source file of one of them can not be read
+   */
+  @Nonnull
+  Optional<HashCode> of(@Nonnull View view, @Nonnull Set<ClassType> referencedTypes) {
+    final Map<ClassType, Optional<Dependency>> viewDependencies =
+        dependencies.computeIfAbsent(view, v -> new ConcurrentHashMap<>());
+
+    final List<Dependency> closure = new ArrayList<>();
+    final Set<ClassType> visited = new HashSet<>(referencedTypes);
+    final Deque<ClassType> worklist = new ArrayDeque<>(referencedTypes);
+    while (!worklist.isEmpty()) {
+      final ClassType type = worklist.poll();
+      Optional<Dependency> dependency = viewDependencies.get(type);
+      if (dependency == null) {
+        // resolving the class must not happen while the map is locked
+        dependency = Dependency.of(view, type);
+        viewDependencies.putIfAbsent(type, dependency);
+      }
+      if (!dependency.isPresent()) {
+        return Optional.empty();
+      }
+      closure.add(dependency.get());
+      for (ClassType superType : dependency.get().superTypes) {
+        if (visited.add(superType)) {
+          worklist.add(superType);
+        }
+      }
+    }
+
+    closure.sort(Comparator.comparing(dependency -> dependency.name));
+    final Hasher hasher = Hashing.sha256().newHasher();
+    for (Dependency dependency : closure) {
+      hasher.putString(dependency.name, StandardCharsets.UTF_8);
+      hasher.putBytes(dependency.hash.asBytes());
+    }
+    return Optional.of(hasher.hash());
+  }
+
+  /** A class of the view with the hash of its class file and its direct supertypes. */
+  private static final class Dependency {
+
+    @Nonnull private final String name;
+    @Nonnull private final HashCode hash;
+    @Nonnull private final List<ClassType> superTypes;
+
+    private Dependency(
+        @Nonnull String name, @Nonnull HashCode hash, @Nonnull List<ClassType> superTypes) {
+      this.name = name;
+      this.hash = hash;
+      this.superTypes = superTypes;
+    }
+
+    @Nonnull
+    static Optional<Dependency> of(@Nonnull View view, @Nonnull ClassType type) {
+      final String name = type.getFullyQualifiedName();
+      final Optional<? extends SootClass> sootClass = view.getClass(type);
+      if (!sootClass.isPresent()) {
+        return Optional.of(new Dependency(name, ABSENT, Collections.emptyList()));
+      }
+      final HashCode hash;
+      try {
+        final Path sourcePath = sootClass.get().getClassSource().getSourcePath();
+        hash = Hashing.sha256().hashBytes(Files.readAllBytes(sourcePath));
+      } catch (IOException e) {
+        return Optional.empty();
+      }
+      final List<ClassType> superTypes = new ArrayList<>(sootClass.get().getInterfaces());
+      sootClass.get().getSuperclass().ifPresent(superTypes::add);
+      return Optional.of(new Dependency(name, hash, superTypes));
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package sootup.java.bytecode.frontend.conversion;
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Suppliers;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.IdentifierFactory;
+import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.core.AnnotationUsage;
+
+/**
+ * An opt-in persistent cache for the bodies created by the bytecode frontend. A body is stored
+ * after all {@link BodyInterceptor}s were applied, so a cache hit skips both the conversion of the
+ * bytecode and the interceptor chain.
+ *
+ * <p>The bodies of a class are stored under a key that consists of the hash of the class file
+ * contents, a fingerprint of the interceptor chain (the interceptor classes and their {@link
+ * BodyInterceptor#getConfiguration() configuration} in their order of application) and a
+ * fingerprint of the class files of the types the class references and of all their supertypes, as
+ * interceptors like the TypeAssigner consult their hierarchy. Changed classes or a different
+ * configuration therefore never see outdated bodies, while changes of unrelated classes - e.g. of
+ * the application - keep the bodies of an unchanged library valid. Each body is stored in its own
+ * file which is written atomically and memory-mapped when it is read, hence a cache directory can
+ * be shared by concurrent analyses.
+ *
+ * <p>The cache is enabled per input location:
+ *
+ * <pre>{@code
+ * JavaClassPathAnalysisInputLocation inputLocation = new JavaClassPathAnalysisInputLocation(cp);
+ * inputLocation.setPersistentBodyCache(new PersistentBodyCache(Paths.get("sootup-cache")));
+ * }</pre>
+ *
+ * <p>Bodies are only cached if the configuration of every interceptor is known and the source files
+ * of all dependencies of their class can be read. Bodies that contain elements which can not be
+ * stored (e.g. phi expressions) are silently rebuilt each time. The cache never evicts entries -
+ * just delete the directory to clear it.
+ */
+public class PersistentBodyCache {
+
+  private static final @Nonnull Logger logger = LoggerFactory.getLogger(PersistentBodyCache.class);
+  private static final String FILE_EXTENSION = ".body";
+
+  @Nonnull private final Path directory;
+  @Nonnull private final AtomicLong hitCount = new AtomicLong();
+  @Nonnull private final AtomicLong missCount = new AtomicLong();
+  @Nonnull private final AtomicLong storeCount = new AtomicLong();
+
+  @Nonnull private final DependencyFingerprint dependencyFingerprint = new DependencyFingerprint();
+
+  /**
+   * @param directory the directory that contains the cached bodies - it is created on demand.
+   */
+  public PersistentBodyCache(@Nonnull Path directory) {
+    this.directory = directory;
+  }
+
+  @Nonnull
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /** @return the number of bodies that were restored from the cache */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** @return the number of bodies that were requested but not present in the cache */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** @return the number of bodies that were written into the cache */
+  public long getStoreCount() {
+    return storeCount.get();
+  }
+
+  /**
+   * Computes the key under which the bodies of a class are stored.
+   *
+   * @param classBytes the contents of the class file
+   * @param bodyInterceptors the interceptors that are applied to the bodies of the class
+   * @param view the view that resolves the bodies - its identifier factory creates the referenced
+   *     types and the interceptors may consult its other classes
+   * @return the key or an empty Optional if the bodies can not be cached because the configuration
+   *     of an interceptor is unknown
+   */
+  @Nonnull
+  Optional<ClassKey> computeClassKey(
+      @Nonnull byte[] classBytes,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nonnull View view) {
+    final Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(BodyEncoder.FORMAT_VERSION);
+    // a different implementation of the frontend or the interceptors invalidates the cache
+    final String implementationVersion = getClass().getPackage().getImplementationVersion();
+    if (implementationVersion != null) {
+      hasher.putString(implementationVersion, StandardCharsets.UTF_8);
+    }
+    hasher.putString(view.getIdentifierFactory().getClass().getName(), StandardCharsets.UTF_8);
+    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
+      final Optional<String> configuration = bodyInterceptor.getConfiguration();
+      if (!configuration.isPresent()) {
+        return Optional.empty();
+      }
+      hasher.putString(bodyInterceptor.getClass().getName(), StandardCharsets.UTF_8);
+      hasher.putString(configuration.get(), StandardCharsets.UTF_8);
+    }
+    hasher.putBytes(classBytes);
+    final HashCode contentHash = hasher.hash();
+
+    final Set<ClassType> referencedTypes = DependencyFingerprint.collectReferencedTypes(classBytes);
+    return Optional.of(
+        new ClassKey(
+            () ->
+                dependencyFingerprint
+                    .of(view, referencedTypes)
+                    .map(
+                        fingerprint ->
+                            Hashing.sha256()
+                                .newHasher()
+                                .putBytes(contentHash.asBytes())
+                                .putBytes(fingerprint.asBytes())
+                                .hash()
+                                .toString())));
+  }
+
+  /**
+   * @param classKey the key computed by {@link #computeClassKey}
+   * @param signature the signature of the method whose body is requested
+   * @param modifiers the modifiers of that method
+   * @param identifierFactory creates the types and signatures referenced by the body
+   * @param parameterAnnotations provides the annotations of the parameter with the given index
+   * @return the cached body or an empty Optional if there is no (valid) cache entry
+   */
+  @Nonnull
+  Optional<Body> load(
+      @Nonnull ClassKey classKey,
+      @Nonnull MethodSignature signature,
+      @Nonnull Set<MethodModifier> modifiers,
+      @Nonnull IdentifierFactory identifierFactory,
+      @Nonnull IntFunction<Iterable<AnnotationUsage>> parameterAnnotations) {
+    final Optional<String> key = classKey.get();
+    if (!key.isPresent()) {
+      return Optional.empty();
+    }
+    final Path file = getBodyFile(key.get(), signature);
+    if (Files.isRegularFile(file)) {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        final Body body =
+            BodyDecoder.decode(
+                buffer, signature, modifiers, identifierFactory, parameterAnnotations);
+        hitCount.incrementAndGet();
+        return Optional.of(body);
+      } catch (IOException | RuntimeException e) {
+        // e.g. an incomplete file or an entry of an older format version -> it is overwritten
+        logger.debug("Can not load the cached body of " + signature + " from " + file, e);
+      }
+    }
+    missCount.incrementAndGet();
+    return Optional.empty();
+  }
+
+  /**
+   * Stores the body - if it can be encoded - under the given class key.
+   *
+   * @param classKey the key computed by {@link #computeClassKey}
+   * @param body the body after all interceptors were applied
+   */
+  void store(@Nonnull ClassKey classKey, @Nonnull Body body) {
+    final Optional<String> key = classKey.get();
+    if (!key.isPresent()) {
+      return;
+    }
+    final byte[] encodedBody;
+    try {
+      encodedBody = BodyEncoder.encode(body);
+    } catch (RuntimeException e) {
+      // unsupported elements or a StmtGraph whose Traps can not be serialized
+      logger.debug(
+          "The body of " + body.getMethodSignature() + " is not cached: " + e.getMessage());
+      return;
+    }
+
+    final Path file = getBodyFile(key.get(), body.getMethodSignature());
+    Path tmpFile = null;
+    try {
+      Files.createDirectories(file.getParent());
+      // write into a temporary file first so concurrent readers never see a partial entry
+      tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      Files.write(tmpFile, encodedBody);
+      try {
+        Files.move(
+            tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      storeCount.incrementAndGet();
+    } catch (IOException e) {
+      logger.warn("Can not store the body of " + body.getMethodSignature() + " in " + file, e);
+      try {
+        if (tmpFile != null) {
+          Files.deleteIfExists(tmpFile);
+        }
+      } catch (IOException ignored) {
+        // nothing left to do
+      }
+    }
+  }
+
+  @Nonnull
+  private Path getBodyFile(@Nonnull String classKey, @Nonnull MethodSignature signature) {
+    // the subsignature may contain characters that are not allowed in file names
+    final String methodKey =
+        Hashing.sha256()
+            .hashString(signature.getSubSignature().toString(), StandardCharsets.UTF_8)
+            .toString()
+            .substring(0, 32);
+    return directory
+        .resolve(classKey.substring(0, 2))
+        .resolve(classKey)
+        .resolve(methodKey + FILE_EXTENSION);
+  }
+
+  /**
+   * The key of the bodies of a class. The classes it depends on are fingerprinted when the first
+   * body of the class is requested, so creating the class stays cheap.
+   */
+  static final class ClassKey {
+
+    @Nonnull private final Supplier<Optional<String>> key;
+
+    private ClassKey(@Nonnull Supplier<Optional<String>> key) {
+      this.key = Suppliers.memoize(key::get);
+    }
+
+    /**
+     * @return the key or an empty Optional if a dependency of the class can not be fingerprinted
+     */
+    @Nonnull
+    Optional<String> get() {
+      return key.get();
+    }
+  }
+}
@@ -33,6 +33,7 @@ import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
@@ -40,6 +41,7 @@ import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
 import sootup.java.bytecode.frontend.conversion.AsmJavaClassProvider;
 import sootup.java.core.JavaSootClassSource;
+import sootup.java.core.entrypoints.ClassDeclaration;
 import sootup.java.core.types.JavaClassType;
 
 public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLocation {
@@ -99,8 +101,7 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
     try {
       FileSystem fs = fileSystemCache.get(path);
       final Path archiveRoot = fs.getPath("/");
-      return getClassSourceInternal(
-          (JavaClassType) type, archiveRoot, new AsmJavaClassProvider(view));
+      return getClassSourceInternal((JavaClassType) type, archiveRoot, createClassProvider(view));
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
     }
@@ -112,7 +113,32 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
     try {
       FileSystem fs = fileSystemCache.get(path);
       final Path archiveRoot = fs.getPath("/");
-      return walkDirectory(
+      return walkDirectory(archiveRoot, view.getIdentifierFactory(), createClassProvider(view));
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
+    }
+  }
+
+  @Override
+  @Nonnull
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    try {
+      FileSystem fs = fileSystemCache.get(path);
+      final Path archiveRoot = fs.getPath("/");
+      return walkDirectoryHeaders(
+          archiveRoot, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
+    }
+  }
+
+  @Override
+  @Nonnull
+  public Collection<ClassDeclaration> getClassDeclarations(@Nonnull View view) {
+    try {
+      FileSystem fs = fileSystemCache.get(path);
+      final Path archiveRoot = fs.getPath("/");
+      return walkDirectoryDeclarations(
           archiveRoot, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
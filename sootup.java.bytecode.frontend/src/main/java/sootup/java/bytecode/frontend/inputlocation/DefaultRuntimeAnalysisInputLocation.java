@@ -4,6 +4,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
@@ -11,6 +13,7 @@ import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.conversion.PersistentBodyCache;
 
 /** AnalysisInputLocation that points to the shipped Java Runtime of the current JVM execution */
 public class DefaultRuntimeAnalysisInputLocation implements AnalysisInputLocation {
@@ -30,13 +33,27 @@ public class DefaultRuntimeAnalysisInputLocation implements AnalysisInputLocatio
 
     String version = System.getProperty("java.version");
     // are we using Java 8 or lower in the current JVM execution?
-    if (version.startsWith("1")) {
+    if (version.startsWith("1.")) {
       backingInputLocation = new DefaultRTJarAnalysisInputLocation(srcType, bodyInterceptors);
     } else {
       backingInputLocation = new JrtFileSystemAnalysisInputLocation(srcType, bodyInterceptors);
     }
   }
 
+  /**
+   * Enables (or disables with <code>null</code>) the persistent cache for the bodies of the classes
+   * of the runtime. It applies to classes that are created afterwards.
+   */
+  public void setPersistentBodyCache(@Nullable PersistentBodyCache persistentBodyCache) {
+    if (backingInputLocation instanceof JrtFileSystemAnalysisInputLocation) {
+      ((JrtFileSystemAnalysisInputLocation) backingInputLocation)
+          .setPersistentBodyCache(persistentBodyCache);
+    } else {
+      ((PathBasedAnalysisInputLocation) backingInputLocation)
+          .setPersistentBodyCache(persistentBodyCache);
+    }
+  }
+
   @Nonnull
   @Override
   public Optional<? extends SootClassSource> getClassSource(
@@ -50,6 +67,12 @@ public class DefaultRuntimeAnalysisInputLocation implements AnalysisInputLocatio
     return backingInputLocation.getClassSources(view);
   }
 
+  @Nonnull
+  @Override
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    return backingInputLocation.getClassHeaders(view);
+  }
+
   @Nonnull
   @Override
   public SourceType getSourceType() {
@@ -30,8 +30,10 @@ import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
@@ -41,7 +43,10 @@ import sootup.core.util.PathUtils;
 import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.conversion.PersistentBodyCache;
 import sootup.java.core.JavaSootClassSource;
+import sootup.java.core.entrypoints.ClassDeclaration;
+import sootup.java.core.entrypoints.ClassDeclarationSource;
 
 /**
  * An implementation of the {@link AnalysisInputLocation} interface for the Java class path. Handles
@@ -51,7 +56,8 @@ import sootup.java.core.JavaSootClassSource;
  * @author Manuel Benz created on 22.05.18
  * @author Kaustubh Kelkar updated on 20.07.2020
  */
-public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation {
+public class JavaClassPathAnalysisInputLocation
+    implements AnalysisInputLocation, ClassDeclarationSource {
   private static final @Nonnull Logger logger =
       LoggerFactory.getLogger(JavaClassPathAnalysisInputLocation.class);
   private static final @Nonnull String WILDCARD_CHAR = "*";
@@ -99,6 +105,22 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     }
   }
 
+  /** Returns the locations of the class path entries in the order in which they are searched. */
+  @Nonnull
+  public Collection<AnalysisInputLocation> getClassPathEntries() {
+    return Collections.unmodifiableCollection(cpEntries);
+  }
+
+  /**
+   * Enables (or disables with <code>null</code>) the persistent cache for the bodies of the classes
+   * of all class path entries.
+   */
+  public void setPersistentBodyCache(@Nullable PersistentBodyCache persistentBodyCache) {
+    for (AnalysisInputLocation inputLocation : cpEntries) {
+      ((PathBasedAnalysisInputLocation) inputLocation).setPersistentBodyCache(persistentBodyCache);
+    }
+  }
+
   @Override
   @Nonnull
   public SourceType getSourceType() {
@@ -184,6 +206,33 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return found.stream().map(src -> (JavaSootClassSource) src).collect(Collectors.toList());
   }
 
+  @Override
+  @Nonnull
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    // the header of the class which is found first is kept
+    Map<ClassType, ClassHeader> found = new LinkedHashMap<>();
+    for (AnalysisInputLocation inputLocation : cpEntries) {
+      for (ClassHeader header : inputLocation.getClassHeaders(view)) {
+        found.putIfAbsent(header.getType(), header);
+      }
+    }
+    return found.values();
+  }
+
+  @Override
+  @Nonnull
+  public Collection<ClassDeclaration> getClassDeclarations(@Nonnull View view) {
+    // the declaration of the class which is found first is kept
+    Map<ClassType, ClassDeclaration> found = new LinkedHashMap<>();
+    for (AnalysisInputLocation inputLocation : cpEntries) {
+      for (ClassDeclaration declaration :
+          ClassDeclarationSource.getClassDeclarations(inputLocation, view)) {
+        found.putIfAbsent(declaration.getType(), declaration);
+      }
+    }
+    return found.values();
+  }
+
   @Override
   @Nonnull
   public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
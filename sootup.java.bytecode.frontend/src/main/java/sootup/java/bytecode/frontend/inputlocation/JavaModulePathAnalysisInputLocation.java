@@ -30,6 +30,7 @@ import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
 import sootup.core.frontend.ClassProvider;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
@@ -119,6 +120,21 @@ public class JavaModulePathAnalysisInputLocation implements ModuleInfoAnalysisIn
         .collect(Collectors.toList());
   }
 
+  @Override
+  @Nonnull
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    Preconditions.checkArgument(
+        identifierFactory instanceof JavaModuleIdentifierFactory,
+        "Factory must be a JavaModuleSignatureFactory");
+
+    return moduleFinder.getAllModules().stream()
+        .map(moduleFinder::getModule)
+        .filter(Objects::nonNull)
+        .flatMap(inputLocation -> inputLocation.getClassHeaders(view).stream())
+        .collect(Collectors.toList());
+  }
+
   @Nonnull
   @Override
   public SourceType getSourceType() {
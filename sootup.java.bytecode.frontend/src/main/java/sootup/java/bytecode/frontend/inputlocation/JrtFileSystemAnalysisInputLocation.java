@@ -28,8 +28,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.commons.io.FilenameUtils;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.ResolveException;
 import sootup.core.inputlocation.AnalysisInputLocation;
@@ -40,6 +42,7 @@ import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
 import sootup.java.bytecode.frontend.conversion.AsmJavaClassProvider;
+import sootup.java.bytecode.frontend.conversion.PersistentBodyCache;
 import sootup.java.bytecode.frontend.conversion.AsmModuleSource;
 import sootup.java.core.*;
 import sootup.java.core.signatures.ModulePackageName;
@@ -62,6 +65,8 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
 
   @Nonnull private final List<BodyInterceptor> bodyInterceptors;
 
+  @Nullable private PersistentBodyCache persistentBodyCache;
+
   public JrtFileSystemAnalysisInputLocation() {
     this(SourceType.Library);
   }
@@ -76,13 +81,26 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
     this.bodyInterceptors = bodyInterceptors;
   }
 
+  @Nullable
+  public PersistentBodyCache getPersistentBodyCache() {
+    return persistentBodyCache;
+  }
+
+  /**
+   * Enables (or disables with <code>null</code>) the persistent cache for the bodies of the classes
+   * of the runtime. It applies to classes that are created afterwards.
+   */
+  public void setPersistentBodyCache(@Nullable PersistentBodyCache persistentBodyCache) {
+    this.persistentBodyCache = persistentBodyCache;
+  }
+
   @Override
   @Nonnull
   public Optional<JavaSootClassSource> getClassSource(
       @Nonnull ClassType classType, @Nonnull View view) {
     JavaClassType klassType = (JavaClassType) classType;
 
-    ClassProvider classProvider = new AsmJavaClassProvider(view);
+    ClassProvider classProvider = new AsmJavaClassProvider(view, persistentBodyCache);
     Path filepath =
         theFileSystem.getPath(
             klassType.getFullyQualifiedName().replace('.', '/')
@@ -142,7 +160,7 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
       @Nonnull IdentifierFactory identifierFactory,
       @Nonnull View view) {
 
-    ClassProvider classProvider = new AsmJavaClassProvider(view);
+    ClassProvider classProvider = new AsmJavaClassProvider(view, persistentBodyCache);
 
     String moduleInfoFilename =
         JavaModuleIdentifierFactory.MODULE_INFO_FILE
@@ -178,6 +196,37 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
         .collect(Collectors.toList());
   }
 
+  @Override
+  @Nonnull
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    AsmJavaClassProvider classProvider = new AsmJavaClassProvider(view);
+    String moduleInfoFilename =
+        JavaModuleIdentifierFactory.MODULE_INFO_FILE
+            + classProvider.getHandledFileType().getExtensionWithDot();
+
+    List<ClassHeader> classHeaders = new ArrayList<>();
+    for (ModuleSignature moduleSignature : discoverModules()) {
+      final Path archiveRoot = theFileSystem.getPath("modules", moduleSignature.getModuleName());
+      try (Stream<Path> walk = Files.walk(archiveRoot)) {
+        walk.filter(
+                filePath ->
+                    !Files.isDirectory(filePath)
+                        && filePath
+                            .toString()
+                            .endsWith(classProvider.getHandledFileType().getExtensionWithDot())
+                        && !filePath.toString().endsWith(moduleInfoFilename))
+            .forEach(
+                p ->
+                    classProvider
+                        .createClassHeader(p, fromPath(p, view.getIdentifierFactory()))
+                        .ifPresent(classHeaders::add));
+      } catch (IOException e) {
+        throw new ResolveException("Error loading module " + moduleSignature, archiveRoot, e);
+      }
+    }
+    return classHeaders;
+  }
+
   /**
    * Discover and return all modules contained in the jrt filesystem.
    *
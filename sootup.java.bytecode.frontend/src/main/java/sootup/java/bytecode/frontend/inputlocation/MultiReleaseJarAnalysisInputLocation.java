@@ -37,6 +37,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.Language;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
@@ -45,6 +46,8 @@ import sootup.core.types.ClassType;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
 import sootup.java.core.JavaSootClassSource;
+import sootup.java.core.entrypoints.ClassDeclaration;
+import sootup.java.core.entrypoints.ClassDeclarationSource;
 
 /**
  * If the user wants to analyze a Multi-Release Jar, they have to specify the language level to
@@ -198,6 +201,33 @@ public class MultiReleaseJarAnalysisInputLocation extends ArchiveBasedAnalysisIn
     return classSources;
   }
 
+  @Override
+  @Nonnull
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    // like for the class sources, the header of the best matching version wins
+    Map<String, ClassHeader> classHeaders = new LinkedHashMap<>();
+    for (AnalysisInputLocation location : inputLocations.values()) {
+      for (ClassHeader header : location.getClassHeaders(view)) {
+        classHeaders.putIfAbsent(header.getType().getFullyQualifiedName(), header);
+      }
+    }
+    return classHeaders.values();
+  }
+
+  @Override
+  @Nonnull
+  public Collection<ClassDeclaration> getClassDeclarations(@Nonnull View view) {
+    // like for the class sources, the declaration of the best matching version wins
+    Map<String, ClassDeclaration> classDeclarations = new LinkedHashMap<>();
+    for (AnalysisInputLocation location : inputLocations.values()) {
+      for (ClassDeclaration declaration :
+          ClassDeclarationSource.getClassDeclarations(location, view)) {
+        classDeclarations.putIfAbsent(declaration.getType().getFullyQualifiedName(), declaration);
+      }
+    }
+    return classDeclarations.values();
+  }
+
   @Nonnull
   public Language getLanguage() {
     return language;
@@ -35,6 +35,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.tools.*;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
@@ -99,6 +100,12 @@ public class OTFCompileAnalysisInputLocation implements AnalysisInputLocation {
     return inputLocation.getClassSources(view);
   }
 
+  @Nonnull
+  @Override
+  public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+    return inputLocation.getClassHeaders(view);
+  }
+
   @Nonnull
   @Override
   public SourceType getSourceType() {
@@ -3,11 +3,13 @@ package sootup.java.bytecode.frontend.inputlocation;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -18,6 +20,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
@@ -30,7 +33,10 @@ import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
 import sootup.java.bytecode.frontend.conversion.AsmJavaClassProvider;
+import sootup.java.bytecode.frontend.conversion.PersistentBodyCache;
 import sootup.java.core.*;
+import sootup.java.core.entrypoints.ClassDeclaration;
+import sootup.java.core.entrypoints.ClassDeclarationSource;
 import sootup.java.core.types.JavaClassType;
 
 /*-
@@ -62,11 +68,13 @@ import sootup.java.core.types.JavaClassType;
  * @author Manuel Benz created on 22.05.18
  * @author Kaustubh Kelkar updated on 30.07.2020
  */
-public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLocation {
+public abstract class PathBasedAnalysisInputLocation
+    implements AnalysisInputLocation, ClassDeclarationSource {
   @Nonnull protected Path path;
   @Nonnull protected Collection<Path> ignoredPaths;
   @Nonnull protected final SourceType sourceType;
   @Nonnull protected final List<BodyInterceptor> bodyInterceptors;
+  @Nullable protected PersistentBodyCache persistentBodyCache;
 
   protected PathBasedAnalysisInputLocation(@Nonnull Path path, @Nonnull SourceType srcType) {
     this(path, srcType, Collections.emptyList());
@@ -109,6 +117,30 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     return bodyInterceptors;
   }
 
+  /** Returns the file or directory that contains the classes of this input location. */
+  @Nonnull
+  public Path getPath() {
+    return path;
+  }
+
+  @Nullable
+  public PersistentBodyCache getPersistentBodyCache() {
+    return persistentBodyCache;
+  }
+
+  /**
+   * Enables (or disables with <code>null</code>) the persistent cache for the bodies of the classes
+   * of this input location. It applies to classes that are created afterwards.
+   */
+  public void setPersistentBodyCache(@Nullable PersistentBodyCache persistentBodyCache) {
+    this.persistentBodyCache = persistentBodyCache;
+  }
+
+  @Nonnull
+  protected AsmJavaClassProvider createClassProvider(@Nonnull View view) {
+    return new AsmJavaClassProvider(view, persistentBodyCache);
+  }
+
   @Nonnull
   public static PathBasedAnalysisInputLocation create(
       @Nonnull Path path, @Nonnull SourceType sourceType) {
@@ -162,14 +194,8 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
       @Nonnull ClassProvider classProvider) {
 
     final FileType handledFileType = classProvider.getHandledFileType();
-    final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
     try (final Stream<Path> walk = Files.walk(dirPath)) {
-      return walk.filter(
-              filePath ->
-                  PathUtils.hasExtension(filePath, handledFileType)
-                      && !filePath.toString().endsWith(moduleInfoFilename)
-                      && ignoredPaths.stream()
-                          .noneMatch(p -> filePath.toString().startsWith(p.toString())))
+      return walk.filter(filePath -> isScannedFile(filePath, handledFileType))
           .flatMap(
               p -> {
                 final String fullyQualifiedName = fromPath(dirPath, p);
@@ -186,6 +212,58 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     }
   }
 
+  /**
+   * Like {@link #walkDirectory(Path, IdentifierFactory, ClassProvider)}, but reads only the headers
+   * of the found class files.
+   */
+  @Nonnull
+  Collection<ClassHeader> walkDirectoryHeaders(
+      @Nonnull Path dirPath,
+      @Nonnull IdentifierFactory factory,
+      @Nonnull AsmJavaClassProvider classProvider) {
+    return walkDirectory(dirPath, factory, classProvider, classProvider::createClassHeader);
+  }
+
+  /**
+   * Like {@link #walkDirectory(Path, IdentifierFactory, ClassProvider)}, but reads only the
+   * declarations of the found class files.
+   */
+  @Nonnull
+  Collection<ClassDeclaration> walkDirectoryDeclarations(
+      @Nonnull Path dirPath,
+      @Nonnull IdentifierFactory factory,
+      @Nonnull AsmJavaClassProvider classProvider) {
+    return walkDirectory(dirPath, factory, classProvider, classProvider::createClassDeclaration);
+  }
+
+  @Nonnull
+  private <T> Collection<T> walkDirectory(
+      @Nonnull Path dirPath,
+      @Nonnull IdentifierFactory factory,
+      @Nonnull AsmJavaClassProvider classProvider,
+      @Nonnull BiFunction<Path, ClassType, Optional<T>> reader) {
+
+    final FileType handledFileType = classProvider.getHandledFileType();
+    try (final Stream<Path> walk = Files.walk(dirPath)) {
+      return walk.filter(filePath -> isScannedFile(filePath, handledFileType))
+          .flatMap(
+              p ->
+                  StreamUtils.optionalToStream(
+                      reader.apply(p, factory.getClassType(fromPath(dirPath, p)))))
+          .collect(Collectors.toList());
+
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private boolean isScannedFile(@Nonnull Path filePath, @Nonnull FileType handledFileType) {
+    final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
+    return PathUtils.hasExtension(filePath, handledFileType)
+        && !filePath.toString().endsWith(moduleInfoFilename)
+        && ignoredPaths.stream().noneMatch(p -> filePath.toString().startsWith(p.toString()));
+  }
+
   @Nonnull
   protected String fromPath(@Nonnull Path baseDirPath, Path packageNamePathAndClass) {
     return FilenameUtils.removeExtension(
@@ -269,13 +347,13 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
         return Optional.empty();
       }
 
-      return getSingleClass((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getSingleClass((JavaClassType) type, path, createClassProvider(view));
     }
 
     @Nonnull
     @Override
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
-      AsmJavaClassProvider classProvider = new AsmJavaClassProvider(view);
+      AsmJavaClassProvider classProvider = createClassProvider(view);
       IdentifierFactory factory = view.getIdentifierFactory();
       Path dirPath = this.path.getParent();
 
@@ -288,6 +366,28 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
       return Collections.singletonList(classSource.get());
     }
 
+    @Nonnull
+    @Override
+    public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+      final String fullyQualifiedName = fromPath(path.getParent(), path);
+      return StreamUtils.optionalToStream(
+              new AsmJavaClassProvider(view)
+                  .createClassHeader(
+                      path, view.getIdentifierFactory().getClassType(fullyQualifiedName)))
+          .collect(Collectors.toList());
+    }
+
+    @Nonnull
+    @Override
+    public Collection<ClassDeclaration> getClassDeclarations(@Nonnull View view) {
+      final String fullyQualifiedName = fromPath(path.getParent(), path);
+      return StreamUtils.optionalToStream(
+              new AsmJavaClassProvider(view)
+                  .createClassDeclaration(
+                      path, view.getIdentifierFactory().getClassType(fullyQualifiedName)))
+          .collect(Collectors.toList());
+    }
+
     @Nonnull
     protected String fromPath(@Nonnull Path baseDirPath, Path packageNamePathAndClass) {
       String str =
@@ -323,14 +423,28 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
       // FIXME: 1) store the classprovider reference as a field; 2) and above too; and 3) move view
       // which is only used in SootNode to be just there?
-      return walkDirectory(path, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+      return walkDirectory(path, view.getIdentifierFactory(), createClassProvider(view));
+    }
+
+    @Override
+    @Nonnull
+    public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+      return walkDirectoryHeaders(
+          path, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+    }
+
+    @Override
+    @Nonnull
+    public Collection<ClassDeclaration> getClassDeclarations(@Nonnull View view) {
+      return walkDirectoryDeclarations(
+          path, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
     }
 
     @Override
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
         @Nonnull ClassType type, @Nonnull View view) {
-      return getClassSourceInternal((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getClassSourceInternal((JavaClassType) type, path, createClassProvider(view));
     }
   }
 
@@ -392,6 +506,14 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
       this(path, srcType, bodyInterceptors, Collections.emptyList());
     }
 
+    @Override
+    public void setPersistentBodyCache(@Nullable PersistentBodyCache persistentBodyCache) {
+      super.setPersistentBodyCache(persistentBodyCache);
+      for (AnalysisInputLocation inputLoc : containedInputLocations) {
+        ((PathBasedAnalysisInputLocation) inputLoc).setPersistentBodyCache(persistentBodyCache);
+      }
+    }
+
     @Override
     @Nonnull
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
@@ -406,6 +528,31 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
           .collect(Collectors.toList());
     }
 
+    @Override
+    @Nonnull
+    public Collection<ClassHeader> getClassHeaders(@Nonnull View view) {
+      Map<ClassType, ClassHeader> foundHeaders = new LinkedHashMap<>();
+      for (AnalysisInputLocation inputLoc : containedInputLocations) {
+        for (ClassHeader header : inputLoc.getClassHeaders(view)) {
+          foundHeaders.putIfAbsent(header.getType(), header);
+        }
+      }
+      return foundHeaders.values();
+    }
+
+    @Override
+    @Nonnull
+    public Collection<ClassDeclaration> getClassDeclarations(@Nonnull View view) {
+      Map<ClassType, ClassDeclaration> foundDeclarations = new LinkedHashMap<>();
+      for (AnalysisInputLocation inputLoc : containedInputLocations) {
+        for (ClassDeclaration declaration :
+            ClassDeclarationSource.getClassDeclarations(inputLoc, view)) {
+          foundDeclarations.putIfAbsent(declaration.getType(), declaration);
+        }
+      }
+      return foundDeclarations.values();
+    }
+
     @Override
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
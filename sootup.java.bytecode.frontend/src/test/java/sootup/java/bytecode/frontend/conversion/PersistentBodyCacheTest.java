@@ -0,0 +1,206 @@
+package sootup.java.bytecode.frontend.conversion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import categories.TestCategories;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.interceptors.DeadAssignmentEliminator;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class PersistentBodyCacheTest {
+
+  private static final String classPath = "../shared-test-resources/miniTestSuite/java6/binary/";
+
+  @Test
+  public void testEncodedBodiesAreRestoredIdentically() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(classPath));
+
+    List<JavaSootMethod> methods =
+        view.getClasses()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(JavaSootMethod::hasBody)
+            .collect(Collectors.toList());
+    assertTrue(methods.size() > 100);
+
+    for (JavaSootMethod method : methods) {
+      Body body = method.getBody();
+      Body decodedBody =
+          BodyDecoder.decode(
+              ByteBuffer.wrap(BodyEncoder.encode(body)),
+              method.getSignature(),
+              method.getModifiers(),
+              view.getIdentifierFactory(),
+              idx -> Collections.emptyList());
+
+      assertEquals(body.toString(), decodedBody.toString());
+      assertEquals(body.getPosition(), decodedBody.getPosition());
+      assertEquals(body.getLocals(), decodedBody.getLocals());
+      assertEquals(
+          body.getStmts().stream()
+              .map(stmt -> stmt.getPositionInfo().getStmtPosition())
+              .collect(Collectors.toList()),
+          decodedBody.getStmts().stream()
+              .map(stmt -> stmt.getPositionInfo().getStmtPosition())
+              .collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void testCachedBodiesAreReusedByLaterViews() throws IOException {
+    Path cacheDirectory = Files.createTempDirectory("sootup-body-cache");
+    PersistentBodyCache cache = new PersistentBodyCache(cacheDirectory);
+    try {
+      Map<MethodSignature, String> bodies = resolveBodies(cachedInputLocation(classPath, cache));
+      assertEquals(0, cache.getHitCount());
+      assertEquals(bodies.size(), cache.getMissCount());
+      assertEquals(bodies.size(), cache.getStoreCount());
+
+      // a fresh view does not convert the bytecode again
+      assertEquals(bodies, resolveBodies(cachedInputLocation(classPath, cache)));
+      assertEquals(bodies.size(), cache.getHitCount());
+      assertEquals(bodies.size(), cache.getStoreCount());
+
+      // a different interceptor chain must not see bodies transformed by another chain
+      JavaClassPathAnalysisInputLocation withoutInterceptors =
+          new JavaClassPathAnalysisInputLocation(
+              classPath, SourceType.Application, Collections.emptyList());
+      withoutInterceptors.setPersistentBodyCache(cache);
+      resolveBodies(withoutInterceptors);
+      assertEquals(bodies.size(), cache.getHitCount());
+      assertEquals(2L * bodies.size(), cache.getStoreCount());
+
+      // the cache is a setting of the input location - other locations are not affected
+      resolveBodies(new JavaClassPathAnalysisInputLocation(classPath));
+      assertEquals(bodies.size(), cache.getHitCount());
+      assertEquals(2L * bodies.size(), cache.getStoreCount());
+    } finally {
+      FileUtils.deleteDirectory(cacheDirectory.toFile());
+    }
+  }
+
+  @Test
+  public void testChangedDependenciesInvalidateBodies() throws IOException {
+    Path cacheDirectory = Files.createTempDirectory("sootup-body-cache");
+    Path classDirectory = Files.createTempDirectory("sootup-body-cache-classes");
+    PersistentBodyCache cache = new PersistentBodyCache(cacheDirectory);
+    try {
+      FileUtils.copyDirectory(new File(classPath), classDirectory.toFile());
+      String copiedClassPath = classDirectory.toString();
+
+      int bodyCount = resolveBodies(cachedInputLocation(copiedClassPath, cache)).size();
+      assertEquals(bodyCount, cache.getStoreCount());
+
+      // a new file is not referenced by any class
+      Files.write(classDirectory.resolve("changed.txt"), new byte[] {1});
+      resolveBodies(cachedInputLocation(copiedClassPath, cache));
+      assertEquals(bodyCount, cache.getHitCount());
+      assertEquals(bodyCount, cache.getStoreCount());
+
+      // only the changed class and the classes that reference it are converted again
+      Path changedClass = classDirectory.resolve("ThrowExceptionMethod$CustomException.class");
+      Files.write(changedClass, addField(Files.readAllBytes(changedClass)));
+      resolveBodies(cachedInputLocation(copiedClassPath, cache));
+      long convertedBodies = cache.getStoreCount() - bodyCount;
+      assertTrue(convertedBodies > 0);
+      assertTrue(convertedBodies < bodyCount);
+      assertEquals(2L * bodyCount, cache.getHitCount() + convertedBodies);
+    } finally {
+      FileUtils.deleteDirectory(cacheDirectory.toFile());
+      FileUtils.deleteDirectory(classDirectory.toFile());
+    }
+  }
+
+  @Test
+  public void testChangedConfigurationInvalidatesBodies() throws IOException {
+    Path cacheDirectory = Files.createTempDirectory("sootup-body-cache");
+    PersistentBodyCache cache = new PersistentBodyCache(cacheDirectory);
+    try {
+      // the same interceptor classes with a different configuration
+      int bodyCount = 0;
+      for (boolean eliminateOnlyStackLocals : new boolean[] {false, true}) {
+        JavaClassPathAnalysisInputLocation inputLocation =
+            new JavaClassPathAnalysisInputLocation(
+                classPath,
+                SourceType.Application,
+                Collections.singletonList(new DeadAssignmentEliminator(eliminateOnlyStackLocals)));
+        inputLocation.setPersistentBodyCache(cache);
+        bodyCount = resolveBodies(inputLocation).size();
+      }
+      assertEquals(0, cache.getHitCount());
+      assertEquals(2L * bodyCount, cache.getStoreCount());
+
+      // the settings of an interceptor that does not describe them are unknown
+      BodyInterceptor unknownInterceptor = (builder, view) -> {};
+      for (int i = 0; i < 2; i++) {
+        JavaClassPathAnalysisInputLocation inputLocation =
+            new JavaClassPathAnalysisInputLocation(
+                classPath, SourceType.Application, Collections.singletonList(unknownInterceptor));
+        inputLocation.setPersistentBodyCache(cache);
+        resolveBodies(inputLocation);
+      }
+      assertEquals(0, cache.getHitCount());
+      assertEquals(2L * bodyCount, cache.getStoreCount());
+    } finally {
+      FileUtils.deleteDirectory(cacheDirectory.toFile());
+    }
+  }
+
+  private static byte[] addField(byte[] classBytes) {
+    ClassWriter classWriter = new ClassWriter(0);
+    new ClassReader(classBytes)
+        .accept(
+            new ClassVisitor(AsmUtil.SUPPORTED_ASM_OPCODE, classWriter) {
+              @Override
+              public void visitEnd() {
+                visitField(Opcodes.ACC_PRIVATE, "addedField", "I", null, null).visitEnd();
+                super.visitEnd();
+              }
+            },
+            0);
+    return classWriter.toByteArray();
+  }
+
+  private static JavaClassPathAnalysisInputLocation cachedInputLocation(
+      String classPath, PersistentBodyCache cache) {
+    JavaClassPathAnalysisInputLocation inputLocation =
+        new JavaClassPathAnalysisInputLocation(classPath);
+    inputLocation.setPersistentBodyCache(cache);
+    return inputLocation;
+  }
+
+  private Map<MethodSignature, String> resolveBodies(AnalysisInputLocation inputLocation) {
+    JavaView view = new JavaView(inputLocation);
+    Map<MethodSignature, String> bodies = new HashMap<>();
+    view.getClasses()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(JavaSootMethod::hasBody)
+        .forEach(method -> bodies.put(method.getSignature(), method.getBody().toString()));
+    return bodies;
+  }
+}
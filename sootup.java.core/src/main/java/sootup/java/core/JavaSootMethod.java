@@ -25,6 +25,7 @@ package sootup.java.core;
 import java.util.Collections;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
+import sootup.core.cache.BodyRetentionPolicy;
 import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.model.Body;
@@ -48,6 +49,18 @@ public class JavaSootMethod extends SootMethod {
     this.annotations = annotations;
   }
 
+  public JavaSootMethod(
+      @Nonnull BodySource source,
+      @Nonnull MethodSignature methodSignature,
+      @Nonnull Iterable<MethodModifier> modifiers,
+      @Nonnull Iterable<ClassType> thrownExceptions,
+      @Nonnull Iterable<AnnotationUsage> annotations,
+      @Nonnull Position position,
+      @Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
+    super(source, methodSignature, modifiers, thrownExceptions, position, bodyRetentionPolicy);
+    this.annotations = annotations;
+  }
+
   @Nonnull
   public Iterable<AnnotationUsage> getAnnotations() {
     return annotations;
@@ -63,14 +76,21 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         exceptions,
         getAnnotations(),
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
   @Override
   public JavaSootMethod withSource(@Nonnull BodySource source) {
     return new JavaSootMethod(
-        source, getSignature(), getModifiers(), exceptions, getAnnotations(), getPosition());
+        source,
+        getSignature(),
+        getModifiers(),
+        exceptions,
+        getAnnotations(),
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
@@ -82,7 +102,8 @@ public class JavaSootMethod extends SootMethod {
         modifiers,
         getExceptionSignatures(),
         getAnnotations(),
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
@@ -94,7 +115,8 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         thrownExceptions,
         getAnnotations(),
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
@@ -105,7 +127,8 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         getExceptionSignatures(),
         annotations,
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
@@ -117,7 +140,21 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         exceptions,
         getAnnotations(),
-        getPosition());
+        getPosition(),
+        bodyRetentionPolicy);
+  }
+
+  @Nonnull
+  @Override
+  public JavaSootMethod withBodyRetentionPolicy(@Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
+    return new JavaSootMethod(
+        bodySource,
+        getSignature(),
+        getModifiers(),
+        exceptions,
+        getAnnotations(),
+        getPosition(),
+        bodyRetentionPolicy);
   }
 
   @Nonnull
@@ -0,0 +1,124 @@
+package sootup.java.core.entrypoints;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.model.ClassModifier;
+import sootup.core.types.ClassType;
+import sootup.java.core.AnnotationUsage;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootMethod;
+
+/**
+ * The declaration of a class as needed to discover entry points: its {@link ClassHeader}, the
+ * types of its annotations and the declarations of its methods. Frontends can read it from the
+ * class files without converting fields and method bodies.
+ *
+ * @see ClassDeclarationSource
+ */
+public final class ClassDeclaration {
+
+  @Nonnull private final ClassHeader header;
+  @Nonnull private final Set<ClassType> annotations;
+  @Nonnull private final List<MethodDeclaration> methods;
+
+  public ClassDeclaration(
+      @Nonnull ClassHeader header,
+      @Nonnull Set<? extends ClassType> annotations,
+      @Nonnull List<MethodDeclaration> methods) {
+    this.header = header;
+    this.annotations =
+        annotations.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(new LinkedHashSet<>(annotations));
+    this.methods =
+        methods.isEmpty()
+            ? Collections.emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(methods));
+  }
+
+  /** Creates the declaration of an already built class. */
+  @Nonnull
+  public static ClassDeclaration of(@Nonnull JavaSootClass sootClass) {
+    Set<ClassType> annotations = new LinkedHashSet<>();
+    for (AnnotationUsage annotation : sootClass.getAnnotations()) {
+      annotations.add(annotation.getAnnotation());
+    }
+    List<MethodDeclaration> methods = new ArrayList<>();
+    for (JavaSootMethod method : sootClass.getMethods()) {
+      methods.add(MethodDeclaration.of(method));
+    }
+    return new ClassDeclaration(ClassHeader.of(sootClass), annotations, methods);
+  }
+
+  @Nonnull
+  public ClassHeader getHeader() {
+    return header;
+  }
+
+  @Nonnull
+  public ClassType getType() {
+    return header.getType();
+  }
+
+  /** @return the types of the annotations of the class */
+  @Nonnull
+  public Set<ClassType> getAnnotations() {
+    return annotations;
+  }
+
+  /** @param annotationName the fully qualified name of an annotation type */
+  public boolean hasAnnotation(@Nonnull String annotationName) {
+    for (ClassType annotation : annotations) {
+      if (annotation.getFullyQualifiedName().equals(annotationName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** @return the methods declared by the class, i.e. without inherited methods */
+  @Nonnull
+  public List<MethodDeclaration> getMethods() {
+    return methods;
+  }
+
+  public boolean isInterface() {
+    return header.isInterface();
+  }
+
+  public boolean isAbstract() {
+    return ClassModifier.isAbstract(header.getModifiers());
+  }
+
+  @Override
+  public String toString() {
+    return "ClassDeclaration{" + header.getType() + ", " + methods.size() + " methods}";
+  }
+}
@@ -0,0 +1,69 @@
+package sootup.java.core.entrypoints;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.views.View;
+import sootup.java.core.JavaSootClassSource;
+
+/**
+ * An {@link AnalysisInputLocation} that can read the {@link ClassDeclaration}s of its classes
+ * without creating class sources, e.g. by skipping the code of the methods in the class files.
+ */
+public interface ClassDeclarationSource {
+
+  /**
+   * Scans the input location and reads the declaration of every class it contains.
+   *
+   * @return The declarations of all classes of the input location.
+   */
+  @Nonnull
+  Collection<ClassDeclaration> getClassDeclarations(@Nonnull View view);
+
+  /**
+   * Reads the declarations of the classes of any input location. If the input location is not a
+   * {@link ClassDeclarationSource}, the classes are built from its class sources. This does not
+   * build any method body.
+   */
+  @Nonnull
+  static Collection<ClassDeclaration> getClassDeclarations(
+      @Nonnull AnalysisInputLocation inputLocation, @Nonnull View view) {
+    if (inputLocation instanceof ClassDeclarationSource) {
+      return ((ClassDeclarationSource) inputLocation).getClassDeclarations(view);
+    }
+    List<ClassDeclaration> declarations = new ArrayList<>();
+    for (SootClassSource classSource : inputLocation.getClassSources(view)) {
+      if (classSource instanceof JavaSootClassSource) {
+        declarations.add(
+            ClassDeclaration.of(
+                ((JavaSootClassSource) classSource).buildClass(inputLocation.getSourceType())));
+      }
+    }
+    return declarations;
+  }
+}
@@ -0,0 +1,105 @@
+package sootup.java.core.entrypoints;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.types.ClassType;
+
+/**
+ * The declarations of all classes of a view that are scanned for entry points. It resolves the
+ * supertypes of a class along the declared superclasses and interfaces. Types that are not
+ * contained, e.g. the classes of a framework that is not part of the view, are supertypes as well,
+ * but their own supertypes are unknown.
+ */
+public final class ClassDeclarations {
+
+  @Nonnull private final Map<ClassType, ClassDeclaration> declarations;
+
+  /** type -&gt; all its supertypes, computed on demand */
+  @Nonnull private final Map<ClassType, Set<ClassType>> supertypes = new HashMap<>();
+
+  ClassDeclarations(@Nonnull Map<ClassType, ClassDeclaration> declarations) {
+    this.declarations = declarations;
+  }
+
+  @Nonnull
+  public Optional<ClassDeclaration> getDeclaration(@Nonnull ClassType type) {
+    return Optional.ofNullable(declarations.get(type));
+  }
+
+  @Nonnull
+  public Collection<ClassDeclaration> getDeclarations() {
+    return declarations.values();
+  }
+
+  /**
+   * @return the direct and indirect superclasses and interfaces of the given class, without the
+   *     class itself
+   */
+  @Nonnull
+  public Set<ClassType> getSupertypes(@Nonnull ClassDeclaration declaration) {
+    Set<ClassType> result = supertypes.get(declaration.getType());
+    if (result != null) {
+      return result;
+    }
+    result = new LinkedHashSet<>();
+    Deque<ClassType> workList = new ArrayDeque<>();
+    declaration.getHeader().getSuperclass().ifPresent(workList::add);
+    workList.addAll(declaration.getHeader().getInterfaces());
+    while (!workList.isEmpty()) {
+      ClassType type = workList.poll();
+      if (!result.add(type)) {
+        continue;
+      }
+      ClassDeclaration supertype = declarations.get(type);
+      if (supertype != null) {
+        supertype.getHeader().getSuperclass().ifPresent(workList::add);
+        workList.addAll(supertype.getHeader().getInterfaces());
+      }
+    }
+    supertypes.put(declaration.getType(), result);
+    return result;
+  }
+
+  /**
+   * @param typeNames fully qualified names of classes or interfaces
+   * @return true if the given class extends or implements one of the given types
+   */
+  public boolean isSubtypeOf(
+      @Nonnull ClassDeclaration declaration, @Nonnull Collection<String> typeNames) {
+    for (ClassType supertype : getSupertypes(declaration)) {
+      if (typeNames.contains(supertype.getFullyQualifiedName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
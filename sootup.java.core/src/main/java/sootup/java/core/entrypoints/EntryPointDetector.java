@@ -0,0 +1,47 @@
+package sootup.java.core.entrypoints;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Finds the entry points of a framework in the declaration of a class, e.g. the methods of a web
+ * controller or the lifecycle callbacks of a component. Detectors are applied by an {@link
+ * EntryPointDiscovery} to every class of the application. {@link EntryPointDetectors} contains the
+ * detectors for common frameworks.
+ */
+@FunctionalInterface
+public interface EntryPointDetector {
+
+  /**
+   * @param declaration the class that is inspected
+   * @param declarations all classes of the application, e.g. to look up supertypes
+   * @param entryPoints receives the entry methods declared by the class
+   */
+  void detect(
+      @Nonnull ClassDeclaration declaration,
+      @Nonnull ClassDeclarations declarations,
+      @Nonnull Consumer<MethodSignature> entryPoints);
+}
@@ -0,0 +1,281 @@
+package sootup.java.core.entrypoints;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import sootup.core.types.ClassType;
+import sootup.core.types.VoidType;
+
+/** {@link EntryPointDetector}s for common kinds of programs and frameworks. */
+public final class EntryPointDetectors {
+
+  /** Finds the <code>public static void main(String[])</code> methods. */
+  public static final EntryPointDetector MAIN_METHODS =
+      methods(
+          method ->
+              method.isStatic()
+                  && method.isPublic()
+                  && method.getName().equals("main")
+                  && method.getSignature().getType() == VoidType.getInstance()
+                  && method.getSignature().getParameterTypes().size() == 1
+                  && method
+                      .getSignature()
+                      .getParameterTypes()
+                      .get(0)
+                      .toString()
+                      .equals("java.lang.String[]"));
+
+  /**
+   * Finds the test methods and the set up and tear down methods of JUnit 3, 4 and 5 and TestNG.
+   */
+  public static final EntryPointDetector TESTS =
+      combine(
+          annotatedMethods(
+              "org.junit.Test",
+              "org.junit.Before",
+              "org.junit.After",
+              "org.junit.BeforeClass",
+              "org.junit.AfterClass",
+              "org.junit.jupiter.api.Test",
+              "org.junit.jupiter.api.RepeatedTest",
+              "org.junit.jupiter.api.TestFactory",
+              "org.junit.jupiter.api.TestTemplate",
+              "org.junit.jupiter.api.BeforeEach",
+              "org.junit.jupiter.api.AfterEach",
+              "org.junit.jupiter.api.BeforeAll",
+              "org.junit.jupiter.api.AfterAll",
+              "org.junit.jupiter.params.ParameterizedTest",
+              "org.testng.annotations.Test",
+              "org.testng.annotations.BeforeMethod",
+              "org.testng.annotations.AfterMethod",
+              "org.testng.annotations.BeforeClass",
+              "org.testng.annotations.AfterClass"),
+          subtypeMethods(
+              Collections.singletonList("junit.framework.TestCase"),
+              method ->
+                  method.isPublic()
+                      && (method.getName().startsWith("test")
+                          || method.getName().equals("setUp")
+                          || method.getName().equals("tearDown"))));
+
+  /** Finds the methods that are called after the construction or before the destruction. */
+  public static final EntryPointDetector LIFECYCLE_CALLBACKS =
+      annotatedMethods(
+          "javax.annotation.PostConstruct",
+          "javax.annotation.PreDestroy",
+          "jakarta.annotation.PostConstruct",
+          "jakarta.annotation.PreDestroy");
+
+  /** Finds the request handlers of Spring MVC controllers and JAX-RS resources. */
+  public static final EntryPointDetector WEB_CONTROLLERS =
+      annotatedMethods(
+          "org.springframework.web.bind.annotation.RequestMapping",
+          "org.springframework.web.bind.annotation.GetMapping",
+          "org.springframework.web.bind.annotation.PostMapping",
+          "org.springframework.web.bind.annotation.PutMapping",
+          "org.springframework.web.bind.annotation.DeleteMapping",
+          "org.springframework.web.bind.annotation.PatchMapping",
+          "org.springframework.web.bind.annotation.ExceptionHandler",
+          "javax.ws.rs.GET",
+          "javax.ws.rs.POST",
+          "javax.ws.rs.PUT",
+          "javax.ws.rs.DELETE",
+          "javax.ws.rs.HEAD",
+          "javax.ws.rs.OPTIONS",
+          "javax.ws.rs.PATCH",
+          "jakarta.ws.rs.GET",
+          "jakarta.ws.rs.POST",
+          "jakarta.ws.rs.PUT",
+          "jakarta.ws.rs.DELETE",
+          "jakarta.ws.rs.HEAD",
+          "jakarta.ws.rs.OPTIONS",
+          "jakarta.ws.rs.PATCH");
+
+  /**
+   * Finds the constructors and the methods of servlets, filters and listeners that are called by
+   * the servlet container.
+   */
+  public static final EntryPointDetector SERVLETS =
+      subtypeMethods(
+          withJakarta(
+              "javax.servlet.Servlet",
+              "javax.servlet.GenericServlet",
+              "javax.servlet.http.HttpServlet",
+              "javax.servlet.Filter",
+              "javax.servlet.ServletContextListener",
+              "javax.servlet.ServletRequestListener",
+              "javax.servlet.http.HttpSessionListener"),
+          callbackNamed(
+              "init",
+              "destroy",
+              "service",
+              "doGet",
+              "doPost",
+              "doPut",
+              "doDelete",
+              "doHead",
+              "doOptions",
+              "doTrace",
+              "getLastModified",
+              "doFilter",
+              "contextInitialized",
+              "contextDestroyed",
+              "requestInitialized",
+              "requestDestroyed",
+              "sessionCreated",
+              "sessionDestroyed"));
+
+  /**
+   * Finds the constructors and the lifecycle callbacks, i.e. the methods whose name starts with
+   * <code>on</code>, of Android components as well as the methods of content providers.
+   */
+  public static final EntryPointDetector ANDROID_COMPONENTS =
+      combine(
+          subtypeMethods(
+              Arrays.asList(
+                  "android.app.Activity",
+                  "android.app.Service",
+                  "android.app.IntentService",
+                  "android.app.Application",
+                  "android.app.Fragment",
+                  "android.content.BroadcastReceiver",
+                  "android.content.ContentProvider",
+                  "androidx.appcompat.app.AppCompatActivity",
+                  "androidx.fragment.app.Fragment",
+                  "androidx.fragment.app.FragmentActivity"),
+              method ->
+                  isCallback(method)
+                      && (isDefaultConstructor(method) || method.getName().startsWith("on"))),
+          subtypeMethods(
+              Collections.singletonList("android.content.ContentProvider"),
+              callbackNamed("query", "insert", "update", "delete", "getType")));
+
+  private EntryPointDetectors() {}
+
+  /** @return all detectors of this class */
+  @Nonnull
+  public static List<EntryPointDetector> all() {
+    return Arrays.asList(
+        MAIN_METHODS,
+        TESTS,
+        LIFECYCLE_CALLBACKS,
+        WEB_CONTROLLERS,
+        SERVLETS,
+        ANDROID_COMPONENTS);
+  }
+
+  /** @return a detector for the concrete methods that match the given filter */
+  @Nonnull
+  public static EntryPointDetector methods(@Nonnull Predicate<MethodDeclaration> filter) {
+    return (declaration, declarations, entryPoints) -> {
+      for (MethodDeclaration method : declaration.getMethods()) {
+        if (!method.isAbstract() && filter.test(method)) {
+          entryPoints.accept(method.getSignature());
+        }
+      }
+    };
+  }
+
+  /**
+   * @param annotationNames the fully qualified names of annotation types
+   * @return a detector for the concrete methods that have one of the given annotations
+   */
+  @Nonnull
+  public static EntryPointDetector annotatedMethods(@Nonnull String... annotationNames) {
+    Set<String> names = new HashSet<>(Arrays.asList(annotationNames));
+    return methods(
+        method -> {
+          for (ClassType annotation : method.getAnnotations()) {
+            if (names.contains(annotation.getFullyQualifiedName())) {
+              return true;
+            }
+          }
+          return false;
+        });
+  }
+
+  /**
+   * @param supertypeNames the fully qualified names of classes or interfaces of a framework
+   * @return a detector for the concrete methods that match the given filter in the classes that
+   *     extend or implement one of the given types
+   */
+  @Nonnull
+  public static EntryPointDetector subtypeMethods(
+      @Nonnull Collection<String> supertypeNames, @Nonnull Predicate<MethodDeclaration> filter) {
+    Set<String> names = new HashSet<>(supertypeNames);
+    EntryPointDetector methods = methods(filter);
+    return (declaration, declarations, entryPoints) -> {
+      // methods of abstract classes are inherited by the concrete classes of the framework
+      if (!declaration.isInterface() && declarations.isSubtypeOf(declaration, names)) {
+        methods.detect(declaration, declarations, entryPoints);
+      }
+    };
+  }
+
+  /** @return a detector that applies all given detectors */
+  @Nonnull
+  public static EntryPointDetector combine(@Nonnull EntryPointDetector... detectors) {
+    List<EntryPointDetector> detectorList = Arrays.asList(detectors.clone());
+    return (declaration, declarations, entryPoints) -> {
+      for (EntryPointDetector detector : detectorList) {
+        detector.detect(declaration, declarations, entryPoints);
+      }
+    };
+  }
+
+  /** the default constructor and the callbacks with the given names */
+  @Nonnull
+  private static Predicate<MethodDeclaration> callbackNamed(@Nonnull String... names) {
+    Set<String> nameSet = new HashSet<>(Arrays.asList(names));
+    return method ->
+        isCallback(method) && (isDefaultConstructor(method) || nameSet.contains(method.getName()));
+  }
+
+  /** methods that a framework can call on an instance */
+  private static boolean isCallback(@Nonnull MethodDeclaration method) {
+    return !method.isStatic() && !method.isPrivate();
+  }
+
+  private static boolean isDefaultConstructor(@Nonnull MethodDeclaration method) {
+    return method.getName().equals("<init>")
+        && method.getSignature().getParameterTypes().isEmpty();
+  }
+
+  @Nonnull
+  private static List<String> withJakarta(@Nonnull String... javaxNames) {
+    List<String> names = new ArrayList<>(javaxNames.length * 2);
+    for (String name : javaxNames) {
+      names.add(name);
+      names.add("jakarta" + name.substring("javax".length()));
+    }
+    return names;
+  }
+}
@@ -0,0 +1,142 @@
+package sootup.java.core.entrypoints;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Discovers the entry points of an application, e.g. to construct a call graph for a web
+ * application or a test suite instead of a single <code>main</code> method. The classes of the
+ * application input locations are read as {@link ClassDeclaration}s, i.e. only their headers,
+ * methods and annotations are read and no method body is built. Each class is then passed to the
+ * configured {@link EntryPointDetector}s.
+ *
+ * <p>The declarations are cached per input location, so discovering the entry points of several
+ * views that share input locations reads each input location only once. Library input locations
+ * are not scanned, so a supertype of an application class that is declared in a library is known,
+ * but not its own supertypes. Entry points are thus detected along the declared supertypes of the
+ * application classes, and the detectors list the framework types that are usually extended.
+ *
+ * <pre>
+ * EntryPointDiscovery discovery = new EntryPointDiscovery(
+ *     Arrays.asList(EntryPointDetectors.WEB_CONTROLLERS, EntryPointDetectors.SERVLETS));
+ * CallGraph cg = new ClassHierarchyAnalysisAlgorithm(view).initialize(discovery.discover(view));
+ * </pre>
+ */
+public class EntryPointDiscovery {
+
+  @Nonnull private final List<EntryPointDetector> detectors;
+
+  /** input location -&gt; the declarations of its classes */
+  @Nonnull
+  private final Map<AnalysisInputLocation, Collection<ClassDeclaration>> declarationCache =
+      new ConcurrentHashMap<>();
+
+  /** Creates a discovery with all detectors of {@link EntryPointDetectors}. */
+  public EntryPointDiscovery() {
+    this(EntryPointDetectors.all());
+  }
+
+  public EntryPointDiscovery(@Nonnull List<EntryPointDetector> detectors) {
+    this.detectors = new ArrayList<>(detectors);
+  }
+
+  /**
+   * Discovers the entry points in the application input locations of the given view.
+   *
+   * @return the entry methods sorted by their signature
+   */
+  @Nonnull
+  public List<MethodSignature> discover(@Nonnull JavaView view) {
+    return discover(view, view.getInputLocations());
+  }
+
+  /**
+   * Discovers the entry points in the given application input locations. Like for the classes of a
+   * view, the first input location that contains a type determines its declaration.
+   *
+   * @return the entry methods sorted by their signature
+   */
+  @Nonnull
+  public List<MethodSignature> discover(
+      @Nonnull View view, @Nonnull Collection<? extends AnalysisInputLocation> inputLocations) {
+    Map<ClassType, ClassDeclaration> declarations = new LinkedHashMap<>();
+    for (AnalysisInputLocation inputLocation : inputLocations) {
+      if (inputLocation.getSourceType() == SourceType.Library) {
+        continue;
+      }
+      for (ClassDeclaration declaration : getClassDeclarations(inputLocation, view)) {
+        declarations.putIfAbsent(declaration.getType(), declaration);
+      }
+    }
+
+    ClassDeclarations classDeclarations = new ClassDeclarations(declarations);
+    Set<MethodSignature> entryPoints = new LinkedHashSet<>();
+    for (ClassDeclaration declaration : declarations.values()) {
+      for (EntryPointDetector detector : detectors) {
+        detector.detect(declaration, classDeclarations, entryPoints::add);
+      }
+    }
+
+    List<MethodSignature> sortedEntryPoints = new ArrayList<>(entryPoints);
+    sortedEntryPoints.sort(Comparator.comparing(MethodSignature::toString));
+    return sortedEntryPoints;
+  }
+
+  /**
+   * @return the declarations of the classes of the given input location, which are read only once
+   *     per input location
+   */
+  @Nonnull
+  public Collection<ClassDeclaration> getClassDeclarations(
+      @Nonnull AnalysisInputLocation inputLocation, @Nonnull View view) {
+    return declarationCache.computeIfAbsent(
+        inputLocation,
+        location -> ClassDeclarationSource.getClassDeclarations(location, view));
+  }
+
+  /** Removes the cached declarations of the given input location, e.g. after it was modified. */
+  public void invalidate(@Nonnull AnalysisInputLocation inputLocation) {
+    declarationCache.remove(inputLocation);
+  }
+
+  /** Removes the cached declarations of all input locations. */
+  public void clear() {
+    declarationCache.clear();
+  }
+}
@@ -0,0 +1,127 @@
+package sootup.java.core.entrypoints;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.model.MethodModifier;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.java.core.AnnotationUsage;
+import sootup.java.core.JavaSootMethod;
+
+/**
+ * The declaration of a method as needed to discover entry points: its signature, modifiers and the
+ * types of its annotations. Unlike a {@link JavaSootMethod}, it does not reference a body source.
+ */
+public final class MethodDeclaration {
+
+  @Nonnull private final MethodSignature signature;
+  @Nonnull private final Set<MethodModifier> modifiers;
+  @Nonnull private final Set<ClassType> annotations;
+
+  public MethodDeclaration(
+      @Nonnull MethodSignature signature,
+      @Nonnull Set<MethodModifier> modifiers,
+      @Nonnull Set<? extends ClassType> annotations) {
+    this.signature = signature;
+    this.modifiers =
+        modifiers.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(EnumSet.copyOf(modifiers));
+    this.annotations =
+        annotations.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(new LinkedHashSet<>(annotations));
+  }
+
+  /** Creates the declaration of an already built method. */
+  @Nonnull
+  public static MethodDeclaration of(@Nonnull JavaSootMethod method) {
+    Set<ClassType> annotations = new LinkedHashSet<>();
+    for (AnnotationUsage annotation : method.getAnnotations()) {
+      annotations.add(annotation.getAnnotation());
+    }
+    return new MethodDeclaration(method.getSignature(), method.getModifiers(), annotations);
+  }
+
+  @Nonnull
+  public MethodSignature getSignature() {
+    return signature;
+  }
+
+  @Nonnull
+  public String getName() {
+    return signature.getName();
+  }
+
+  @Nonnull
+  public Set<MethodModifier> getModifiers() {
+    return modifiers;
+  }
+
+  /** @return the types of the annotations of the method */
+  @Nonnull
+  public Set<ClassType> getAnnotations() {
+    return annotations;
+  }
+
+  /** @param annotationName the fully qualified name of an annotation type */
+  public boolean hasAnnotation(@Nonnull String annotationName) {
+    for (ClassType annotation : annotations) {
+      if (annotation.getFullyQualifiedName().equals(annotationName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean isStatic() {
+    return MethodModifier.isStatic(modifiers);
+  }
+
+  public boolean isPublic() {
+    return MethodModifier.isPublic(modifiers);
+  }
+
+  public boolean isPrivate() {
+    return MethodModifier.isPrivate(modifiers);
+  }
+
+  public boolean isAbstract() {
+    return MethodModifier.isAbstract(modifiers);
+  }
+
+  /** @return true if the method is a constructor or a static initializer */
+  public boolean isInitializer() {
+    return signature.getName().equals("<init>") || signature.getName().equals("<clinit>");
+  }
+
+  @Override
+  public String toString() {
+    return signature.toString();
+  }
+}
@@ -0,0 +1,82 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import sootup.core.types.ClassType;
+
+/**
+ * Summary of a bulk load of the classes of a {@link JavaView}.
+ *
+ * @see JavaView#loadAll(java.util.concurrent.Executor)
+ */
+public class ClassLoadingResult {
+
+  /** Is notified whenever a class has been processed during a bulk load. */
+  @FunctionalInterface
+  public interface ProgressListener {
+    /**
+     * Called from the thread that processed the class; implementations have to be thread-safe.
+     *
+     * @param processedClasses the number of classes that are processed so far
+     * @param totalClasses the number of classes that are loaded in total
+     */
+    void onProgress(int processedClasses, int totalClasses);
+  }
+
+  private final int loadedClassCount;
+  @Nonnull private final Map<ClassType, Throwable> failedClasses;
+
+  public ClassLoadingResult(
+      int loadedClassCount, @Nonnull Map<ClassType, Throwable> failedClasses) {
+    this.loadedClassCount = loadedClassCount;
+    this.failedClasses = Collections.unmodifiableMap(failedClasses);
+  }
+
+  /** Returns the number of classes that were loaded successfully. */
+  public int getLoadedClassCount() {
+    return loadedClassCount;
+  }
+
+  /** Returns the classes that could not be loaded together with the reason of the failure. */
+  @Nonnull
+  public Map<ClassType, Throwable> getFailedClasses() {
+    return failedClasses;
+  }
+
+  /** Returns true if every class was loaded successfully. */
+  public boolean isSuccessful() {
+    return failedClasses.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "ClassLoadingResult{loaded="
+        + loadedClassCount
+        + ", failed="
+        + failedClasses.keySet()
+        + '}';
+  }
+}
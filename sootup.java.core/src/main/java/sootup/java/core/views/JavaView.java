@@ -22,17 +22,25 @@ package sootup.java.core.views;
  * #L%
  */
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import sootup.core.cache.BodyRetentionPolicy;
 import sootup.core.cache.ClassCache;
+import sootup.core.cache.ConcurrentFullCache;
 import sootup.core.cache.FullCache;
+import sootup.core.cache.StrongBodyRetentionPolicy;
 import sootup.core.cache.provider.ClassCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.frontend.AbstractClassSource;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.types.ClassType;
@@ -43,6 +51,12 @@ import sootup.java.core.*;
  * The Class JavaView manages the Java classes of the application being analyzed. This view cannot
  * be altered after its creation.
  *
+ * <p>If the view is created with a {@link ConcurrentFullCache} (e.g. via {@link
+ * sootup.core.cache.provider.ConcurrentFullCacheProvider}), classes are resolved without locking
+ * the view: lookups of cached classes take no lock and every class is built at most once, while
+ * different classes can be built in parallel. With any other cache the access to the view is
+ * serialized.
+ *
  * @author Linghui Luo created on 31.07.2018
  * @author Jan Martin Persch
  */
@@ -68,10 +82,31 @@ public class JavaView extends AbstractView {
     this(inputLocations, cacheProvider, JavaIdentifierFactory.getInstance());
   }
 
+  /**
+   * Creates a view whose methods keep their resolved bodies according to the given {@link
+   * BodyRetentionPolicy}, e.g. a {@link sootup.core.cache.LRUBodyRetentionPolicy} to bound the
+   * memory used by the bodies of this view.
+   */
+  public JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
+    this(inputLocations, cacheProvider, JavaIdentifierFactory.getInstance(), bodyRetentionPolicy);
+  }
+
   protected JavaView(
       @Nonnull List<AnalysisInputLocation> inputLocations,
       @Nonnull ClassCacheProvider cacheProvider,
       @Nonnull JavaIdentifierFactory idf) {
+    this(inputLocations, cacheProvider, idf, StrongBodyRetentionPolicy.getInstance());
+  }
+
+  protected JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull JavaIdentifierFactory idf,
+      @Nonnull BodyRetentionPolicy bodyRetentionPolicy) {
+    super(bodyRetentionPolicy);
     this.inputLocations = inputLocations;
     this.cache = cacheProvider.createCache();
     this.identifierFactory = idf;
@@ -80,8 +115,18 @@ public class JavaView extends AbstractView {
   /** Resolves all classes that are part of the view and stores them in the cache. */
   @Override
   @Nonnull
-  public synchronized Stream<JavaSootClass> getClasses() {
-    if (isFullyResolved && cache instanceof FullCache) {
+  public Stream<JavaSootClass> getClasses() {
+    if (cache instanceof ConcurrentFullCache) {
+      return resolveClasses();
+    }
+    synchronized (this) {
+      return resolveClasses();
+    }
+  }
+
+  @Nonnull
+  private Stream<JavaSootClass> resolveClasses() {
+    if (isFullyResolved && (cache instanceof FullCache || cache instanceof ConcurrentFullCache)) {
       return cache.getClasses().stream().map(clazz -> (JavaSootClass) clazz);
     }
 
@@ -97,10 +142,138 @@ public class JavaView extends AbstractView {
     return resolvedClasses;
   }
 
+  /**
+   * Reads the headers of all classes that are part of the view from the input locations, without
+   * building the classes. Like for {@link #getClass(ClassType)}, the first input location that
+   * contains a type determines its header.
+   */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> getClassHeaders() {
+    if (isFullyResolved && (cache instanceof FullCache || cache instanceof ConcurrentFullCache)) {
+      return cache.getClasses().stream().map(ClassHeader::of);
+    }
+
+    Map<ClassType, ClassHeader> headers = new LinkedHashMap<>();
+    for (AnalysisInputLocation location : inputLocations) {
+      for (ClassHeader header : location.getClassHeaders(this)) {
+        headers.putIfAbsent(header.getType(), header);
+      }
+    }
+    return headers.values().stream();
+  }
+
+  /**
+   * Resolves all classes that are part of the view in parallel and stores them in the cache.
+   *
+   * @see #loadAll(Executor, ClassLoadingResult.ProgressListener)
+   */
+  @Nonnull
+  public ClassLoadingResult loadAll(@Nonnull Executor executor) {
+    return loadAll(executor, (processedClasses, totalClasses) -> {});
+  }
+
+  /**
+   * Resolves all classes that are part of the view by building them on the given executor and
+   * stores them in the cache. Classes that can not be built do not abort the loading but are
+   * reported in the returned {@link ClassLoadingResult}. The method blocks until every class is
+   * processed.
+   *
+   * <p>Classes are built in parallel regardless of the cache, but only a {@link
+   * ConcurrentFullCache} allows the view to be used by other threads without contention while the
+   * classes are loaded.
+   *
+   * @param executor runs the building of the classes, e.g. a {@link
+   *     java.util.concurrent.ForkJoinPool}
+   * @param progressListener is notified after each processed class; an exception thrown by the
+   *     listener is rethrown by this method once every class is processed
+   */
+  @Nonnull
+  public ClassLoadingResult loadAll(
+      @Nonnull Executor executor, @Nonnull ClassLoadingResult.ProgressListener progressListener) {
+    // like javas behaviour: if multiple matching classes are found on the classpath the first wins
+    Map<ClassType, AbstractClassSource> classSources = new LinkedHashMap<>();
+    for (AnalysisInputLocation location : inputLocations) {
+      for (AbstractClassSource classSource : location.getClassSources(this)) {
+        classSources.putIfAbsent(classSource.getClassType(), classSource);
+      }
+    }
+
+    int totalClasses = classSources.size();
+    AtomicInteger processedClasses = new AtomicInteger();
+    Map<ClassType, Throwable> failedClasses = new ConcurrentHashMap<>();
+    CompletableFuture<?>[] tasks =
+        classSources.values().stream()
+            .map(
+                classSource ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          try {
+                            loadClass(classSource);
+                          } catch (Throwable throwable) {
+                            failedClasses.put(classSource.getClassType(), throwable);
+                          }
+                          progressListener.onProgress(
+                              processedClasses.incrementAndGet(), totalClasses);
+                        },
+                        executor))
+            .toArray(CompletableFuture[]::new);
+    try {
+      // failures of loadClass are collected above - only the listener can make a task fail
+      CompletableFuture.allOf(tasks).join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+
+    if (failedClasses.isEmpty()) {
+      isFullyResolved = true;
+    }
+    return new ClassLoadingResult(totalClasses - failedClasses.size(), failedClasses);
+  }
+
+  private void loadClass(@Nonnull AbstractClassSource classSource) {
+    if (cache instanceof ConcurrentFullCache) {
+      buildClassFrom(classSource);
+      return;
+    }
+
+    // build outside of the lock so that only the access to the cache is serialized
+    ClassType classType = classSource.getClassType();
+    synchronized (this) {
+      if (cache.hasClass(classType)) {
+        return;
+      }
+    }
+    SootClass theClass =
+        classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
+    synchronized (this) {
+      if (!cache.hasClass(classType)) {
+        cache.putClass(classType, theClass);
+      }
+    }
+  }
+
   /** Resolves the class matching the provided {@link ClassType ClassType}. */
   @Override
   @Nonnull
-  public synchronized Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+  public Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+    if (cache instanceof ConcurrentFullCache) {
+      return resolveClass(type);
+    }
+    synchronized (this) {
+      return resolveClass(type);
+    }
+  }
+
+  @Nonnull
+  private Optional<JavaSootClass> resolveClass(@Nonnull ClassType type) {
     JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
     if (cachedClass != null) {
       return Optional.of(cachedClass);
@@ -135,6 +308,12 @@ public class JavaView extends AbstractView {
     return identifierFactory;
   }
 
+  /** Returns the input locations of the view in the order in which they are searched. */
+  @Nonnull
+  public List<AnalysisInputLocation> getInputLocations() {
+    return Collections.unmodifiableList(inputLocations);
+  }
+
   /** Returns the number of classes that are currently stored in the cache. */
   public int getCachedClassesCount() {
     return cache.size();
@@ -155,18 +334,30 @@ public class JavaView extends AbstractView {
   }
 
   @Nonnull
-  protected synchronized Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
-
+  protected Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
     ClassType classType = classSource.getClassType();
-    JavaSootClass theClass;
-    if (cache.hasClass(classType)) {
-      theClass = (JavaSootClass) cache.getClass(classType);
-    } else {
-      theClass =
+    if (cache instanceof ConcurrentFullCache) {
+      return Optional.of(
           (JavaSootClass)
-              classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
-      cache.putClass(classType, theClass);
+              ((ConcurrentFullCache) cache)
+                  .getOrBuild(
+                      classType,
+                      () ->
+                          classSource.buildClass(
+                              classSource.getAnalysisInputLocation().getSourceType())));
+    }
+
+    synchronized (this) {
+      JavaSootClass theClass;
+      if (cache.hasClass(classType)) {
+        theClass = (JavaSootClass) cache.getClass(classType);
+      } else {
+        theClass =
+            (JavaSootClass)
+                classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
+        cache.putClass(classType, theClass);
+      }
+      return Optional.of(theClass);
     }
-    return Optional.of(theClass);
   }
 }
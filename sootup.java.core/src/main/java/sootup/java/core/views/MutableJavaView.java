@@ -24,12 +24,14 @@ package sootup.java.core.views;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.core.ViewChangeListener;
 import sootup.core.cache.MutableClassCache;
 import sootup.core.cache.provider.MutableFullCacheProvider;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.signatures.MethodSubSignature;
 import sootup.core.types.ClassType;
@@ -53,6 +55,16 @@ public class MutableJavaView extends JavaView implements MutableView {
     super(inputLocations, new MutableFullCacheProvider());
   }
 
+  /**
+   * The classes of this view may differ from the ones in its input locations, so the headers are
+   * taken from the (resolved) classes.
+   */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> getClassHeaders() {
+    return getClasses().map(ClassHeader::of);
+  }
+
   /**
    * Adds the provided class to the mutable view. If the provided class already exists in the view,
    * a warning will be logged and the provided class will not be added a second time.
@@ -40,6 +40,18 @@ public class CoreConfig {
     APP
   }
 
+  /** The order in which the solver processes the nodes of its worklist. */
+  public enum WorklistOrder {
+    /** by node number, highest number first (default). */
+    NUMBER,
+    /** in the order the nodes were added. */
+    FIFO,
+    /** in topological order of the assignments, see {@link qilin.core.solver.TopologicalWorklist}. */
+    TOPOLOGICAL,
+    /** least recently processed node first. */
+    LRF
+  }
+
   public static class CorePTAConfiguration {
     public boolean singleentry = false;
 
@@ -83,6 +95,32 @@ public class CoreConfig {
     /** in qilin.spark limit heap context for strings if we are object sensitive */
     public boolean enforceEmptyCtxForIgnoreTypes = false;
 
+    /**
+     * the number of worker threads used by the solver. With more than one thread, the solver
+     * propagates points-to sets in rounds: the unions along assignment edges run in parallel,
+     * sharded by target node, and exception dispatch, loads, stores and virtual call dispatch are
+     * resolved in parallel, while the PAG and call graph edges they add are applied in worklist
+     * order. The resulting points-to sets are the same for any number of threads.
+     */
+    public int solverThreads = 1;
+
+    /**
+     * if true, the already propagated part of a points-to set is hash-consed, i.e., pointers with
+     * equal points-to sets share one immutable copy. This saves memory in context-sensitive analyses
+     * at the cost of creating a new set on every update.
+     */
+    public boolean sharedPointsToSets = false;
+
+    /**
+     * if true, the solver lazily detects cycles of simple assignments between nodes of the same
+     * declared type and collapses each of them into one representative, whose points-to set is then
+     * shared by all nodes of the cycle. Cycles are only collapsed if the solver runs on one thread.
+     */
+    public boolean collapseCycles = false;
+
+    /** the order in which the solver processes its worklist. */
+    public WorklistOrder worklistOrder = WorklistOrder.NUMBER;
+
     public String ptaName;
   }
 
@@ -19,7 +19,7 @@
 package qilin.core;
 
 import java.util.*;
-import qilin.util.DataFactory;
+import java.util.concurrent.ConcurrentHashMap;
 import qilin.util.PTAUtils;
 import qilin.util.queue.ChunkedQueue;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
@@ -44,7 +44,8 @@ public class VirtualCalls {
 
   public VirtualCalls(View view) {
     this.view = view;
-    this.typeToVtbl = DataFactory.createMap((int) view.getClasses().count());
+    // the solver resolves call targets on several threads
+    this.typeToVtbl = new ConcurrentHashMap<>((int) view.getClasses().count());
   }
 
   public SootMethod resolveSpecial(
@@ -80,7 +81,7 @@ public class VirtualCalls {
 
   public SootMethod resolveNonSpecial(ClassType t, MethodSubSignature subSig, boolean appOnly) {
     Map<MethodSubSignature, SootMethod> vtbl =
-        typeToVtbl.computeIfAbsent(t, k -> DataFactory.createMap(8));
+        typeToVtbl.computeIfAbsent(t, k -> new ConcurrentHashMap<>(8));
     SootMethod ret = vtbl.get(subSig);
     if (ret != null) {
       return ret;
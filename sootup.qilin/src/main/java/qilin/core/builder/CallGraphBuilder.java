@@ -39,6 +39,7 @@ import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.constant.NullConstant;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.jimple.common.expr.JStaticInvokeExpr;
 import sootup.core.jimple.common.stmt.InvokableStmt;
@@ -163,8 +164,19 @@ public class CallGraphBuilder {
   }
 
   protected void dispatch(AllocNode receiverNode, VirtualCallSite site) {
+    for (SootMethod target : resolveTargets(receiverNode, site)) {
+      addVirtualEdge(site, receiverNode, target);
+    }
+  }
+
+  /**
+   * Resolves the methods called at the site on the given receiver object. The PAG and the call
+   * graph are not modified, so the targets of several sites can be resolved concurrently.
+   */
+  public List<SootMethod> resolveTargets(AllocNode receiverNode, VirtualCallSite site) {
     Type type = receiverNode.getType();
     final QueueReader<SootMethod> targets = dispatch(type, site);
+    List<SootMethod> ret = new ArrayList<>();
     while (targets.hasNext()) {
       SootMethod target = targets.next();
       if (site.iie() instanceof JSpecialInvokeExpr) {
@@ -173,8 +185,14 @@ public class CallGraphBuilder {
           continue;
         }
       }
-      addVirtualEdge(site.container(), site.getUnit(), target, site.kind(), receiverNode);
+      ret.add(target);
     }
+    return ret;
+  }
+
+  /** Adds the edge from the site to a target resolved by {@link #resolveTargets}. */
+  public void addVirtualEdge(VirtualCallSite site, AllocNode receiverNode, SootMethod target) {
+    addVirtualEdge(site.container(), site.getUnit(), target, site.kind(), receiverNode);
   }
 
   private void addVirtualEdge(
@@ -254,6 +272,11 @@ public class CallGraphBuilder {
     MethodNodeFactory tgtnf = tgtmpag.nodeFactory();
     SootMethod tgtmtd = tgtmpag.getMethod();
     AbstractInvokeExpr ie = s.asInvokableStmt().getInvokeExpr().get();
+    // the captured arguments of a lambda are the first parameters of its implementation, which
+    // receives the receiver of a bound method reference as first argument. A constructor
+    // reference has no receiver, its captured arguments are the first parameters of <init>.
+    boolean isDynamic = ie instanceof JDynamicInvokeExpr;
+    int paramOffset = isDynamic && !tgtmtd.isStatic() && !PTAUtils.isConstructor(tgtmtd) ? -1 : 0;
     // add arg --> param edges.
     int numArgs = ie.getArgCount();
     for (int i = 0; i < numArgs; i++) {
@@ -261,18 +284,27 @@ public class CallGraphBuilder {
       if (!(arg.getType() instanceof ReferenceType) || arg instanceof NullConstant) {
         continue;
       }
-      Type tgtType = tgtmtd.getParameterType(i);
-      if (!(tgtType instanceof ReferenceType)) {
-        continue;
+      int paramIndex = i + paramOffset;
+      if (paramIndex >= tgtmtd.getParameterCount()) {
+        break;
       }
       Node argNode = srcnf.getNode(arg);
       argNode = pta.parameterize(argNode, srcContext);
-      Node parm = tgtnf.caseParm(i);
+      Node parm;
+      if (paramIndex < 0) {
+        parm = tgtnf.caseThis();
+      } else {
+        Type tgtType = tgtmtd.getParameterType(paramIndex);
+        if (!(tgtType instanceof ReferenceType)) {
+          continue;
+        }
+        parm = tgtnf.caseParm(paramIndex);
+      }
       parm = pta.parameterize(parm, tgtContext);
       pag.addEdge(argNode, parm);
     }
-    // add normal return edge
-    if (s instanceof JAssignStmt) {
+    // add normal return edge, the result of a dynamic invoke is the lambda object instead
+    if (s instanceof JAssignStmt && !isDynamic) {
       Value dest = ((JAssignStmt) s).getLeftOp();
 
       if (dest.getType() instanceof ReferenceType) {
@@ -66,27 +66,48 @@ public class ExceptionHandler {
    * dispatch the exception objects by following the exception-cath-links in Doop-ISSTA09.
    * */
   public void dispatch(AllocNode throwObj, ExceptionThrowSite site) {
+    addCatchEdge(throwObj, site, findCatchingTrap(throwObj, site));
+  }
+
+  /**
+   * Returns the first trap of the method which catches the exception object thrown at the site, or
+   * null if the object escapes the method. The PAG is not modified, so the traps of several sites
+   * can be found concurrently.
+   */
+  public Trap findCatchingTrap(AllocNode throwObj, ExceptionThrowSite site) {
     Type type = throwObj.getType();
+    MethodPAG mpag = pag.getMethodPAG(site.container().method());
+    List<Trap> trapList =
+        mpag.stmt2wrapperedTraps.getOrDefault(site.getUnit(), Collections.emptyList());
+    for (Trap trap : trapList) {
+      if (PTAUtils.canStoreType(pta.getView(), type, trap.getExceptionType())) {
+        return trap;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds the edge from the exception object to the parameter of the trap found by {@link
+   * #findCatchingTrap}, or to the throw node of the method if trap is null.
+   */
+  public void addCatchEdge(AllocNode throwObj, ExceptionThrowSite site, Trap trap) {
     ContextMethod momc = site.container();
     SootMethod sm = momc.method();
     Context context = momc.context();
     MethodPAG mpag = pag.getMethodPAG(sm);
     MethodNodeFactory nodeFactory = mpag.nodeFactory();
     VarNode throwNode = site.getThrowNode();
-    List<Trap> trapList =
-        mpag.stmt2wrapperedTraps.getOrDefault(site.getUnit(), Collections.emptyList());
-    for (Trap trap : trapList) {
-      if (PTAUtils.canStoreType(pta.getView(), type, trap.getExceptionType())) {
-        Stmt handler = trap.getHandlerStmt();
-        assert handler instanceof JIdentityStmt;
-        JIdentityStmt handlerStmt = (JIdentityStmt) handler;
-        Node caughtParam = nodeFactory.getNode(handlerStmt.getRightOp());
-        Node dst = pta.parameterize(caughtParam, context);
-        pag.addEdge(throwObj, dst);
-        // record an edge from base --> caughtParam on the methodPag.
-        recordImplictEdge(throwNode, caughtParam, mpag);
-        return;
-      }
+    if (trap != null) {
+      Stmt handler = trap.getHandlerStmt();
+      assert handler instanceof JIdentityStmt;
+      JIdentityStmt handlerStmt = (JIdentityStmt) handler;
+      Node caughtParam = nodeFactory.getNode(handlerStmt.getRightOp());
+      Node dst = pta.parameterize(caughtParam, context);
+      pag.addEdge(throwObj, dst);
+      // record an edge from base --> caughtParam on the methodPag.
+      recordImplictEdge(throwNode, caughtParam, mpag);
+      return;
     }
     // No trap handle the throwable object in the method.
     Node methodThrowNode = nodeFactory.caseMethodThrow();
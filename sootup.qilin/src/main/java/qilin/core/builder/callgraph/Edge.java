@@ -4,6 +4,7 @@ import qilin.core.context.Context;
 import qilin.core.pag.ContextMethod;
 import qilin.util.Invalidable;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
 import sootup.core.jimple.common.expr.JInterfaceInvokeExpr;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.jimple.common.expr.JStaticInvokeExpr;
@@ -102,6 +103,8 @@ public final class Edge implements Invalidable {
       return Kind.INTERFACE;
     } else if (ie instanceof JStaticInvokeExpr) {
       return Kind.STATIC;
+    } else if (ie instanceof JDynamicInvokeExpr) {
+      return Kind.DYNAMIC;
     } else {
       throw new RuntimeException();
     }
@@ -23,6 +23,9 @@ public final class Kind implements Numberable {
   /** Due to explicit invokespecial instruction. */
   public static final Kind SPECIAL = new Kind("SPECIAL");
 
+  /** Due to invokedynamic instruction, e.g. the call of the implementation of a lambda. */
+  public static final Kind DYNAMIC = new Kind("DYNAMIC");
+
   /** Implicit call to static initializer. */
   public static final Kind CLINIT = new Kind("CLINIT");
 
@@ -128,6 +131,11 @@ public final class Kind implements Numberable {
     return isStatic(this);
   }
 
+  /** Returns true if the call is due to an invokedynamic instruction. */
+  public boolean isDynamic() {
+    return isDynamic(this);
+  }
+
   public boolean isThread() {
     return isThread(this);
   }
@@ -158,6 +166,7 @@ public final class Kind implements Numberable {
 
   public static boolean passesParameters(Kind k) {
     return isExplicit(k)
+        || k == DYNAMIC
         || k == THREAD
         || k == EXECUTOR
         || k == ASYNCTASK
@@ -199,6 +208,10 @@ public final class Kind implements Numberable {
     return k == SPECIAL;
   }
 
+  public static boolean isDynamic(Kind k) {
+    return k == DYNAMIC;
+  }
+
   /** Returns true if the call is to static initializer. */
   public static boolean isClinit(Kind k) {
     return k == CLINIT;
@@ -22,6 +22,7 @@ package qilin.core.builder.callgraph;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -56,6 +57,7 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
   protected Set<MethodSignature> methods = DataFactory.createSet();
   protected Map<MethodSignature, Set<Call>> calls = DataFactory.createMap();
   protected int callCnt = 0;
+  protected List<MethodSignature> entryMethods = Collections.emptyList();
 
   protected Set<Edge> edges = new LinkedHashSet<>();
   protected ChunkedQueue<Edge> stream = new ChunkedQueue<>();
@@ -63,6 +65,7 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
   protected Map<ContextMethod, Edge> srcMethodToEdge = new LinkedHashMap<>();
   protected Map<Stmt, Edge> srcUnitToEdge = new LinkedHashMap<>();
   protected Map<ContextMethod, Edge> tgtToEdge = new LinkedHashMap<>();
+  protected Map<MethodSignature, Set<ContextMethod>> contextMethods = DataFactory.createMap();
   protected Edge dummy = new Edge(null, null, null, Kind.INVALID);
 
   /** Used to add an edge to the call graph. Returns true iff the edge was not already present. */
@@ -75,6 +78,8 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
     addMethod(srcSig);
     addMethod(tgtSig);
     addCall(srcSig, tgtSig, e.srcStmt());
+    contextMethods.computeIfAbsent(srcSig, k -> DataFactory.createSet()).add(e.getSrc());
+    contextMethods.computeIfAbsent(tgtSig, k -> DataFactory.createSet()).add(e.getTgt());
     stream.add(e);
 
     Edge position = srcUnitToEdge.get(e.srcUnit());
@@ -169,11 +174,6 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
     if (!edges.remove(e)) {
       return false;
     }
-    MethodSignature srcSig = e.getSrc().method().getSignature();
-    MethodSignature tgtSig = e.getTgt().method().getSignature();
-    Set<Call> tgtSigs = calls.getOrDefault(srcSig, Collections.emptySet());
-    assert (!tgtSigs.isEmpty());
-    tgtSigs.remove(tgtSig);
     // !FIXME only edge is removed. I do not remove the added nodes.
     e.remove();
 
@@ -200,6 +200,7 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
         tgtToEdge.remove(e.getTgt());
       }
     }
+    removeCallOf(e);
     // This is an linear operation, so we want to avoid it if possible.
     if (removeInEdgeList) {
       reader.remove(e);
@@ -215,14 +216,34 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
    * @return whether the removal was successful.
    */
   public boolean removeEdges(Collection<Edge> edges) {
-    if (!this.edges.removeAll(edges)) {
-      return false;
-    }
+    boolean hasRemoved = false;
     for (Edge e : edges) {
-      removeEdge(e, false);
+      hasRemoved |= removeEdge(e, false);
+    }
+    if (hasRemoved) {
+      reader.remove(edges);
+    }
+    return hasRemoved;
+  }
+
+  /**
+   * Removes the call of the removed edge e, unless it is still represented by an edge of another
+   * context, i.e. an edge of the same source unit between the same methods.
+   */
+  private void removeCallOf(Edge e) {
+    MethodSignature srcSig = e.getSrc().method().getSignature();
+    MethodSignature tgtSig = e.getTgt().method().getSignature();
+    for (Iterator<Edge> edgeRdr = edgesOutOf(e.srcUnit()); edgeRdr.hasNext(); ) {
+      Edge other = edgeRdr.next();
+      if (other.getSrc().method().getSignature().equals(srcSig)
+          && other.getTgt().method().getSignature().equals(tgtSig)) {
+        return;
+      }
+    }
+    Set<Call> sourceCalls = calls.get(srcSig);
+    if (sourceCalls != null && sourceCalls.remove(new Call(srcSig, tgtSig, e.srcStmt()))) {
+      --callCnt;
     }
-    reader.remove(edges);
-    return true;
   }
 
   /**
@@ -450,6 +471,47 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
         call.getSourceMethodSignature(), call.getTargetMethodSignature(), call.getInvokableStmt());
   }
 
+  /** Removes the method together with the edges from and to all of its contexts. */
+  @Override
+  public void removeMethod(@Nonnull MethodSignature method) {
+    if (!this.methods.remove(method)) {
+      return;
+    }
+    Set<Edge> edgesToRemove = new LinkedHashSet<>();
+    Set<ContextMethod> methodContexts = contextMethods.remove(method);
+    if (methodContexts != null) {
+      for (ContextMethod m : methodContexts) {
+        edgesOutOf(m).forEachRemaining(edgesToRemove::add);
+        edgesInto(m).forEachRemaining(edgesToRemove::add);
+      }
+    }
+    removeEdges(edgesToRemove);
+    // calls that were added without an edge
+    Set<Call> outgoingCalls = this.calls.remove(method);
+    if (outgoingCalls != null) {
+      callCnt -= outgoingCalls.size();
+    }
+  }
+
+  /** Removes the call together with its edges in all contexts. */
+  @Override
+  public void removeCall(@Nonnull Call call) {
+    List<Edge> edgesToRemove = new ArrayList<>();
+    for (Iterator<Edge> edgeRdr = edgesOutOf(call.getInvokableStmt()); edgeRdr.hasNext(); ) {
+      Edge e = edgeRdr.next();
+      if (e.getSrc().method().getSignature().equals(call.getSourceMethodSignature())
+          && e.getTgt().method().getSignature().equals(call.getTargetMethodSignature())) {
+        edgesToRemove.add(e);
+      }
+    }
+    removeEdges(edgesToRemove);
+    // a call that was added without an edge
+    Set<Call> sourceCalls = this.calls.get(call.getSourceMethodSignature());
+    if (sourceCalls != null && sourceCalls.remove(call)) {
+      --callCnt;
+    }
+  }
+
   @Nonnull
   @Override
   public Set<MethodSignature> getMethodSignatures() {
@@ -529,9 +591,13 @@ public class OnFlyCallGraph implements MutableCallGraph, Iterable<Edge> {
         .collect(Collectors.toSet());
   }
 
-  // TODO: implement me
   @Override
   public List<MethodSignature> getEntryMethods() {
-    return Collections.emptyList();
+    return entryMethods;
+  }
+
+  @Override
+  public void setEntryMethods(@Nonnull List<MethodSignature> entryMethods) {
+    this.entryMethods = new ArrayList<>(entryMethods);
   }
 }
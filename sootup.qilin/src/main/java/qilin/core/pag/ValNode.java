@@ -18,6 +18,7 @@
 
 package qilin.core.pag;
 
+import qilin.CoreConfig;
 import qilin.core.sets.DoublePointsToSet;
 import qilin.util.Numberable;
 import sootup.core.types.Type;
@@ -39,11 +40,19 @@ public class ValNode extends Node implements Comparable, Numberable {
     if (p2set != null) {
       return p2set;
     } else {
-      p2set = new DoublePointsToSet();
+      p2set = new DoublePointsToSet(CoreConfig.v().getPtaConfig().sharedPointsToSets);
       return p2set;
     }
   }
 
+  /**
+   * Replaces the points-to set of this node, e.g., to share one set between the nodes of a cycle of
+   * assignments.
+   */
+  public void setP2Set(DoublePointsToSet p2set) {
+    this.p2set = p2set;
+  }
+
   /** Delete current points-to set and make a new one */
   public void discardP2Set() {
     p2set = null;
@@ -19,20 +19,32 @@
 package qilin.core.sets;
 
 import java.util.Iterator;
+import java.util.function.IntConsumer;
+import qilin.util.BitVector;
 
 /**
  * Implementation of points-to set that holds two sets: one for new elements that have not yet been
- * propagated, and the other for elements that have already been propagated.
+ * propagated, and the other for elements that have already been propagated. The set of propagated
+ * elements is either a private {@link HybridPointsToSet} or a {@link SharedPointsToSet} which is
+ * replaced on every flush.
  *
  * @author Ondrej Lhotak
  */
 public class DoublePointsToSet extends PointsToSetInternal {
   protected HybridPointsToSet newSet;
-  protected HybridPointsToSet oldSet;
+  protected PointsToSetInternal oldSet;
 
   public DoublePointsToSet() {
+    this(false);
+  }
+
+  /**
+   * @param shared whether the already propagated elements are kept in a hash-consed {@link
+   *     SharedPointsToSet}
+   */
+  public DoublePointsToSet(boolean shared) {
     newSet = new HybridPointsToSet();
-    oldSet = new HybridPointsToSet();
+    oldSet = shared ? SharedPointsToSet.getEmptySet() : new HybridPointsToSet();
   }
 
   /** Returns true if this set contains no run-time objects. */
@@ -79,7 +91,11 @@ public class DoublePointsToSet extends PointsToSetInternal {
    * */
   @Override
   public void clear() {
-    oldSet.clear();
+    if (oldSet instanceof SharedPointsToSet) {
+      oldSet = SharedPointsToSet.getEmptySet();
+    } else {
+      oldSet.clear();
+    }
     newSet.clear();
   }
 
@@ -91,6 +107,14 @@ public class DoublePointsToSet extends PointsToSetInternal {
     return newSet.addAll(other, oldSet);
   }
 
+  /**
+   * Adds the elements of other whose bits are set in mask into this set, returns true if this set
+   * changed.
+   */
+  public boolean addAllMasked(PointsToSetInternal other, BitVector mask) {
+    return newSet.addAll(other, oldSet, mask);
+  }
+
   /** Calls v's visit method on all nodes in this set. */
   @Override
   public boolean forall(P2SetVisitor v) {
@@ -99,6 +123,12 @@ public class DoublePointsToSet extends PointsToSetInternal {
     return v.getReturnValue();
   }
 
+  @Override
+  public void forEachInt(IntConsumer action) {
+    oldSet.forEachInt(action);
+    newSet.forEachInt(action);
+  }
+
   /** Adds n to this set, returns true if idx was not already in this set. */
   public boolean add(int idx) {
     if (oldSet.contains(idx)) {
@@ -108,7 +138,7 @@ public class DoublePointsToSet extends PointsToSetInternal {
   }
 
   /** Returns set of nodes already present before last call to flushNew. */
-  public HybridPointsToSet getOldSet() {
+  public PointsToSetInternal getOldSet() {
     return oldSet;
   }
 
@@ -125,7 +155,11 @@ public class DoublePointsToSet extends PointsToSetInternal {
 
   /** Sets all newly-added nodes to old nodes. */
   public void flushNew() {
-    oldSet.addAll(newSet, null);
+    if (oldSet instanceof SharedPointsToSet) {
+      oldSet = SharedPointsToSet.union((SharedPointsToSet) oldSet, newSet);
+    } else {
+      oldSet.addAll(newSet, null);
+    }
     newSet = new HybridPointsToSet();
   }
 
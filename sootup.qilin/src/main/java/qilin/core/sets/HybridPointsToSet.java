@@ -20,6 +20,7 @@ package qilin.core.sets;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.IntConsumer;
 import qilin.util.BitSetIterator;
 import qilin.util.BitVector;
 
@@ -59,27 +60,120 @@ public final class HybridPointsToSet extends PointsToSetInternal {
     size = 0;
   }
 
-  private boolean nativeAddAll(HybridPointsToSet other, PointsToSetInternal exclude) {
+  private boolean nativeAddAll(
+      HybridPointsToSet other,
+      PointsToSetInternal exclude,
+      BitVector mask,
+      HybridPointsToSet delta) {
+    if (other.bits != null && (exclude == null || exclude instanceof HybridPointsToSet)) {
+      BitVector excludeBits = exclude == null ? null : ((HybridPointsToSet) exclude).bits;
+      if (exclude == null || excludeBits != null) {
+        return wordAddAll(other.bits, excludeBits, mask, delta);
+      }
+    }
     boolean ret = false;
-    for (Iterator<Integer> it = other.iterator(); it.hasNext(); ) {
-      int idx = it.next();
-      if (exclude == null || !exclude.contains(idx)) {
-        ret |= add(idx);
+    if (other.bits == null) {
+      for (int idx : other.nodeIdxs) {
+        if (idx == 0) {
+          break;
+        }
+        ret |= addExcluding(idx, exclude, mask, delta);
+      }
+    } else {
+      for (BitSetIterator it = other.bits.iterator(); it.hasNext(); ) {
+        ret |= addExcluding(it.next(), exclude, mask, delta);
       }
     }
     return ret;
   }
 
+  /**
+   * Adds the set bits of other which are set in mask and not set in exclude (each if not null) word
+   * by word.
+   */
+  private boolean wordAddAll(
+      BitVector other, BitVector exclude, BitVector mask, HybridPointsToSet delta) {
+    if (bits == null) {
+      convertToBits();
+    }
+    BitVector deltaBits = null;
+    if (delta != null) {
+      if (delta.bits == null) {
+        delta.convertToBits();
+      }
+      deltaBits = delta.bits;
+    }
+    int added = bits.orAndAndNot(other, mask, exclude, deltaBits);
+    if (added == 0) {
+      return false;
+    }
+    size += added;
+    empty = false;
+    if (delta != null) {
+      delta.size += added;
+      delta.empty = false;
+    }
+    return true;
+  }
+
+  private boolean addExcluding(
+      int idx, PointsToSetInternal exclude, BitVector mask, HybridPointsToSet delta) {
+    if (mask != null && !mask.get(idx) || exclude != null && exclude.contains(idx)) {
+      return false;
+    }
+    if (add(idx)) {
+      if (delta != null) {
+        delta.add(idx);
+      }
+      return true;
+    }
+    return false;
+  }
+
   /** Adds contents of other into this set, returns true if this set changed. */
   public boolean addAll(final PointsToSetInternal other, final PointsToSetInternal exclude) {
+    return addAll(other, exclude, null, null);
+  }
+
+  /**
+   * Adds the elements of other which are set in mask and not in exclude (if not null) into this
+   * set, returns true if this set changed. If other is large, the mask is applied word by word,
+   * e.g. to filter the elements by type without visiting them one by one.
+   */
+  public boolean addAll(
+      final PointsToSetInternal other, final PointsToSetInternal exclude, final BitVector mask) {
+    return addAll(other, exclude, mask, null);
+  }
+
+  /**
+   * Adds the elements of other which are not in exclude into this set and returns the elements
+   * that were actually added, or null if this set did not change.
+   */
+  public HybridPointsToSet addAllDiff(
+      final PointsToSetInternal other, final PointsToSetInternal exclude) {
+    HybridPointsToSet delta = new HybridPointsToSet();
+    return addAll(other, exclude, null, delta) ? delta : null;
+  }
+
+  private boolean addAll(
+      final PointsToSetInternal other,
+      final PointsToSetInternal exclude,
+      final BitVector mask,
+      final HybridPointsToSet delta) {
     if (other == null) {
       return false;
     }
     if (other instanceof DoublePointsToSet) {
       DoublePointsToSet dpts = (DoublePointsToSet) other;
-      return nativeAddAll(dpts.getNewSet(), exclude) | nativeAddAll(dpts.getOldSet(), exclude);
+      return addAll(dpts.getNewSet(), exclude, mask, delta)
+          | addAll(dpts.getOldSet(), exclude, mask, delta);
+    }
+    if (other instanceof HybridPointsToSet) {
+      return nativeAddAll((HybridPointsToSet) other, exclude, mask, delta);
     }
-    return nativeAddAll((HybridPointsToSet) other, exclude);
+    int oldSize = size;
+    other.forEachInt(idx -> addExcluding(idx, exclude, mask, delta));
+    return size != oldSize;
   }
 
   private class HybridPTSIterator implements Iterator<Integer> {
@@ -140,6 +234,30 @@ public final class HybridPointsToSet extends PointsToSetInternal {
     return v.getReturnValue();
   }
 
+  @Override
+  public void forEachInt(IntConsumer action) {
+    if (bits == null) {
+      for (int nodeIdx : nodeIdxs) {
+        if (nodeIdx == 0) {
+          return;
+        }
+        action.accept(nodeIdx);
+      }
+    } else {
+      bits.forEach(action);
+    }
+  }
+
+  @Override
+  public boolean hasNonEmptyIntersection(final PointsToSetInternal other) {
+    if (bits != null
+        && other instanceof HybridPointsToSet
+        && ((HybridPointsToSet) other).bits != null) {
+      return bits.intersects(((HybridPointsToSet) other).bits);
+    }
+    return super.hasNonEmptyIntersection(other);
+  }
+
   /** Returns true iff the set contains node idx. */
   public boolean contains(int idx) {
     if (bits == null) {
@@ -170,13 +288,7 @@ public final class HybridPointsToSet extends PointsToSetInternal {
           return false;
         }
       }
-      // convert to Bits
-      bits = new BitVector();
-      for (int nodeIdx : nodeIdxs) {
-        if (nodeIdx != 0) {
-          bits.set(nodeIdx);
-        }
-      }
+      convertToBits();
     }
     boolean ret = bits.set(idx);
     if (ret) {
@@ -185,4 +297,13 @@ public final class HybridPointsToSet extends PointsToSetInternal {
     }
     return ret;
   }
+
+  private void convertToBits() {
+    bits = new BitVector();
+    for (int nodeIdx : nodeIdxs) {
+      if (nodeIdx != 0) {
+        bits.set(nodeIdx);
+      }
+    }
+  }
 }
@@ -19,6 +19,7 @@
 package qilin.core.sets;
 
 import java.util.Iterator;
+import java.util.function.IntConsumer;
 
 /**
  * Abstract base class for implementations of points-to sets.
@@ -40,6 +41,9 @@ public abstract class PointsToSetInternal {
 
   public abstract Iterator<Integer> iterator();
 
+  /** Calls action on the index of every node in this set, without boxing the indices. */
+  public abstract void forEachInt(IntConsumer action);
+
   public abstract void clear();
 
   public abstract boolean isEmpty();
@@ -0,0 +1,221 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.sets;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable, hash-consed implementation of points-to set. The set is stored as a sparse bitmap,
+ * i.e., only the non-zero 64-bit words of the bit vector are kept together with their word indices.
+ * Equal sets are shared through a weak interner, so that the many context-sensitive variables
+ * pointing to the same objects hold a single copy of their points-to set. A union creates a new set
+ * instead of modifying an existing one.
+ */
+public final class SharedPointsToSet extends PointsToSetInternal {
+  private static final Interner<SharedPointsToSet> interner = Interners.newWeakInterner();
+
+  private static final SharedPointsToSet emptySet =
+      interner.intern(new SharedPointsToSet(new int[0], new long[0], 0));
+
+  public static SharedPointsToSet getEmptySet() {
+    return emptySet;
+  }
+
+  /** the indices of the non-zero words in ascending order. */
+  private final int[] keys;
+
+  private final long[] words;
+  private final int size;
+  private final int hashCode;
+
+  private SharedPointsToSet(int[] keys, long[] words, int size) {
+    this.keys = keys;
+    this.words = words;
+    this.size = size;
+    this.hashCode = 31 * Arrays.hashCode(keys) + Arrays.hashCode(words);
+  }
+
+  /** Returns the shared set containing the elements of both base and other. */
+  public static SharedPointsToSet union(SharedPointsToSet base, PointsToSetInternal other) {
+    if (other.isEmpty()) {
+      return base;
+    }
+    int[] elems = new int[other.size()];
+    int[] count = new int[1];
+    other.forEachInt(idx -> elems[count[0]++] = idx);
+    Arrays.sort(elems, 0, count[0]);
+
+    int[] keys = new int[base.keys.length + count[0]];
+    long[] words = new long[keys.length];
+    int n = 0;
+    int i = 0;
+    int j = 0;
+    while (i < base.keys.length || j < count[0]) {
+      int key;
+      if (j == count[0] || i < base.keys.length && base.keys[i] <= elems[j] >> 6) {
+        key = base.keys[i];
+      } else {
+        key = elems[j] >> 6;
+      }
+      long word = 0L;
+      if (i < base.keys.length && base.keys[i] == key) {
+        word = base.words[i++];
+      }
+      for (; j < count[0] && elems[j] >> 6 == key; j++) {
+        word |= 1L << (elems[j] & 63);
+      }
+      keys[n] = key;
+      words[n] = word;
+      n++;
+    }
+    int size = 0;
+    for (int k = 0; k < n; k++) {
+      size += Long.bitCount(words[k]);
+    }
+    if (size == base.size) {
+      return base;
+    }
+    return interner.intern(
+        new SharedPointsToSet(Arrays.copyOf(keys, n), Arrays.copyOf(words, n), size));
+  }
+
+  private int wordOf(int idx) {
+    int pos = Arrays.binarySearch(keys, idx >> 6);
+    return pos < 0 ? -1 : pos;
+  }
+
+  @Override
+  public boolean contains(int idx) {
+    int pos = wordOf(idx);
+    return pos >= 0 && (words[pos] & (1L << (idx & 63))) != 0L;
+  }
+
+  @Override
+  public boolean forall(P2SetVisitor v) {
+    forEachInt(v::visit);
+    return v.getReturnValue();
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    for (int i = 0; i < keys.length; i++) {
+      long word = words[i];
+      while (word != 0L) {
+        action.accept((keys[i] << 6) + Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNonEmptyIntersection(final PointsToSetInternal other) {
+    if (other instanceof SharedPointsToSet) {
+      SharedPointsToSet o = (SharedPointsToSet) other;
+      for (int i = 0, j = 0; i < keys.length && j < o.keys.length; ) {
+        if (keys[i] < o.keys[j]) {
+          i++;
+        } else if (keys[i] > o.keys[j]) {
+          j++;
+        } else if ((words[i++] & o.words[j++]) != 0L) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return super.hasNonEmptyIntersection(other);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new SharedPTSIterator();
+  }
+
+  private class SharedPTSIterator implements Iterator<Integer> {
+    private int pos = 0;
+    private long word = keys.length == 0 ? 0L : words[0];
+
+    @Override
+    public boolean hasNext() {
+      while (word == 0L && pos + 1 < keys.length) {
+        word = words[++pos];
+      }
+      return word != 0L;
+    }
+
+    @Override
+    public Integer next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int idx = (keys[pos] << 6) + Long.numberOfTrailingZeros(word);
+      word &= word - 1;
+      return idx;
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean add(int idx) {
+    throw new UnsupportedOperationException("shared points-to sets are immutable.");
+  }
+
+  @Override
+  public boolean addAll(PointsToSetInternal other, PointsToSetInternal exclude) {
+    throw new UnsupportedOperationException("shared points-to sets are immutable.");
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("shared points-to sets are immutable.");
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SharedPointsToSet)) {
+      return false;
+    }
+    SharedPointsToSet other = (SharedPointsToSet) o;
+    return hashCode == other.hashCode
+        && size == other.size
+        && Arrays.equals(keys, other.keys)
+        && Arrays.equals(words, other.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+}
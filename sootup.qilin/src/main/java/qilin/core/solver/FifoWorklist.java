@@ -0,0 +1,74 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import qilin.core.pag.ValNode;
+
+/**
+ * Polls the nodes in the order they were added. The contained nodes are marked in a bit set indexed
+ * by node number, so that a node is queued at most once.
+ */
+public class FifoWorklist implements ValNodeWorklist {
+  private final ArrayDeque<ValNode> queue = new ArrayDeque<>();
+  private final BitSet contained = new BitSet();
+
+  @Override
+  public void add(ValNode node) {
+    if (!contained.get(node.getNumber())) {
+      contained.set(node.getNumber());
+      queue.addLast(node);
+    }
+  }
+
+  @Override
+  public ValNode poll() {
+    ValNode node = queue.pollFirst();
+    if (node != null) {
+      contained.clear(node.getNumber());
+    }
+    return node;
+  }
+
+  @Override
+  public boolean remove(ValNode node) {
+    if (contained.get(node.getNumber())) {
+      contained.clear(node.getNumber());
+      queue.remove(node);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  @Override
+  public List<ValNode> drain() {
+    List<ValNode> ret = new ArrayList<>(queue);
+    queue.clear();
+    contained.clear();
+    return ret;
+  }
+}
@@ -0,0 +1,81 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import qilin.core.pag.ValNode;
+
+/**
+ * Polls the node which was polled least recently, nodes which were never polled first. Ties are
+ * broken by node number.
+ */
+public class LeastRecentlyFiredWorklist implements ValNodeWorklist {
+  /** the time at which a node was polled last, indexed by node number. */
+  private int[] lastFired = new int[1024];
+
+  private int time = 0;
+  private final TreeSet<ValNode> nodes =
+      new TreeSet<>(
+          Comparator.comparingInt((ValNode node) -> lastFired(node))
+              .thenComparingInt(ValNode::getNumber));
+
+  private int lastFired(ValNode node) {
+    int number = node.getNumber();
+    return number < lastFired.length ? lastFired[number] : 0;
+  }
+
+  @Override
+  public void add(ValNode node) {
+    nodes.add(node);
+  }
+
+  @Override
+  public ValNode poll() {
+    ValNode node = nodes.pollFirst();
+    if (node != null) {
+      int number = node.getNumber();
+      if (number >= lastFired.length) {
+        lastFired = Arrays.copyOf(lastFired, Math.max(number + 1, lastFired.length * 2));
+      }
+      lastFired[number] = ++time;
+    }
+    return node;
+  }
+
+  @Override
+  public boolean remove(ValNode node) {
+    return nodes.remove(node);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return nodes.isEmpty();
+  }
+
+  @Override
+  public List<ValNode> drain() {
+    List<ValNode> ret = new ArrayList<>(nodes);
+    nodes.clear();
+    return ret;
+  }
+}
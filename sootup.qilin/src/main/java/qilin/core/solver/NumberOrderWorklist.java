@@ -0,0 +1,56 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import qilin.core.pag.ValNode;
+
+/** Polls the nodes by their number, highest number first. */
+public class NumberOrderWorklist implements ValNodeWorklist {
+  private final TreeSet<ValNode> nodes = new TreeSet<>();
+
+  @Override
+  public void add(ValNode node) {
+    nodes.add(node);
+  }
+
+  @Override
+  public ValNode poll() {
+    return nodes.pollFirst();
+  }
+
+  @Override
+  public boolean remove(ValNode node) {
+    return nodes.remove(node);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return nodes.isEmpty();
+  }
+
+  @Override
+  public List<ValNode> drain() {
+    List<ValNode> ret = new ArrayList<>(nodes);
+    nodes.clear();
+    return ret;
+  }
+}
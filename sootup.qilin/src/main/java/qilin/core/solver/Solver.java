@@ -19,6 +19,9 @@
 package qilin.core.solver;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
 import qilin.CoreConfig;
 import qilin.core.PTA;
 import qilin.core.builder.CallGraphBuilder;
@@ -31,10 +34,16 @@ import qilin.core.pag.*;
 import qilin.core.sets.DoublePointsToSet;
 import qilin.core.sets.P2SetVisitor;
 import qilin.core.sets.PointsToSetInternal;
+import qilin.util.BitVector;
 import qilin.util.PTAUtils;
+import qilin.util.Pair;
+import qilin.util.UnionFindSet;
 import qilin.util.queue.ChunkedQueue;
 import qilin.util.queue.QueueReader;
+import sootup.callgraph.AbstractCallGraphAlgorithm;
+import sootup.callgraph.InvokeDynamicResolver;
 import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Trap;
 import sootup.core.jimple.common.expr.AbstractInstanceInvokeExpr;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.expr.JDynamicInvokeExpr;
@@ -49,7 +58,7 @@ import sootup.core.types.Type;
 import sootup.java.core.JavaIdentifierFactory;
 
 public class Solver extends Propagator {
-  private final TreeSet<ValNode> valNodeWorkList = new TreeSet<>();
+  private final ValNodeWorklist valNodeWorkList;
   private final PAG pag;
   private final PTA pta;
   private final CallGraphBuilder cgb;
@@ -57,16 +66,43 @@ public class Solver extends Propagator {
   private final ChunkedQueue<ExceptionThrowSite> throwSiteQueue = new ChunkedQueue<>();
   private final ChunkedQueue<VirtualCallSite> virtualCallSiteQueue = new ChunkedQueue<>();
   private final ChunkedQueue<Node> edgeQueue = new ChunkedQueue<>();
+  private final InvokeDynamicResolver invokeDynamicResolver;
 
   private final ChunkedQueue<ContextMethod> rmQueue = new ChunkedQueue<>();
+  private final int threads;
+  private final ClassType objectType = PTAUtils.getClassType("java.lang.Object");
+  private final boolean collapseCycles;
+  private final UnionFindSet<ValNode> cycles = new UnionFindSet<>();
+  private final Map<ValNode, List<ValNode>> cycleMembers = new HashMap<>();
+  private final Set<Pair<ValNode, ValNode>> checkedEdges = new HashSet<>();
+  private final TypeMasks typeMasks;
+  private long iterations = 0;
+  private long propagatedObjects = 0;
 
   public Solver(PTA pta) {
+    this(pta, CoreConfig.v().getPtaConfig().solverThreads);
+  }
+
+  /**
+   * @param threads the number of threads used to propagate points-to sets, see {@link
+   *     CoreConfig.CorePTAConfiguration#solverThreads}
+   */
+  public Solver(PTA pta, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("the number of solver threads must be positive.");
+    }
+    this.threads = threads;
+    this.collapseCycles = threads == 1 && CoreConfig.v().getPtaConfig().collapseCycles;
     this.cgb = pta.getCgb();
     this.cgb.setRMQueue(rmQueue);
     this.pag = pta.getPag();
+    this.valNodeWorkList =
+        ValNodeWorklist.create(CoreConfig.v().getPtaConfig().worklistOrder, this.pag);
     this.pag.setEdgeQueue(edgeQueue);
     this.eh = pta.getExceptionHandler();
     this.pta = pta;
+    this.invokeDynamicResolver = new InvokeDynamicResolver(pta.getView());
+    this.typeMasks = new TypeMasks(pta.getView(), pag.getAllocNodeNumberer());
   }
 
   @Override
@@ -78,33 +114,433 @@ public class Solver extends Propagator {
     cgb.initReachableMethods();
     processStmts(newRMs);
     pag.getAlloc().forEach((a, set) -> set.forEach(v -> propagatePTS(v, a)));
+    if (threads > 1) {
+      propagateInRounds(newRMs, newPAGEdges, newThrows, newCalls);
+      return;
+    }
     while (!valNodeWorkList.isEmpty()) {
-      ValNode curr = valNodeWorkList.pollFirst();
+      ValNode curr = valNodeWorkList.poll();
       // Step 1: Resolving Direct Constraints
       assert curr != null;
       final DoublePointsToSet pts = curr.getP2Set();
       final PointsToSetInternal newset = pts.getNewSet();
-      pag.simpleLookup(curr).forEach(to -> propagatePTS(to, newset));
-
-      if (curr instanceof VarNode) {
-        VarNode mSrc = (VarNode) curr;
-        // Step 1 continues.
-        Collection<ExceptionThrowSite> throwSites = eh.throwSitesLookUp(mSrc);
-        for (ExceptionThrowSite site : throwSites) {
-          eh.exceptionDispatch(newset, site);
+      iterations++;
+      propagatedObjects += newset.size();
+      final List<ValNode> nodes = membersOf(curr);
+      final List<ValNode> cycleCandidates = new ArrayList<>();
+      for (ValNode node : nodes) {
+        for (ValNode to : pag.simpleLookup(node)) {
+          propagatePTS(to, newset);
+          if (collapseCycles) {
+            cycleCandidates.add(representative(to));
+          }
         }
-        // Step 2: Resolving Indirect Constraints.
-        handleStoreAndLoadOnBase(mSrc);
-        // Step 3: Collecting New Constraints.
-        Collection<VirtualCallSite> sites = cgb.callSitesLookUp(mSrc);
-        for (VirtualCallSite site : sites) {
-          cgb.virtualCallDispatch(newset, site);
+      }
+
+      for (ValNode node : nodes) {
+        if (node instanceof VarNode) {
+          VarNode mSrc = (VarNode) node;
+          // Step 1 continues.
+          Collection<ExceptionThrowSite> throwSites = eh.throwSitesLookUp(mSrc);
+          for (ExceptionThrowSite site : throwSites) {
+            eh.exceptionDispatch(newset, site);
+          }
+          // Step 2: Resolving Indirect Constraints.
+          handleStoreAndLoadOnBase(mSrc, newset);
+          // Step 3: Collecting New Constraints.
+          Collection<VirtualCallSite> sites = cgb.callSitesLookUp(mSrc);
+          for (VirtualCallSite site : sites) {
+            cgb.virtualCallDispatch(newset, site);
+          }
+          processStmts(newRMs);
         }
-        processStmts(newRMs);
       }
       pts.flushNew();
       // Step 4: Activating New Constraints.
       activateConstraints(newCalls, newRMs, newThrows, newPAGEdges);
+      for (ValNode to : cycleCandidates) {
+        detectCycle(representative(curr), representative(to));
+      }
+    }
+  }
+
+  /** Returns the number of nodes taken from the worklist so far. */
+  public long getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Returns the total size of the new points-to sets of the nodes taken from the worklist so far,
+   * i.e., the number of objects propagated as differences.
+   */
+  public long getPropagatedObjects() {
+    return propagatedObjects;
+  }
+
+  /** Returns the node which represents the collapsed cycle containing node, or node itself. */
+  private ValNode representative(ValNode node) {
+    if (!cycleMembers.isEmpty() && cycles.contains(node)) {
+      return cycles.find(node);
+    }
+    return node;
+  }
+
+  /** Returns the nodes of the collapsed cycle represented by rep, or only rep. */
+  private List<ValNode> membersOf(ValNode rep) {
+    List<ValNode> members = cycleMembers.get(rep);
+    return members == null ? Collections.singletonList(rep) : new ArrayList<>(members);
+  }
+
+  /**
+   * Lazy cycle detection: after propagating along the simple edge from -&gt; to, points-to sets of
+   * the same size hint at a cycle, as to has the same declared type as from and thus contains all
+   * propagated objects of from. The cycle is then confirmed by a search. Each edge is checked once.
+   */
+  private void detectCycle(ValNode from, ValNode to) {
+    if (from == to
+        || !Objects.equals(from.getType(), to.getType())
+        || from.getP2Set().size() != to.getP2Set().size()
+        || !checkedEdges.add(new Pair<>(from, to))) {
+      return;
+    }
+    Set<ValNode> forward = new HashSet<>();
+    collectReachable(to, forward, true, null);
+    if (!forward.contains(from)) {
+      return;
+    }
+    Set<ValNode> cycle = new HashSet<>();
+    collectReachable(from, cycle, false, forward);
+    collapseCycle(from, cycle);
+  }
+
+  /**
+   * Collects the representatives reachable from start along simple edges, or along reversed simple
+   * edges if not forward, that have the same declared type as start and are contained in within
+   * (if not null).
+   */
+  private void collectReachable(
+      ValNode start, Set<ValNode> reached, boolean forward, Set<ValNode> within) {
+    Type type = start.getType();
+    Deque<ValNode> stack = new ArrayDeque<>();
+    reached.add(start);
+    stack.push(start);
+    while (!stack.isEmpty()) {
+      for (ValNode node : membersOf(stack.pop())) {
+        for (ValNode next : forward ? pag.simpleLookup(node) : pag.simpleInvLookup(node)) {
+          ValNode rep = representative(next);
+          if (Objects.equals(type, rep.getType())
+              && (within == null || within.contains(rep))
+              && reached.add(rep)) {
+            stack.push(rep);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Merges the nodes of the given cycle. All nodes share a fresh points-to set which holds the
+   * objects of the cycle as new objects, so that processing the representative propagates them along
+   * the edges of all nodes of the cycle.
+   */
+  private void collapseCycle(ValNode from, Set<ValNode> cycle) {
+    DoublePointsToSet merged =
+        new DoublePointsToSet(CoreConfig.v().getPtaConfig().sharedPointsToSets);
+    List<ValNode> members = new ArrayList<>();
+    for (ValNode rep : cycle) {
+      merged.addAll(rep.getP2Set(), null);
+      members.addAll(membersOf(rep));
+      cycleMembers.remove(rep);
+      valNodeWorkList.remove(rep);
+    }
+    for (ValNode member : members) {
+      member.setP2Set(merged);
+      cycles.add(member);
+    }
+    for (ValNode member : members) {
+      cycles.union(from, member);
+    }
+    ValNode rep = cycles.find(from);
+    cycleMembers.put(rep, members);
+    valNodeWorkList.add(rep);
+  }
+
+  /**
+   * Drains the worklist in rounds. A round takes all nodes of the worklist and flushes their new
+   * points-to sets. The unions along the simple assignment edges of the round run in parallel on a
+   * {@link ForkJoinPool}, sharded by target node, so every points-to set has a single writer.
+   * Exception dispatch, the resolution of loads and stores and virtual call dispatch are resolved
+   * in parallel as well, but only read the PAG and the call graph, which are not thread-safe. The
+   * PAG and call graph edges they add are applied afterwards in the order of the worklist, and the
+   * unions along these new edges run in parallel again, see {@link #activateConstraintsInParallel}.
+   */
+  private void propagateInRounds(
+      QueueReader<ContextMethod> newRMs,
+      QueueReader<Node> newPAGEdges,
+      QueueReader<ExceptionThrowSite> newThrows,
+      QueueReader<VirtualCallSite> newCalls) {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      while (!valNodeWorkList.isEmpty()) {
+        ValNode[] round = valNodeWorkList.drain().toArray(new ValNode[0]);
+        PointsToSetInternal[] newsets = new PointsToSetInternal[round.length];
+        List<ValNode> targets = new ArrayList<>();
+        List<PointsToSetInternal> sources = new ArrayList<>();
+        List<Integer> varNodes = new ArrayList<>();
+        for (int i = 0; i < round.length; i++) {
+          DoublePointsToSet pts = round[i].getP2Set();
+          newsets[i] = pts.getNewSet();
+          iterations++;
+          propagatedObjects += newsets[i].size();
+          pts.flushNew();
+          for (ValNode to : pag.simpleLookup(round[i])) {
+            targets.add(to);
+            sources.add(newsets[i]);
+          }
+          if (round[i] instanceof VarNode) {
+            varNodes.add(i);
+          }
+        }
+        // Step 1: Resolving Direct Constraints
+        propagateInParallel(pool, targets, sources);
+        // Step 2 and 3: Resolving Indirect Constraints and Collecting New Constraints.
+        resolveInParallel(
+            pool,
+            varNodes,
+            (i, actions) -> {
+              resolveIndirectConstraints((VarNode) round[i], newsets[i], actions);
+              actions.add(() -> processStmts(newRMs));
+            });
+        // Step 4: Activating New Constraints.
+        activateConstraintsInParallel(pool, newCalls, newRMs, newThrows, newPAGEdges);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Resolves the exception dispatch, the loads and stores and the virtual call dispatch on the new
+   * objects of base. It only reads the PAG and the call graph and adds the actions which modify
+   * them.
+   */
+  private void resolveIndirectConstraints(
+      VarNode base, PointsToSetInternal newset, List<Runnable> actions) {
+    for (ExceptionThrowSite site : eh.throwSitesLookUp(base)) {
+      resolveExceptionDispatch(newset, site, actions);
+    }
+    for (final FieldRefNode fr : base.getAllFieldRefs()) {
+      for (final VarNode v : pag.storeInvLookup(fr)) {
+        resolveStoreEdge(newset, fr.getField(), v, actions);
+      }
+      for (final VarNode to : pag.loadLookup(fr)) {
+        resolveLoadEdge(newset, fr.getField(), to, actions);
+      }
+    }
+    for (VirtualCallSite site : cgb.callSitesLookUp(base)) {
+      resolveVirtualCallDispatch(newset, site, actions);
+    }
+  }
+
+  private void resolveExceptionDispatch(
+      PointsToSetInternal heaps, ExceptionThrowSite site, List<Runnable> actions) {
+    heaps.forall(
+        new P2SetVisitor(pta) {
+          public void visit(Node n) {
+            AllocNode throwObj = (AllocNode) n;
+            Trap trap = eh.findCatchingTrap(throwObj, site);
+            actions.add(() -> eh.addCatchEdge(throwObj, site, trap));
+          }
+        });
+  }
+
+  private void resolveVirtualCallDispatch(
+      PointsToSetInternal heaps, VirtualCallSite site, List<Runnable> actions) {
+    heaps.forall(
+        new P2SetVisitor(pta) {
+          public void visit(Node n) {
+            AllocNode receiver = (AllocNode) n;
+            for (SootMethod target : cgb.resolveTargets(receiver, site)) {
+              actions.add(() -> cgb.addVirtualEdge(site, receiver, target));
+            }
+          }
+        });
+  }
+
+  private void resolveStoreEdge(
+      PointsToSetInternal baseHeaps, SparkField field, ValNode from, List<Runnable> actions) {
+    baseHeaps.forall(
+        new P2SetVisitor(pta) {
+          public void visit(Node n) {
+            AllocNode heap = (AllocNode) n;
+            if (!disallowStoreOrLoadOn(heap)) {
+              actions.add(() -> pag.addEdge(from, fieldOf(heap, field)));
+            }
+          }
+        });
+  }
+
+  private void resolveLoadEdge(
+      PointsToSetInternal baseHeaps, SparkField field, ValNode to, List<Runnable> actions) {
+    baseHeaps.forall(
+        new P2SetVisitor(pta) {
+          public void visit(Node n) {
+            AllocNode heap = (AllocNode) n;
+            if (!disallowStoreOrLoadOn(heap)) {
+              actions.add(() -> pag.addEdge(fieldOf(heap, field), to));
+            }
+          }
+        });
+  }
+
+  /**
+   * Calls resolve for all items on the pool and runs the actions it added afterwards on the calling
+   * thread in the order of the items, so the result does not depend on the number of threads.
+   * resolve must not modify the PAG or the call graph.
+   */
+  private <T> void resolveInParallel(
+      ForkJoinPool pool, List<T> items, BiConsumer<T, List<Runnable>> resolve) {
+    int chunkSize = Math.max(1, items.size() / (threads * 4));
+    List<ForkJoinTask<List<Runnable>>> tasks = new ArrayList<>();
+    for (int start = 0; start < items.size(); start += chunkSize) {
+      List<T> chunk = items.subList(start, Math.min(items.size(), start + chunkSize));
+      tasks.add(
+          pool.submit(
+              () -> {
+                List<Runnable> actions = new ArrayList<>();
+                for (T item : chunk) {
+                  resolve.accept(item, actions);
+                }
+                return actions;
+              }));
+    }
+    for (ForkJoinTask<List<Runnable>> task : tasks) {
+      task.join().forEach(Runnable::run);
+    }
+  }
+
+  /**
+   * The parallel counterpart of {@link #activateConstraints}: the targets of new call and throw
+   * sites and the loads and stores on new edges are resolved in parallel, and the unions along new
+   * assignment edges run in parallel, sharded by target node. It repeats until no new sites and
+   * edges are left.
+   */
+  private void activateConstraintsInParallel(
+      ForkJoinPool pool,
+      QueueReader<VirtualCallSite> newCalls,
+      QueueReader<ContextMethod> newRMs,
+      QueueReader<ExceptionThrowSite> newThrows,
+      QueueReader<Node> addedEdges) {
+    while (newCalls.hasNext() || newThrows.hasNext() || addedEdges.hasNext()) {
+      while (newCalls.hasNext()) {
+        resolveInParallel(
+            pool,
+            drain(newCalls),
+            (site, actions) ->
+                resolveVirtualCallDispatch(site.recNode().getP2Set().getOldSet(), site, actions));
+        processStmts(newRMs); // may produce new calls, thus an out-loop is a must.
+      }
+      resolveInParallel(
+          pool,
+          drain(newThrows),
+          (site, actions) ->
+              resolveExceptionDispatch(site.getThrowNode().getP2Set().getOldSet(), site, actions));
+
+      List<ValNode> targets = new ArrayList<>();
+      List<PointsToSetInternal> sources = new ArrayList<>();
+      List<Node[]> fieldRefEdges = new ArrayList<>();
+      List<Node[]> allocEdges = new ArrayList<>();
+      while (addedEdges.hasNext()) {
+        final Node addedSrc = addedEdges.next();
+        final Node addedTgt = addedEdges.next();
+        if (addedSrc instanceof VarNode && addedTgt instanceof VarNode
+            || addedSrc instanceof ContextField
+            || addedTgt instanceof ContextField) { // x = y; x = o.f; o.f = y;
+          targets.add((ValNode) addedTgt);
+          sources.add(((ValNode) addedSrc).getP2Set().getOldSet());
+        } else if (addedSrc instanceof FieldRefNode || addedTgt instanceof FieldRefNode) {
+          fieldRefEdges.add(new Node[] {addedSrc, addedTgt});
+        } else if (addedSrc instanceof AllocNode) { // alloc x = new T;
+          allocEdges.add(new Node[] {addedSrc, addedTgt});
+        }
+      }
+      // only the new sets of the targets are written, the old sets of the sources stay unchanged
+      propagateInParallel(pool, targets, sources);
+      resolveInParallel(
+          pool,
+          fieldRefEdges,
+          (edge, actions) -> {
+            if (edge[0] instanceof FieldRefNode) {
+              final FieldRefNode srcfrn = (FieldRefNode) edge[0]; // b = a.f
+              resolveLoadEdge(
+                  srcfrn.getBase().getP2Set().getOldSet(),
+                  srcfrn.getField(),
+                  (ValNode) edge[1],
+                  actions);
+            } else {
+              final FieldRefNode tgtfrn = (FieldRefNode) edge[1]; // a.f = b;
+              resolveStoreEdge(
+                  tgtfrn.getBase().getP2Set().getOldSet(),
+                  tgtfrn.getField(),
+                  (ValNode) edge[0],
+                  actions);
+            }
+          });
+      for (Node[] edge : allocEdges) {
+        propagatePTS((VarNode) edge[1], (AllocNode) edge[0]);
+      }
+    }
+  }
+
+  private static <T> List<T> drain(QueueReader<T> reader) {
+    List<T> ret = new ArrayList<>();
+    while (reader.hasNext()) {
+      ret.add(reader.next());
+    }
+    return ret;
+  }
+
+  /**
+   * Unites the sources into the points-to sets of the targets at the same index on the pool. The
+   * targets are sharded by their number, so each points-to set is written by a single worker.
+   */
+  private void propagateInParallel(
+      ForkJoinPool pool, List<ValNode> targets, List<PointsToSetInternal> sources) {
+    Shard[] shards = new Shard[threads];
+    for (int i = 0; i < threads; i++) {
+      shards[i] = new Shard();
+    }
+    for (int i = 0; i < targets.size(); i++) {
+      ValNode to = targets.get(i);
+      Shard shard = shards[to.getNumber() % threads];
+      shard.targets.add(to);
+      shard.sources.add(sources.get(i));
+    }
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(threads);
+    for (Shard shard : shards) {
+      if (!shard.targets.isEmpty()) {
+        tasks.add(pool.submit(shard::propagate));
+      }
+    }
+    tasks.forEach(ForkJoinTask::join);
+    for (Shard shard : shards) {
+      shard.changed.forEach(valNodeWorkList::add);
+    }
+  }
+
+  /** The unions of a parallel step whose targets belong to one worker. */
+  private class Shard {
+    private final List<ValNode> targets = new ArrayList<>();
+    private final List<PointsToSetInternal> sources = new ArrayList<>();
+    private final List<ValNode> changed = new ArrayList<>();
+
+    private void propagate() {
+      for (int i = 0; i < targets.size(); i++) {
+        ValNode to = targets.get(i);
+        if (addAllWithTypeFiltering(to, sources.get(i))) {
+          changed.add(to);
+        }
+      }
     }
   }
 
@@ -147,27 +583,40 @@ public class Solver extends Propagator {
           if (cgb.recordVirtualCallSite(recNode, virtualCallSite)) {
             virtualCallSiteQueue.add(virtualCallSite);
           }
+        } else if (ie instanceof JDynamicInvokeExpr) {
+          recordDynamicCallStmt(m, s, (JDynamicInvokeExpr) ie);
         } else {
           MethodSignature tgtSig = ie.getMethodSignature();
           Optional<? extends SootMethod> otgt = pta.getView().getMethod(tgtSig);
           if (otgt.isPresent()) {
-            // static invoke or dynamic invoke
-            VarNode recNode = pag.getMethodPAG(m.method()).nodeFactory().caseThis();
-            recNode = (VarNode) pta.parameterize(recNode, m.context());
-            if (ie instanceof JDynamicInvokeExpr) {
-              // !TODO dynamicInvoke is provided in JDK after Java 7.
-              // currently, PTA does not handle dynamicInvokeExpr.
-            } else {
-              cgb.addStaticEdge(m, s, otgt.get(), Edge.ieToKind(ie));
-            }
-          } else {
-            //
+            // static invoke
+            cgb.addStaticEdge(m, s, otgt.get(), Edge.ieToKind(ie));
           }
         }
       }
     }
   }
 
+  /**
+   * Adds the edges from a call site which creates a lambda expression or method reference to its
+   * implementation method. A method reference to an instance method is resolved to the method of
+   * its declared class, i.e. the dispatch on the bound receiver is not modelled. String
+   * concatenations are not modelled either.
+   */
+  private void recordDynamicCallStmt(ContextMethod m, InvokableStmt s, JDynamicInvokeExpr ie) {
+    if (!InvokeDynamicResolver.isLambdaMetafactory(ie)) {
+      return;
+    }
+    invokeDynamicResolver
+        .resolve(ie)
+        .getAllTargets()
+        .forEach(
+            tgtSig ->
+                AbstractCallGraphAlgorithm.findConcreteMethod(pta.getView(), tgtSig)
+                    .filter(tgt -> !tgt.isAbstract())
+                    .ifPresent(tgt -> cgb.addStaticEdge(m, s, tgt, Kind.DYNAMIC)));
+  }
+
   private void recordThrowStmts(ContextMethod m, Collection<Stmt> stmts) {
     for (final Stmt stmt : stmts) {
       SootMethod sm = m.method();
@@ -248,13 +697,13 @@ public class Solver extends Propagator {
     return false;
   }
 
-  private void handleStoreAndLoadOnBase(VarNode base) {
+  private void handleStoreAndLoadOnBase(VarNode base, PointsToSetInternal baseHeaps) {
     for (final FieldRefNode fr : base.getAllFieldRefs()) {
       for (final VarNode v : pag.storeInvLookup(fr)) {
-        handleStoreEdge(base.getP2Set().getNewSet(), fr.getField(), v);
+        handleStoreEdge(baseHeaps, fr.getField(), v);
       }
       for (final VarNode to : pag.loadLookup(fr)) {
-        handleLoadEdge(base.getP2Set().getNewSet(), fr.getField(), to);
+        handleLoadEdge(baseHeaps, fr.getField(), to);
       }
     }
   }
@@ -266,10 +715,7 @@ public class Solver extends Propagator {
             if (disallowStoreOrLoadOn((AllocNode) n)) {
               return;
             }
-            final FieldValNode fvn = pag.makeFieldValNode(field);
-            final ValNode oDotF =
-                (ValNode) pta.parameterize(fvn, PTAUtils.plusplusOp((AllocNode) n));
-            pag.addEdge(from, oDotF);
+            pag.addEdge(from, fieldOf((AllocNode) n, field));
           }
         });
   }
@@ -281,14 +727,17 @@ public class Solver extends Propagator {
             if (disallowStoreOrLoadOn((AllocNode) n)) {
               return;
             }
-            final FieldValNode fvn = pag.makeFieldValNode(field);
-            final ValNode oDotF =
-                (ValNode) pta.parameterize(fvn, PTAUtils.plusplusOp((AllocNode) n));
-            pag.addEdge(oDotF, to);
+            pag.addEdge(fieldOf((AllocNode) n, field), to);
           }
         });
   }
 
+  /** Returns the node of the field of the heap object, i.e. o.f. */
+  private ValNode fieldOf(AllocNode heap, SparkField field) {
+    final FieldValNode fvn = pag.makeFieldValNode(field);
+    return (ValNode) pta.parameterize(fvn, PTAUtils.plusplusOp(heap));
+  }
+
   private void activateConstraints(
       QueueReader<VirtualCallSite> newCalls,
       QueueReader<ContextMethod> newRMs,
@@ -337,25 +786,28 @@ public class Solver extends Propagator {
   }
 
   protected void propagatePTS(final ValNode pointer, PointsToSetInternal other) {
-    final DoublePointsToSet addTo = pointer.getP2Set();
-    P2SetVisitor p2SetVisitor =
-        new P2SetVisitor(pta) {
-          @Override
-          public void visit(Node n) {
-            if (addWithTypeFiltering(addTo, pointer.getType(), n)) {
-              returnValue = true;
-            }
-          }
-        };
-    other.forall(p2SetVisitor);
-    if (p2SetVisitor.getReturnValue()) {
-      valNodeWorkList.add(pointer);
+    if (addAllWithTypeFiltering(pointer, other)) {
+      valNodeWorkList.add(representative(pointer));
     }
   }
 
+  /**
+   * Unites other into the points-to set of pointer word by word. The objects which can not be cast
+   * to the declared type of pointer are filtered out with the type mask of this type.
+   */
+  private boolean addAllWithTypeFiltering(final ValNode pointer, PointsToSetInternal other) {
+    Type type = pointer.getType();
+    BitVector typeMask = acceptsAllHeaps(type) ? null : typeMasks.get(type);
+    return pointer.getP2Set().addAllMasked(other, typeMask);
+  }
+
+  private boolean acceptsAllHeaps(Type type) {
+    return type == null || type.equals(objectType);
+  }
+
   protected void propagatePTS(final ValNode pointer, AllocNode heap) {
     if (addWithTypeFiltering(pointer.getP2Set(), pointer.getType(), heap)) {
-      valNodeWorkList.add(pointer);
+      valNodeWorkList.add(representative(pointer));
     }
   }
 
@@ -0,0 +1,156 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+import qilin.util.ArrayNumberer;
+
+/**
+ * Polls the nodes in topological order of the simple assignment edges, where the nodes of a strongly
+ * connected component share one position, so that a node is usually polled after the nodes it gets
+ * objects from. The order is computed with Tarjan's algorithm and recomputed whenever the number of
+ * nodes in the PAG has doubled. Nodes created since the last computation are polled last.
+ */
+public class TopologicalWorklist implements ValNodeWorklist {
+  private final PAG pag;
+
+  /** the position of the strongly connected component of a node, indexed by node number. */
+  private int[] rank = new int[0];
+
+  private final TreeSet<ValNode> nodes =
+      new TreeSet<>(
+          Comparator.comparingInt((ValNode node) -> rank(node))
+              .thenComparingInt(ValNode::getNumber));
+
+  public TopologicalWorklist(PAG pag) {
+    this.pag = pag;
+  }
+
+  private int rank(ValNode node) {
+    int number = node.getNumber();
+    return number < rank.length ? rank[number] : Integer.MAX_VALUE;
+  }
+
+  @Override
+  public void add(ValNode node) {
+    nodes.add(node);
+  }
+
+  @Override
+  public ValNode poll() {
+    if (pag.getValNodeNumberer().size() >= 2 * rank.length) {
+      List<ValNode> pending = drain();
+      computeRanks();
+      nodes.addAll(pending);
+    }
+    return nodes.pollFirst();
+  }
+
+  @Override
+  public boolean remove(ValNode node) {
+    return nodes.remove(node);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return nodes.isEmpty();
+  }
+
+  @Override
+  public List<ValNode> drain() {
+    List<ValNode> ret = new ArrayList<>(nodes);
+    nodes.clear();
+    return ret;
+  }
+
+  /** An iterative version of Tarjan's algorithm for strongly connected components. */
+  private void computeRanks() {
+    ArrayNumberer<ValNode> numberer = pag.getValNodeNumberer();
+    int n = numberer.size() + 1;
+    int[] index = new int[n];
+    int[] lowlink = new int[n];
+    int[] component = new int[n];
+    Arrays.fill(component, -1);
+    int[] sccStack = new int[n];
+    int sccTop = 0;
+    ValNode[] callStack = new ValNode[n];
+    @SuppressWarnings("unchecked")
+    Iterator<ValNode>[] successors = new Iterator[n];
+    int nextIndex = 1;
+    int components = 0;
+    for (int root = 1; root < n; root++) {
+      ValNode rootNode = numberer.get(root);
+      if (rootNode == null || index[root] != 0) {
+        continue;
+      }
+      int callTop = 0;
+      callStack[callTop++] = rootNode;
+      index[root] = lowlink[root] = nextIndex++;
+      sccStack[sccTop++] = root;
+      successors[root] = pag.simpleLookup(rootNode).iterator();
+      while (callTop > 0) {
+        ValNode node = callStack[callTop - 1];
+        int v = node.getNumber();
+        if (successors[v].hasNext()) {
+          ValNode succ = successors[v].next();
+          int w = succ.getNumber();
+          if (w >= n) {
+            // created after the computation started
+            continue;
+          }
+          if (index[w] == 0) {
+            index[w] = lowlink[w] = nextIndex++;
+            sccStack[sccTop++] = w;
+            successors[w] = pag.simpleLookup(succ).iterator();
+            callStack[callTop++] = succ;
+          } else if (component[w] == -1) {
+            lowlink[v] = Math.min(lowlink[v], index[w]);
+          }
+        } else {
+          successors[v] = null;
+          callTop--;
+          if (lowlink[v] == index[v]) {
+            int w;
+            do {
+              w = sccStack[--sccTop];
+              component[w] = components;
+            } while (w != v);
+            components++;
+          }
+          if (callTop > 0) {
+            int parent = callStack[callTop - 1].getNumber();
+            lowlink[parent] = Math.min(lowlink[parent], lowlink[v]);
+          }
+        }
+      }
+    }
+    // Tarjan's algorithm finds the components in reverse topological order.
+    rank = new int[n];
+    for (int v = 1; v < n; v++) {
+      rank[v] = component[v] == -1 ? Integer.MAX_VALUE : components - 1 - component[v];
+    }
+  }
+}
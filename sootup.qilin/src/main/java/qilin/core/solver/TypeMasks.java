@@ -0,0 +1,72 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import qilin.core.pag.AllocNode;
+import qilin.util.ArrayNumberer;
+import qilin.util.BitVector;
+import qilin.util.PTAUtils;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * Caches for each declared type the bit vector of the allocation nodes that a node of this type can
+ * point to, so that points-to sets can be filtered by type word by word. A mask is extended by the
+ * allocation nodes created since its last use whenever it is requested. Allocation nodes are only
+ * created between the parallel steps of the solver, so a mask does not change while it is in use.
+ */
+final class TypeMasks {
+  private final View view;
+  private final ArrayNumberer<AllocNode> allocNodes;
+  private final Map<Type, Mask> masks = new ConcurrentHashMap<>();
+
+  TypeMasks(View view, ArrayNumberer<AllocNode> allocNodes) {
+    this.view = view;
+    this.allocNodes = allocNodes;
+  }
+
+  /** Returns the mask of the allocation nodes whose type can be cast to the given type. */
+  BitVector get(Type type) {
+    return masks.computeIfAbsent(type, Mask::new).update();
+  }
+
+  private final class Mask {
+    private final Type type;
+    private final BitVector bits = new BitVector();
+    private int checkedNodes = 0;
+
+    private Mask(Type type) {
+      this.type = type;
+    }
+
+    private synchronized BitVector update() {
+      int lastNumber = allocNodes.size();
+      for (int number = checkedNodes + 1; number <= lastNumber; number++) {
+        AllocNode node = allocNodes.get(number);
+        if (node != null && PTAUtils.castNeverFails(view, node.getType(), type)) {
+          bits.set(number);
+        }
+      }
+      checkedNodes = lastNumber;
+      return bits;
+    }
+  }
+}
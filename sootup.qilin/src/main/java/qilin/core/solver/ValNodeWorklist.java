@@ -0,0 +1,56 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.List;
+import qilin.CoreConfig;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+
+/** The worklist of the {@link Solver}, holding the nodes whose new points-to sets are pending. */
+public interface ValNodeWorklist {
+  /** Adds node to this worklist unless it is already contained. */
+  void add(ValNode node);
+
+  /** Removes and returns the next node, or returns null if this worklist is empty. */
+  ValNode poll();
+
+  /** Removes node from this worklist, returns true if it was contained. */
+  boolean remove(ValNode node);
+
+  boolean isEmpty();
+
+  /** Removes all nodes and returns them in the order in which they would have been polled. */
+  List<ValNode> drain();
+
+  static ValNodeWorklist create(CoreConfig.WorklistOrder order, PAG pag) {
+    switch (order) {
+      case NUMBER:
+        return new NumberOrderWorklist();
+      case FIFO:
+        return new FifoWorklist();
+      case TOPOLOGICAL:
+        return new TopologicalWorklist(pag);
+      case LRF:
+        return new LeastRecentlyFiredWorklist();
+      default:
+        throw new IllegalArgumentException("unknown worklist order: " + order);
+    }
+  }
+}
@@ -112,6 +112,24 @@ public class PTAOption extends Options {
         "A lightweight mode with only one main method entry. (default value: false)");
     addOption("sc", "stringconstants", "Propagate all string constants (default value: false)");
     addOption("pae", "precisearray", "Enable precise Array Element type (default value: false)");
+    addOption(
+        "st",
+        "solverthreads",
+        "<n>",
+        "Number of threads used to propagate points-to sets (default value: 1)");
+    addOption(
+        "spts",
+        "sharedpts",
+        "Share identical points-to sets between pointers to save memory (default value: false)");
+    addOption(
+        "cc",
+        "collapsecycles",
+        "Collapse cycles of assignments detected during solving (default value: false)");
+    addOption(
+        "wl",
+        "worklist",
+        "NUMBER|FIFO|TOPOLOGICAL|LRF",
+        "Order in which the solver processes its worklist (default value: NUMBER)");
     addOption(
         "pe", "preciseexceptions", "Enable precisely handling exceptions (default value: false)");
 
@@ -203,6 +221,20 @@ public class PTAOption extends Options {
     if (cmd.hasOption("precisearray")) {
       PTAConfig.v().getPtaConfig().preciseArrayElement = true;
     }
+    if (cmd.hasOption("solverthreads")) {
+      PTAConfig.v().getPtaConfig().solverThreads =
+          Integer.parseInt(cmd.getOptionValue("solverthreads"));
+    }
+    if (cmd.hasOption("sharedpts")) {
+      PTAConfig.v().getPtaConfig().sharedPointsToSets = true;
+    }
+    if (cmd.hasOption("collapsecycles")) {
+      PTAConfig.v().getPtaConfig().collapseCycles = true;
+    }
+    if (cmd.hasOption("worklist")) {
+      PTAConfig.v().getPtaConfig().worklistOrder =
+          parseWorklistOrder(cmd.getOptionValue("worklist"));
+    }
     // application configuration
     if (cmd.hasOption("mainclass")) {
       PTAConfig.v().getAppConfig().MAIN_CLASS = cmd.getOptionValue("mainclass");
@@ -248,4 +280,17 @@ public class PTAOption extends Options {
     Collections.addAll(pkgList, pkgs);
     return pkgList;
   }
+
+  static PTAConfig.WorklistOrder parseWorklistOrder(String worklistString) {
+    try {
+      return PTAConfig.WorklistOrder.valueOf(worklistString.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Unknown worklist order '"
+              + worklistString
+              + "', expected one of "
+              + Arrays.toString(PTAConfig.WorklistOrder.values()),
+          e);
+    }
+  }
 }
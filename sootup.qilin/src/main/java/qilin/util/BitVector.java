@@ -22,6 +22,8 @@ package qilin.util;
  * #L%
  */
 
+import java.util.function.IntConsumer;
+
 /**
  * This is the Soot internal implementation of java.util.BitSet with Felix and Jerome's clever
  * efficient iterator. It was re-implemented from scratch by Ondrej Lhotak to avoid licence issues.
@@ -411,6 +413,67 @@ public class BitVector {
     return ret;
   }
 
+  /**
+   * Computes this = this OR (orset AND (NOT andnotset)), where andnotset may be null. If delta is
+   * not null, the bits added to this are also set in delta. Returns the number of bits added to
+   * this.
+   */
+  public int orAndNot(BitVector orset, BitVector andnotset, BitVector delta) {
+    return orAndAndNot(orset, null, andnotset, delta);
+  }
+
+  /**
+   * Computes this = this OR (orset AND andset AND (NOT andnotset)), where andset and andnotset may
+   * be null. If delta is not null, the bits added to this are also set in delta. Returns the number
+   * of bits added to this.
+   */
+  public int orAndAndNot(BitVector orset, BitVector andset, BitVector andnotset, BitVector delta) {
+    final long[] b = orset.bits;
+    final long[] c = andset == null ? null : andset.bits;
+    final long[] d = andnotset == null ? null : andnotset.bits;
+    final int dl = d == null ? 0 : d.length;
+    int bl = c == null ? b.length : Math.min(b.length, c.length);
+    for (; bl > 0 && b[bl - 1] == 0L; bl--) {}
+    if (bl == 0) {
+      return 0;
+    }
+    expand((bl << 6) - 1);
+    if (delta != null) {
+      delta.expand((bl << 6) - 1);
+    }
+    final long[] e = this.bits;
+    int added = 0;
+    for (int i = 0; i < bl; i++) {
+      long l = b[i] & ~e[i];
+      if (c != null) {
+        l &= c[i];
+      }
+      if (i < dl) {
+        l &= ~d[i];
+      }
+      if (l != 0L) {
+        e[i] |= l;
+        added += Long.bitCount(l);
+        if (delta != null) {
+          delta.bits[i] |= l;
+        }
+      }
+    }
+    return added;
+  }
+
+  /** Calls action on the index of every set bit in increasing order. */
+  public void forEach(IntConsumer action) {
+    final long[] b = bits;
+    for (int i = 0; i < b.length; i++) {
+      long word = b[i];
+      while (word != 0L) {
+        action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+  }
+
   public static BitVector and(BitVector set1, BitVector set2) {
     int min = set1.size();
     {
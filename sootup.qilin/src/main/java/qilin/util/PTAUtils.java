@@ -352,6 +352,14 @@ public final class PTAUtils {
     return methodToBody.containsKey(m);
   }
 
+  /**
+   * forgets the bodies created by previous analyses (e.g. the simulated native methods), so that
+   * another analysis can be run on the same view.
+   */
+  public static void clearMethodBodies() {
+    methodToBody.clear();
+  }
+
   public static boolean isEmptyArray(AllocNode heap) {
     Object var = heap.getNewExpr();
     if (var instanceof JNewArrayExpr) {
@@ -19,6 +19,7 @@
 package qilin.util;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +35,24 @@ public class UnionFindSet<E> {
     this.nrsets = this.entries.size();
   }
 
+  public UnionFindSet() {
+    this(Collections.emptyList());
+  }
+
+  /** Adds elem as a new singleton set, returns false if elem is already contained. */
+  public boolean add(final E elem) {
+    if (this.entries.containsKey(elem)) {
+      return false;
+    }
+    this.entries.put(elem, new Entry(elem));
+    ++this.nrsets;
+    return true;
+  }
+
+  public boolean contains(final E elem) {
+    return this.entries.containsKey(elem);
+  }
+
   public boolean union(final E e1, final E e2) {
     final Entry root1 = this.findRoot(this.entries.get(e1));
     final Entry root2 = this.findRoot(this.entries.get(e2));
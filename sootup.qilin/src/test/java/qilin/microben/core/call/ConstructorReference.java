@@ -0,0 +1,45 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.microben.core.call;
+
+import java.util.function.Supplier;
+import qilin.microben.utils.Assert;
+
+public class ConstructorReference {
+  static ConstructorReference expected;
+
+  class Inner {
+    Inner() {
+      // the captured outer instance is a parameter of the constructor, not its receiver
+      Assert.notAlias(this, ConstructorReference.this);
+      Assert.mayAlias(ConstructorReference.this, expected);
+    }
+  }
+
+  Supplier<Inner> supplier() {
+    // captures this as the outer instance of the constructed objects
+    return Inner::new;
+  }
+
+  public static void main(String[] args) {
+    ConstructorReference outer = new ConstructorReference();
+    expected = outer;
+    outer.supplier().get();
+  }
+}
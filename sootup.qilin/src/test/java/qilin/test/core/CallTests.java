@@ -36,4 +36,29 @@ public class CallTests extends JunitTests {
   public void testStaticCall() {
     checkAssertions(run("qilin.microben.core.call.StaticCall"));
   }
+
+  @Test
+  public void testConstructorReference() {
+    checkAssertions(run("qilin.microben.core.call.ConstructorReference"));
+  }
+
+  /**
+   * javac compiles a constructor reference which captures a value, i.e. the outer instance of an
+   * inner class, to a lambda method. Other compilers pass the captured value to the constructor
+   * directly, which the assembled class in the test resources does. Its main method calls
+   *
+   * <pre>
+   * Object value = new Object();
+   * expected = value;
+   * // invokedynamic with REF_newInvokeSpecial Box.&lt;init&gt;(Object), capturing value
+   * Supplier&lt;Box&gt; supplier = ...;
+   * supplier.get();
+   * </pre>
+   *
+   * and the constructor Box(Object value) asserts Assert.mayAlias(value, expected).
+   */
+  @Test
+  public void testCapturingConstructorReference() {
+    checkAssertions(run("qilin.microben.core.call.CapturingConstructorReference"));
+  }
 }
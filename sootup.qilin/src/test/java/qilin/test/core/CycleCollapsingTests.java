@@ -0,0 +1,65 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.pta.PTAConfig;
+import qilin.test.util.JunitTests;
+
+public class CycleCollapsingTests extends JunitTests {
+  @Test
+  public void testCopyCycle() {
+    checkSameResults("qilin.microben.core.assign.CopyCycle", "insens");
+  }
+
+  @Test
+  public void testRecursion() {
+    checkSameResults("qilin.microben.core.assign.Recursion", "insens");
+  }
+
+  @Test
+  public void testFieldSensitivity() {
+    checkSameResults("qilin.microben.core.field.FieldSensitivity2", "insens");
+  }
+
+  @Test
+  public void testObjectSensitive() {
+    checkSameResults("qilin.microben.context.obj.OBJ2k2", "2o");
+  }
+
+  private void checkSameResults(String mainClass, String ptaPattern) {
+    Map<String, Set<String>> expected = pointsTo(run(mainClass, ptaPattern));
+    PTAConfig.v().getPtaConfig().collapseCycles = true;
+    try {
+      PTA pta = run(mainClass, ptaPattern);
+      checkAssertions(pta);
+      Map<String, Set<String>> actual = pointsTo(pta);
+      assertFalse(expected.isEmpty());
+      assertEquals(expected, actual);
+    } finally {
+      PTAConfig.v().getPtaConfig().collapseCycles = false;
+    }
+  }
+}
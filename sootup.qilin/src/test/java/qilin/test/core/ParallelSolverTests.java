@@ -0,0 +1,84 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.pta.PTAConfig;
+import qilin.test.util.JunitTests;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+public class ParallelSolverTests extends JunitTests {
+  @Test
+  public void testVirtualCall() {
+    checkSameResults("qilin.microben.core.call.VirtualCall1", "insens");
+  }
+
+  @Test
+  public void testFieldSensitivity() {
+    checkSameResults("qilin.microben.core.field.FieldSensitivity2", "insens");
+  }
+
+  @Test
+  public void testException() {
+    checkSameResults("qilin.microben.core.exception.SimpleException", "insens");
+  }
+
+  @Test
+  public void testExceptionChain() {
+    checkSameResults("qilin.microben.core.exception.ExceptionChain", "2o");
+  }
+
+  @Test
+  public void testObjectSensitive() {
+    checkSameResults("qilin.microben.context.obj.OBJ2k2", "2o");
+  }
+
+  private void checkSameResults(String mainClass, String ptaPattern) {
+    PTA sequential = run(mainClass, ptaPattern);
+    Map<String, Set<String>> expected = pointsTo(sequential);
+    PTAConfig.v().getPtaConfig().solverThreads = 4;
+    try {
+      PTA pta = run(mainClass, ptaPattern);
+      checkAssertions(pta);
+      Map<String, Set<String>> actual = pointsTo(pta);
+      assertFalse(expected.isEmpty());
+      assertEquals(expected, actual);
+      // the call graph edges are resolved in parallel as well
+      assertEquals(signatures(sequential), signatures(pta));
+      assertEquals(sequential.getReachableMethods().size(), pta.getReachableMethods().size());
+      assertEquals(sequential.getCallGraph().size(), pta.getCallGraph().size());
+    } finally {
+      PTAConfig.v().getPtaConfig().solverThreads = 1;
+    }
+  }
+
+  private static Set<MethodSignature> signatures(PTA pta) {
+    return pta.getNakedReachableMethods().stream()
+        .map(SootMethod::getSignature)
+        .collect(Collectors.toSet());
+  }
+}
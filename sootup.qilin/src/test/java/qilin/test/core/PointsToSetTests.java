@@ -0,0 +1,145 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import qilin.core.sets.DoublePointsToSet;
+import qilin.core.sets.HybridPointsToSet;
+import qilin.core.sets.SharedPointsToSet;
+import qilin.util.BitVector;
+
+public class PointsToSetTests {
+  private static HybridPointsToSet setOf(int from, int to, int step) {
+    HybridPointsToSet set = new HybridPointsToSet();
+    for (int i = from; i < to; i += step) {
+      set.add(i);
+    }
+    return set;
+  }
+
+  private static List<Integer> elements(HybridPointsToSet set) {
+    List<Integer> ret = new ArrayList<>();
+    set.forEachInt(ret::add);
+    return ret;
+  }
+
+  @Test
+  public void testWordLevelAddAllExcluding() {
+    HybridPointsToSet target = setOf(1, 40, 1);
+    HybridPointsToSet other = setOf(2, 200, 2);
+    HybridPointsToSet exclude = setOf(3, 300, 3);
+
+    HybridPointsToSet delta = target.addAllDiff(other, exclude);
+
+    List<Integer> expectedDelta = new ArrayList<>();
+    for (int i = 40; i < 200; i++) {
+      if (i % 2 == 0 && i % 3 != 0) {
+        expectedDelta.add(i);
+      }
+    }
+    assertEquals(expectedDelta, elements(delta));
+    assertEquals(expectedDelta.size(), delta.size());
+    assertEquals(39 + expectedDelta.size(), target.size());
+    assertTrue(target.contains(196));
+    assertFalse(target.contains(198));
+    assertNull(target.addAllDiff(other, exclude));
+  }
+
+  @Test
+  public void testSmallSets() {
+    HybridPointsToSet target = setOf(1, 5, 1);
+    HybridPointsToSet delta = target.addAllDiff(setOf(3, 9, 1), setOf(6, 7, 1));
+    assertEquals(Arrays.asList(5, 7, 8), elements(delta));
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5, 7, 8), elements(target));
+    assertEquals(7, target.size());
+  }
+
+  @Test
+  public void testAddAllMasked() {
+    BitVector mask = new BitVector();
+    for (int i = 0; i < 150; i += 5) {
+      mask.set(i);
+    }
+    DoublePointsToSet pts = new DoublePointsToSet();
+    pts.addAll(setOf(1, 50, 1), null);
+    pts.flushNew();
+
+    assertTrue(pts.addAllMasked(setOf(1, 300, 1), mask));
+    List<Integer> expectedNew = new ArrayList<>();
+    for (int i = 50; i < 150; i += 5) {
+      expectedNew.add(i);
+    }
+    assertEquals(expectedNew, elements(pts.getNewSet()));
+    assertEquals(49 + expectedNew.size(), pts.size());
+    assertFalse(pts.addAllMasked(setOf(1, 300, 1), mask));
+
+    HybridPointsToSet small = new HybridPointsToSet();
+    assertTrue(small.addAll(setOf(3, 12, 1), null, mask));
+    assertEquals(Arrays.asList(5, 10), elements(small));
+  }
+
+  @Test
+  public void testDoublePointsToSet() {
+    DoublePointsToSet pts = new DoublePointsToSet();
+    assertTrue(pts.addAll(setOf(1, 100, 1), null));
+    pts.flushNew();
+    assertTrue(pts.addAll(setOf(50, 150, 1), null));
+    assertEquals(50, pts.getNewSet().size());
+    assertEquals(149, pts.size());
+    assertFalse(pts.addAll(setOf(1, 150, 7), null));
+    List<Integer> all = new ArrayList<>();
+    pts.forEachInt(all::add);
+    assertEquals(149, all.size());
+  }
+
+  @Test
+  public void testSharedPointsToSets() {
+    DoublePointsToSet pts1 = new DoublePointsToSet(true);
+    DoublePointsToSet pts2 = new DoublePointsToSet(true);
+    pts1.addAll(setOf(1, 300, 5), null);
+    pts1.flushNew();
+    pts2.addAll(setOf(1, 100, 5), null);
+    pts2.flushNew();
+    assertTrue(pts2.addAll(setOf(1, 300, 5), null));
+    assertEquals(40, pts2.getNewSet().size());
+    pts2.flushNew();
+    assertSame(pts1.getOldSet(), pts2.getOldSet());
+    assertEquals(60, pts2.size());
+    assertTrue(pts2.contains(296));
+    assertFalse(pts2.contains(297));
+
+    HybridPointsToSet copy = new HybridPointsToSet();
+    copy.addAll(pts2, null);
+    assertEquals(elements(setOf(1, 300, 5)), elements(copy));
+    assertTrue(pts1.getOldSet().hasNonEmptyIntersection(pts2.getOldSet()));
+
+    pts1.clear();
+    assertSame(SharedPointsToSet.getEmptySet(), pts1.getOldSet());
+    assertTrue(pts1.isEmpty());
+  }
+}
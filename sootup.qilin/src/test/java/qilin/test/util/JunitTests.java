@@ -22,14 +22,20 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import org.junit.BeforeClass;
 import qilin.core.PTA;
+import qilin.core.pag.AllocNode;
 import qilin.driver.PTAFactory;
 import qilin.driver.PTAOption;
 import qilin.driver.PTAPattern;
 import qilin.pta.PTAConfig;
 import qilin.util.PTAUtils;
+import sootup.core.jimple.basic.Local;
+import sootup.core.model.SootMethod;
 import sootup.core.views.View;
 
 public abstract class JunitTests {
@@ -128,4 +134,23 @@ public abstract class JunitTests {
       assertTrue(answer);
     }
   }
+
+  /** Maps every local of the reachable benchmark methods to its allocation sites. */
+  protected static Map<String, Set<String>> pointsTo(PTA pta) {
+    Map<String, Set<String>> result = new TreeMap<>();
+    for (SootMethod method : pta.getNakedReachableMethods()) {
+      if (!method.getDeclaringClassType().getFullyQualifiedName().startsWith("qilin.microben")
+          || !method.hasBody()) {
+        continue;
+      }
+      for (Local local : method.getBody().getLocals()) {
+        Set<String> heaps = new TreeSet<>();
+        for (AllocNode heap : pta.reachingObjects(method, local).toCollection()) {
+          heaps.add(heap.toString2());
+        }
+        result.put(method.getSignature() + " " + local, heaps);
+      }
+    }
+    return result;
+  }
 }
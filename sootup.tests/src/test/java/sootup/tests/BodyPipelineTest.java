@@ -0,0 +1,141 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BoundedBodyInterceptor;
+import sootup.core.views.BodyPipeline;
+import sootup.core.views.BodyResolutionResult;
+import sootup.core.views.View;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class BodyPipelineTest {
+
+  private static final String CLASS_PATH =
+      "../shared-test-resources/java-miniapps/MiniApp.jar:"
+          + "../shared-test-resources/miniTestSuite/java6/binary/";
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testResolveAllBodies() {
+    JavaView view =
+        new JavaView(
+            Collections.singletonList(new JavaClassPathAnalysisInputLocation(CLASS_PATH)),
+            new ConcurrentFullCacheProvider());
+    Set<MethodSignature> expectedMethods =
+        view.getClasses()
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toSet());
+
+    Map<MethodSignature, Body> bodies = new ConcurrentHashMap<>();
+    BodyResolutionResult result =
+        view.resolveBodies(
+            view.getClasses().flatMap(sootClass -> sootClass.getMethods().stream()),
+            new BodyPipeline(executor, 4, 2),
+            (method, body) -> bodies.put(method.getSignature(), body));
+
+    assertTrue(result.isSuccessful(), result.toString());
+    assertEquals(expectedMethods.size(), result.getResolvedBodyCount());
+    assertEquals(expectedMethods, bodies.keySet());
+    bodies.forEach(
+        (signature, body) -> assertSame(view.getMethod(signature).get().getBody(), body));
+  }
+
+  @Test
+  public void testCancel() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH));
+    BodyPipeline pipeline = new BodyPipeline(executor, 2, 1);
+    AtomicInteger consumedBodies = new AtomicInteger();
+
+    BodyResolutionResult result =
+        view.resolveBodies(
+            view.getClasses().flatMap(sootClass -> sootClass.getMethods().stream()),
+            pipeline,
+            (method, body) -> {
+              consumedBodies.incrementAndGet();
+              pipeline.cancel();
+            });
+
+    assertTrue(result.isCancelled());
+    assertFalse(result.isSuccessful());
+    assertEquals(consumedBodies.get(), result.getResolvedBodyCount());
+    assertTrue(result.getResolvedBodyCount() <= 2);
+
+    BodyResolutionResult nextResult = view.resolveAllBodies(pipeline);
+    assertFalse(nextResult.isCancelled());
+    assertTrue(nextResult.getResolvedBodyCount() > 2);
+  }
+
+  @Test
+  public void testSameThreadExecutor() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH));
+    BodyPipeline pipeline = new BodyPipeline(Runnable::run, 2);
+
+    assertThrows(IllegalStateException.class, () -> view.resolveAllBodies(pipeline));
+  }
+
+  @Test
+  public void testBoundedBodyInterceptor() {
+    ConcurrencyTrackingInterceptor trackingInterceptor = new ConcurrencyTrackingInterceptor();
+    List<BodyInterceptor> bodyInterceptors =
+        new ArrayList<>(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    bodyInterceptors.add(new BoundedBodyInterceptor(trackingInterceptor, 1));
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                CLASS_PATH, SourceType.Application, bodyInterceptors));
+
+    BodyResolutionResult result = view.resolveAllBodies(new BodyPipeline(executor, 4));
+
+    assertTrue(result.isSuccessful(), result.toString());
+    assertEquals(result.getResolvedBodyCount(), trackingInterceptor.calls.get());
+    assertEquals(1, trackingInterceptor.maxConcurrentCalls.get());
+  }
+
+  private static class ConcurrencyTrackingInterceptor implements BodyInterceptor {
+    final AtomicInteger calls = new AtomicInteger();
+    final AtomicInteger concurrentCalls = new AtomicInteger();
+    final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+    @Override
+    public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
+      int current = concurrentCalls.incrementAndGet();
+      maxConcurrentCalls.accumulateAndGet(current, Math::max);
+      calls.incrementAndGet();
+      Thread.yield();
+      concurrentCalls.decrementAndGet();
+    }
+  }
+}
@@ -1,20 +1,31 @@
 package sootup.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.cache.provider.LRUCacheProvider;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
 import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.ClassLoadingResult;
 import sootup.java.core.views.JavaView;
 
 /**
@@ -75,4 +86,66 @@ public class CacheTest {
     newView.getClasses().count();
     assertEquals(6, newView.getCachedClassesCount());
   }
+
+  /** Test the {@link sootup.core.cache.ConcurrentFullCache} class */
+  @Test
+  public void concurrentFullCacheTest() {
+    JavaView view = new JavaView(inputLocations, new ConcurrentFullCacheProvider());
+    assertEquals(0, view.getCachedClassesCount());
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    Set<JavaSootClass> resolvedClasses =
+        IntStream.range(0, 64)
+            .parallel()
+            .mapToObj(i -> view.getClass(miniAppClassType).get())
+            .collect(Collectors.toSet());
+    // every thread has to get the very same instance
+    assertEquals(1, resolvedClasses.size());
+    assertEquals(1, view.getCachedClassesCount());
+    assertSame(resolvedClasses.iterator().next(), view.getClass(miniAppClassType).get());
+
+    view.getClasses().parallel().count();
+    assertEquals(6, view.getCachedClassesCount());
+    assertEquals(6, view.getClasses().count());
+  }
+
+  /** Test the parallel bulk loading of {@link JavaView#loadAll} for different caches */
+  @Test
+  public void loadAllTest() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      JavaView view = new JavaView(inputLocations, new ConcurrentFullCacheProvider());
+      AtomicInteger lastProgress = new AtomicInteger();
+      AtomicInteger reportedTotal = new AtomicInteger();
+      ClassLoadingResult result =
+          view.loadAll(
+              pool,
+              (processedClasses, totalClasses) -> {
+                reportedTotal.set(totalClasses);
+                lastProgress.accumulateAndGet(processedClasses, Math::max);
+              });
+      assertTrue(result.isSuccessful());
+      assertEquals(6, result.getLoadedClassCount());
+      assertEquals(6, reportedTotal.get());
+      assertEquals(6, lastProgress.get());
+      assertEquals(6, view.getCachedClassesCount());
+      assertEquals(6, view.getClasses().count());
+
+      JavaView fullCacheView = new JavaView(inputLocations, new FullCacheProvider());
+      assertEquals(6, fullCacheView.loadAll(pool).getLoadedClassCount());
+      assertEquals(6, fullCacheView.getCachedClassesCount());
+
+      JavaView failingListenerView = new JavaView(inputLocations);
+      assertThrows(
+          IllegalStateException.class,
+          () ->
+              failingListenerView.loadAll(
+                  pool,
+                  (processedClasses, totalClasses) -> {
+                    throw new IllegalStateException();
+                  }));
+    } finally {
+      pool.shutdown();
+    }
+  }
 }
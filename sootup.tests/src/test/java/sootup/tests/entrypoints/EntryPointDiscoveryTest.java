@@ -0,0 +1,127 @@
+package sootup.tests.entrypoints;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.entrypoints.ClassDeclaration;
+import sootup.java.core.entrypoints.EntryPointDetectors;
+import sootup.java.core.entrypoints.EntryPointDiscovery;
+import sootup.java.core.entrypoints.MethodDeclaration;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class EntryPointDiscoveryTest {
+
+  // only the classes of the package app, the framework classes are not part of the class path
+  private static final String CLASS_PATH = "src/test/resources/entrypoints/binary/";
+
+  @Test
+  public void testDiscoverEntryPoints() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH));
+    List<String> entryPoints =
+        new EntryPointDiscovery()
+            .discover(view).stream().map(MethodSignature::toString).collect(Collectors.toList());
+
+    assertEquals(
+        Arrays.asList(
+            "<app.BaseServlet: void <init>()>",
+            "<app.BaseServlet: void doGet(java.lang.Object,java.lang.Object)>",
+            "<app.LegacyTest: void setUp()>",
+            "<app.LegacyTest: void testLegacy()>",
+            "<app.LifecycleBean: void init()>",
+            "<app.Main: void main(java.lang.String[])>",
+            "<app.MainActivity: void <init>()>",
+            "<app.MainActivity: void onCreate(android.os.Bundle)>",
+            "<app.OrderController: java.lang.String list()>",
+            "<app.OrderController: void create(java.lang.String)>",
+            "<app.OrderResource: java.lang.String get()>",
+            "<app.OrderServlet: void <init>()>",
+            "<app.OrderServlet: void doPost(java.lang.Object,java.lang.Object)>",
+            "<app.OrderTest: void setUp()>",
+            "<app.OrderTest: void testOrder()>"),
+        entryPoints);
+    // the class files are scanned without building the classes
+    assertEquals(0, view.getCachedClassesCount());
+  }
+
+  @Test
+  public void testSelectedDetectors() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH));
+    EntryPointDiscovery discovery =
+        new EntryPointDiscovery(
+            Arrays.asList(
+                EntryPointDetectors.WEB_CONTROLLERS,
+                EntryPointDetectors.methods(method -> method.getName().equals("handle"))));
+
+    assertEquals(
+        Arrays.asList(
+            "<app.MainActivity: void handle()>",
+            "<app.OrderController: java.lang.String list()>",
+            "<app.OrderController: void create(java.lang.String)>",
+            "<app.OrderResource: java.lang.String get()>"),
+        discovery.discover(view).stream()
+            .map(MethodSignature::toString)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testDeclarationsMatchClasses() {
+    JavaClassPathAnalysisInputLocation inputLocation =
+        new JavaClassPathAnalysisInputLocation(CLASS_PATH);
+    JavaView view = new JavaView(inputLocation);
+    Map<String, ClassDeclaration> declarations =
+        inputLocation.getClassDeclarations(view).stream()
+            .collect(Collectors.toMap(d -> d.getType().toString(), Function.identity()));
+
+    List<JavaSootClass> classes = view.getClasses().collect(Collectors.toList());
+    assertEquals(classes.size(), declarations.size());
+    for (JavaSootClass sootClass : classes) {
+      ClassDeclaration expected = ClassDeclaration.of(sootClass);
+      ClassDeclaration actual = declarations.get(sootClass.getType().toString());
+      assertEquals(expected.getHeader(), actual.getHeader());
+      assertEquals(expected.getAnnotations(), actual.getAnnotations());
+      Map<MethodSignature, MethodDeclaration> actualMethods =
+          actual.getMethods().stream()
+              .collect(Collectors.toMap(MethodDeclaration::getSignature, Function.identity()));
+      for (MethodDeclaration method : expected.getMethods()) {
+        if (method.getName().startsWith("lambda$")) {
+          // synthetic methods are skipped
+          assertFalse(actualMethods.containsKey(method.getSignature()));
+          continue;
+        }
+        MethodDeclaration actualMethod = actualMethods.get(method.getSignature());
+        assertNotNull(actualMethod, method.toString());
+        assertEquals(method.getModifiers(), actualMethod.getModifiers());
+        assertEquals(method.getAnnotations(), actualMethod.getAnnotations());
+      }
+    }
+  }
+
+  @Test
+  public void testDeclarationsAreCachedPerInputLocation() {
+    JavaClassPathAnalysisInputLocation inputLocation =
+        new JavaClassPathAnalysisInputLocation(CLASS_PATH);
+    JavaView view = new JavaView(inputLocation);
+    EntryPointDiscovery discovery =
+        new EntryPointDiscovery(Collections.singletonList(EntryPointDetectors.MAIN_METHODS));
+
+    Collection<ClassDeclaration> declarations = discovery.getClassDeclarations(inputLocation, view);
+    assertSame(declarations, discovery.getClassDeclarations(inputLocation, view));
+    assertEquals(1, discovery.discover(view).size());
+    assertSame(declarations, discovery.getClassDeclarations(inputLocation, view));
+
+    discovery.invalidate(inputLocation);
+    assertNotSame(declarations, discovery.getClassDeclarations(inputLocation, view));
+  }
+}
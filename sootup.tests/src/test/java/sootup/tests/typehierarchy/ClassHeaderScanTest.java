@@ -0,0 +1,55 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class ClassHeaderScanTest {
+
+  private static final String CLASS_PATH =
+      "../shared-test-resources/java-miniapps/MiniApp.jar:"
+          + "../shared-test-resources/miniTestSuite/java6/binary/";
+
+  @Test
+  public void testHeadersMatchClasses() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH));
+    Map<ClassType, ClassHeader> headers =
+        view.getClassHeaders()
+            .collect(Collectors.toMap(ClassHeader::getType, Function.identity()));
+    assertEquals(0, view.getCachedClassesCount());
+
+    Map<ClassType, ClassHeader> classHeaders =
+        view.getClasses()
+            .map(ClassHeader::of)
+            .collect(Collectors.toMap(ClassHeader::getType, Function.identity(), (a, b) -> a));
+    assertFalse(classHeaders.isEmpty());
+    assertEquals(classHeaders.keySet(), headers.keySet());
+    classHeaders.forEach(
+        (type, expected) -> {
+          ClassHeader actual = headers.get(type);
+          assertEquals(expected.isInterface(), actual.isInterface(), type.toString());
+          assertEquals(expected.getSuperclass(), actual.getSuperclass(), type.toString());
+          assertEquals(expected.getInterfaces(), actual.getInterfaces(), type.toString());
+        });
+  }
+
+  @Test
+  public void testTypeHierarchyDoesNotBuildClasses() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(CLASS_PATH));
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    ClassType objectType = view.getIdentifierFactory().getClassType("java.lang.Object");
+
+    assertTrue(typeHierarchy.subtypesOf(objectType).findAny().isPresent());
+    assertEquals(0, view.getCachedClassesCount());
+  }
+}
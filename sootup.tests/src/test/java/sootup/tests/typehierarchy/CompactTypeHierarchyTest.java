@@ -0,0 +1,132 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.typehierarchy.CompactTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class CompactTypeHierarchyTest {
+
+  private static JavaView view;
+  private static ViewTypeHierarchy viewTypeHierarchy;
+  private static List<ClassType> types;
+
+  @BeforeAll
+  public static void setUp() {
+    view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar:"
+                    + "../shared-test-resources/miniTestSuite/java6/binary/"));
+    viewTypeHierarchy = new ViewTypeHierarchy(view);
+
+    // the hierarchy contains referenced supertypes that are not part of the view as well
+    Set<ClassType> allTypes = new LinkedHashSet<>();
+    view.getClasses()
+        .forEach(
+            sootClass -> {
+              allTypes.add(sootClass.getType());
+              allTypes.addAll(sootClass.getInterfaces());
+              sootClass.getSuperclass().ifPresent(allTypes::add);
+            });
+    types = new ArrayList<>(allTypes);
+  }
+
+  @Test
+  public void testQueriesMatchViewTypeHierarchy() {
+    CompactTypeHierarchy typeHierarchy = CompactTypeHierarchy.fromView(view);
+    assertEquals(types.size(), typeHierarchy.size());
+    assertSameHierarchy(viewTypeHierarchy, typeHierarchy);
+  }
+
+  @Test
+  public void testSerializedIndexMatchesViewTypeHierarchy() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CompactTypeHierarchy.fromView(view).writeTo(out);
+
+    CompactTypeHierarchy typeHierarchy =
+        CompactTypeHierarchy.readFrom(
+            new ByteArrayInputStream(out.toByteArray()), view.getIdentifierFactory());
+    assertSameHierarchy(viewTypeHierarchy, typeHierarchy);
+  }
+
+  @Test
+  public void testUnknownTypes() {
+    CompactTypeHierarchy typeHierarchy = CompactTypeHierarchy.fromView(view);
+    ClassType unknownType = view.getIdentifierFactory().getClassType("does.not.Exist");
+    ClassType objectType = view.getIdentifierFactory().getClassType("java.lang.Object");
+
+    assertFalse(typeHierarchy.contains(unknownType));
+    assertThrows(IllegalArgumentException.class, () -> typeHierarchy.subtypesOf(unknownType));
+    assertThrows(IllegalArgumentException.class, () -> typeHierarchy.superClassOf(unknownType));
+    assertEquals(
+        Collections.singleton(objectType),
+        typeHierarchy.getLowestCommonAncestors(unknownType, types.get(0)));
+  }
+
+  private static void assertSameHierarchy(TypeHierarchy expected, TypeHierarchy actual) {
+    for (ClassType type : types) {
+      assertTrue(actual.contains(type));
+      assertEquals(expected.isInterface(type), actual.isInterface(type), type.toString());
+      assertEquals(toSet(expected.subtypesOf(type)), toSet(actual.subtypesOf(type)));
+      assertEquals(toSet(expected.directSubtypesOf(type)), toSet(actual.directSubtypesOf(type)));
+      assertEquals(expected.superClassOf(type), actual.superClassOf(type));
+      assertEquals(
+          toSet(expected.implementedInterfacesOf(type)),
+          toSet(actual.implementedInterfacesOf(type)));
+      if (expected.isInterface(type)) {
+        assertEquals(
+            toSet(expected.directlyExtendedInterfacesOf(type)),
+            toSet(actual.directlyExtendedInterfacesOf(type)));
+      } else {
+        assertEquals(
+            toSet(expected.directlyImplementedInterfacesOf(type)),
+            toSet(actual.directlyImplementedInterfacesOf(type)));
+      }
+    }
+
+    for (ClassType supertype : types) {
+      ArrayType superArrayType = view.getIdentifierFactory().getArrayType(supertype, 1);
+      for (ClassType subtype : types) {
+        assertEquals(
+            expected.isSubtype(supertype, subtype),
+            actual.isSubtype(supertype, subtype),
+            subtype + " <: " + supertype);
+        assertEquals(
+            expected.isSubtype(superArrayType, view.getIdentifierFactory().getArrayType(subtype, 1)),
+            actual.isSubtype(superArrayType, view.getIdentifierFactory().getArrayType(subtype, 1)));
+      }
+    }
+
+    List<ClassType> lcaSample =
+        view.getClasses().map(SootClass::getType).limit(60).collect(Collectors.toList());
+    for (ClassType a : lcaSample) {
+      for (ClassType b : lcaSample) {
+        assertEquals(
+            new HashSet<>(expected.getLowestCommonAncestors(a, b)),
+            new HashSet<>(actual.getLowestCommonAncestors(a, b)),
+            "lca(" + a + ", " + b + ")");
+      }
+    }
+  }
+
+  private static Set<ClassType> toSet(Stream<ClassType> types) {
+    return types.collect(Collectors.toSet());
+  }
+}
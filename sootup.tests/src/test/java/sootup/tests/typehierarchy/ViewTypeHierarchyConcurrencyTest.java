@@ -0,0 +1,83 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class ViewTypeHierarchyConcurrencyTest {
+
+  @Test
+  public void testConcurrentLowestCommonAncestors() throws Exception {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    List<ClassType> types =
+        view.getClassHeaders().map(ClassHeader::getType).collect(Collectors.toList());
+    assertFalse(types.isEmpty());
+
+    ViewTypeHierarchy sequentialHierarchy = new ViewTypeHierarchy(view);
+    Map<List<ClassType>, Set<ClassType>> expected = new HashMap<>();
+    for (ClassType a : types) {
+      for (ClassType b : types) {
+        expected.put(
+            Arrays.asList(a, b), new HashSet<>(sequentialHierarchy.getLowestCommonAncestors(a, b)));
+      }
+    }
+
+    // a small cache makes the threads evict each others entries
+    ViewTypeHierarchy concurrentHierarchy = new ViewTypeHierarchy(view, 16);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int offset = t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < types.size(); i++) {
+                    ClassType a = types.get((i + offset) % types.size());
+                    for (ClassType b : types) {
+                      assertEquals(
+                          expected.get(Arrays.asList(a, b)),
+                          new HashSet<>(concurrentHierarchy.getLowestCommonAncestors(a, b)));
+                    }
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLowestCommonAncestorsAreSymmetric() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    ViewTypeHierarchy typeHierarchy = new ViewTypeHierarchy(view);
+    List<ClassType> types =
+        view.getClassHeaders().map(ClassHeader::getType).collect(Collectors.toList());
+    for (ClassType a : types) {
+      for (ClassType b : types) {
+        assertEquals(
+            new HashSet<>(typeHierarchy.getLowestCommonAncestors(a, b)),
+            new HashSet<>(typeHierarchy.getLowestCommonAncestors(b, a)));
+      }
+    }
+  }
+}
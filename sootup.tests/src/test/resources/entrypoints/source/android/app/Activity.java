@@ -0,0 +1,7 @@
+package android.app;
+
+import android.os.Bundle;
+
+public class Activity {
+  protected void onCreate(Bundle savedInstanceState) {}
+}
@@ -0,0 +1,10 @@
+package app;
+
+import javax.servlet.http.HttpServlet;
+
+public abstract class BaseServlet extends HttpServlet {
+  @Override
+  protected void doGet(Object request, Object response) {}
+
+  protected void log(String message) {}
+}
@@ -0,0 +1,11 @@
+package app;
+
+import junit.framework.TestCase;
+
+public class LegacyTest extends TestCase {
+  public void setUp() {}
+
+  public void testLegacy() {}
+
+  void helper() {}
+}
@@ -0,0 +1,8 @@
+package app;
+
+import javax.annotation.PostConstruct;
+
+public class LifecycleBean {
+  @PostConstruct
+  void init() {}
+}
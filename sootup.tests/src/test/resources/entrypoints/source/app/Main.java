@@ -0,0 +1,10 @@
+package app;
+
+public class Main {
+  public static void main(String[] args) {
+    Runnable runnable = () -> System.out.println("run");
+    runnable.run();
+  }
+
+  public void main() {}
+}
@@ -0,0 +1,11 @@
+package app;
+
+import android.app.Activity;
+import android.os.Bundle;
+
+public class MainActivity extends Activity {
+  @Override
+  protected void onCreate(Bundle savedInstanceState) {}
+
+  public void handle() {}
+}
@@ -0,0 +1,20 @@
+package app;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class OrderController {
+  @GetMapping
+  public String list() {
+    return format();
+  }
+
+  @PostMapping
+  public void create(String order) {}
+
+  private String format() {
+    return "";
+  }
+}
@@ -0,0 +1,12 @@
+package app;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+@Path("/orders")
+public class OrderResource {
+  @GET
+  public String get() {
+    return "";
+  }
+}
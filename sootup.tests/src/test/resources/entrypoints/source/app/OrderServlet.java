@@ -0,0 +1,8 @@
+package app;
+
+public class OrderServlet extends BaseServlet {
+  @Override
+  protected void doPost(Object request, Object response) {
+    log("post");
+  }
+}
@@ -0,0 +1,12 @@
+package app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OrderTest {
+  @BeforeEach
+  void setUp() {}
+
+  @Test
+  void testOrder() {}
+}
@@ -0,0 +1,5 @@
+package app;
+
+public interface Repository {
+  String find(String id);
+}
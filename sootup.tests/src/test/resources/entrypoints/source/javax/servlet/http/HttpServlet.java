@@ -0,0 +1,7 @@
+package javax.servlet.http;
+
+public abstract class HttpServlet {
+  protected void doGet(Object request, Object response) {}
+
+  protected void doPost(Object request, Object response) {}
+}